@@ -0,0 +1,73 @@
+package com.translationapp.audio;
+
+// What the container header says about an uploaded clip.
+// For WAV, dataOffset/dataLength point at the raw sample bytes; for 3GP they point at the mdat payload.
+public class AudioFormatInfo {
+
+    public enum Container {
+        WAV, FLAC, OGG_OPUS, WEBM_OPUS, MP3, AMR, AMR_WB, THREE_GP_AMR, THREE_GP_AMR_WB, RAW_PCM
+    }
+
+    // WAV format tags we can decode in-process
+    public static final int WAVE_FORMAT_PCM = 1;
+    public static final int WAVE_FORMAT_IEEE_FLOAT = 3;
+    public static final int WAVE_FORMAT_ALAW = 6;
+    public static final int WAVE_FORMAT_MULAW = 7;
+
+    private final Container container;
+    private final int sampleRateHertz;
+    private final int channels;
+    private final int bitsPerSample;
+    private final int formatTag;      // WAV only
+    private final int dataOffset;
+    private final int dataLength;
+
+    public AudioFormatInfo(Container container, int sampleRateHertz, int channels, int bitsPerSample,
+                           int formatTag, int dataOffset, int dataLength) {
+        this.container = container;
+        this.sampleRateHertz = sampleRateHertz;
+        this.channels = channels;
+        this.bitsPerSample = bitsPerSample;
+        this.formatTag = formatTag;
+        this.dataOffset = dataOffset;
+        this.dataLength = dataLength;
+    }
+
+    public static AudioFormatInfo compressed(Container container, int sampleRateHertz, int channels, int dataLength) {
+        return new AudioFormatInfo(container, sampleRateHertz, channels, 0, 0, 0, dataLength);
+    }
+
+    public Container getContainer() {
+        return container;
+    }
+
+    public int getSampleRateHertz() {
+        return sampleRateHertz;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    public int getBitsPerSample() {
+        return bitsPerSample;
+    }
+
+    public int getFormatTag() {
+        return formatTag;
+    }
+
+    public int getDataOffset() {
+        return dataOffset;
+    }
+
+    public int getDataLength() {
+        return dataLength;
+    }
+
+    @Override
+    public String toString() {
+        return container + " " + sampleRateHertz + "Hz " + channels + "ch"
+                + (bitsPerSample > 0 ? " " + bitsPerSample + "bit" : "");
+    }
+}
@@ -0,0 +1,267 @@
+package com.translationapp.audio;
+
+import com.translationapp.exception.UnsupportedAudioFormatException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+// Identifies an uploaded clip from its container header rather than trusting the client's Content-Type.
+// Only reads headers; sample data is never copied here.
+public final class AudioHeaderParser {
+
+    private static final int[][] MP3_SAMPLE_RATES = {
+            {11025, 12000, 8000},  // MPEG 2.5
+            {0, 0, 0},             // reserved
+            {22050, 24000, 16000}, // MPEG 2
+            {44100, 48000, 32000}  // MPEG 1
+    };
+
+    private AudioHeaderParser() {
+    }
+
+    public static AudioFormatInfo parse(byte[] data, String contentType) throws UnsupportedAudioFormatException {
+        if (data.length >= 12 && startsWith(data, 0, "RIFF") && startsWith(data, 8, "WAVE")) {
+            return parseWav(data);
+        }
+        if (startsWith(data, 0, "#!AMR-WB\n")) {
+            return AudioFormatInfo.compressed(AudioFormatInfo.Container.AMR_WB, 16000, 1, data.length);
+        }
+        if (startsWith(data, 0, "#!AMR\n")) {
+            return AudioFormatInfo.compressed(AudioFormatInfo.Container.AMR, 8000, 1, data.length);
+        }
+        if (data.length >= 12 && startsWith(data, 4, "ftyp")) {
+            return parseIsoMedia(data);
+        }
+        if (startsWith(data, 0, "OggS")) {
+            return parseOgg(data);
+        }
+        if (data.length >= 4 && (data[0] & 0xFF) == 0x1A && (data[1] & 0xFF) == 0x45 && (data[2] & 0xFF) == 0xDF && (data[3] & 0xFF) == 0xA3) {
+            // WebM recorded by browsers and most mobile encoders carries Opus, which is always decoded at 48 kHz
+            if (indexOf(data, "A_OPUS".getBytes(StandardCharsets.US_ASCII), 0, Math.min(data.length, 4096)) < 0) {
+                throw new UnsupportedAudioFormatException("WebM audio must use the Opus codec.");
+            }
+            return AudioFormatInfo.compressed(AudioFormatInfo.Container.WEBM_OPUS, 48000, 1, data.length);
+        }
+
+        int offset = skipId3(data);
+        if (startsWith(data, offset, "fLaC")) {
+            return parseFlac(data, offset);
+        }
+        if (offset + 4 <= data.length && (data[offset] & 0xFF) == 0xFF && (data[offset + 1] & 0xE0) == 0xE0) {
+            return parseMp3(data, offset);
+        }
+
+        // Headerless PCM can only be described by the Content-Type, e.g. "audio/L16;rate=44100;channels=2" (RFC 2586).
+        // Samples are read little-endian, as this endpoint has always passed them straight through as LINEAR16.
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("audio/l16")) {
+            int rate = intParameter(contentType, "rate", 16000);
+            int channels = intParameter(contentType, "channels", 1);
+            return new AudioFormatInfo(AudioFormatInfo.Container.RAW_PCM, rate, channels, 16,
+                    AudioFormatInfo.WAVE_FORMAT_PCM, 0, data.length);
+        }
+        throw new UnsupportedAudioFormatException("Unrecognized audio format (Content-Type '" + contentType
+                + "'). Supported: WAV, FLAC, OGG/WebM Opus, MP3, AMR and 3GP AMR recordings.");
+    }
+
+    private static AudioFormatInfo parseWav(byte[] data) throws UnsupportedAudioFormatException {
+        int pos = 12;
+        int formatTag = -1, channels = 0, sampleRate = 0, bitsPerSample = 0;
+        while (pos + 8 <= data.length) {
+            long chunkSize = readIntLE(data, pos + 4) & 0xFFFFFFFFL;
+            int body = pos + 8;
+            if (startsWith(data, pos, "fmt ")) {
+                if (chunkSize < 16 || body + 16 > data.length) {
+                    throw new UnsupportedAudioFormatException("Truncated WAV fmt chunk.");
+                }
+                formatTag = readShortLE(data, body);
+                channels = readShortLE(data, body + 2);
+                sampleRate = readIntLE(data, body + 4);
+                bitsPerSample = readShortLE(data, body + 14);
+                if (formatTag == 0xFFFE && chunkSize >= 40 && body + 26 <= data.length) {
+                    formatTag = readShortLE(data, body + 24); // WAVE_FORMAT_EXTENSIBLE: first two bytes of the sub-format GUID
+                }
+            } else if (startsWith(data, pos, "data")) {
+                if (formatTag < 0) {
+                    throw new UnsupportedAudioFormatException("WAV data chunk appears before fmt chunk.");
+                }
+                // Streaming recorders often leave the size as 0 or 0xFFFFFFFF; take whatever was actually uploaded
+                long available = data.length - body;
+                int length = (int) (chunkSize == 0 || chunkSize > available ? available : chunkSize);
+                if (formatTag != AudioFormatInfo.WAVE_FORMAT_PCM && formatTag != AudioFormatInfo.WAVE_FORMAT_IEEE_FLOAT
+                        && formatTag != AudioFormatInfo.WAVE_FORMAT_ALAW && formatTag != AudioFormatInfo.WAVE_FORMAT_MULAW) {
+                    throw new UnsupportedAudioFormatException("Unsupported WAV encoding (format tag " + formatTag + ").");
+                }
+                if (channels < 1 || sampleRate < 1 || bitsPerSample < 8) {
+                    throw new UnsupportedAudioFormatException("Invalid WAV header: " + channels + " channels, "
+                            + sampleRate + " Hz, " + bitsPerSample + " bits.");
+                }
+                // Float samples are either float or double; PcmConverter would misread any other width
+                if (formatTag == AudioFormatInfo.WAVE_FORMAT_IEEE_FLOAT && bitsPerSample != 32 && bitsPerSample != 64) {
+                    throw new UnsupportedAudioFormatException("Unsupported WAV float sample size: " + bitsPerSample + " bits.");
+                }
+                return new AudioFormatInfo(AudioFormatInfo.Container.WAV, sampleRate, channels, bitsPerSample,
+                        formatTag, body, length);
+            }
+            // Chunks are word aligned. In long arithmetic: a bogus size near 4 GiB would overflow "pos + 8" as an int.
+            long next = body + chunkSize + (chunkSize & 1);
+            if (next + 8 > data.length) {
+                break;
+            }
+            pos = (int) next;
+        }
+        throw new UnsupportedAudioFormatException("WAV file has no data chunk.");
+    }
+
+    private static AudioFormatInfo parseFlac(byte[] data, int offset) throws UnsupportedAudioFormatException {
+        // STREAMINFO is mandatory and always the first metadata block
+        int info = offset + 8;
+        if (info + 18 > data.length || (data[offset + 4] & 0x7F) != 0) {
+            throw new UnsupportedAudioFormatException("FLAC stream is missing STREAMINFO.");
+        }
+        int sampleRate = ((data[info + 10] & 0xFF) << 12) | ((data[info + 11] & 0xFF) << 4) | ((data[info + 12] & 0xFF) >> 4);
+        int channels = ((data[info + 12] & 0x0E) >> 1) + 1;
+        int bitsPerSample = (((data[info + 12] & 0x01) << 4) | ((data[info + 13] & 0xFF) >> 4)) + 1;
+        return new AudioFormatInfo(AudioFormatInfo.Container.FLAC, sampleRate, channels, bitsPerSample, 0, offset, data.length - offset);
+    }
+
+    private static AudioFormatInfo parseOgg(byte[] data) throws UnsupportedAudioFormatException {
+        if (data.length < 27) {
+            throw new UnsupportedAudioFormatException("Truncated Ogg page.");
+        }
+        int segments = data[26] & 0xFF;
+        int payload = 27 + segments;
+        if (!startsWith(data, payload, "OpusHead") || payload + 16 > data.length) {
+            throw new UnsupportedAudioFormatException("Ogg audio must use the Opus codec.");
+        }
+        int channels = data[payload + 9] & 0xFF;
+        int inputRate = readIntLE(data, payload + 12);
+        // Opus always decodes at 48 kHz; the recognizer accepts the original rate only if it is one Opus supports
+        int rate = inputRate == 8000 || inputRate == 12000 || inputRate == 16000 || inputRate == 24000 ? inputRate : 48000;
+        return AudioFormatInfo.compressed(AudioFormatInfo.Container.OGG_OPUS, rate, Math.max(1, channels), data.length);
+    }
+
+    private static AudioFormatInfo parseMp3(byte[] data, int offset) throws UnsupportedAudioFormatException {
+        int version = (data[offset + 1] >> 3) & 0x03;
+        int rateIndex = (data[offset + 2] >> 2) & 0x03;
+        int channelMode = (data[offset + 3] >> 6) & 0x03;
+        if (version == 1 || rateIndex == 3) {
+            throw new UnsupportedAudioFormatException("Invalid MP3 frame header.");
+        }
+        return AudioFormatInfo.compressed(AudioFormatInfo.Container.MP3, MP3_SAMPLE_RATES[version][rateIndex],
+                channelMode == 3 ? 1 : 2, data.length);
+    }
+
+    // Android's MediaRecorder writes AMR into a 3GP (ISO base media) container. For a single audio track the mdat
+    // payload is the AMR frames themselves, so the clip can be rewrapped as an .amr stream without decoding.
+    private static AudioFormatInfo parseIsoMedia(byte[] data) throws UnsupportedAudioFormatException {
+        int mdatOffset = -1, mdatLength = 0, moovOffset = -1, moovLength = 0;
+        int pos = 0;
+        while (pos + 8 <= data.length) {
+            long size = readIntBE(data, pos) & 0xFFFFFFFFL;
+            int header = 8;
+            if (size == 1 && pos + 16 <= data.length) {
+                size = readLongBE(data, pos + 8);
+                header = 16;
+            } else if (size == 0) {
+                size = data.length - pos;
+            }
+            if (size < header) {
+                break;
+            }
+            int end = (int) Math.min(data.length, pos + size);
+            if (startsWith(data, pos + 4, "mdat")) {
+                mdatOffset = pos + header;
+                mdatLength = end - mdatOffset;
+            } else if (startsWith(data, pos + 4, "moov")) {
+                moovOffset = pos + header;
+                moovLength = end - moovOffset;
+            }
+            pos = end;
+        }
+        if (mdatOffset < 0 || moovOffset < 0) {
+            throw new UnsupportedAudioFormatException("Incomplete MP4/3GP file (missing moov or mdat).");
+        }
+        int moovEnd = moovOffset + moovLength;
+        byte[] trak = "trak".getBytes(StandardCharsets.US_ASCII);
+        int firstTrack = indexOf(data, trak, moovOffset, moovEnd);
+        if (firstTrack >= 0 && indexOf(data, trak, firstTrack + 4, moovEnd) >= 0) {
+            throw new UnsupportedAudioFormatException("MP4/3GP files with more than one track are not supported.");
+        }
+        if (indexOf(data, "sawb".getBytes(StandardCharsets.US_ASCII), moovOffset, moovEnd) >= 0) {
+            return new AudioFormatInfo(AudioFormatInfo.Container.THREE_GP_AMR_WB, 16000, 1, 0, 0, mdatOffset, mdatLength);
+        }
+        if (indexOf(data, "samr".getBytes(StandardCharsets.US_ASCII), moovOffset, moovEnd) >= 0) {
+            return new AudioFormatInfo(AudioFormatInfo.Container.THREE_GP_AMR, 8000, 1, 0, 0, mdatOffset, mdatLength);
+        }
+        throw new UnsupportedAudioFormatException("MP4/3GP audio must be AMR or AMR-WB; AAC is not supported. "
+                + "Record as WAV or AMR-WB instead.");
+    }
+
+    private static int skipId3(byte[] data) {
+        if (data.length >= 10 && startsWith(data, 0, "ID3")) {
+            int size = ((data[6] & 0x7F) << 21) | ((data[7] & 0x7F) << 14) | ((data[8] & 0x7F) << 7) | (data[9] & 0x7F);
+            return Math.min(data.length, 10 + size);
+        }
+        return 0;
+    }
+
+    private static int intParameter(String contentType, String name, int defaultValue) {
+        for (String part : contentType.split(";")) {
+            String[] kv = part.trim().split("=", 2);
+            if (kv.length == 2 && kv[0].trim().equalsIgnoreCase(name)) {
+                try {
+                    return Integer.parseInt(kv[1].trim());
+                } catch (NumberFormatException e) {
+                    return defaultValue;
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    private static boolean startsWith(byte[] data, int offset, String ascii) {
+        if (offset < 0 || offset + ascii.length() > data.length) {
+            return false;
+        }
+        for (int i = 0; i < ascii.length(); i++) {
+            if (data[offset + i] != (byte) ascii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(byte[] data, byte[] needle, int from, int to) {
+        if (from < 0) {
+            return -1;
+        }
+        outer:
+        for (int i = from; i <= to - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (data[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    static int readShortLE(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | ((data[offset + 1] & 0xFF) << 8);
+    }
+
+    static int readIntLE(byte[] data, int offset) {
+        return (data[offset] & 0xFF) | ((data[offset + 1] & 0xFF) << 8)
+                | ((data[offset + 2] & 0xFF) << 16) | ((data[offset + 3] & 0xFF) << 24);
+    }
+
+    private static int readIntBE(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16)
+                | ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+    }
+
+    private static long readLongBE(byte[] data, int offset) {
+        return ((long) readIntBE(data, offset) << 32) | (readIntBE(data, offset + 4) & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,93 @@
+package com.translationapp.audio;
+
+import com.google.cloud.speech.v1.RecognitionConfig;
+import com.translationapp.exception.UnsupportedAudioFormatException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+// Turns an uploaded clip into something the recognizer accepts as-is.
+// Uncompressed audio is downmixed and resampled to 16 kHz mono LINEAR16 (speech models gain nothing above 16 kHz,
+// and a 44.1 kHz stereo recording shrinks ~5.5x). Compressed formats the API decodes natively are passed through
+// with the rate and channel count read from their headers.
+@Component
+public class AudioNormalizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AudioNormalizer.class);
+
+    public static final int TARGET_SAMPLE_RATE = 16000;
+
+    private static final byte[] AMR_MAGIC = "#!AMR\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] AMR_WB_MAGIC = "#!AMR-WB\n".getBytes(StandardCharsets.US_ASCII);
+
+    public NormalizedAudio normalize(byte[] data, String contentType) throws UnsupportedAudioFormatException {
+        AudioFormatInfo format = AudioHeaderParser.parse(data, contentType);
+        NormalizedAudio normalized;
+        switch (format.getContainer()) {
+            case WAV:
+            case RAW_PCM:
+                normalized = toLinear16(data, format);
+                break;
+            case THREE_GP_AMR:
+                normalized = new NormalizedAudio(rewrap(AMR_MAGIC, data, format), RecognitionConfig.AudioEncoding.AMR, 8000, 1);
+                break;
+            case THREE_GP_AMR_WB:
+                normalized = new NormalizedAudio(rewrap(AMR_WB_MAGIC, data, format), RecognitionConfig.AudioEncoding.AMR_WB, 16000, 1);
+                break;
+            default:
+                normalized = new NormalizedAudio(data, encodingFor(format.getContainer()), format.getSampleRateHertz(), format.getChannels());
+                break;
+        }
+        logger.debug("Normalized {} ({} bytes) to {} {}Hz {}ch ({} bytes)", format, data.length,
+                normalized.getEncoding(), normalized.getSampleRateHertz(), normalized.getChannels(), normalized.getContent().length);
+        return normalized;
+    }
+
+    private NormalizedAudio toLinear16(byte[] data, AudioFormatInfo format) throws UnsupportedAudioFormatException {
+        int bytesPerFrame = ((format.getBitsPerSample() + 7) / 8) * format.getChannels();
+        if (format.getDataLength() < bytesPerFrame) {
+            throw new UnsupportedAudioFormatException("Audio file contains no samples.");
+        }
+        int outputRate = Math.min(format.getSampleRateHertz(), TARGET_SAMPLE_RATE);
+
+        // Already in the target shape: hand over the sample bytes without a decode/encode round trip
+        if (format.getFormatTag() == AudioFormatInfo.WAVE_FORMAT_PCM && format.getBitsPerSample() == 16
+                && format.getChannels() == 1 && format.getSampleRateHertz() == outputRate) {
+            byte[] samples = new byte[format.getDataLength() & ~1];
+            System.arraycopy(data, format.getDataOffset(), samples, 0, samples.length);
+            return new NormalizedAudio(samples, RecognitionConfig.AudioEncoding.LINEAR16, outputRate, 1);
+        }
+
+        float[] mono = PcmConverter.decodeToMono(data, format);
+        float[] resampled = PcmConverter.resample(mono, format.getSampleRateHertz(), outputRate);
+        return new NormalizedAudio(PcmConverter.toLinear16(resampled), RecognitionConfig.AudioEncoding.LINEAR16, outputRate, 1);
+    }
+
+    private byte[] rewrap(byte[] magic, byte[] data, AudioFormatInfo format) {
+        byte[] out = new byte[magic.length + format.getDataLength()];
+        System.arraycopy(magic, 0, out, 0, magic.length);
+        System.arraycopy(data, format.getDataOffset(), out, magic.length, format.getDataLength());
+        return out;
+    }
+
+    private RecognitionConfig.AudioEncoding encodingFor(AudioFormatInfo.Container container) throws UnsupportedAudioFormatException {
+        switch (container) {
+            case FLAC:
+                return RecognitionConfig.AudioEncoding.FLAC;
+            case OGG_OPUS:
+                return RecognitionConfig.AudioEncoding.OGG_OPUS;
+            case WEBM_OPUS:
+                return RecognitionConfig.AudioEncoding.WEBM_OPUS;
+            case MP3:
+                return RecognitionConfig.AudioEncoding.MP3;
+            case AMR:
+                return RecognitionConfig.AudioEncoding.AMR;
+            case AMR_WB:
+                return RecognitionConfig.AudioEncoding.AMR_WB;
+            default:
+                throw new UnsupportedAudioFormatException("No recognizer encoding for " + container + ".");
+        }
+    }
+}
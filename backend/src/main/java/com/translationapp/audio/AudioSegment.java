@@ -0,0 +1,33 @@
+package com.translationapp.audio;
+
+// A slice of a longer recording, positioned on the original timeline.
+public class AudioSegment {
+
+    private final int index;
+    private final long startMillis;
+    private final long endMillis;
+    private final NormalizedAudio audio;
+
+    public AudioSegment(int index, long startMillis, long endMillis, NormalizedAudio audio) {
+        this.index = index;
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+        this.audio = audio;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getEndMillis() {
+        return endMillis;
+    }
+
+    public NormalizedAudio getAudio() {
+        return audio;
+    }
+}
@@ -0,0 +1,261 @@
+package com.translationapp.audio;
+
+import com.google.cloud.speech.v1.RecognitionConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Splits long recordings at pauses so the pieces can be recognized independently.
+// LINEAR16 audio goes through an energy-based voice-activity detector; AMR streams are cut on frame boundaries,
+// using the codec's own silence (SID / NO_DATA) frames when the recorder had DTX enabled.
+@Component
+public class AudioSegmenter {
+
+    private static final int FRAME_MILLIS = 20;           // VAD analysis frame, also the AMR frame duration
+    private static final int PADDING_MILLIS = 200;        // kept around speech so word edges are not clipped
+    private static final int MIN_SPEECH_MILLIS = 80;      // shorter bursts are clicks, not words
+    private static final double SPEECH_MARGIN_DB = 10.0;  // how far above the noise floor counts as speech
+    private static final double MIN_THRESHOLD_DB = -55.0; // floor for near-digital-silence recordings
+    private static final int NOISE_WINDOW_MILLIS = 200;   // shortest pause the noise floor is measured from
+
+    // Payload bytes after the one-byte header, indexed by frame type (RFC 4867, section 5.3)
+    private static final int[] AMR_NB_FRAME_BYTES = {12, 13, 15, 17, 19, 20, 26, 31, 5, 0, 0, 0, 0, 0, 0, 0};
+    private static final int[] AMR_WB_FRAME_BYTES = {17, 23, 32, 36, 40, 46, 50, 58, 60, 5, 0, 0, 0, 0, 0, 0};
+    private static final int AMR_NB_SID = 8;
+    private static final int AMR_WB_SID = 9;
+    private static final int AMR_NO_DATA = 15;
+
+    private final int minSilenceMillis;
+    private final int targetSegmentMillis;
+    private final int maxSegmentMillis;
+
+    public AudioSegmenter(@Value("${app.speech.long.min-silence-ms:300}") int minSilenceMillis,
+                          @Value("${app.speech.long.target-segment-seconds:20}") int targetSegmentSeconds,
+                          @Value("${app.speech.long.max-segment-seconds:50}") int maxSegmentSeconds) {
+        this.minSilenceMillis = minSilenceMillis;
+        this.targetSegmentMillis = targetSegmentSeconds * 1000;
+        this.maxSegmentMillis = maxSegmentSeconds * 1000;
+    }
+
+    // Duration of the clip, or -1 when it cannot be known without decoding (FLAC, Opus, MP3)
+    public long durationMillis(NormalizedAudio audio) {
+        switch (audio.getEncoding()) {
+            case LINEAR16:
+                return (audio.getContent().length / 2L) * 1000L / audio.getSampleRateHertz();
+            case AMR:
+            case AMR_WB:
+                return (long) amrFrames(audio).size() * FRAME_MILLIS;
+            default:
+                return -1;
+        }
+    }
+
+    public boolean canSegment(NormalizedAudio audio) {
+        RecognitionConfig.AudioEncoding encoding = audio.getEncoding();
+        return encoding == RecognitionConfig.AudioEncoding.LINEAR16
+                || encoding == RecognitionConfig.AudioEncoding.AMR
+                || encoding == RecognitionConfig.AudioEncoding.AMR_WB;
+    }
+
+    public List<AudioSegment> split(NormalizedAudio audio) {
+        switch (audio.getEncoding()) {
+            case LINEAR16:
+                return splitLinear16(audio);
+            case AMR:
+            case AMR_WB:
+                return splitAmr(audio);
+            default:
+                return List.of(new AudioSegment(0, 0, durationMillis(audio), audio));
+        }
+    }
+
+    private List<AudioSegment> splitLinear16(NormalizedAudio audio) {
+        byte[] pcm = audio.getContent();
+        int rate = audio.getSampleRateHertz();
+        int samplesPerFrame = rate * FRAME_MILLIS / 1000;
+        int frameCount = (pcm.length / 2) / samplesPerFrame;
+        if (frameCount == 0) {
+            return List.of(new AudioSegment(0, 0, durationMillis(audio), audio));
+        }
+
+        double[] power = new double[frameCount];
+        double[] energyDb = new double[frameCount];
+        for (int f = 0; f < frameCount; f++) {
+            double sumSquares = 0;
+            int base = f * samplesPerFrame * 2;
+            for (int i = 0; i < samplesPerFrame; i++) {
+                int pos = base + i * 2;
+                double sample = (short) ((pcm[pos] & 0xFF) | (pcm[pos + 1] << 8)) / 32768.0;
+                sumSquares += sample * sample;
+            }
+            power[f] = sumSquares / samplesPerFrame;
+            energyDb[f] = 10 * Math.log10(power[f] + 1e-12);
+        }
+
+        // Adaptive threshold: the quietest stretch of the recording approximates the background noise level. A clip
+        // of continuous speech has no such stretch (its quietest window is still speech), so when the loud frames do
+        // not stand out from it the clip is judged against the absolute floor instead of being dropped as silence.
+        double noiseFloor = quietestWindowDb(power, NOISE_WINDOW_MILLIS / FRAME_MILLIS);
+        double[] sorted = energyDb.clone();
+        Arrays.sort(sorted);
+        double loudLevel = sorted[frameCount * 9 / 10];
+        double threshold = loudLevel - noiseFloor > SPEECH_MARGIN_DB
+                ? Math.max(noiseFloor + SPEECH_MARGIN_DB, MIN_THRESHOLD_DB)
+                : MIN_THRESHOLD_DB;
+        boolean[] speech = new boolean[frameCount];
+        for (int f = 0; f < frameCount; f++) {
+            speech[f] = energyDb[f] > threshold;
+        }
+
+        List<int[]> cuts = group(speechRegions(speech), energyDb);
+        List<AudioSegment> segments = new ArrayList<>(cuts.size());
+        int bytesPerFrame = samplesPerFrame * 2;
+        for (int[] cut : cuts) {
+            byte[] slice = Arrays.copyOfRange(pcm, cut[0] * bytesPerFrame, Math.min(pcm.length, cut[1] * bytesPerFrame));
+            segments.add(new AudioSegment(segments.size(), (long) cut[0] * FRAME_MILLIS, (long) cut[1] * FRAME_MILLIS,
+                    new NormalizedAudio(slice, RecognitionConfig.AudioEncoding.LINEAR16, rate, 1)));
+        }
+        return segments;
+    }
+
+    // Mean level of the quietest run of windowFrames frames; the whole clip when it is shorter than that
+    private static double quietestWindowDb(double[] power, int windowFrames) {
+        int window = Math.max(1, Math.min(windowFrames, power.length));
+        double sum = 0;
+        for (int f = 0; f < window; f++) {
+            sum += power[f];
+        }
+        double min = sum;
+        for (int f = window; f < power.length; f++) {
+            sum += power[f] - power[f - window];
+            min = Math.min(min, sum);
+        }
+        return 10 * Math.log10(Math.max(min, 0) / window + 1e-12);
+    }
+
+    private List<AudioSegment> splitAmr(NormalizedAudio audio) {
+        boolean wideband = audio.getEncoding() == RecognitionConfig.AudioEncoding.AMR_WB;
+        byte[] magic = (wideband ? "#!AMR-WB\n" : "#!AMR\n").getBytes(StandardCharsets.US_ASCII);
+        List<int[]> frames = amrFrames(audio);
+        if (frames.isEmpty()) {
+            return List.of(new AudioSegment(0, 0, 0, audio));
+        }
+        int sid = wideband ? AMR_WB_SID : AMR_NB_SID;
+        boolean[] speech = new boolean[frames.size()];
+        for (int f = 0; f < speech.length; f++) {
+            int type = frames.get(f)[2];
+            speech[f] = type != sid && type != AMR_NO_DATA;
+        }
+
+        // Without DTX every frame looks like speech; cuts then fall back to fixed target-length pieces
+        List<int[]> cuts = group(speechRegions(speech), null);
+        List<AudioSegment> segments = new ArrayList<>(cuts.size());
+        byte[] content = audio.getContent();
+        for (int[] cut : cuts) {
+            int from = frames.get(cut[0])[0];
+            int to = cut[1] < frames.size() ? frames.get(cut[1])[0] : frames.get(frames.size() - 1)[1];
+            byte[] slice = new byte[magic.length + (to - from)];
+            System.arraycopy(magic, 0, slice, 0, magic.length);
+            System.arraycopy(content, from, slice, magic.length, to - from);
+            segments.add(new AudioSegment(segments.size(), (long) cut[0] * FRAME_MILLIS, (long) cut[1] * FRAME_MILLIS,
+                    new NormalizedAudio(slice, audio.getEncoding(), audio.getSampleRateHertz(), 1)));
+        }
+        return segments;
+    }
+
+    // Each entry is {start offset, end offset, frame type}. Parsing stops at the first malformed frame.
+    private List<int[]> amrFrames(NormalizedAudio audio) {
+        boolean wideband = audio.getEncoding() == RecognitionConfig.AudioEncoding.AMR_WB;
+        int[] sizes = wideband ? AMR_WB_FRAME_BYTES : AMR_NB_FRAME_BYTES;
+        byte[] content = audio.getContent();
+        int pos = wideband ? 9 : 6; // skip "#!AMR-WB\n" / "#!AMR\n"
+        List<int[]> frames = new ArrayList<>();
+        while (pos < content.length) {
+            int type = (content[pos] >> 3) & 0x0F;
+            int end = pos + 1 + sizes[type];
+            if (end > content.length) {
+                break;
+            }
+            frames.add(new int[]{pos, end, type});
+            pos = end;
+        }
+        return frames;
+    }
+
+    // Speech regions as [startFrame, endFrame) with padding applied. Gaps shorter than the minimum silence are
+    // bridged so a segment never ends in the middle of a word's closure.
+    private List<int[]> speechRegions(boolean[] speech) {
+        int minSilenceFrames = Math.max(1, minSilenceMillis / FRAME_MILLIS);
+        int minSpeechFrames = Math.max(1, MIN_SPEECH_MILLIS / FRAME_MILLIS);
+        int padFrames = PADDING_MILLIS / FRAME_MILLIS;
+
+        List<int[]> regions = new ArrayList<>();
+        int start = -1, lastSpeech = -1;
+        for (int f = 0; f <= speech.length; f++) {
+            boolean isSpeech = f < speech.length && speech[f];
+            if (isSpeech) {
+                if (start < 0) {
+                    start = f;
+                }
+                lastSpeech = f;
+            } else if (start >= 0 && (f - lastSpeech > minSilenceFrames || f == speech.length)) {
+                if (lastSpeech - start + 1 >= minSpeechFrames) {
+                    int previousEnd = regions.isEmpty() ? 0 : regions.get(regions.size() - 1)[1];
+                    regions.add(new int[]{Math.max(previousEnd, start - padFrames), Math.min(speech.length, lastSpeech + 1 + padFrames)});
+                }
+                start = -1;
+            }
+        }
+        return regions;
+    }
+
+    // Packs consecutive speech regions into segments of roughly the target length (few large requests beat many
+    // tiny ones), and force-splits any region longer than the recognizer's synchronous limit. Without energy
+    // information there is no better cut point, so long regions are split at the target length to keep parallelism.
+    private List<int[]> group(List<int[]> regions, double[] energyDb) {
+        int targetFrames = targetSegmentMillis / FRAME_MILLIS;
+        int maxFrames = energyDb != null ? maxSegmentMillis / FRAME_MILLIS : targetFrames;
+        List<int[]> cuts = new ArrayList<>();
+        int[] current = null;
+        for (int[] region : regions) {
+            for (int[] piece : limitLength(region, maxFrames, energyDb)) {
+                if (current != null && piece[1] - current[0] <= targetFrames) {
+                    current[1] = piece[1];
+                } else {
+                    if (current != null) {
+                        cuts.add(current);
+                    }
+                    current = new int[]{piece[0], piece[1]};
+                }
+            }
+        }
+        if (current != null) {
+            cuts.add(current);
+        }
+        return cuts;
+    }
+
+    // Cuts at the quietest frame in the last quarter of each over-long window, or exactly at the limit for AMR.
+    private List<int[]> limitLength(int[] region, int maxFrames, double[] energyDb) {
+        List<int[]> pieces = new ArrayList<>();
+        int start = region[0];
+        while (region[1] - start > maxFrames) {
+            int cut = start + maxFrames;
+            if (energyDb != null) {
+                for (int f = start + maxFrames * 3 / 4; f < start + maxFrames; f++) {
+                    if (energyDb[f] < energyDb[cut - 1]) {
+                        cut = f + 1;
+                    }
+                }
+            }
+            pieces.add(new int[]{start, cut});
+            start = cut;
+        }
+        pieces.add(new int[]{start, region[1]});
+        return pieces;
+    }
+}
@@ -0,0 +1,35 @@
+package com.translationapp.audio;
+
+import com.google.cloud.speech.v1.RecognitionConfig;
+
+// Audio ready to hand to the recognizer, together with the config values that describe it.
+public class NormalizedAudio {
+
+    private final byte[] content;
+    private final RecognitionConfig.AudioEncoding encoding;
+    private final int sampleRateHertz;
+    private final int channels;
+
+    public NormalizedAudio(byte[] content, RecognitionConfig.AudioEncoding encoding, int sampleRateHertz, int channels) {
+        this.content = content;
+        this.encoding = encoding;
+        this.sampleRateHertz = sampleRateHertz;
+        this.channels = channels;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public RecognitionConfig.AudioEncoding getEncoding() {
+        return encoding;
+    }
+
+    public int getSampleRateHertz() {
+        return sampleRateHertz;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+}
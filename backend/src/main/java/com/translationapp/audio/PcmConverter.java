@@ -0,0 +1,142 @@
+package com.translationapp.audio;
+
+// Decodes uncompressed WAV/L16 samples, downmixes to mono and resamples with a windowed-sinc filter.
+public final class PcmConverter {
+
+    private static final int ZERO_CROSSINGS = 12;      // filter half-width in (cutoff-scaled) samples
+    private static final int TABLE_RESOLUTION = 512;   // kernel table entries per zero crossing
+    private static final float[] KERNEL = buildKernel();
+
+    private PcmConverter() {
+    }
+
+    // Returns mono samples in [-1, 1]. Multi-channel frames are averaged.
+    public static float[] decodeToMono(byte[] data, AudioFormatInfo format) {
+        int channels = format.getChannels();
+        int bytesPerSample = (format.getBitsPerSample() + 7) / 8;
+        int frameSize = bytesPerSample * channels;
+        int frames = format.getDataLength() / frameSize;
+        float[] mono = new float[frames];
+        float scale = 1.0f / channels;
+
+        int pos = format.getDataOffset();
+        for (int frame = 0; frame < frames; frame++) {
+            float sum = 0;
+            for (int c = 0; c < channels; c++) {
+                sum += decodeSample(data, pos, bytesPerSample, format.getFormatTag());
+                pos += bytesPerSample;
+            }
+            mono[frame] = sum * scale;
+        }
+        return mono;
+    }
+
+    private static float decodeSample(byte[] data, int pos, int bytesPerSample, int formatTag) {
+        switch (formatTag) {
+            case AudioFormatInfo.WAVE_FORMAT_MULAW:
+                return muLawToLinear(data[pos]) / 32768f;
+            case AudioFormatInfo.WAVE_FORMAT_ALAW:
+                return aLawToLinear(data[pos]) / 32768f;
+            case AudioFormatInfo.WAVE_FORMAT_IEEE_FLOAT:
+                if (bytesPerSample == 8) {
+                    long bits = (AudioHeaderParser.readIntLE(data, pos) & 0xFFFFFFFFL)
+                            | ((long) AudioHeaderParser.readIntLE(data, pos + 4) << 32);
+                    return (float) Double.longBitsToDouble(bits);
+                }
+                return Float.intBitsToFloat(AudioHeaderParser.readIntLE(data, pos));
+            default:
+                switch (bytesPerSample) {
+                    case 1:
+                        return ((data[pos] & 0xFF) - 128) / 128f; // 8-bit WAV is unsigned
+                    case 2:
+                        return (short) AudioHeaderParser.readShortLE(data, pos) / 32768f;
+                    case 3:
+                        return (((data[pos] & 0xFF) | ((data[pos + 1] & 0xFF) << 8) | (data[pos + 2] << 16))) / 8388608f;
+                    default:
+                        return AudioHeaderParser.readIntLE(data, pos + bytesPerSample - 4) / 2147483648f;
+                }
+        }
+    }
+
+    // Band-limited resampling. When downsampling, the cutoff drops to the output Nyquist so speech energy above
+    // 8 kHz does not alias into the band the recognizer uses.
+    public static float[] resample(float[] input, int inputRate, int outputRate) {
+        if (inputRate == outputRate) {
+            return input;
+        }
+        double ratio = (double) outputRate / inputRate;
+        double cutoff = Math.min(1.0, ratio) * 0.97;
+        double halfWidth = ZERO_CROSSINGS / cutoff;
+        int outputLength = (int) Math.floor(input.length * ratio);
+        float[] output = new float[outputLength];
+
+        for (int n = 0; n < outputLength; n++) {
+            double center = n / ratio;
+            int first = Math.max(0, (int) Math.ceil(center - halfWidth));
+            int last = Math.min(input.length - 1, (int) Math.floor(center + halfWidth));
+            double acc = 0;
+            for (int k = first; k <= last; k++) {
+                acc += input[k] * kernel(Math.abs(center - k) * cutoff);
+            }
+            output[n] = (float) (acc * cutoff);
+        }
+        return output;
+    }
+
+    public static byte[] toLinear16(float[] samples) {
+        byte[] out = new byte[samples.length * 2];
+        for (int i = 0, pos = 0; i < samples.length; i++, pos += 2) {
+            int value = Math.round(samples[i] * 32767f);
+            value = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+            out[pos] = (byte) value;
+            out[pos + 1] = (byte) (value >> 8);
+        }
+        return out;
+    }
+
+    private static float kernel(double distance) {
+        double index = distance * TABLE_RESOLUTION;
+        int i = (int) index;
+        if (i >= KERNEL.length - 1) {
+            return 0f;
+        }
+        double frac = index - i;
+        return (float) (KERNEL[i] + (KERNEL[i + 1] - KERNEL[i]) * frac);
+    }
+
+    // sinc(x) * Blackman window, sampled on [0, ZERO_CROSSINGS]
+    private static float[] buildKernel() {
+        float[] table = new float[ZERO_CROSSINGS * TABLE_RESOLUTION + 2];
+        table[0] = 1f;
+        for (int i = 1; i < table.length; i++) {
+            double x = (double) i / TABLE_RESOLUTION;
+            if (x >= ZERO_CROSSINGS) {
+                table[i] = 0f;
+                continue;
+            }
+            double sinc = Math.sin(Math.PI * x) / (Math.PI * x);
+            double t = x / ZERO_CROSSINGS;
+            double window = 0.42 + 0.5 * Math.cos(Math.PI * t) + 0.08 * Math.cos(2 * Math.PI * t);
+            table[i] = (float) (sinc * window);
+        }
+        return table;
+    }
+
+    private static int muLawToLinear(byte encoded) {
+        int u = ~encoded & 0xFF;
+        int sign = u & 0x80;
+        int exponent = (u >> 4) & 0x07;
+        int mantissa = u & 0x0F;
+        int magnitude = (((mantissa << 3) + 0x84) << exponent) - 0x84;
+        return sign != 0 ? -magnitude : magnitude;
+    }
+
+    private static int aLawToLinear(byte encoded) {
+        int a = (encoded ^ 0x55) & 0xFF;
+        int sign = a & 0x80;
+        int exponent = (a >> 4) & 0x07;
+        int mantissa = a & 0x0F;
+        int magnitude = exponent == 0 ? (mantissa << 4) + 8 : ((mantissa << 4) + 0x108) << (exponent - 1);
+        return sign != 0 ? magnitude : -magnitude;
+    }
+}
@@ -0,0 +1,236 @@
+package com.translationapp.cache;
+
+import com.translationapp.model.Folder;
+import com.translationapp.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Keeps the second-level caches of several instances consistent. Each instance only invalidates its own cache when
+// it writes, so every write to a cached entity also sends a Postgres NOTIFY; the other instances LISTEN and evict
+// the entry (for folders also the cached listings). The NOTIFY is issued inside the writing transaction, so it is
+// delivered exactly when the write commits and not at all on rollback.
+// Off by default (app.cache.cluster-invalidation.enabled); a single instance needs none of this.
+@Component
+public class ClusterCacheInvalidator implements SmartLifecycle, PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterCacheInvalidator.class);
+
+    private static final String CHANNEL = "entity_cache_evict";
+    private static final String ALL = "*";
+    private static final Map<String, Class<?>> ENTITIES = Map.of("User", User.class, "Folder", Folder.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final boolean enabled;
+    private final long reconnectDelayMs;
+    // Lets an instance skip its own notifications, whose evictions Hibernate has already done locally
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public ClusterCacheInvalidator(EntityManagerFactory entityManagerFactory,
+                                   NamedParameterJdbcTemplate jdbcTemplate,
+                                   DataSourceProperties dataSourceProperties,
+                                   @Value("${app.cache.cluster-invalidation.enabled:false}") boolean enabled,
+                                   @Value("${app.cache.cluster-invalidation.reconnect-delay-ms:5000}") long reconnectDelayMs) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.enabled = enabled;
+        this.reconnectDelayMs = reconnectDelayMs;
+    }
+
+    // For writes Hibernate sees no entity events for (bulk and native statements). Call inside the writing
+    // transaction.
+    public void publish(Class<?> entityClass, UUID id) {
+        notifyInTransaction(payload(entityClass.getSimpleName(), id.toString()));
+    }
+
+    // As publish, for statements that may have touched any number of rows: every instance drops the whole region
+    public void publishAll(Class<?> entityClass) {
+        notifyInTransaction(payload(entityClass.getSimpleName(), ALL));
+    }
+
+    private void notifyInTransaction(String payload) {
+        if (enabled) {
+            jdbcTemplate.query("SELECT pg_notify(:channel, :payload)",
+                    new MapSqlParameterSource().addValue("channel", CHANNEL).addValue("payload", payload),
+                    rs -> {
+                    });
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getSession(), event.getPersister(), event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // Sent just before the commit, after the flush that produced the event; Postgres folds identical payloads
+    // within a transaction into one notification
+    private void publish(EventSource session, EntityPersister persister, Object id) {
+        String entityName = persister.getMappedClass().getSimpleName();
+        if (!ENTITIES.containsKey(entityName)) {
+            return;
+        }
+        String payload = payload(entityName, String.valueOf(id));
+        session.getActionQueue().registerProcess(completingSession -> completingSession.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                statement.setString(1, CHANNEL);
+                statement.setString(2, payload);
+                statement.execute();
+            }
+        }));
+    }
+
+    private String payload(String entityName, String id) {
+        return instanceId + " " + entityName + " " + id;
+    }
+
+    private void runListener() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // Notifications sent while this instance was not listening are lost, so start from an empty cache
+                evictEverything();
+                logger.info("Listening for cache invalidations on {}", CHANNEL);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1000);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            evict(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    logger.warn("Cache invalidation listener lost its connection, reconnecting in {} ms: {}",
+                            reconnectDelayMs, e.getMessage());
+                    sleep(reconnectDelayMs);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Cache invalidation listener failed", e);
+                sleep(reconnectDelayMs);
+            }
+        }
+    }
+
+    private void evict(String payload) {
+        String[] parts = payload.split(" ", 3);
+        if (parts.length != 3 || parts[0].equals(instanceId)) {
+            return;
+        }
+        Class<?> entityClass = ENTITIES.get(parts[1]);
+        if (entityClass == null) {
+            return;
+        }
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        if (ALL.equals(parts[2])) {
+            cache.evictEntityData(entityClass);
+        } else {
+            cache.evictEntityData(entityClass, (Serializable) UUID.fromString(parts[2]));
+        }
+        if (entityClass == Folder.class) {
+            cache.evictQueryRegion("folder-listings");
+        }
+    }
+
+    private void evictEverything() {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        ENTITIES.values().forEach(cache::evictEntityData);
+        cache.evictQueryRegion("folder-listings");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!enabled) {
+            return;
+        }
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        listenerThread = new Thread(this::runListener, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            try {
+                listenerThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
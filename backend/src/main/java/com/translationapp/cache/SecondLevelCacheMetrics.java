@@ -0,0 +1,65 @@
+package com.translationapp.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+// Hit/miss/put counts and hit ratio per second-level cache region, under the same names Micrometer uses for other
+// caches (cache.gets{result=hit|miss}, cache.puts), tagged cache=<region>, cacheManager=hibernate. Requires
+// hibernate.generate_statistics.
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private static final List<String> REGIONS = List.of("users", "folders", "folder-listings");
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : REGIONS) {
+            counter(registry, "cache.gets", region, "hit", CacheRegionStatistics::getHitCount);
+            counter(registry, "cache.gets", region, "miss", CacheRegionStatistics::getMissCount);
+            counter(registry, "cache.puts", region, null, CacheRegionStatistics::getPutCount);
+            Gauge.builder("cache.hit.ratio", this, metrics -> metrics.hitRatio(region))
+                    .tags("cache", region, "cacheManager", "hibernate")
+                    .description("Share of second-level cache lookups answered from the cache")
+                    .register(registry);
+        }
+    }
+
+    private void counter(MeterRegistry registry, String name, String region, String result,
+                         ToLongFunction<CacheRegionStatistics> count) {
+        FunctionCounter.Builder<SecondLevelCacheMetrics> builder = FunctionCounter.builder(name, this,
+                        metrics -> metrics.count(region, count))
+                .tags("cache", region, "cacheManager", "hibernate");
+        if (result != null) {
+            builder.tag("result", result);
+        }
+        builder.register(registry);
+    }
+
+    // Query regions only exist once a cached query has run
+    private double count(String region, ToLongFunction<CacheRegionStatistics> count) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        return regionStatistics != null ? count.applyAsLong(regionStatistics) : 0;
+    }
+
+    private double hitRatio(String region) {
+        double hits = count(region, CacheRegionStatistics::getHitCount);
+        double lookups = hits + count(region, CacheRegionStatistics::getMissCount);
+        return lookups > 0 ? hits / lookups : Double.NaN;
+    }
+}
@@ -0,0 +1,95 @@
+package com.translationapp.config;
+
+import com.translationapp.datasource.RecentWriteTracker;
+import com.translationapp.datasource.ReplicaPool;
+import com.translationapp.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+// Primary pool from spring.datasource.* (Flyway migrates it directly), optional read replicas from
+// app.datasource.replica.*, and the routing data source JPA and JDBC code actually use. With no replica URLs
+// configured everything goes to the primary, as before.
+@Configuration
+public class DataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceConfig.class);
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties properties,
+                                                             RecentWriteTracker recentWriteTracker,
+                                                             @Value("${app.datasource.replica.urls:}") List<String> urls,
+                                                             @Value("${app.datasource.replica.username:}") String username,
+                                                             @Value("${app.datasource.replica.password:}") String password,
+                                                             @Value("${app.datasource.replica.pool-size:10}") int poolSize,
+                                                             @Value("${app.datasource.replica.connection-timeout-ms:2000}") long connectionTimeoutMs,
+                                                             @Value("${app.datasource.replica.max-lag-ms:1000}") long maxLagMs,
+                                                             @Value("${app.datasource.replica.health-check-interval-ms:2000}") long checkIntervalMs,
+                                                             @Value("${app.datasource.replica.read-your-writes-ms:5000}") long readYourWritesMs) {
+        List<ReplicaPool> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = "replica-" + replicas.size();
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(name);
+            dataSource.setJdbcUrl(url.trim());
+            dataSource.setDriverClassName(properties.determineDriverClassName());
+            dataSource.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+            dataSource.setPassword(password.isEmpty() ? properties.determinePassword() : password);
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSource.setReadOnly(true);
+            // Fail fast so a dead replica costs one short wait until the health check takes it out of rotation
+            dataSource.setConnectionTimeout(connectionTimeoutMs);
+            // A replica that is down at startup must not stop the app; it joins once its health check passes
+            dataSource.setInitializationFailTimeout(-1);
+            replicas.add(new ReplicaPool(name, dataSource));
+        }
+        if (!replicas.isEmpty()) {
+            logger.info("Routing read-only transactions to {} replica(s)", replicas.size());
+            // A replica is only checked every interval, so its lag can grow past max-lag-ms for up to that long
+            // before it is taken out; the read-your-writes window has to cover both
+            if (readYourWritesMs < maxLagMs + checkIntervalMs) {
+                logger.warn("app.datasource.replica.read-your-writes-ms ({}) is below max-lag-ms + health-check-interval-ms ({});"
+                        + " users may not see their own recent writes", readYourWritesMs, maxLagMs + checkIntervalMs);
+            }
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, recentWriteTracker);
+    }
+
+    // What the rest of the app injects. Connections are only fetched on the first statement, by which time the
+    // transaction's read-only flag is known to the router. Defaults are given so the proxy never has to open a
+    // connection just to learn them.
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+}
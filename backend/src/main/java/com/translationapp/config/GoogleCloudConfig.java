@@ -16,10 +16,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.io.IOException;
 import java.io.ByteArrayInputStream;
 import java.util.Base64;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 public class GoogleCloudConfig {
@@ -57,6 +59,22 @@ public class GoogleCloudConfig {
         return SpeechClient.create(speechSettings);
     }
 
+    // Recognizes segments of long recordings in parallel. Pool size bounds the number of concurrent recognize
+    // calls across all requests; when the queue fills, the request thread recognizes its own segment instead.
+    @Bean(name = "speechRecognitionExecutor")
+    public ThreadPoolTaskExecutor speechRecognitionExecutor(
+            @Value("${app.speech.long.max-concurrency:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int maxConcurrency,
+            @Value("${app.speech.long.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("speech-");
+        executor.initialize();
+        return executor;
+    }
+
     // Text-to-Speech Client
     @Bean
     public TextToSpeechClient textToSpeechClient() throws IOException {
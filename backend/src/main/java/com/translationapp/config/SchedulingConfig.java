@@ -0,0 +1,10 @@
+package com.translationapp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background maintenance jobs (@Scheduled) run on Spring's task scheduler; see spring.task.scheduling.* for its pool
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
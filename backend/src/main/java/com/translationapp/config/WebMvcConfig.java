@@ -0,0 +1,46 @@
+package com.translationapp.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final ThreadPoolTaskExecutor exportExecutor;
+    private final long asyncTimeoutMs;
+
+    public WebMvcConfig(@Qualifier("exportExecutor") ThreadPoolTaskExecutor exportExecutor,
+                        @Value("${app.export.timeout-ms:1800000}") long asyncTimeoutMs) {
+        this.exportExecutor = exportExecutor;
+        this.asyncTimeoutMs = asyncTimeoutMs;
+    }
+
+    // Streaming responses (exports) are the only async MVC work. Each holds a database connection for as long as the
+    // client takes to download. Past max-concurrency the request thread streams its own export rather than queueing
+    // it behind downloads that may take minutes.
+    @Bean(name = "exportExecutor")
+    public static ThreadPoolTaskExecutor exportExecutor(@Value("${app.export.max-concurrency:4}") int maxConcurrency,
+                                                        @Value("${app.export.queue-capacity:0}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("export-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(exportExecutor);
+        configurer.setDefaultTimeout(asyncTimeoutMs);
+    }
+}
@@ -0,0 +1,55 @@
+package com.translationapp.config;
+
+import com.translationapp.controller.ConversationWebSocketHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final ConversationWebSocketHandler conversationWebSocketHandler;
+
+    public WebSocketConfig(ConversationWebSocketHandler conversationWebSocketHandler) {
+        this.conversationWebSocketHandler = conversationWebSocketHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // Under /api so the handshake goes through the JWT filter like every other protected endpoint
+        registry.addHandler(conversationWebSocketHandler, "/api/conversation")
+                .setAllowedOriginPatterns("*");
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean createWebSocketContainer() {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxBinaryMessageBufferSize(64 * 1024); // Audio arrives in small chunks (~100ms of PCM)
+        container.setMaxTextMessageBufferSize(8 * 1024);
+        container.setMaxSessionIdleTimeout(5 * 60 * 1000L);
+        return container;
+    }
+
+    // Dedicated pool for the translate/TTS stages so conversation latency is not affected by request threads.
+    // Static because the handler this configuration is built from depends on it (through the pipeline service).
+    @Bean(name = "conversationExecutor")
+    public static ThreadPoolTaskExecutor conversationExecutor(@Value("${app.conversation.executor.core-pool-size:8}") int corePoolSize,
+                                                              @Value("${app.conversation.executor.max-pool-size:32}") int maxPoolSize,
+                                                              @Value("${app.conversation.executor.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("conversation-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+}
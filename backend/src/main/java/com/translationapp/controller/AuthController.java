@@ -8,13 +8,17 @@ import com.translationapp.model.User;
 import com.translationapp.repository.UserRepository;
 import com.translationapp.security.JwtTokenProvider;
 import com.translationapp.security.UserPrincipal;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.translationapp.service.LastLoginRecorder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -24,77 +28,99 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import jakarta.validation.Valid;
 import java.net.URI;
-import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
 
-    @Autowired
-    AuthenticationManager authenticationManager;
+    private final AuthenticationManager authenticationManager;
+    private final UserRepository userRepository;
+    private final JwtTokenProvider tokenProvider;
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor passwordHashingExecutor;
+    private final LastLoginRecorder lastLoginRecorder;
 
-    @Autowired
-    UserRepository userRepository;
-
-    @Autowired
-    JwtTokenProvider tokenProvider;
-
-    @Autowired
-    PasswordEncoder passwordEncoder;
-
-    public AuthController(AuthenticationManager authenticationManager, UserRepository userRepository, JwtTokenProvider tokenProvider, PasswordEncoder passwordEncoder) {
+    public AuthController(AuthenticationManager authenticationManager, UserRepository userRepository, JwtTokenProvider tokenProvider, PasswordEncoder passwordEncoder,
+                          @Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor passwordHashingExecutor, LastLoginRecorder lastLoginRecorder) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.tokenProvider = tokenProvider;
         this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.lastLoginRecorder = lastLoginRecorder;
     }
 
+    // The password check (BCrypt) runs on the hashing executor and the request thread is released meanwhile; see
+    // WebSecurityConfig.passwordHashingExecutor
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.getUsernameOrEmail(),
-                        loginRequest.getPassword()
-                )
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        UsernamePasswordAuthenticationToken credentials = new UsernamePasswordAuthenticationToken(
+                loginRequest.getUsernameOrEmail(),
+                loginRequest.getPassword()
         );
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
+        CompletableFuture<Authentication> authentication;
+        try {
+            authentication = CompletableFuture.supplyAsync(() -> authenticationManager.authenticate(credentials),
+                    passwordHashingExecutor);
+        } catch (TaskRejectedException e) {
+            return CompletableFuture.completedFuture(busy());
+        }
 
-        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-        userRepository.findById(userPrincipal.getId()).ifPresent(user -> {
-            user.setLastLogin(LocalDateTime.now());
-            userRepository.save(user);
+        return authentication.handle((result, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (cause instanceof AuthenticationException) {
+                    return new ResponseEntity<>(new ApiResponse(false, "Invalid username or password"), HttpStatus.UNAUTHORIZED);
+                }
+                throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+            }
+            UserPrincipal userPrincipal = (UserPrincipal) result.getPrincipal();
+            lastLoginRecorder.record(userPrincipal.getId());
+
+            String jwt = tokenProvider.generateToken(result);
+            return ResponseEntity.ok(new JwtAuthenticationResponse(jwt));
         });
-
-        String jwt = tokenProvider.generateToken(authentication);
-        return ResponseEntity.ok(new JwtAuthenticationResponse(jwt));
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody SignUpRequest signUpRequest) {
+    public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody SignUpRequest signUpRequest) {
         if(userRepository.existsByUsername(signUpRequest.getUsername())) {
-            return new ResponseEntity<>(new ApiResponse(false, "Username is already taken!"),
-                    HttpStatus.BAD_REQUEST);
+            return CompletableFuture.completedFuture(new ResponseEntity<>(new ApiResponse(false, "Username is already taken!"),
+                    HttpStatus.BAD_REQUEST));
         }
 
         if(userRepository.existsByEmail(signUpRequest.getEmail())) {
-            return new ResponseEntity<>(new ApiResponse(false, "Email Address already in use!"),
-                    HttpStatus.BAD_REQUEST);
+            return CompletableFuture.completedFuture(new ResponseEntity<>(new ApiResponse(false, "Email Address already in use!"),
+                    HttpStatus.BAD_REQUEST));
         }
 
-        // Creating user's account
-        User user = new User(signUpRequest.getUsername(),
-                signUpRequest.getEmail(), signUpRequest.getPassword());
-
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-
-        User result = userRepository.save(user);
-
+        // Built here: the request context is not available on the hashing thread
         URI location = ServletUriComponentsBuilder
                 .fromCurrentContextPath().path("/users/{username}")
-                .buildAndExpand(result.getUsername()).toUri();
+                .buildAndExpand(signUpRequest.getUsername()).toUri();
+
+        CompletableFuture<String> passwordHash;
+        try {
+            passwordHash = CompletableFuture.supplyAsync(() -> passwordEncoder.encode(signUpRequest.getPassword()),
+                    passwordHashingExecutor);
+        } catch (TaskRejectedException e) {
+            return CompletableFuture.completedFuture(busy());
+        }
+
+        return passwordHash.thenApply(hash -> {
+            // Creating user's account
+            User user = new User(signUpRequest.getUsername(), signUpRequest.getEmail(), hash);
+            userRepository.save(user);
+            return ResponseEntity.created(location).body(new ApiResponse(true, "User registered successfully"));
+        });
+    }
 
-        return ResponseEntity.created(location).body(new ApiResponse(true, "User registered successfully"));
+    private static ResponseEntity<?> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ApiResponse(false, "Too many sign-in requests, please try again shortly"));
     }
 } 
\ No newline at end of file
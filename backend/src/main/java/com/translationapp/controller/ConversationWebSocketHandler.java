@@ -0,0 +1,107 @@
+package com.translationapp.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.translationapp.dto.ConversationControlMessage;
+import com.translationapp.security.UserPrincipal;
+import com.translationapp.service.ConversationPipelineService;
+import com.translationapp.service.ConversationSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+
+import java.security.Principal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Full-duplex bilingual conversation endpoint (/api/conversation).
+// Client -> server: JSON control frames ("start" / "stop") and binary LINEAR16 audio frames.
+// Server -> client: JSON frames for transcripts, translations, synthesized audio and per-segment latency.
+@Component
+public class ConversationWebSocketHandler extends AbstractWebSocketHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationWebSocketHandler.class);
+
+    private final ConversationPipelineService pipelineService;
+    private final ObjectMapper objectMapper;
+
+    public ConversationWebSocketHandler(ConversationPipelineService pipelineService, ObjectMapper objectMapper) {
+        this.pipelineService = pipelineService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        Principal principal = session.getPrincipal();
+        if (!(principal instanceof Authentication authentication) || !(authentication.getPrincipal() instanceof UserPrincipal user)) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Authentication required"));
+            return;
+        }
+        pipelineService.openSession(session, user.getId());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        ConversationSession conversation = pipelineService.getSession(session.getId());
+        if (conversation == null) {
+            return;
+        }
+        try {
+            ConversationControlMessage control = objectMapper.readValue(message.getPayload(), ConversationControlMessage.class);
+            if ("start".equalsIgnoreCase(control.getType())) {
+                pipelineService.startUtterance(conversation, control);
+            } else if ("stop".equalsIgnoreCase(control.getType())) {
+                pipelineService.endUtterance(conversation);
+            } else {
+                sendError(conversation, "Unknown message type: " + control.getType());
+            }
+        } catch (JsonProcessingException e) {
+            sendError(conversation, "Malformed control message: " + e.getOriginalMessage());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            sendError(conversation, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Conversation {}: error handling control message", session.getId(), e);
+            sendError(conversation, "Error handling message: " + e.getMessage());
+        }
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+        ConversationSession conversation = pipelineService.getSession(session.getId());
+        if (conversation == null) {
+            return;
+        }
+        try {
+            pipelineService.acceptAudio(conversation, message.getPayload());
+        } catch (IllegalStateException e) {
+            sendError(conversation, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Conversation {}: error forwarding audio", session.getId(), e);
+            sendError(conversation, "Error forwarding audio: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        logger.warn("Conversation {}: transport error: {}", session.getId(), exception.getMessage());
+        pipelineService.closeSession(session.getId());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        pipelineService.closeSession(session.getId());
+    }
+
+    private void sendError(ConversationSession conversation, String message) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("type", "error");
+        error.put("message", message);
+        conversation.send(error);
+    }
+}
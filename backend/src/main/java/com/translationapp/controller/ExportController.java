@@ -0,0 +1,77 @@
+package com.translationapp.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.translationapp.dto.ApiResponse;
+import com.translationapp.security.UserPrincipal;
+import com.translationapp.service.ExportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Downloads of everything a user has, streamed as it is read (format=ndjson, the default, or csv). The body is
+// written on the export executor after this method returns, so errors after the first byte end the download early
+// rather than producing an error response.
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private final ExportService exportService;
+    private final ObjectMapper objectMapper;
+
+    public ExportController(ExportService exportService, ObjectMapper objectMapper) {
+        this.exportService = exportService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping("/translations")
+    public ResponseEntity<StreamingResponseBody> exportTranslations(@AuthenticationPrincipal UserPrincipal currentUser,
+                                                                    @RequestParam(required = false) String format) {
+        ExportService.Format exportFormat;
+        try {
+            exportFormat = ExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        UUID userId = currentUser.getId();
+        return download("translations", exportFormat, out -> exportService.exportTranslations(userId, exportFormat, out));
+    }
+
+    @GetMapping("/saved-items")
+    public ResponseEntity<StreamingResponseBody> exportSavedItems(@AuthenticationPrincipal UserPrincipal currentUser,
+                                                                  @RequestParam(required = false) String format) {
+        ExportService.Format exportFormat;
+        try {
+            exportFormat = ExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        UUID userId = currentUser.getId();
+        return download("saved-items", exportFormat, out -> exportService.exportSavedItems(userId, exportFormat, out));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> download(String name, ExportService.Format format,
+                                                                  StreamingResponseBody body) {
+        String filename = name + "-" + LocalDate.now() + "." + format.getExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    // Same ApiResponse body as other endpoints; it has to be written as a stream because of the return type
+    private ResponseEntity<StreamingResponseBody> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, new ApiResponse(false, message)));
+    }
+}
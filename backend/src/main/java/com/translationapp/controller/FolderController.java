@@ -2,15 +2,20 @@ package com.translationapp.controller;
 
 import com.translationapp.dto.ApiResponse;
 import com.translationapp.dto.FolderCreateRequest;
+import com.translationapp.dto.FolderMoveRequest;
 import com.translationapp.dto.FolderResponseDto;
+import com.translationapp.model.ChangeResource;
 import com.translationapp.model.Folder;
 import com.translationapp.security.UserPrincipal;
+import com.translationapp.service.ChangeCounterService;
 import com.translationapp.service.FolderService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.UUID;
@@ -21,9 +26,11 @@ import java.util.stream.Collectors;
 public class FolderController {
 
     private final FolderService folderService;
+    private final ChangeCounterService changeCounterService;
 
-    public FolderController(FolderService folderService) {
+    public FolderController(FolderService folderService, ChangeCounterService changeCounterService) {
         this.folderService = folderService;
+        this.changeCounterService = changeCounterService;
     }
 
     @PostMapping
@@ -32,27 +39,64 @@ public class FolderController {
         try {
             Folder folder = folderService.createFolder(currentUser.getId(), request.getName(), request.getParentFolderId());
             return new ResponseEntity<>(FolderResponseDto.fromEntity(folder), HttpStatus.CREATED);
-        } catch (IllegalArgumentException | SecurityException e) {
+        } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (EntityNotFoundException e) {
+            return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.NOT_FOUND);
         } catch (Exception e) {
             return new ResponseEntity<>(new ApiResponse(false, "Error creating folder: " + e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
     @GetMapping
-    public ResponseEntity<List<FolderResponseDto>> getFolders(
+    public ResponseEntity<?> getFolders(
             @AuthenticationPrincipal UserPrincipal currentUser,
-            @RequestParam(required = false) UUID parentFolderId) { // If null, get root folders
+            @RequestParam(required = false) UUID parentFolderId, // If null, get root folders
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(changeCounterService.etag(currentUser.getId(), ChangeResource.FOLDERS))) {
+            return null;
+        }
         List<Folder> folders;
         if (parentFolderId == null) {
             folders = folderService.getRootFolders(currentUser.getId());
         } else {
-            folders = folderService.getSubFolders(currentUser.getId(), parentFolderId);
+            try {
+                folders = folderService.getSubFolders(currentUser.getId(), parentFolderId);
+            } catch (EntityNotFoundException e) {
+                return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.NOT_FOUND);
+            }
         }
         List<FolderResponseDto> dtos = folders.stream().map(FolderResponseDto::fromEntity).collect(Collectors.toList());
         return ResponseEntity.ok(dtos);
     }
 
+    // Whole tree, nested, with per-folder and subtree item counts: one request and one query for the folder screen
+    @GetMapping("/tree")
+    public ResponseEntity<List<FolderResponseDto>> getFolderTree(@AuthenticationPrincipal UserPrincipal currentUser,
+                                                                 WebRequest webRequest) {
+        if (webRequest.checkNotModified(changeCounterService.etag(currentUser.getId(),
+                ChangeResource.FOLDERS, ChangeResource.SAVED_ITEMS))) {
+            return null;
+        }
+        return ResponseEntity.ok(folderService.getFolderTree(currentUser.getId()));
+    }
+
+    @PutMapping("/{folderId}/move")
+    public ResponseEntity<?> moveFolder(@AuthenticationPrincipal UserPrincipal currentUser,
+                                        @PathVariable UUID folderId,
+                                        @RequestBody FolderMoveRequest request) {
+        try {
+            Folder movedFolder = folderService.moveFolder(currentUser.getId(), folderId, request.getParentFolderId());
+            return ResponseEntity.ok(FolderResponseDto.fromEntity(movedFolder));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (EntityNotFoundException e) {
+            return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse(false, "Error moving folder: " + e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @PutMapping("/{folderId}")
     public ResponseEntity<?> updateFolder(@AuthenticationPrincipal UserPrincipal currentUser,
                                           @PathVariable UUID folderId,
@@ -60,8 +104,10 @@ public class FolderController {
         try {
             Folder updatedFolder = folderService.updateFolderName(currentUser.getId(), folderId, request.getName());
             return ResponseEntity.ok(FolderResponseDto.fromEntity(updatedFolder));
-        } catch (IllegalArgumentException | SecurityException e) {
+        } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (EntityNotFoundException e) {
+            return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.NOT_FOUND);
         } catch (Exception e) {
             return new ResponseEntity<>(new ApiResponse(false, "Error updating folder: " + e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -69,12 +115,19 @@ public class FolderController {
 
     @DeleteMapping("/{folderId}")
     public ResponseEntity<ApiResponse> deleteFolder(@AuthenticationPrincipal UserPrincipal currentUser,
-                                                  @PathVariable UUID folderId) {
+                                                  @PathVariable UUID folderId,
+                                                  @RequestParam(defaultValue = "false") boolean recursive) {
         try {
-            folderService.deleteFolder(currentUser.getId(), folderId);
+            if (recursive) {
+                folderService.deleteFolderRecursively(currentUser.getId(), folderId);
+            } else {
+                folderService.deleteFolder(currentUser.getId(), folderId);
+            }
             return ResponseEntity.ok(new ApiResponse(true, "Folder deleted successfully."));
-        } catch (IllegalStateException | SecurityException e) {
+        } catch (IllegalStateException e) {
             return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (EntityNotFoundException e) {
+            return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.NOT_FOUND);
         } catch (Exception e) {
             return new ResponseEntity<>(new ApiResponse(false, "Error deleting folder: " + e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -1,18 +1,23 @@
 package com.translationapp.controller;
 
 import com.translationapp.dto.*;
+import com.translationapp.model.ChangeResource;
 import com.translationapp.model.SavedItem;
 import com.translationapp.model.SavedItemCategory;
+import com.translationapp.repository.KeysetCursor;
 import com.translationapp.security.UserPrincipal;
+import com.translationapp.service.ChangeCounterService;
 import com.translationapp.service.SavedItemService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
@@ -24,9 +29,11 @@ import java.util.UUID;
 public class SavedItemController {
 
     private final SavedItemService savedItemService;
+    private final ChangeCounterService changeCounterService;
 
-    public SavedItemController(SavedItemService savedItemService) {
+    public SavedItemController(SavedItemService savedItemService, ChangeCounterService changeCounterService) {
         this.savedItemService = savedItemService;
+        this.changeCounterService = changeCounterService;
     }
 
     @PostMapping
@@ -35,7 +42,7 @@ public class SavedItemController {
         try {
             SavedItem savedItem = savedItemService.createSavedItem(currentUser.getId(), request);
             return new ResponseEntity<>(SavedItemResponseDto.fromEntity(savedItem), HttpStatus.CREATED);
-        } catch (IllegalArgumentException | SecurityException e) {
+        } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.BAD_REQUEST);
         } catch (EntityNotFoundException e) {
             return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.NOT_FOUND);
@@ -44,18 +51,38 @@ public class SavedItemController {
         }
     }
 
+    // Keyset pagination unless the caller sends "page" (legacy offset mode, see UserTranslationController).
+    // Items embed their translation and folder name, so the ETag covers those tables too.
     @GetMapping
-    public ResponseEntity<Page<SavedItemResponseDto>> getSavedItems(
+    public ResponseEntity<?> getSavedItems(
             @AuthenticationPrincipal UserPrincipal currentUser,
             @RequestParam(required = false) SavedItemCategory category,
             @RequestParam(required = false) UUID folderId,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<SavedItem> savedItemsPage = savedItemService.getSavedItems(currentUser.getId(), category, folderId, pageable);
-        Page<SavedItemResponseDto> dtoPage = savedItemsPage.map(SavedItemResponseDto::fromEntity);
-        return ResponseEntity.ok(dtoPage);
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(changeCounterService.etag(currentUser.getId(),
+                ChangeResource.SAVED_ITEMS, ChangeResource.TRANSLATIONS, ChangeResource.FOLDERS))) {
+            return null;
+        }
+
+        int pageSize = CursorPage.clampSize(size);
+        try {
+            if (page != null) {
+                Pageable pageable = PageRequest.of(page, pageSize, Sort.by("createdAt").descending());
+                Page<SavedItem> savedItemsPage = savedItemService.getSavedItems(currentUser.getId(), category, folderId, pageable);
+                Page<SavedItemResponseDto> dtoPage = savedItemsPage.map(SavedItemResponseDto::fromEntity);
+                return ResponseEntity.ok(dtoPage);
+            }
+            Slice<SavedItem> slice = savedItemService.getSavedItems(currentUser.getId(), category, folderId, cursor, pageSize);
+            String nextCursor = slice.hasNext() ? KeysetCursor.of(slice.getContent().get(slice.getNumberOfElements() - 1)) : null;
+            return ResponseEntity.ok(new CursorPage<>(slice.map(SavedItemResponseDto::fromEntity).getContent(), nextCursor, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage()));
+        } catch (EntityNotFoundException e) {
+            return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.NOT_FOUND);
+        }
     }
 
     @GetMapping("/{savedItemId}")
@@ -75,7 +102,7 @@ public class SavedItemController {
         try {
             SavedItem updatedItem = savedItemService.updateSavedItem(currentUser.getId(), savedItemId, request);
             return ResponseEntity.ok(SavedItemResponseDto.fromEntity(updatedItem));
-        } catch (IllegalArgumentException | SecurityException e) {
+        } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.BAD_REQUEST);
         } catch (EntityNotFoundException e) {
             return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.NOT_FOUND);
@@ -92,10 +119,31 @@ public class SavedItemController {
             return ResponseEntity.ok(new ApiResponse(true, "Saved item deleted successfully."));
         } catch (EntityNotFoundException e) {
              return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.NOT_FOUND);
-        } catch (SecurityException e) {
-            return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.FORBIDDEN);
         } catch (Exception e) {
             return new ResponseEntity<>(new ApiResponse(false, "Error deleting saved item: " + e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
-} 
\ No newline at end of file
+
+    // Bulk endpoints take up to 500 ids and report an outcome per id; ids the user does not own are NOT_FOUND
+    @PostMapping("/bulk/get")
+    public ResponseEntity<?> getSavedItems(@AuthenticationPrincipal UserPrincipal currentUser,
+                                           @Valid @RequestBody BulkIdsRequest request) {
+        return ResponseEntity.ok(savedItemService.getSavedItems(currentUser.getId(), request.getIds()));
+    }
+
+    @PostMapping("/bulk/move")
+    public ResponseEntity<?> moveSavedItems(@AuthenticationPrincipal UserPrincipal currentUser,
+                                            @Valid @RequestBody BulkMoveRequest request) {
+        try {
+            return ResponseEntity.ok(savedItemService.moveSavedItems(currentUser.getId(), request.getIds(), request.getFolderId()));
+        } catch (EntityNotFoundException e) { // The target folder
+            return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<?> deleteSavedItems(@AuthenticationPrincipal UserPrincipal currentUser,
+                                              @Valid @RequestBody BulkIdsRequest request) {
+        return ResponseEntity.ok(savedItemService.deleteSavedItems(currentUser.getId(), request.getIds()));
+    }
+}
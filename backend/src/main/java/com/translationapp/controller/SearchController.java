@@ -0,0 +1,39 @@
+package com.translationapp.controller;
+
+import com.translationapp.dto.ApiResponse;
+import com.translationapp.security.UserPrincipal;
+import com.translationapp.service.SearchService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    // Searches the caller's translation history and saved items. Every word must match (as a prefix); "lang" adds
+    // stemmed matching in that language. Page with the returned nextCursor, as for /api/translations.
+    @GetMapping
+    public ResponseEntity<?> search(@AuthenticationPrincipal UserPrincipal currentUser,
+                                    @RequestParam("q") String query,
+                                    @RequestParam(required = false) String lang,
+                                    @RequestParam(required = false) String kind,
+                                    @RequestParam(required = false) String sort,
+                                    @RequestParam(required = false) String cursor,
+                                    @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(searchService.search(currentUser.getId(), query, lang, kind, sort, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.translationapp.controller;
+
+import com.translationapp.dto.ApiResponse;
+import com.translationapp.security.UserPrincipal;
+import com.translationapp.service.UserStatsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private final UserStatsService userStatsService;
+
+    public StatsController(UserStatsService userStatsService) {
+        this.userStatsService = userStatsService;
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getStats(@AuthenticationPrincipal UserPrincipal currentUser,
+                                      @RequestParam(defaultValue = "30") int days) {
+        try {
+            return ResponseEntity.ok(userStatsService.getStats(currentUser.getId(), days));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+}
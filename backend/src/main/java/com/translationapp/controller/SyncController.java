@@ -0,0 +1,42 @@
+package com.translationapp.controller;
+
+import com.translationapp.dto.ApiResponse;
+import com.translationapp.dto.SyncRequest;
+import com.translationapp.security.UserPrincipal;
+import com.translationapp.service.SyncService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    // Pushes offline-made translations and saved items, then returns up to `limit` changes after the cursor.
+    // A pull-only sync sends just the cursor.
+    @PostMapping
+    public ResponseEntity<?> sync(@AuthenticationPrincipal UserPrincipal currentUser,
+                                  @Valid @RequestBody SyncRequest request,
+                                  @RequestParam(defaultValue = "500") int limit) {
+        try {
+            return ResponseEntity.ok(syncService.sync(currentUser.getId(), request, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage()));
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse(false, "Error syncing: " + e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
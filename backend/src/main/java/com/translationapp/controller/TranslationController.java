@@ -1,8 +1,12 @@
 package com.translationapp.controller;
 
 import com.translationapp.dto.*;
+import com.translationapp.exception.UnsupportedAudioFormatException;
 import com.translationapp.exception.UnsupportedVoiceException;
+import com.translationapp.handwriting.StrokeRasterizer;
 import com.translationapp.service.GoogleCloudService;
+import com.translationapp.service.SpeechRecognitionService;
+import jakarta.validation.Valid;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -22,9 +26,11 @@ public class TranslationController {
     private static final Logger logger = LoggerFactory.getLogger(TranslationController.class);
 
     private final GoogleCloudService googleCloudService;
+    private final SpeechRecognitionService speechRecognitionService;
 
-    public TranslationController(GoogleCloudService googleCloudService) {
+    public TranslationController(GoogleCloudService googleCloudService, SpeechRecognitionService speechRecognitionService) {
         this.googleCloudService = googleCloudService;
+        this.speechRecognitionService = speechRecognitionService;
     }
 
     @PostMapping("/translate")
@@ -66,6 +72,21 @@ public class TranslationController {
         }
     }
 
+    // Handwriting arrives as stroke vectors (a few KB) rather than a rendered image; the server rasterizes it
+    @PostMapping("/handwriting")
+    public ResponseEntity<?> handwriting(@Valid @RequestBody HandwritingRequest request) {
+        try {
+            byte[] png = StrokeRasterizer.toPng(request.getStrokes());
+            String detectedText = googleCloudService.detectDocumentText(png, request.getLanguageHints());
+            return ResponseEntity.ok(new ApiResponse(true, detectedText));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error during handwriting recognition", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse(false, "Error during handwriting recognition: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/speech")
     public ResponseEntity<?> speechToText(@RequestParam("file") MultipartFile file, @RequestParam("languageCode") String languageCode) {
         if (file.isEmpty()) {
@@ -73,11 +94,32 @@ public class TranslationController {
         }
         try {
             String contentType = file.getContentType();
-            String transcript = googleCloudService.speechToText(file.getBytes(), languageCode, contentType);
+            String transcript = speechRecognitionService.transcribe(file.getBytes(), languageCode, contentType);
             return ResponseEntity.ok(new ApiResponse(true, transcript));
+        } catch (UnsupportedAudioFormatException e) {
+            logger.warn("Rejected audio upload (Content-Type: {}): {}", file.getContentType(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(new ApiResponse(false, "UNSUPPORTED_AUDIO_FORMAT", e.getMessage()));
         } catch (Exception e) {
             logger.error("Error during speech-to-text processing for languageCode: {}", languageCode, e);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse(false, "Error during speech-to-text processing: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    // Long recordings (voice memos, lectures): split at pauses, recognized in parallel, returned with per-segment timestamps
+    @PostMapping("/speech/long")
+    public ResponseEntity<?> longSpeechToText(@RequestParam("file") MultipartFile file, @RequestParam("languageCode") String languageCode) {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "Audio file is empty"));
+        }
+        try {
+            LongTranscriptionResponseDto result = speechRecognitionService.transcribeLong(file.getBytes(), languageCode, file.getContentType());
+            return ResponseEntity.ok(new ApiResponse(true, result.getTranscript(), result));
+        } catch (UnsupportedAudioFormatException e) {
+            logger.warn("Rejected long audio upload (Content-Type: {}): {}", file.getContentType(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(new ApiResponse(false, "UNSUPPORTED_AUDIO_FORMAT", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error during long speech-to-text processing for languageCode: {}", languageCode, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse(false, "Error during speech-to-text processing: " + e.getMessage()));
+        }
+    }
+}
@@ -4,12 +4,15 @@ import com.translationapp.dto.ApiResponse;
 import com.translationapp.dto.UserProfileResponseDto;
 import com.translationapp.dto.UserProfileUpdateRequestDto;
 import com.translationapp.model.User;
+import com.translationapp.model.ChangeResource;
 import com.translationapp.security.UserPrincipal;
+import com.translationapp.service.ChangeCounterService;
 import com.translationapp.service.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 
@@ -18,14 +21,19 @@ import jakarta.validation.Valid;
 public class UserController {
 
     private final UserService userService;
+    private final ChangeCounterService changeCounterService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ChangeCounterService changeCounterService) {
         this.userService = userService;
+        this.changeCounterService = changeCounterService;
     }
 
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUserProfile(@AuthenticationPrincipal UserPrincipal currentUser) {
+    public ResponseEntity<?> getCurrentUserProfile(@AuthenticationPrincipal UserPrincipal currentUser, WebRequest webRequest) {
         try {
+            if (webRequest.checkNotModified(changeCounterService.etag(currentUser.getId(), ChangeResource.PROFILE))) {
+                return null;
+            }
             User user = userService.getUserById(currentUser.getId());
             return ResponseEntity.ok(UserProfileResponseDto.fromEntity(user));
         } catch (Exception e) {
@@ -46,4 +54,15 @@ public class UserController {
             return new ResponseEntity<>(new ApiResponse(false, "Error updating user profile: " + e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
-} 
\ No newline at end of file
+
+    // Signs the user out everywhere: every token issued so far, including the one used here, stops working
+    @PostMapping("/me/revoke-tokens")
+    public ResponseEntity<?> revokeTokens(@AuthenticationPrincipal UserPrincipal currentUser) {
+        try {
+            userService.revokeTokens(currentUser.getId());
+            return ResponseEntity.ok(new ApiResponse(true, "All sessions have been signed out. Please log in again."));
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse(false, "Error revoking tokens: " + e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.translationapp.controller;
 
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.UUID;
 
+import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -17,12 +21,20 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.translationapp.dto.ApiResponse;
+import com.translationapp.dto.BulkFavoriteRequest;
+import com.translationapp.dto.BulkIdsRequest;
 import com.translationapp.dto.CreateTranslationRequest;
+import com.translationapp.dto.CursorPage;
 import com.translationapp.dto.TranslationResponseDto;
+import com.translationapp.model.ChangeResource;
 import com.translationapp.model.Translation;
+import com.translationapp.repository.KeysetCursor;
 import com.translationapp.security.UserPrincipal;
+import com.translationapp.service.ChangeCounterService;
+import com.translationapp.service.TranslationArchiveService;
 import com.translationapp.service.TranslationPersistenceService;
 
 @RestController
@@ -30,9 +42,15 @@ import com.translationapp.service.TranslationPersistenceService;
 public class UserTranslationController {
 
     private final TranslationPersistenceService translationPersistenceService;
+    private final TranslationArchiveService translationArchiveService;
+    private final ChangeCounterService changeCounterService;
 
-    public UserTranslationController(TranslationPersistenceService translationPersistenceService) {
+    public UserTranslationController(TranslationPersistenceService translationPersistenceService,
+                                     TranslationArchiveService translationArchiveService,
+                                     ChangeCounterService changeCounterService) {
         this.translationPersistenceService = translationPersistenceService;
+        this.translationArchiveService = translationArchiveService;
+        this.changeCounterService = changeCounterService;
     }
 
     @PostMapping
@@ -44,19 +62,61 @@ public class UserTranslationController {
                 request.getTargetText(),
                 request.getSourceLang(),
                 request.getTargetLang(),
-                request.getInputType()
+                request.getInputType(),
+                request.getTags()
         );
         return new ResponseEntity<>(TranslationResponseDto.fromEntity(translation), HttpStatus.CREATED);
     }
 
+    // Without "page" this uses keyset pagination: pass the returned nextCursor to get the following slice.
+    // "page" keeps the old offset/Page behaviour (with its COUNT query) for clients that still send it.
+    // "tag" restricts the keyset listing to entries carrying that tag. "size" is clamped to 1..100 in both modes.
+    // Answers 304 without running the query when If-None-Match still matches (see ChangeCounterService).
     @GetMapping
-    public ResponseEntity<Page<TranslationResponseDto>> getTranslations(
+    public ResponseEntity<?> getTranslations(
             @AuthenticationPrincipal UserPrincipal currentUser,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        Page<Translation> translationPage = translationPersistenceService.getTranslationHistory(currentUser.getId(), page, size);
-        Page<TranslationResponseDto> dtoPage = translationPage.map(TranslationResponseDto::fromEntity);
-        return ResponseEntity.ok(dtoPage);
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) String tag,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+        if (webRequest.checkNotModified(changeCounterService.etag(currentUser.getId(), ChangeResource.TRANSLATIONS))) {
+            return null;
+        }
+        int pageSize = CursorPage.clampSize(size);
+        try {
+            if (page != null) {
+                Page<Translation> translationPage = translationPersistenceService.getTranslationHistory(currentUser.getId(), page, pageSize);
+                Page<TranslationResponseDto> dtoPage = translationPage.map(TranslationResponseDto::fromEntity);
+                return ResponseEntity.ok(dtoPage);
+            }
+            Slice<Translation> slice = tag != null && !tag.isBlank()
+                    ? translationPersistenceService.getTranslationHistoryByTag(currentUser.getId(), tag, cursor, pageSize)
+                    : translationPersistenceService.getTranslationHistory(currentUser.getId(), cursor, pageSize);
+            String nextCursor = slice.hasNext() ? KeysetCursor.of(slice.getContent().get(slice.getNumberOfElements() - 1)) : null;
+            return ResponseEntity.ok(new CursorPage<>(slice.map(TranslationResponseDto::fromEntity).getContent(), nextCursor, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage()));
+        }
+    }
+
+    // History that has aged out of the listing above, one month at a time: first the months that have any, then a
+    // month's entries (newest first)
+    @GetMapping("/archive")
+    public ResponseEntity<?> getArchivedMonths(@AuthenticationPrincipal UserPrincipal currentUser) {
+        return ResponseEntity.ok(translationArchiveService.getArchivedMonths(currentUser.getId()));
+    }
+
+    @GetMapping("/archive/{month}")
+    public ResponseEntity<?> getArchivedMonth(@AuthenticationPrincipal UserPrincipal currentUser,
+                                              @PathVariable String month) {
+        YearMonth yearMonth;
+        try {
+            yearMonth = YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, "month must be formatted as yyyy-MM"));
+        }
+        return ResponseEntity.ok(translationArchiveService.getArchivedMonth(currentUser.getId(), yearMonth));
     }
 
     @DeleteMapping("/{id}")
@@ -65,9 +125,7 @@ public class UserTranslationController {
         try {
             translationPersistenceService.deleteTranslation(id, currentUser.getId());
             return ResponseEntity.ok(new ApiResponse(true, "Translation deleted successfully."));
-        } catch (SecurityException e) {
-            return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.FORBIDDEN);
-        } catch (RuntimeException e) { // Catch other specific exceptions like EntityNotFound
+        } catch (EntityNotFoundException e) { // Also covers translations owned by another user
             return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.NOT_FOUND);
         }
     }
@@ -78,10 +136,29 @@ public class UserTranslationController {
         try {
             Translation updatedTranslation = translationPersistenceService.toggleFavorite(id, currentUser.getId());
             return ResponseEntity.ok(TranslationResponseDto.fromEntity(updatedTranslation));
-        } catch (SecurityException e) {
-            return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.FORBIDDEN);
-        } catch (RuntimeException e) {
+        } catch (EntityNotFoundException e) {
             return new ResponseEntity<>(new ApiResponse(false, e.getMessage()), HttpStatus.NOT_FOUND);
         }
     }
-} 
\ No newline at end of file
+
+    // Bulk endpoints take up to 500 ids and report an outcome per id; ids the user does not own are NOT_FOUND
+    @PostMapping("/bulk/get")
+    public ResponseEntity<?> getTranslations(@AuthenticationPrincipal UserPrincipal currentUser,
+                                             @Valid @RequestBody BulkIdsRequest request) {
+        return ResponseEntity.ok(translationPersistenceService.getTranslations(currentUser.getId(), request.getIds()));
+    }
+
+    // favorite=false unfavorites
+    @PostMapping("/bulk/favorite")
+    public ResponseEntity<?> setFavorite(@AuthenticationPrincipal UserPrincipal currentUser,
+                                         @Valid @RequestBody BulkFavoriteRequest request) {
+        return ResponseEntity.ok(translationPersistenceService.setFavorite(currentUser.getId(), request.getIds(), request.isFavorite()));
+    }
+
+    // Translations that are still saved are reported IN_USE and kept
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<?> deleteTranslations(@AuthenticationPrincipal UserPrincipal currentUser,
+                                                @Valid @RequestBody BulkIdsRequest request) {
+        return ResponseEntity.ok(translationPersistenceService.deleteTranslations(currentUser.getId(), request.getIds()));
+    }
+}
@@ -0,0 +1,31 @@
+package com.translationapp.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+// Users who wrote within the read-your-writes window. Their read-only transactions stay on the primary until the
+// window has passed, by which time any healthy replica (lag below max-lag-ms) has the write.
+@Component
+public class RecentWriteTracker {
+
+    private final Cache<UUID, Boolean> recentWriters;
+
+    public RecentWriteTracker(@Value("${app.datasource.replica.read-your-writes-ms:5000}") long windowMs) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(windowMs))
+                .build();
+    }
+
+    public void recordWrite(UUID userId) {
+        recentWriters.put(userId, Boolean.TRUE);
+    }
+
+    public boolean wroteRecently(UUID userId) {
+        return recentWriters.getIfPresent(userId) != null;
+    }
+}
@@ -0,0 +1,70 @@
+package com.translationapp.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Checks each replica pool on a fixed delay and takes it out of (or puts it back into) the read rotation. Shown under
+// /actuator/health as "replica". Always UP: with every replica out, reads go to the primary and the app still works,
+// so a replica outage must not fail the instance's health check; the per-pool details say what is going on.
+@Component
+public class ReplicaHealthIndicator implements HealthIndicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaHealthIndicator.class);
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final long maxLagMs;
+    private final int checkTimeoutSeconds;
+
+    public ReplicaHealthIndicator(ReplicaRoutingDataSource routingDataSource,
+                                  @Value("${app.datasource.replica.max-lag-ms:1000}") long maxLagMs,
+                                  @Value("${app.datasource.replica.health-check-timeout-seconds:2}") int checkTimeoutSeconds) {
+        this.routingDataSource = routingDataSource;
+        this.maxLagMs = maxLagMs;
+        this.checkTimeoutSeconds = checkTimeoutSeconds;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.datasource.replica.health-check-interval-ms:2000}")
+    public void checkReplicas() {
+        for (ReplicaPool replica : routingDataSource.getReplicas()) {
+            boolean wasHealthy = replica.isHealthy();
+            replica.check(maxLagMs, checkTimeoutSeconds);
+            if (wasHealthy && !replica.isHealthy()) {
+                logger.warn("Replica {} taken out of rotation: {}", replica.getName(), replica.getLastError());
+            } else if (!wasHealthy && replica.isHealthy()) {
+                logger.info("Replica {} back in rotation (lag {} ms)", replica.getName(), replica.getLagMs());
+            }
+        }
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = Health.up();
+        long healthy = 0;
+        for (ReplicaPool replica : routingDataSource.getReplicas()) {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("status", replica.isHealthy() ? "UP" : "DOWN");
+            details.put("lagMs", replica.getLagMs());
+            details.put("activeConnections", replica.getActiveConnections());
+            details.put("idleConnections", replica.getIdleConnections());
+            details.put("lastCheckedAt", replica.getLastCheckedAt());
+            if (replica.getLastError() != null) {
+                details.put("error", replica.getLastError());
+            }
+            builder.withDetail(replica.getName(), details);
+            if (replica.isHealthy()) {
+                healthy++;
+            }
+        }
+        return builder.withDetail("healthyReplicas", healthy)
+                .withDetail("configuredReplicas", routingDataSource.getReplicas().size())
+                .build();
+    }
+}
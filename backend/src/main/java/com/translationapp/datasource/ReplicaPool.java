@@ -0,0 +1,87 @@
+package com.translationapp.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+
+// One read replica's connection pool and its last health check. Only healthy replicas receive reads.
+public class ReplicaPool {
+
+    // Replay lag in ms; 0 when everything received has been replayed (an idle replica is not lagging just because
+    // its last replayed transaction is old), and 0 for a server that is not in recovery at all
+    private static final String LAG_SQL = "SELECT CASE "
+            + "WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(CAST(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 AS bigint), 0) END";
+
+    private final String name;
+    private final HikariDataSource dataSource;
+
+    private volatile boolean healthy;
+    private volatile long lagMs = -1;
+    private volatile String lastError;
+    private volatile Instant lastCheckedAt;
+
+    public ReplicaPool(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    // Healthy when reachable and no further behind than maxLagMs
+    public void check(long maxLagMs, int timeoutSeconds) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(LAG_SQL)) {
+            statement.setQueryTimeout(timeoutSeconds);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                lagMs = rs.getLong(1);
+            }
+            healthy = lagMs <= maxLagMs;
+            lastError = healthy ? null : "Replication lag " + lagMs + " ms exceeds " + maxLagMs + " ms";
+        } catch (SQLException | RuntimeException e) {
+            healthy = false;
+            lagMs = -1;
+            lastError = e.getMessage();
+        } finally {
+            lastCheckedAt = Instant.now();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public HikariDataSource getDataSource() {
+        return dataSource;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public Instant getLastCheckedAt() {
+        return lastCheckedAt;
+    }
+
+    public int getActiveConnections() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool != null ? pool.getActiveConnections() : 0;
+    }
+
+    public int getIdleConnections() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool != null ? pool.getIdleConnections() : 0;
+    }
+}
@@ -0,0 +1,94 @@
+package com.translationapp.datasource;
+
+import com.translationapp.security.UserPrincipal;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends @Transactional(readOnly = true) work to a healthy replica (round robin) and everything else to the primary.
+// Read-only transactions of a user who wrote within the read-your-writes window also stay on the primary, as does
+// every read when no replica is configured or healthy. Must sit behind a LazyConnectionDataSourceProxy: the
+// transaction manager opens the connection before the read-only flag is bound, the proxy defers that until the
+// first statement.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final String PRIMARY = "primary";
+
+    private final List<ReplicaPool> replicas;
+    private final RecentWriteTracker recentWriteTracker;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<ReplicaPool> replicas, RecentWriteTracker recentWriteTracker) {
+        this.replicas = List.copyOf(replicas);
+        this.recentWriteTracker = recentWriteTracker;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (ReplicaPool replica : this.replicas) {
+            targets.put(replica.getName(), replica.getDataSource());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        UUID userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                // Only committed writes start the window; a rolled back transaction changed nothing to read back
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recentWriteTracker.recordWrite(userId);
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (userId != null && recentWriteTracker.wroteRecently(userId)) {
+            return PRIMARY;
+        }
+        ReplicaPool replica = nextHealthyReplica();
+        return replica != null ? replica.getName() : PRIMARY;
+    }
+
+    private ReplicaPool nextHealthyReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            ReplicaPool replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static UUID currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+
+    public List<ReplicaPool> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+}
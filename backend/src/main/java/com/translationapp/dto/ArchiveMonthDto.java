@@ -0,0 +1,28 @@
+package com.translationapp.dto;
+
+public class ArchiveMonthDto {
+    private String month; // yyyy-MM
+    private long count;
+
+    public ArchiveMonthDto(String month, long count) {
+        this.month = month;
+        this.count = count;
+    }
+
+    // Getters and Setters
+    public String getMonth() {
+        return month;
+    }
+
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,15 @@
+package com.translationapp.dto;
+
+public class BulkFavoriteRequest extends BulkIdsRequest {
+
+    private boolean favorite = true; // false unfavorites
+
+    // Getters and Setters
+    public boolean isFavorite() {
+        return favorite;
+    }
+
+    public void setFavorite(boolean favorite) {
+        this.favorite = favorite;
+    }
+}
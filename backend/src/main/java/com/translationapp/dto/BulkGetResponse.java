@@ -0,0 +1,20 @@
+package com.translationapp.dto;
+
+import java.util.List;
+
+// Multi-get: the items found, in request order, and the ids that were not (missing or someone else's)
+public class BulkGetResponse<T> {
+    private List<T> items;
+    private List<String> notFound;
+
+    public BulkGetResponse(List<T> items, List<String> notFound) {
+        this.items = items;
+        this.notFound = notFound;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+    public List<String> getNotFound() { return notFound; }
+    public void setNotFound(List<String> notFound) { this.notFound = notFound; }
+}
@@ -0,0 +1,24 @@
+package com.translationapp.dto;
+
+import java.util.UUID;
+
+// Outcome for one id of a bulk request. status: OK, NOT_FOUND (missing or someone else's) or IN_USE (see message).
+public class BulkItemResult {
+    private String id;
+    private String status;
+    private String message;
+
+    public BulkItemResult(UUID id, String status, String message) {
+        this.id = id.toString();
+        this.status = status;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,17 @@
+package com.translationapp.dto;
+
+import java.util.UUID;
+
+public class BulkMoveRequest extends BulkIdsRequest {
+
+    private UUID folderId; // null moves the items out of any folder
+
+    // Getters and Setters
+    public UUID getFolderId() {
+        return folderId;
+    }
+
+    public void setFolderId(UUID folderId) {
+        this.folderId = folderId;
+    }
+}
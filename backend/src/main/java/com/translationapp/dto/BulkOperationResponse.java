@@ -0,0 +1,20 @@
+package com.translationapp.dto;
+
+import java.util.List;
+
+// Per-id outcomes in request order (duplicates removed), with the count of ids that succeeded
+public class BulkOperationResponse {
+    private List<BulkItemResult> results;
+    private int succeeded;
+
+    public BulkOperationResponse(List<BulkItemResult> results) {
+        this.results = results;
+        this.succeeded = (int) results.stream().filter(result -> "OK".equals(result.getStatus())).count();
+    }
+
+    // Getters and Setters
+    public List<BulkItemResult> getResults() { return results; }
+    public void setResults(List<BulkItemResult> results) { this.results = results; }
+    public int getSucceeded() { return succeeded; }
+    public void setSucceeded(int succeeded) { this.succeeded = succeeded; }
+}
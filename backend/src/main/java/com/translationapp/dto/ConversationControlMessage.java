@@ -0,0 +1,46 @@
+package com.translationapp.dto;
+
+// Text frame sent by the client over the conversation WebSocket.
+// "start" opens an utterance (audio follows as binary LINEAR16 frames), "stop" ends it.
+public class ConversationControlMessage {
+
+    private String type;            // "start" or "stop"
+    private String sourceLang;      // Speech language of this utterance, e.g. "en-US"
+    private String targetLang;      // Language to translate and speak into, e.g. "es-ES"
+    private Integer sampleRateHertz; // Optional, defaults to 16000
+
+    public ConversationControlMessage() {
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getSourceLang() {
+        return sourceLang;
+    }
+
+    public void setSourceLang(String sourceLang) {
+        this.sourceLang = sourceLang;
+    }
+
+    public String getTargetLang() {
+        return targetLang;
+    }
+
+    public void setTargetLang(String targetLang) {
+        this.targetLang = targetLang;
+    }
+
+    public Integer getSampleRateHertz() {
+        return sampleRateHertz;
+    }
+
+    public void setSampleRateHertz(Integer sampleRateHertz) {
+        this.sampleRateHertz = sampleRateHertz;
+    }
+}
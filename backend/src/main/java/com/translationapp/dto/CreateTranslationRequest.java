@@ -4,6 +4,9 @@ import com.translationapp.model.InputType;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
 
 public class CreateTranslationRequest {
 
@@ -22,6 +25,9 @@ public class CreateTranslationRequest {
     @NotNull
     private InputType inputType;
 
+    @Size(max = 20)
+    private List<@Size(max = 50) String> tags;
+
     // Getters and Setters
     public String getSourceText() {
         return sourceText;
@@ -62,4 +68,12 @@ public class CreateTranslationRequest {
     public void setInputType(InputType inputType) {
         this.inputType = inputType;
     }
-} 
\ No newline at end of file
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+}
@@ -0,0 +1,59 @@
+package com.translationapp.dto;
+
+import java.util.List;
+
+// Slice-style page for keyset pagination: no total count, just the rows and an opaque cursor for the next call
+public class CursorPage<T> {
+
+    // Listing page sizes are clamped to 1..MAX_SIZE (offset mode included) rather than rejected, so a client asking
+    // for more still gets a page, just a bounded one
+    public static final int MAX_SIZE = 100;
+
+    private List<T> content;
+    private String nextCursor; // null on the last page
+    private boolean hasNext;
+    private int size;
+
+    public CursorPage(List<T> content, String nextCursor, int size) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+        this.size = size;
+    }
+
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+}
@@ -0,0 +1,17 @@
+package com.translationapp.dto;
+
+import java.util.UUID;
+
+public class FolderMoveRequest {
+
+    private UUID parentFolderId; // Null moves the folder to the root
+
+    // Getters and Setters
+    public UUID getParentFolderId() {
+        return parentFolderId;
+    }
+
+    public void setParentFolderId(UUID parentFolderId) {
+        this.parentFolderId = parentFolderId;
+    }
+}
@@ -1,6 +1,8 @@
 package com.translationapp.dto;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import com.translationapp.model.Folder;
@@ -10,8 +12,10 @@ public class FolderResponseDto {
     private String name;
     private String parentFolderId; // String to handle null UUIDs gracefully
     private LocalDateTime createdAt;
-    // private List<FolderResponseDto> subFolders; // Optional: for nested responses
-    // private int itemCount; // Optional: count of items in this folder
+    // Only filled in by the tree endpoint
+    private List<FolderResponseDto> subFolders;
+    private Long itemCount;      // saved items directly in this folder
+    private Long totalItemCount; // including all subfolders
 
     public FolderResponseDto(UUID id, String name, UUID parentFolderId, LocalDateTime createdAt) {
         this.id = id.toString();
@@ -29,12 +33,13 @@ public class FolderResponseDto {
         );
     }
 
-    // If including subfolders directly in DTO:
-    // public static FolderResponseDto fromEntityWithSubfolders(Folder folder, List<Folder> subFolders) {
-    //     FolderResponseDto dto = fromEntity(folder);
-    //     dto.setSubFolders(subFolders.stream().map(FolderResponseDto::fromEntity).collect(Collectors.toList()));
-    //     return dto;
-    // }
+    public static FolderResponseDto fromEntityWithItemCount(Folder folder, long itemCount) {
+        FolderResponseDto dto = fromEntity(folder);
+        dto.setSubFolders(new ArrayList<>());
+        dto.setItemCount(itemCount);
+        dto.setTotalItemCount(itemCount);
+        return dto;
+    }
 
     // Getters and Setters
     public String getId() {
@@ -69,19 +74,27 @@ public class FolderResponseDto {
         this.createdAt = createdAt;
     }
 
-    // public List<FolderResponseDto> getSubFolders() {
-    //     return subFolders;
-    // }
+    public List<FolderResponseDto> getSubFolders() {
+        return subFolders;
+    }
 
-    // public void setSubFolders(List<FolderResponseDto> subFolders) {
-    //     this.subFolders = subFolders;
-    // }
+    public void setSubFolders(List<FolderResponseDto> subFolders) {
+        this.subFolders = subFolders;
+    }
 
-    // public int getItemCount() {
-    //     return itemCount;
-    // }
+    public Long getItemCount() {
+        return itemCount;
+    }
 
-    // public void setItemCount(int itemCount) {
-    //     this.itemCount = itemCount;
-    // }
+    public void setItemCount(Long itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public Long getTotalItemCount() {
+        return totalItemCount;
+    }
+
+    public void setTotalItemCount(Long totalItemCount) {
+        this.totalItemCount = totalItemCount;
+    }
 } 
\ No newline at end of file
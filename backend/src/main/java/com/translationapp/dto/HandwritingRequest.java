@@ -0,0 +1,32 @@
+package com.translationapp.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class HandwritingRequest {
+    // One array per pen stroke, flattened as x0, y0, x1, y1, ... in canvas coordinates
+    @NotEmpty
+    private float[][] strokes;
+    // Optional BCP-47 hints for Vision, e.g. "ja" or "en-t-i0-handwrit"
+    private List<String> languageHints;
+
+    public HandwritingRequest() {
+    }
+
+    public float[][] getStrokes() {
+        return strokes;
+    }
+
+    public void setStrokes(float[][] strokes) {
+        this.strokes = strokes;
+    }
+
+    public List<String> getLanguageHints() {
+        return languageHints;
+    }
+
+    public void setLanguageHints(List<String> languageHints) {
+        this.languageHints = languageHints;
+    }
+}
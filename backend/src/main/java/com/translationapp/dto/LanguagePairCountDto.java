@@ -0,0 +1,38 @@
+package com.translationapp.dto;
+
+public class LanguagePairCountDto {
+    private String sourceLang;
+    private String targetLang;
+    private long count;
+
+    public LanguagePairCountDto(String sourceLang, String targetLang, long count) {
+        this.sourceLang = sourceLang;
+        this.targetLang = targetLang;
+        this.count = count;
+    }
+
+    // Getters and Setters
+    public String getSourceLang() {
+        return sourceLang;
+    }
+
+    public void setSourceLang(String sourceLang) {
+        this.sourceLang = sourceLang;
+    }
+
+    public String getTargetLang() {
+        return targetLang;
+    }
+
+    public void setTargetLang(String targetLang) {
+        this.targetLang = targetLang;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
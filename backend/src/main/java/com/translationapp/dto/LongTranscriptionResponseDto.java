@@ -0,0 +1,39 @@
+package com.translationapp.dto;
+
+import java.util.List;
+
+public class LongTranscriptionResponseDto {
+    private String transcript;
+    private long durationMs;
+    private List<TranscriptSegmentDto> segments;
+
+    public LongTranscriptionResponseDto(String transcript, long durationMs, List<TranscriptSegmentDto> segments) {
+        this.transcript = transcript;
+        this.durationMs = durationMs;
+        this.segments = segments;
+    }
+
+    public String getTranscript() {
+        return transcript;
+    }
+
+    public void setTranscript(String transcript) {
+        this.transcript = transcript;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public List<TranscriptSegmentDto> getSegments() {
+        return segments;
+    }
+
+    public void setSegments(List<TranscriptSegmentDto> segments) {
+        this.segments = segments;
+    }
+}
@@ -0,0 +1,67 @@
+package com.translationapp.dto;
+
+import com.translationapp.search.SearchDocument;
+import com.translationapp.search.SearchHit;
+
+import java.time.LocalDateTime;
+
+// One search hit. For TRANSLATION, text/secondaryText are source/target text; for SAVED_ITEM, name/notes.
+public class SearchResultDto {
+    private String kind;
+    private String id;
+    private String translationId;
+    private String text;
+    private String textLang;
+    private String secondaryText;
+    private String secondaryLang;
+    private float rank;
+    private LocalDateTime createdAt;
+
+    public SearchResultDto(String kind, String id, String translationId, String text, String textLang,
+                           String secondaryText, String secondaryLang, float rank, LocalDateTime createdAt) {
+        this.kind = kind;
+        this.id = id;
+        this.translationId = translationId;
+        this.text = text;
+        this.textLang = textLang;
+        this.secondaryText = secondaryText;
+        this.secondaryLang = secondaryLang;
+        this.rank = rank;
+        this.createdAt = createdAt;
+    }
+
+    public static SearchResultDto fromHit(SearchHit hit) {
+        SearchDocument document = hit.getDocument();
+        return new SearchResultDto(
+            document.getKind().name(),
+            document.getId().toString(),
+            document.getTranslationId() != null ? document.getTranslationId().toString() : null,
+            document.getPrimaryText(),
+            document.getPrimaryLang(),
+            document.getSecondaryText(),
+            document.getSecondaryLang(),
+            hit.getRank(),
+            document.getCreatedAt()
+        );
+    }
+
+    // Getters and Setters
+    public String getKind() { return kind; }
+    public void setKind(String kind) { this.kind = kind; }
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getTranslationId() { return translationId; }
+    public void setTranslationId(String translationId) { this.translationId = translationId; }
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+    public String getTextLang() { return textLang; }
+    public void setTextLang(String textLang) { this.textLang = textLang; }
+    public String getSecondaryText() { return secondaryText; }
+    public void setSecondaryText(String secondaryText) { this.secondaryText = secondaryText; }
+    public String getSecondaryLang() { return secondaryLang; }
+    public void setSecondaryLang(String secondaryLang) { this.secondaryLang = secondaryLang; }
+    public float getRank() { return rank; }
+    public void setRank(float rank) { this.rank = rank; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
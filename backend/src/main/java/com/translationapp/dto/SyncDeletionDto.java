@@ -0,0 +1,17 @@
+package com.translationapp.dto;
+
+public class SyncDeletionDto {
+    private String type; // "TRANSLATION", "SAVED_ITEM" or "FOLDER"
+    private String id;
+
+    public SyncDeletionDto(String type, String id) {
+        this.type = type;
+        this.id = id;
+    }
+
+    // Getters and Setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+}
@@ -0,0 +1,31 @@
+package com.translationapp.dto;
+
+// Outcome of one pushed row. status: APPLIED (created, or merged into an identical existing translation), EXISTING
+// (that translation was already saved; id is the existing saved item) or REJECTED (see message; nothing was written).
+public class SyncPushResultDto {
+    private String type; // "TRANSLATION" or "SAVED_ITEM"
+    private String clientId;
+    private String id;
+    private String status;
+    private String message;
+
+    public SyncPushResultDto(String type, String clientId, String id, String status, String message) {
+        this.type = type;
+        this.clientId = clientId;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public String getClientId() { return clientId; }
+    public void setClientId(String clientId) { this.clientId = clientId; }
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
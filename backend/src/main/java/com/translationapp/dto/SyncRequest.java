@@ -0,0 +1,46 @@
+package com.translationapp.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One sync round trip: what the client made offline, and the cursor from its previous sync (null the first time)
+public class SyncRequest {
+
+    private String cursor;
+
+    @Valid
+    @Size(max = 500)
+    private List<SyncTranslationRequest> translations = new ArrayList<>();
+
+    @Valid
+    @Size(max = 500)
+    private List<SyncSavedItemRequest> savedItems = new ArrayList<>();
+
+    // Getters and Setters
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public List<SyncTranslationRequest> getTranslations() {
+        return translations;
+    }
+
+    public void setTranslations(List<SyncTranslationRequest> translations) {
+        this.translations = translations != null ? translations : new ArrayList<>();
+    }
+
+    public List<SyncSavedItemRequest> getSavedItems() {
+        return savedItems;
+    }
+
+    public void setSavedItems(List<SyncSavedItemRequest> savedItems) {
+        this.savedItems = savedItems != null ? savedItems : new ArrayList<>();
+    }
+}
@@ -0,0 +1,36 @@
+package com.translationapp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Everything that changed since the request's cursor (up to the page limit), plus the outcome of each pushed row.
+// Store cursor and send it next time; while hasMore is true, sync again straight away. resetRequired means the
+// cursor is too old to continue from: drop local server-side state and sync again with no cursor.
+public class SyncResponse {
+    private String cursor;
+    private boolean hasMore;
+    private boolean resetRequired;
+    private List<TranslationResponseDto> translations = new ArrayList<>();
+    private List<SavedItemResponseDto> savedItems = new ArrayList<>();
+    private List<FolderResponseDto> folders = new ArrayList<>();
+    private List<SyncDeletionDto> deleted = new ArrayList<>();
+    private List<SyncPushResultDto> pushed = new ArrayList<>();
+
+    // Getters and Setters
+    public String getCursor() { return cursor; }
+    public void setCursor(String cursor) { this.cursor = cursor; }
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+    public boolean isResetRequired() { return resetRequired; }
+    public void setResetRequired(boolean resetRequired) { this.resetRequired = resetRequired; }
+    public List<TranslationResponseDto> getTranslations() { return translations; }
+    public void setTranslations(List<TranslationResponseDto> translations) { this.translations = translations; }
+    public List<SavedItemResponseDto> getSavedItems() { return savedItems; }
+    public void setSavedItems(List<SavedItemResponseDto> savedItems) { this.savedItems = savedItems; }
+    public List<FolderResponseDto> getFolders() { return folders; }
+    public void setFolders(List<FolderResponseDto> folders) { this.folders = folders; }
+    public List<SyncDeletionDto> getDeleted() { return deleted; }
+    public void setDeleted(List<SyncDeletionDto> deleted) { this.deleted = deleted; }
+    public List<SyncPushResultDto> getPushed() { return pushed; }
+    public void setPushed(List<SyncPushResultDto> pushed) { this.pushed = pushed; }
+}
@@ -0,0 +1,100 @@
+package com.translationapp.dto;
+
+import com.translationapp.model.SavedItemCategory;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// A saved item made offline. It points at its translation either by server id, or by the clientId of a translation
+// pushed in the same request.
+public class SyncSavedItemRequest {
+
+    @NotBlank
+    @Size(max = 100)
+    private String clientId;
+
+    private UUID translationId;
+
+    @Size(max = 100)
+    private String translationClientId;
+
+    @NotNull
+    private SavedItemCategory category;
+
+    private UUID folderId; // Optional; an unknown folder rejects the item
+
+    @Size(max = 255)
+    private String name;   // Optional, defaults to the translation's source text
+
+    private String notes;  // Optional
+
+    private LocalDateTime createdAt; // Optional; defaults to now, and is never later than now
+
+    // Getters and Setters
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    public UUID getTranslationId() {
+        return translationId;
+    }
+
+    public void setTranslationId(UUID translationId) {
+        this.translationId = translationId;
+    }
+
+    public String getTranslationClientId() {
+        return translationClientId;
+    }
+
+    public void setTranslationClientId(String translationClientId) {
+        this.translationClientId = translationClientId;
+    }
+
+    public SavedItemCategory getCategory() {
+        return category;
+    }
+
+    public void setCategory(SavedItemCategory category) {
+        this.category = category;
+    }
+
+    public UUID getFolderId() {
+        return folderId;
+    }
+
+    public void setFolderId(UUID folderId) {
+        this.folderId = folderId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,44 @@
+package com.translationapp.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+// A translation made offline. Same fields as CreateTranslationRequest, plus the client's own id for it (echoed back
+// with the server id) and when it was made.
+public class SyncTranslationRequest extends CreateTranslationRequest {
+
+    @NotBlank
+    @Size(max = 100)
+    private String clientId;
+
+    private boolean favorite;
+
+    private LocalDateTime createdAt; // Optional; defaults to now, and is never later than now
+
+    // Getters and Setters
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    public boolean isFavorite() {
+        return favorite;
+    }
+
+    public void setFavorite(boolean favorite) {
+        this.favorite = favorite;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,37 @@
+package com.translationapp.dto;
+
+public class TranscriptSegmentDto {
+    private long startMs;
+    private long endMs;
+    private String transcript;
+
+    public TranscriptSegmentDto(long startMs, long endMs, String transcript) {
+        this.startMs = startMs;
+        this.endMs = endMs;
+        this.transcript = transcript;
+    }
+
+    public long getStartMs() {
+        return startMs;
+    }
+
+    public void setStartMs(long startMs) {
+        this.startMs = startMs;
+    }
+
+    public long getEndMs() {
+        return endMs;
+    }
+
+    public void setEndMs(long endMs) {
+        this.endMs = endMs;
+    }
+
+    public String getTranscript() {
+        return transcript;
+    }
+
+    public void setTranscript(String transcript) {
+        this.transcript = transcript;
+    }
+}
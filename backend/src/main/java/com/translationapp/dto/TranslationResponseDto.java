@@ -4,6 +4,7 @@ import com.translationapp.model.InputType;
 import com.translationapp.model.Translation;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public class TranslationResponseDto {
@@ -14,12 +15,18 @@ public class TranslationResponseDto {
     private String targetLang;
     private InputType inputType;
     private boolean isFavorite;
-    private String tags; // JSON string
+    private List<String> tags;
     private LocalDateTime createdAt;
+    private int useCount;            // how many times this exact translation was made
+    private LocalDateTime lastUsedAt;
     // user_id is not typically exposed directly in list views, assumed to be current user
 
+    public TranslationResponseDto() {
+        // For Jackson (archived history is stored as serialized DTOs)
+    }
+
     public TranslationResponseDto(UUID id, String sourceText, String targetText, String sourceLang, String targetLang, 
-                                  InputType inputType, boolean isFavorite, String tags, LocalDateTime createdAt) {
+                                  InputType inputType, boolean isFavorite, List<String> tags, LocalDateTime createdAt) {
         this.id = id.toString();
         this.sourceText = sourceText;
         this.targetText = targetText;
@@ -32,7 +39,7 @@ public class TranslationResponseDto {
     }
 
     public static TranslationResponseDto fromEntity(Translation translation) {
-        return new TranslationResponseDto(
+        TranslationResponseDto dto = new TranslationResponseDto(
             translation.getId(),
             translation.getSourceText(),
             translation.getTargetText(),
@@ -43,6 +50,9 @@ public class TranslationResponseDto {
             translation.getTags(),
             translation.getCreatedAt()
         );
+        dto.setUseCount(translation.getUseCount());
+        dto.setLastUsedAt(translation.getLastUsedAt());
+        return dto;
     }
 
     // Getters and Setters
@@ -60,8 +70,12 @@ public class TranslationResponseDto {
     public void setInputType(InputType inputType) { this.inputType = inputType; }
     public boolean isFavorite() { return isFavorite; }
     public void setFavorite(boolean favorite) { isFavorite = favorite; }
-    public String getTags() { return tags; }
-    public void setTags(String tags) { this.tags = tags; }
+    public List<String> getTags() { return tags; }
+    public void setTags(List<String> tags) { this.tags = tags; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public int getUseCount() { return useCount; }
+    public void setUseCount(int useCount) { this.useCount = useCount; }
+    public LocalDateTime getLastUsedAt() { return lastUsedAt; }
+    public void setLastUsedAt(LocalDateTime lastUsedAt) { this.lastUsedAt = lastUsedAt; }
 } 
\ No newline at end of file
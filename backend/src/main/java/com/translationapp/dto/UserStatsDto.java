@@ -0,0 +1,65 @@
+package com.translationapp.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Translation counts include repeats; favorites and savedItems are current totals
+public class UserStatsDto {
+    private long totalTranslations;
+    private long favorites;
+    private long savedItems;
+    private List<LanguagePairCountDto> byLanguagePair = new ArrayList<>(); // most used first
+    private Map<String, Long> byInputType = new LinkedHashMap<>();
+    private Map<String, Long> byDay = new LinkedHashMap<>(); // yyyy-MM-dd, oldest first; days without use are absent
+
+    // Getters and Setters
+    public long getTotalTranslations() {
+        return totalTranslations;
+    }
+
+    public void setTotalTranslations(long totalTranslations) {
+        this.totalTranslations = totalTranslations;
+    }
+
+    public long getFavorites() {
+        return favorites;
+    }
+
+    public void setFavorites(long favorites) {
+        this.favorites = favorites;
+    }
+
+    public long getSavedItems() {
+        return savedItems;
+    }
+
+    public void setSavedItems(long savedItems) {
+        this.savedItems = savedItems;
+    }
+
+    public List<LanguagePairCountDto> getByLanguagePair() {
+        return byLanguagePair;
+    }
+
+    public void setByLanguagePair(List<LanguagePairCountDto> byLanguagePair) {
+        this.byLanguagePair = byLanguagePair;
+    }
+
+    public Map<String, Long> getByInputType() {
+        return byInputType;
+    }
+
+    public void setByInputType(Map<String, Long> byInputType) {
+        this.byInputType = byInputType;
+    }
+
+    public Map<String, Long> getByDay() {
+        return byDay;
+    }
+
+    public void setByDay(Map<String, Long> byDay) {
+        this.byDay = byDay;
+    }
+}
@@ -0,0 +1,11 @@
+package com.translationapp.exception;
+
+public class UnsupportedAudioFormatException extends Exception {
+    public UnsupportedAudioFormatException(String message) {
+        super(message);
+    }
+
+    public UnsupportedAudioFormatException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
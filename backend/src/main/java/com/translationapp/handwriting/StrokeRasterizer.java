@@ -0,0 +1,148 @@
+package com.translationapp.handwriting;
+
+import java.util.Arrays;
+
+// Renders pen strokes into a black-on-white 1-bit PNG sized for Vision document text detection.
+// The drawing is cropped to its bounding box and scaled so its longer side is TARGET_LONG_SIDE pixels, which keeps
+// glyphs well above Vision's minimum text height without sending more pixels than it needs. Pixels are written
+// straight into a single PNG scanline buffer, so rendering a request allocates one array plus the encoder output.
+public final class StrokeRasterizer {
+
+    public static final int MAX_POINTS = 50_000;
+
+    private static final int TARGET_LONG_SIDE = 1024;
+    private static final float MAX_UPSCALE = 4f;   // tiny scribbles are not blown up into blocky blobs
+    private static final int MARGIN = 32;
+
+    private StrokeRasterizer() {
+    }
+
+    public static byte[] toPng(float[][] strokes) {
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        int points = 0;
+        for (float[] stroke : strokes) {
+            if (stroke == null || stroke.length % 2 != 0) {
+                throw new IllegalArgumentException("Each stroke must be a flat list of x, y pairs.");
+            }
+            for (int i = 0; i < stroke.length; i += 2) {
+                float x = stroke[i], y = stroke[i + 1];
+                if (!Float.isFinite(x) || !Float.isFinite(y)) {
+                    throw new IllegalArgumentException("Stroke coordinates must be finite numbers.");
+                }
+                minX = Math.min(minX, x);
+                maxX = Math.max(maxX, x);
+                minY = Math.min(minY, y);
+                maxY = Math.max(maxY, y);
+            }
+            points += stroke.length / 2;
+        }
+        if (points == 0) {
+            throw new IllegalArgumentException("Handwriting contains no points.");
+        }
+        if (points > MAX_POINTS) {
+            throw new IllegalArgumentException("Handwriting has too many points (max " + MAX_POINTS + ").");
+        }
+
+        float longSide = Math.max(1f, Math.max(maxX - minX, maxY - minY));
+        float scale = Math.min(MAX_UPSCALE, TARGET_LONG_SIDE / longSide);
+        // Pen width follows the output size rather than the client's brush, so strokes stay legible after scaling
+        int radius = Math.max(2, Math.round(Math.max(maxX - minX, maxY - minY) * scale / 256f));
+        int width = Math.round((maxX - minX) * scale) + 2 * (MARGIN + radius) + 1;
+        int height = Math.round((maxY - minY) * scale) + 2 * (MARGIN + radius) + 1;
+
+        Canvas canvas = new Canvas(width, height, radius);
+        float offsetX = MARGIN + radius - minX * scale;
+        float offsetY = MARGIN + radius - minY * scale;
+        for (float[] stroke : strokes) {
+            if (stroke.length == 0) {
+                continue;
+            }
+            int prevX = Math.round(stroke[0] * scale + offsetX);
+            int prevY = Math.round(stroke[1] * scale + offsetY);
+            canvas.stamp(prevX, prevY); // a single tap is still a dot
+            for (int i = 2; i < stroke.length; i += 2) {
+                int x = Math.round(stroke[i] * scale + offsetX);
+                int y = Math.round(stroke[i + 1] * scale + offsetY);
+                canvas.line(prevX, prevY, x, y);
+                prevX = x;
+                prevY = y;
+            }
+        }
+        return PngEncoder.encodeBilevel(canvas.scanlines, width, height);
+    }
+
+    private static final class Canvas {
+        private final int width;
+        private final int height;
+        private final int stride;          // bytes per scanline including the leading filter byte
+        private final byte[] scanlines;
+        private final int radius;
+        private final int[] halfSpan;      // disc half-width for each row offset -radius..radius
+
+        Canvas(int width, int height, int radius) {
+            this.width = width;
+            this.height = height;
+            this.stride = 1 + (width + 7) / 8;
+            this.scanlines = new byte[stride * height];
+            Arrays.fill(scanlines, (byte) 0xFF); // white; filter bytes are reset below
+            for (int y = 0; y < height; y++) {
+                scanlines[y * stride] = 0; // filter type None
+            }
+            this.radius = radius;
+            this.halfSpan = new int[2 * radius + 1];
+            for (int dy = -radius; dy <= radius; dy++) {
+                halfSpan[dy + radius] = (int) Math.floor(Math.sqrt((double) radius * radius - (double) dy * dy));
+            }
+        }
+
+        // Bresenham walk with the pen disc stamped at every pixel step
+        void line(int x0, int y0, int x1, int y1) {
+            int dx = Math.abs(x1 - x0), dy = -Math.abs(y1 - y0);
+            int sx = x0 < x1 ? 1 : -1, sy = y0 < y1 ? 1 : -1;
+            int err = dx + dy;
+            while (true) {
+                stamp(x0, y0);
+                if (x0 == x1 && y0 == y1) {
+                    return;
+                }
+                int e2 = 2 * err;
+                if (e2 >= dy) {
+                    err += dy;
+                    x0 += sx;
+                }
+                if (e2 <= dx) {
+                    err += dx;
+                    y0 += sy;
+                }
+            }
+        }
+
+        void stamp(int cx, int cy) {
+            for (int dy = -radius; dy <= radius; dy++) {
+                int y = cy + dy;
+                if (y < 0 || y >= height) {
+                    continue;
+                }
+                int half = halfSpan[dy + radius];
+                fillSpan(y, Math.max(0, cx - half), Math.min(width - 1, cx + half));
+            }
+        }
+
+        // Clears bits x0..x1 (inclusive) in row y; 0 is black in a 1-bit grayscale PNG
+        private void fillSpan(int y, int x0, int x1) {
+            int row = y * stride + 1;
+            int firstByte = x0 >> 3, lastByte = x1 >> 3;
+            int firstMask = 0xFF >>> (x0 & 7);
+            int lastMask = 0xFF << (7 - (x1 & 7)) & 0xFF;
+            if (firstByte == lastByte) {
+                scanlines[row + firstByte] &= (byte) ~(firstMask & lastMask);
+                return;
+            }
+            scanlines[row + firstByte] &= (byte) ~firstMask;
+            for (int b = firstByte + 1; b < lastByte; b++) {
+                scanlines[row + b] = 0;
+            }
+            scanlines[row + lastByte] &= (byte) ~lastMask;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.translationapp.model;
+
+// Rows of user_change_counters (see V11): one per table a user's listings are built from
+public enum ChangeResource {
+    TRANSLATIONS,
+    SAVED_ITEMS,
+    FOLDERS,
+    PROFILE // the users row
+}
@@ -1,15 +1,22 @@
 package com.translationapp.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.domain.Persistable;
+
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+// Read for every ownership check and listing, written rarely; second-level cached (see FolderRepository)
 @Entity
 @Table(name = "folders")
-public class Folder {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "folders")
+public class Folder implements Persistable<UUID> {
 
+    // Assigned on construction because the folder's own id is the last segment of its path
     @Id
-    @GeneratedValue
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -23,29 +30,62 @@ public class Folder {
     @JoinColumn(name = "parent_folder_id") // Nullable for root folders
     private Folder parentFolder;
 
-    // OneToMany mapping for subfolders can be added if needed for easier traversal
-    // @OneToMany(mappedBy = "parentFolder", cascade = CascadeType.ALL, orphanRemoval = true)
-    // private List<Folder> subFolders = new ArrayList<>();
+    // Materialized path: ids from the root down to this folder, each followed by '/' ("<root>/<child>/<id>/").
+    // The subtree of a folder is every row whose path starts with its path, which is a range scan on
+    // (user_id, path); the column uses the "C" collation so that range is plain byte order.
+    @Column(nullable = false, columnDefinition = "text")
+    private String path;
 
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // Stamped by a database trigger on every insert and update (V8); only current on an entity read from the database
+    // after the write, not on one from the second-level cache (sync reads bypass it)
+    @Column(name = "sync_version", insertable = false, updatable = false)
+    private Long syncVersion;
+
+    @Transient
+    private boolean isNew = true; // Lets Spring Data persist() instead of merge() despite the assigned id
+
     public Folder() {
         this.createdAt = LocalDateTime.now();
     }
 
     public Folder(User user, String name, Folder parentFolder) {
         this();
+        this.id = UUID.randomUUID();
         this.user = user;
         this.name = name;
         this.parentFolder = parentFolder;
+        this.path = (parentFolder != null ? parentFolder.getPath() : "") + id + "/";
+    }
+
+    // Upper bound for a range scan over the subtree: the path with its trailing '/' replaced by the next byte
+    public static String subtreeUpperBound(String path) {
+        return path.substring(0, path.length() - 1) + (char) ('/' + 1);
+    }
+
+    public boolean isAncestorOrSelfOf(Folder other) {
+        return other.getPath().startsWith(path);
     }
 
     // Getters and Setters
+    @Override
     public UUID getId() {
         return id;
     }
 
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
     public void setId(UUID id) {
         this.id = id;
     }
@@ -74,6 +114,14 @@ public class Folder {
         this.parentFolder = parentFolder;
     }
 
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -81,4 +129,8 @@ public class Folder {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-} 
\ No newline at end of file
+
+    public Long getSyncVersion() {
+        return syncVersion;
+    }
+}
@@ -4,5 +4,5 @@ public enum InputType {
     TEXT,
     SPEECH,
     IMAGE, // For OCR
-    HANDWRITING // Future placeholder
+    HANDWRITING // Stroke input, recognized via /api/handwriting
 } 
\ No newline at end of file
@@ -31,12 +31,16 @@ public class SavedItem {
     @Column // Nullable, user might not always name it explicitly
     private String name;
 
-    @Lob // For potentially longer notes
+    @Column(columnDefinition = "text")
     private String notes;
 
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // Stamped by a database trigger on every insert and update (V8); only current on an entity loaded after the write
+    @Column(name = "sync_version", insertable = false, updatable = false)
+    private Long syncVersion;
+
     public SavedItem() {
         this.createdAt = LocalDateTime.now();
     }
@@ -116,4 +120,8 @@ public class SavedItem {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-} 
\ No newline at end of file
+
+    public Long getSyncVersion() {
+        return syncVersion;
+    }
+}
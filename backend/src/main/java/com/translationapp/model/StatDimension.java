@@ -0,0 +1,11 @@
+package com.translationapp.model;
+
+// Rows of user_stat_counters (see V9)
+public enum StatDimension {
+    TOTAL,
+    LANGUAGE_PAIR, // key "<source>|<target>"
+    INPUT_TYPE,
+    DAY, // key yyyy-MM-dd
+    FAVORITES,
+    SAVED
+}
@@ -1,6 +1,11 @@
 package com.translationapp.model;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 import jakarta.persistence.Column;
@@ -8,31 +13,34 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
 
 @Entity
 @Table(name = "translations")
-public class Translation {
+public class Translation implements Persistable<UUID> {
 
+    // Derived from the content hash on construction: the same user translating the same text between the same
+    // languages always gets the same id, so a queued insert already has the id of the row it will upsert into
     @Id
-    @GeneratedValue
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Lob
-    @Column(name = "source_text", nullable = false)
+    @Column(name = "source_text", nullable = false, columnDefinition = "text")
     private String sourceText;
 
-    @Lob
-    @Column(name = "target_text", nullable = false)
+    @Column(name = "target_text", nullable = false, columnDefinition = "text")
     private String targetText;
 
     @Column(name = "source_lang", nullable = false)
@@ -51,21 +59,43 @@ public class Translation {
     @Column(name = "is_saved", nullable = false)
     private boolean isSaved = false; // Default to not false
 
-    @Lob // For potentially larger JSON string for tags
-    @Column(name = "tags")
-    private String tags; // JSON string
+    // jsonb array of strings; GIN-indexed for the ?tag= filter
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "tags", columnDefinition = "jsonb")
+    private List<String> tags;
 
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // SHA-256 of (user, languages, texts), see contentHash(); unique per user. Null only on rows written before
+    // deduplication that TranslationCompactionJob has not merged yet.
+    @Column(name = "content_hash")
+    private byte[] contentHash;
+
+    @Column(name = "use_count", nullable = false)
+    private int useCount = 1;
+
+    @Column(name = "last_used_at", nullable = false)
+    private LocalDateTime lastUsedAt;
+
+    // Stamped by a database trigger on every insert and update (V8); only current on an entity loaded after the write
+    @Column(name = "sync_version", insertable = false, updatable = false)
+    private Long syncVersion;
+
+    @Transient
+    private boolean isNew = true; // Lets Spring Data persist() instead of merge() despite the assigned id
+
     public Translation() {
         this.createdAt = LocalDateTime.now();
+        this.lastUsedAt = this.createdAt;
     }
 
     // Constructor, Getters, and Setters
 
     public Translation(User user, String sourceText, String targetText, String sourceLang, String targetLang, InputType inputType) {
         this();
+        this.contentHash = contentHash(user.getId(), sourceText, targetText, sourceLang, targetLang);
+        this.id = idForContentHash(contentHash);
         this.user = user;
         this.sourceText = sourceText;
         this.targetText = targetText;
@@ -74,10 +104,38 @@ public class Translation {
         this.inputType = inputType;
     }
 
+    // Fields are separated by U+001F so no two different tuples serialize the same; language codes are
+    // case-insensitive, texts are hashed exactly as stored
+    public static byte[] contentHash(UUID userId, String sourceText, String targetText, String sourceLang, String targetLang) {
+        String key = userId + "\u001f" + sourceLang.toLowerCase(Locale.ROOT) + "\u001f" + targetLang.toLowerCase(Locale.ROOT)
+                + "\u001f" + sourceText + "\u001f" + targetText;
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static UUID idForContentHash(byte[] contentHash) {
+        return UUID.nameUUIDFromBytes(contentHash);
+    }
+
+    @Override
     public UUID getId() {
         return id;
     }
 
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
     public void setId(UUID id) {
         this.id = id;
     }
@@ -146,14 +204,38 @@ public class Translation {
         isSaved = saved;
     }
 
-    public String getTags() {
+    public List<String> getTags() {
         return tags;
     }
 
-    public void setTags(String tags) {
+    public void setTags(List<String> tags) {
         this.tags = tags;
     }
 
+    public byte[] getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(byte[] contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public int getUseCount() {
+        return useCount;
+    }
+
+    public void setUseCount(int useCount) {
+        this.useCount = useCount;
+    }
+
+    public LocalDateTime getLastUsedAt() {
+        return lastUsedAt;
+    }
+
+    public void setLastUsedAt(LocalDateTime lastUsedAt) {
+        this.lastUsedAt = lastUsedAt;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -161,4 +243,8 @@ public class Translation {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-} 
\ No newline at end of file
+
+    public Long getSyncVersion() {
+        return syncVersion;
+    }
+}
@@ -1,11 +1,18 @@
 package com.translationapp.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+// Loaded by id on nearly every authenticated request and rarely written, so kept in the second-level cache
 @Entity
 @Table(name = "users") // Explicitly name the table
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class User {
 
     @Id
@@ -30,15 +37,20 @@ public class User {
     @Column(name = "last_login")
     private LocalDateTime lastLogin;
 
+    // Tokens issued before this are rejected (see AccountStateCache)
+    @Column(name = "token_valid_after")
+    private LocalDateTime tokenValidAfter;
+
     @Column(name = "preferred_source_lang")
     private String preferredSourceLang;
 
     @Column(name = "preferred_target_lang")
     private String preferredTargetLang;
 
-    @Lob // For potentially larger JSON string
-    @Column(name = "settings")
-    private String settings; // To store JSON as String
+    // Stored as jsonb; the string is passed through as-is, so it must be valid JSON (checked in UserService)
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "settings", columnDefinition = "jsonb")
+    private String settings;
 
     // Lombok's @Data was removed due to issues, ensure getters/setters exist or are added.
 
@@ -112,6 +124,14 @@ public class User {
         this.lastLogin = lastLogin;
     }
 
+    public LocalDateTime getTokenValidAfter() {
+        return tokenValidAfter;
+    }
+
+    public void setTokenValidAfter(LocalDateTime tokenValidAfter) {
+        this.tokenValidAfter = tokenValidAfter;
+    }
+
     public String getPreferredSourceLang() {
         return preferredSourceLang;
     }
@@ -0,0 +1,35 @@
+package com.translationapp.repository;
+
+import com.translationapp.model.ChangeResource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// user_change_counters (V11). Written only by triggers; this side just reads.
+@Repository
+public class ChangeCounterRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ChangeCounterRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Resources the user has never written are left out
+    public Map<ChangeResource, Long> findVersions(UUID userId, ChangeResource... resources) {
+        List<String> names = Arrays.stream(resources).map(ChangeResource::name).toList();
+        Map<ChangeResource, Long> versions = new EnumMap<>(ChangeResource.class);
+        jdbcTemplate.query("SELECT resource, version FROM user_change_counters WHERE user_id = :userId AND resource IN (:resources)",
+                new MapSqlParameterSource().addValue("userId", userId).addValue("resources", names),
+                rs -> {
+                    versions.put(ChangeResource.valueOf(rs.getString("resource")), rs.getLong("version"));
+                });
+        return versions;
+    }
+}
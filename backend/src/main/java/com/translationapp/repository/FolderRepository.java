@@ -1,26 +1,100 @@
 package com.translationapp.repository;
 
 import com.translationapp.model.Folder;
-import com.translationapp.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+// Lookups are scoped by owner: a folder that exists but belongs to someone else is indistinguishable from one that
+// does not exist. Folders are second-level cached (region "folders"), and the listings below are cached queries
+// (region "folder-listings"); Hibernate drops cached listings whenever the folders table is written.
 @Repository
 public interface FolderRepository extends JpaRepository<Folder, UUID> {
 
+    // A primary-key load, so a cached folder costs no round trip; the owner check is made on the loaded row
+    default Optional<Folder> findByIdAndUser_Id(UUID id, UUID userId) {
+        return findById(id).filter(folder -> folder.getUser().getId().equals(userId));
+    }
+
+    default boolean existsByIdAndUser_Id(UUID id, UUID userId) {
+        return findByIdAndUser_Id(id, userId).isPresent();
+    }
+
     // Find root folders for a user (folders with no parent)
-    List<Folder> findByUserAndParentFolderIsNullOrderByCreatedAtDesc(User user);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "folder-listings")})
+    List<Folder> findByUser_IdAndParentFolderIsNullOrderByCreatedAtDesc(UUID userId);
 
     // Find subfolders for a given parent folder for a user
-    List<Folder> findByUserAndParentFolderOrderByCreatedAtDesc(User user, Folder parentFolder);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "folder-listings")})
+    List<Folder> findByUser_IdAndParentFolder_IdOrderByCreatedAtDesc(UUID userId, UUID parentFolderId);
+
+    boolean existsByUser_IdAndParentFolder_Id(UUID userId, UUID parentFolderId);
+
+    // Delta sync: the user's folders written after a sync version, in version order. Read past the second-level
+    // cache, whose copies do not carry the trigger-stamped sync version.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "REFRESH"))
+    @Query("SELECT f FROM Folder f WHERE f.user.id = :userId AND f.syncVersion > :since ORDER BY f.syncVersion")
+    List<Folder> findChangedSince(@Param("userId") UUID userId, @Param("since") long since, Limit limit);
+
+    @Query("SELECT f.id FROM Folder f WHERE f.user.id = :userId AND f.id IN :ids")
+    List<UUID> findOwnedIds(@Param("userId") UUID userId, @Param("ids") Collection<UUID> ids);
+
+    // Duplicate-name checks within a parent folder / at the root; excludeId lets a folder keep its own name
+    @Query("SELECT COUNT(f) > 0 FROM Folder f WHERE f.user.id = :userId AND f.parentFolder.id = :parentFolderId " +
+            "AND f.name = :name AND (:excludeId IS NULL OR f.id <> :excludeId)")
+    boolean existsSiblingWithName(@Param("userId") UUID userId, @Param("parentFolderId") UUID parentFolderId,
+                                  @Param("name") String name, @Param("excludeId") UUID excludeId);
+
+    @Query("SELECT COUNT(f) > 0 FROM Folder f WHERE f.user.id = :userId AND f.parentFolder IS NULL " +
+            "AND f.name = :name AND (:excludeId IS NULL OR f.id <> :excludeId)")
+    boolean existsRootWithName(@Param("userId") UUID userId, @Param("name") String name, @Param("excludeId") UUID excludeId);
+
+    @Modifying
+    @Query("DELETE FROM Folder f WHERE f.id = :id AND f.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    // The whole tree with the number of saved items directly in each folder, in one query.
+    // Rows are [Folder, Long], newest first, so children come out in the same order as the flat listings.
+    @Query("SELECT f, COUNT(s.id) FROM Folder f LEFT JOIN SavedItem s ON s.folder = f " +
+            "WHERE f.user.id = :userId GROUP BY f ORDER BY f.createdAt DESC")
+    List<Object[]> findTreeWithItemCounts(@Param("userId") UUID userId);
+
+    // Row locks (in id order, so two moves never deadlock) on the folders whose paths a move or create reads;
+    // a concurrent move of either one waits, so the paths seen here are still current when the update runs.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM Folder f WHERE f.user.id = :userId AND f.id IN :ids ORDER BY f.id")
+    List<Folder> findAndLockByUserIdAndIdIn(@Param("userId") UUID userId, @Param("ids") Collection<UUID> ids);
 
-    // Find by name within a specific parent folder for a user (for duplicate checks)
-    Optional<Folder> findByUserAndParentFolderAndName(User user, Folder parentFolder, String name);
+    // Re-roots a subtree in one statement: every path under oldPrefix gets newPrefix instead, and the moved folder
+    // itself gets its new parent. Bounds are [oldPrefix, Folder.subtreeUpperBound(oldPrefix)).
+    // Declaring the table keeps Hibernate from invalidating every cache region, as it does for native updates
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "folders"))
+    @Query(value = "UPDATE folders SET path = :newPrefix || substring(path, char_length(:oldPrefix) + 1), " +
+            "parent_folder_id = CASE WHEN id = :folderId THEN CAST(:newParentId AS uuid) ELSE parent_folder_id END " +
+            "WHERE user_id = :userId AND path >= :oldPrefix AND path < :oldPrefixEnd", nativeQuery = true)
+    int moveSubtree(@Param("userId") UUID userId, @Param("folderId") UUID folderId, @Param("newParentId") UUID newParentId,
+                    @Param("oldPrefix") String oldPrefix, @Param("oldPrefixEnd") String oldPrefixEnd,
+                    @Param("newPrefix") String newPrefix);
 
-    // Find by name for root folders for a user (for duplicate checks)
-    Optional<Folder> findByUserAndParentFolderIsNullAndName(User user, String name);
-} 
\ No newline at end of file
+    // A folder and all its descendants in one statement; the parent FK is checked at the end of the statement,
+    // so deletion order within the subtree does not matter
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Folder f WHERE f.user.id = :userId AND f.path >= :prefix AND f.path < :prefixEnd")
+    int deleteSubtree(@Param("userId") UUID userId, @Param("prefix") String prefix, @Param("prefixEnd") String prefixEnd);
+}
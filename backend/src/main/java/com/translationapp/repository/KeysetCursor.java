@@ -0,0 +1,80 @@
+package com.translationapp.repository;
+
+import com.translationapp.model.SavedItem;
+import com.translationapp.model.Translation;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+// Position in a (timestamp DESC, id DESC) ordered list. Encoded as URL-safe base64 so clients treat it as opaque.
+public class KeysetCursor {
+
+    // History is most recently used first: repeating a translation merges it into its existing row (see
+    // TranslationJdbcRepository), and that row moves back to the top
+    public static final Sort HISTORY_SORT = Sort.by(Sort.Order.desc("lastUsedAt"), Sort.Order.desc("id"));
+    public static final Sort SAVED_ITEM_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private final LocalDateTime timestamp;
+    private final UUID id;
+
+    public KeysetCursor(LocalDateTime timestamp, UUID id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    public static String of(Translation translation) {
+        return new KeysetCursor(translation.getLastUsedAt(), translation.getId()).encode();
+    }
+
+    public static String of(SavedItem savedItem) {
+        return new KeysetCursor(savedItem.getCreatedAt(), savedItem.getId()).encode();
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(cursor));
+            LocalDateTime timestamp = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            UUID id = new UUID(buffer.getLong(), buffer.getLong());
+            return new KeysetCursor(timestamp, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(28);
+        buffer.putLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(timestamp.getNano());
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    // Rows strictly after this cursor in the given order (HISTORY_SORT or SAVED_ITEM_SORT). The redundant
+    // "timestamp <= ?" is what lets Postgres turn the seek into an index range condition; the OR alone would only be
+    // applied as a filter while scanning.
+    public <T> Specification<T> after(Sort sort) {
+        String property = sort.iterator().next().getProperty();
+        return (root, query, cb) -> {
+            Path<LocalDateTime> rowTimestamp = root.get(property);
+            Path<UUID> rowId = root.get("id");
+            return cb.and(
+                    cb.lessThanOrEqualTo(rowTimestamp, timestamp),
+                    cb.or(cb.lessThan(rowTimestamp, timestamp), cb.lessThan(rowId, id)));
+        };
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
@@ -0,0 +1,45 @@
+package com.translationapp.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Set-based bulk operations on saved items: one ownership-scoped statement each, returning the ids it matched so
+// the caller can report per-id outcomes. Callers provide the transaction.
+@Repository
+public class SavedItemJdbcRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SavedItemJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Moves the items into a folder (null: out of any folder). Returns the ids that exist and belong to the user;
+    // items already in that folder are left alone so they keep their sync version.
+    public Set<UUID> moveToFolder(UUID userId, Collection<UUID> ids, UUID folderId) {
+        List<UUID> found = jdbcTemplate.queryForList(
+                "WITH target AS (SELECT id, folder_id FROM saved_items WHERE user_id = :userId AND id IN (:ids) FOR UPDATE),"
+                        + " moved AS (UPDATE saved_items s SET folder_id = CAST(:folderId AS uuid) FROM target"
+                        + " WHERE s.id = target.id AND target.folder_id IS DISTINCT FROM CAST(:folderId AS uuid) RETURNING s.id)"
+                        + " SELECT id FROM target",
+                new MapSqlParameterSource().addValue("userId", userId).addValue("ids", ids).addValue("folderId", folderId),
+                UUID.class);
+        return new HashSet<>(found);
+    }
+
+    // Returns the ids that were deleted
+    public Set<UUID> delete(UUID userId, Collection<UUID> ids) {
+        List<UUID> deleted = jdbcTemplate.queryForList(
+                "DELETE FROM saved_items WHERE user_id = :userId AND id IN (:ids) RETURNING id",
+                new MapSqlParameterSource().addValue("userId", userId).addValue("ids", ids),
+                UUID.class);
+        return new HashSet<>(deleted);
+    }
+}
@@ -1,37 +1,101 @@
 package com.translationapp.repository;
 
-import com.translationapp.model.Folder;
 import com.translationapp.model.SavedItem;
 import com.translationapp.model.SavedItemCategory;
-import com.translationapp.model.User;
-import com.translationapp.model.Translation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface SavedItemRepository extends JpaRepository<SavedItem, UUID> {
+public interface SavedItemRepository extends JpaRepository<SavedItem, UUID>, JpaSpecificationExecutor<SavedItem> {
 
     // Find by user, category, and folder (folder can be null for items not in any folder)
-    Page<SavedItem> findByUserAndCategoryAndFolderOrderByCreatedAtDesc(User user, SavedItemCategory category, Folder folder, Pageable pageable);
+    @EntityGraph(attributePaths = {"translation", "folder"})
+    Page<SavedItem> findByUser_IdAndCategoryAndFolder_IdOrderByCreatedAtDesc(UUID userId, SavedItemCategory category, UUID folderId, Pageable pageable);
 
     // Find by user and category (for items not in any specific folder, or across all folders if folder is not a query param)
-    Page<SavedItem> findByUserAndCategoryOrderByCreatedAtDesc(User user, SavedItemCategory category, Pageable pageable);
-    
+    @EntityGraph(attributePaths = {"translation", "folder"})
+    Page<SavedItem> findByUser_IdAndCategoryOrderByCreatedAtDesc(UUID userId, SavedItemCategory category, Pageable pageable);
+
     // Find by user and folder (all categories within a folder)
-    Page<SavedItem> findByUserAndFolderOrderByCreatedAtDesc(User user, Folder folder, Pageable pageable);
+    @EntityGraph(attributePaths = {"translation", "folder"})
+    Page<SavedItem> findByUser_IdAndFolder_IdOrderByCreatedAtDesc(UUID userId, UUID folderId, Pageable pageable);
 
     // Find all for a user (across all categories and folders, for a general "all saved" view if needed)
-    Page<SavedItem> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
+    @EntityGraph(attributePaths = {"translation", "folder"})
+    Page<SavedItem> findByUser_IdOrderByCreatedAtDesc(UUID userId, Pageable pageable);
+
+    // Responses always include the translation and folder, so load them in the same query.
+    // Scoped by owner so existence and ownership are resolved by one statement.
+    @EntityGraph(attributePaths = {"translation", "folder"})
+    Optional<SavedItem> findByIdAndUser_Id(UUID id, UUID userId);
+
+    // All of a user's saved items with their translation and folder, oldest first, for export (cursor-read, see
+    // TranslationRepository.streamByUserId)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM SavedItem s JOIN FETCH s.translation LEFT JOIN FETCH s.folder " +
+            "WHERE s.user.id = :userId ORDER BY s.createdAt, s.id")
+    Stream<SavedItem> streamByUserId(@Param("userId") UUID userId);
+
+    // Delta sync: the user's saved items written after a sync version, in version order
+    @Query("SELECT s FROM SavedItem s JOIN FETCH s.translation LEFT JOIN FETCH s.folder " +
+            "WHERE s.user.id = :userId AND s.syncVersion > :since ORDER BY s.syncVersion")
+    List<SavedItem> findChangedSince(@Param("userId") UUID userId, @Param("since") long since, Limit limit);
+
+    @EntityGraph(attributePaths = {"translation", "folder"})
+    List<SavedItem> findByUser_IdAndIdIn(UUID userId, Collection<UUID> ids);
+
+    @Modifying
+    @Query("DELETE FROM SavedItem s WHERE s.id = :id AND s.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    // Fetch-join for the keyset listing (specification queries do not pick up @EntityGraph)
+    static Specification<SavedItem> withTranslationAndFolder() {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("translation");
+                root.fetch("folder", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
 
     // Check if a specific translation is already saved by a user
-    Optional<SavedItem> findByUserAndTranslation(User user, Translation translation);
-    
-    // Count items in a folder (used in FolderService before deleting a folder)
-    long countByFolder(Folder folder);
-} 
\ No newline at end of file
+    boolean existsByUser_IdAndTranslation_Id(UUID userId, UUID translationId);
+
+    // Used in FolderService before deleting a folder
+    boolean existsByUser_IdAndFolder_Id(UUID userId, UUID folderId);
+
+    // Saved items anywhere in a folder subtree (bounds as in FolderRepository.deleteSubtree)
+    @Query("SELECT s.id FROM SavedItem s JOIN s.folder f WHERE s.user.id = :userId " +
+            "AND f.path >= :prefix AND f.path < :prefixEnd")
+    List<UUID> findIdsInFolderSubtree(@Param("userId") UUID userId, @Param("prefix") String prefix,
+                                      @Param("prefixEnd") String prefixEnd);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM SavedItem s WHERE s.user.id = :userId AND s.folder.id IN " +
+            "(SELECT f.id FROM Folder f WHERE f.user.id = :userId AND f.path >= :prefix AND f.path < :prefixEnd)")
+    int deleteInFolderSubtree(@Param("userId") UUID userId, @Param("prefix") String prefix,
+                              @Param("prefixEnd") String prefixEnd);
+}
@@ -0,0 +1,237 @@
+package com.translationapp.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Sync tombstones, pushed-translation records and the batched saved-item insert used by SyncService. Versions and tombstones themselves are
+// written by the triggers in V8; callers provide the transaction.
+@Repository
+public class SyncJdbcRepository {
+
+    // A tombstone is skipped when its row exists again (a deleted translation made anew gets the same id back); the
+    // row's own, newer version brings it to the client
+    private static final String TOMBSTONES_SINCE =
+            "SELECT entity_type, entity_id, sync_version FROM sync_tombstones s"
+                    + " WHERE s.user_id = :userId AND s.sync_version > :since"
+                    + " AND NOT (s.entity_type = 'TRANSLATION' AND EXISTS (SELECT 1 FROM translations t WHERE t.id = s.entity_id))"
+                    + " AND NOT (s.entity_type = 'SAVED_ITEM' AND EXISTS (SELECT 1 FROM saved_items i WHERE i.id = s.entity_id))"
+                    + " AND NOT (s.entity_type = 'FOLDER' AND EXISTS (SELECT 1 FROM folders f WHERE f.id = s.entity_id))"
+                    + " ORDER BY s.sync_version LIMIT :limit";
+
+    // Inserts nothing when the translation is not the user's or is already saved by them; the name defaults to the
+    // (truncated) source text, as in SavedItemService.createSavedItem
+    private static final String INSERT_SAVED_ITEM =
+            "INSERT INTO saved_items (id, user_id, translation_id, category, folder_id, name, notes, created_at)"
+                    + " SELECT :id, t.user_id, t.id, :category, CAST(:folderId AS uuid),"
+                    + " COALESCE(CAST(:name AS varchar), CASE WHEN char_length(t.source_text) > 50 THEN left(t.source_text, 47) || '...'"
+                    + " ELSE t.source_text END), CAST(:notes AS text), :createdAt"
+                    + " FROM translations t WHERE t.id = :translationId AND t.user_id = :userId"
+                    + " AND NOT EXISTS (SELECT 1 FROM saved_items s WHERE s.user_id = :userId AND s.translation_id = t.id)";
+
+    // INSERT ... SELECT rather than VALUES, so the driver does not rewrite the batch into one multi-row INSERT and
+    // each row's count says whether it was recorded just now
+    private static final String RECORD_PUSHED_TRANSLATION =
+            "INSERT INTO sync_pushed_translations (user_id, client_id, translation_id, pushed_at)"
+                    + " SELECT :userId, :clientId, :translationId, :pushedAt"
+                    + " ON CONFLICT (user_id, client_id, translation_id) DO NOTHING";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SyncJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<Tombstone> findTombstonesSince(UUID userId, long since, int limit) {
+        return jdbcTemplate.query(TOMBSTONES_SINCE,
+                new MapSqlParameterSource().addValue("userId", userId).addValue("since", since).addValue("limit", limit),
+                (rs, rowNum) -> new Tombstone(rs.getString("entity_type"), rs.getObject("entity_id", UUID.class),
+                        rs.getLong("sync_version")));
+    }
+
+    // Highest version whose tombstone may have been purged; cursors below it cannot be continued
+    public long findPurgedThrough() {
+        Long purgedThrough = jdbcTemplate.queryForObject("SELECT purged_through FROM sync_horizon", Map.of(), Long.class);
+        return purgedThrough != null ? purgedThrough : 0;
+    }
+
+    // Deletes tombstones older than the cutoff and raises the horizon past them, in one statement
+    public int purgeTombstones(LocalDateTime cutoff) {
+        Integer purged = jdbcTemplate.queryForObject(
+                "WITH purged AS (DELETE FROM sync_tombstones WHERE deleted_at < :cutoff RETURNING sync_version),"
+                        + " horizon AS (UPDATE sync_horizon SET purged_through ="
+                        + " GREATEST(purged_through, (SELECT COALESCE(MAX(sync_version), 0) FROM purged)) RETURNING 1)"
+                        + " SELECT CAST(COUNT(*) AS integer) FROM purged",
+                new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)), Integer.class);
+        return purged != null ? purged : 0;
+    }
+
+    // Pushed-translation records expire with the tombstones: a client that far behind has to resync anyway
+    public int purgePushedTranslations(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM sync_pushed_translations WHERE pushed_at < :cutoff",
+                new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)));
+    }
+
+    // Records that these translations were pushed under these client ids. The result says, per entry, whether it is
+    // new; false means an earlier push already applied it. A concurrent push of the same entry waits on the key
+    // until this transaction ends, so exactly one of them sees true.
+    public boolean[] recordPushedTranslations(UUID userId, List<PushedTranslation> pushed, LocalDateTime pushedAt) {
+        SqlParameterSource[] batch = pushed.stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("userId", userId)
+                        .addValue("clientId", entry.getClientId())
+                        .addValue("translationId", entry.getTranslationId())
+                        .addValue("pushedAt", Timestamp.valueOf(pushedAt)))
+                .toArray(SqlParameterSource[]::new);
+        return toInserted(jdbcTemplate.batchUpdate(RECORD_PUSHED_TRANSLATION, batch));
+    }
+
+    // One JDBC batch; the result says, per row, whether it was inserted
+    public boolean[] insertSavedItems(UUID userId, List<NewSavedItem> items) {
+        SqlParameterSource[] batch = items.stream()
+                .map(item -> new MapSqlParameterSource()
+                        .addValue("id", item.getId())
+                        .addValue("userId", userId)
+                        .addValue("translationId", item.getTranslationId())
+                        .addValue("category", item.getCategory())
+                        .addValue("folderId", item.getFolderId())
+                        .addValue("name", item.getName())
+                        .addValue("notes", item.getNotes())
+                        .addValue("createdAt", Timestamp.valueOf(item.getCreatedAt())))
+                .toArray(SqlParameterSource[]::new);
+        return toInserted(jdbcTemplate.batchUpdate(INSERT_SAVED_ITEM, batch));
+    }
+
+    // Saved-item ids by translation, for items that turned out to be saved already
+    public Map<UUID, UUID> findSavedItemIdsByTranslation(UUID userId, Collection<UUID> translationIds) {
+        Map<UUID, UUID> ids = new HashMap<>();
+        if (translationIds.isEmpty()) {
+            return ids;
+        }
+        jdbcTemplate.query("SELECT translation_id, id FROM saved_items WHERE user_id = :userId AND translation_id IN (:ids)",
+                new MapSqlParameterSource().addValue("userId", userId).addValue("ids", translationIds),
+                rs -> {
+                    ids.put(rs.getObject("translation_id", UUID.class), rs.getObject("id", UUID.class));
+                });
+        return ids;
+    }
+
+    // Saving a translation marks it a favorite (as SavedItemService.createSavedItem does). Returns how many were not
+    // favorites yet.
+    public int markFavorite(UUID userId, Collection<UUID> translationIds) {
+        if (translationIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("UPDATE translations SET is_favorite = true"
+                        + " WHERE user_id = :userId AND id IN (:ids) AND NOT is_favorite",
+                new MapSqlParameterSource().addValue("userId", userId).addValue("ids", translationIds));
+    }
+
+    private static boolean[] toInserted(int[] counts) {
+        boolean[] inserted = new boolean[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            inserted[i] = counts[i] > 0;
+        }
+        return inserted;
+    }
+
+    public static class Tombstone {
+        private final String entityType;
+        private final UUID entityId;
+        private final long syncVersion;
+
+        public Tombstone(String entityType, UUID entityId, long syncVersion) {
+            this.entityType = entityType;
+            this.entityId = entityId;
+            this.syncVersion = syncVersion;
+        }
+
+        public String getEntityType() {
+            return entityType;
+        }
+
+        public UUID getEntityId() {
+            return entityId;
+        }
+
+        public long getSyncVersion() {
+            return syncVersion;
+        }
+    }
+
+    public static class PushedTranslation {
+        private final String clientId;
+        private final UUID translationId;
+
+        public PushedTranslation(String clientId, UUID translationId) {
+            this.clientId = clientId;
+            this.translationId = translationId;
+        }
+
+        public String getClientId() {
+            return clientId;
+        }
+
+        public UUID getTranslationId() {
+            return translationId;
+        }
+    }
+
+    public static class NewSavedItem {
+        private final UUID id;
+        private final UUID translationId;
+        private final String category;
+        private final UUID folderId;
+        private final String name;
+        private final String notes;
+        private final LocalDateTime createdAt;
+
+        public NewSavedItem(UUID id, UUID translationId, String category, UUID folderId, String name, String notes,
+                            LocalDateTime createdAt) {
+            this.id = id;
+            this.translationId = translationId;
+            this.category = category;
+            this.folderId = folderId;
+            this.name = name;
+            this.notes = notes;
+            this.createdAt = createdAt;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public UUID getTranslationId() {
+            return translationId;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public UUID getFolderId() {
+            return folderId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getNotes() {
+            return notes;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.translationapp.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.translationapp.dto.TranslationResponseDto;
+import com.translationapp.model.InputType;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+// JDBC access to translations_archive (partitioned by created_at month), its partitions, and the compressed
+// per-user-month blobs that replace partitions once they are old enough (V7 migration).
+@Repository
+public class TranslationArchiveRepository {
+
+    private static final String PARENT_TABLE = "translations_archive";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String COLUMNS = "id, user_id, source_text, target_text, source_lang, target_lang, input_type, "
+            + "is_favorite, is_saved, tags, created_at, content_hash, use_count, last_used_at";
+
+    // Rows nobody has used since the cutoff and that nothing else points at. Favorites stay hot too: they are
+    // listed on their own screen and should not need an archive read.
+    private static final String ARCHIVABLE = "t.last_used_at < :cutoff AND NOT t.is_favorite"
+            + " AND NOT EXISTS (SELECT 1 FROM saved_items s WHERE s.translation_id = t.id)";
+
+    private static final TypeReference<List<String>> TAG_LIST = new TypeReference<>() {
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final RowMapper<TranslationResponseDto> rowMapper = this::mapRow;
+
+    public TranslationArchiveRepository(NamedParameterJdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public static String partitionName(YearMonth month) {
+        return PARENT_TABLE + "_p" + month.format(PARTITION_SUFFIX);
+    }
+
+    // Locks up to limit archivable rows (skipping rows another transaction holds) and returns their months, so the
+    // caller can create partitions before moving them
+    public Map<UUID, YearMonth> lockArchivable(LocalDateTime cutoff, int limit) {
+        Map<UUID, YearMonth> rows = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT t.id, t.created_at FROM translations t WHERE " + ARCHIVABLE
+                        + " ORDER BY t.last_used_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+                new MapSqlParameterSource().addValue("cutoff", Timestamp.valueOf(cutoff)).addValue("limit", limit),
+                rs -> {
+                    rows.put(rs.getObject("id", UUID.class), YearMonth.from(rs.getTimestamp("created_at").toLocalDateTime()));
+                });
+        return rows;
+    }
+
+    public void createPartitionIfMissing(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        jdbcTemplate.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                + " PARTITION OF " + PARENT_TABLE + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    // Single statement: the DELETE's RETURNING rows are the INSERT's input. Call in the transaction that locked the
+    // ids; the archivable condition is repeated as a guard, not because the rows can have changed.
+    // Archived rows are still history, so the delete must not leave sync tombstones (see V8).
+    // A translation made again after its row was archived gets the same id (the content hash) and a new row; when
+    // that row is archived too, the earlier archived copy is folded into it first (first created_at, uses added), so
+    // the archive keeps one row per id.
+    public int moveToArchive(Collection<UUID> ids, LocalDateTime cutoff) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.queryForObject("SELECT set_config('app.sync_tombstones', 'off', true)", Map.of(), String.class);
+        MapSqlParameterSource params = new MapSqlParameterSource().addValue("ids", ids).addValue("cutoff", Timestamp.valueOf(cutoff));
+        jdbcTemplate.update("WITH earlier AS (DELETE FROM " + PARENT_TABLE + " a WHERE a.id IN (:ids)"
+                        + " AND EXISTS (SELECT 1 FROM translations t WHERE t.id = a.id AND " + ARCHIVABLE + ")"
+                        + " RETURNING a.id, a.created_at, a.use_count),"
+                        + " merged AS (SELECT id, MIN(created_at) AS created_at, SUM(use_count) AS use_count FROM earlier GROUP BY id)"
+                        + " UPDATE translations t SET created_at = LEAST(t.created_at, m.created_at), use_count = t.use_count + m.use_count"
+                        + " FROM merged m WHERE t.id = m.id", params);
+        return jdbcTemplate.update("WITH moved AS (DELETE FROM translations t WHERE t.id IN (:ids) AND " + ARCHIVABLE
+                        + " RETURNING " + prefixed("t.", COLUMNS) + ")"
+                        + " INSERT INTO " + PARENT_TABLE + " (" + COLUMNS + ") SELECT " + COLUMNS + " FROM moved", params);
+    }
+
+    public List<YearMonth> findAttachedPartitionMonths() {
+        List<YearMonth> months = new ArrayList<>();
+        jdbcTemplate.query("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid"
+                        + " WHERE i.inhparent = CAST(:parent AS regclass) ORDER BY c.relname",
+                new MapSqlParameterSource("parent", PARENT_TABLE),
+                rs -> {
+                    String name = rs.getString("relname");
+                    String suffix = name.substring(name.lastIndexOf("_p") + 2);
+                    months.add(YearMonth.parse(suffix, PARTITION_SUFFIX));
+                });
+        return months;
+    }
+
+    public void detachPartition(YearMonth month) {
+        jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partitionName(month));
+    }
+
+    public void dropDetachedPartition(YearMonth month) {
+        jdbcTemplate.getJdbcTemplate().execute("DROP TABLE IF EXISTS " + partitionName(month));
+    }
+
+    // Rows of a detached partition grouped by user, newest first within each user; the consumer is called once per
+    // user, so only one user's month is held in memory at a time
+    public void forEachUserInDetachedPartition(YearMonth month, BiConsumer<UUID, List<TranslationResponseDto>> consumer) {
+        List<TranslationResponseDto> current = new ArrayList<>();
+        UUID[] currentUser = new UUID[1];
+        jdbcTemplate.query("SELECT " + COLUMNS + " FROM " + partitionName(month) + " ORDER BY user_id, created_at DESC, id DESC",
+                new MapSqlParameterSource(),
+                rs -> {
+                    UUID userId = rs.getObject("user_id", UUID.class);
+                    if (currentUser[0] != null && !currentUser[0].equals(userId)) {
+                        consumer.accept(currentUser[0], new ArrayList<>(current));
+                        current.clear();
+                    }
+                    currentUser[0] = userId;
+                    current.add(mapRow(rs, 0));
+                });
+        if (currentUser[0] != null) {
+            consumer.accept(currentUser[0], current);
+        }
+    }
+
+    // A month compressed twice (rows archived late into an already-compressed month) gets its new gzip member
+    // appended; concatenated gzip members decompress as one stream
+    public void appendBlob(UUID userId, YearMonth month, int rowCount, byte[] content) {
+        jdbcTemplate.update("INSERT INTO translation_archive_blobs (user_id, month, row_count, content)"
+                        + " VALUES (:userId, :month, :rowCount, :content)"
+                        + " ON CONFLICT (user_id, month) DO UPDATE SET"
+                        + " row_count = translation_archive_blobs.row_count + EXCLUDED.row_count,"
+                        + " content = translation_archive_blobs.content || EXCLUDED.content",
+                new MapSqlParameterSource()
+                        .addValue("userId", userId)
+                        .addValue("month", Date.valueOf(month.atDay(1)))
+                        .addValue("rowCount", rowCount)
+                        .addValue("content", content));
+    }
+
+    public byte[] findBlob(UUID userId, YearMonth month) {
+        List<byte[]> blobs = jdbcTemplate.query(
+                "SELECT content FROM translation_archive_blobs WHERE user_id = :userId AND month = :month",
+                new MapSqlParameterSource()
+                        .addValue("userId", userId)
+                        .addValue("month", Date.valueOf(month.atDay(1))),
+                (rs, rowNum) -> rs.getBytes("content"));
+        return blobs.isEmpty() ? null : blobs.get(0);
+    }
+
+    // The created_at range lets the planner prune to the month's partition
+    public List<TranslationResponseDto> findInArchiveTable(UUID userId, YearMonth month) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM " + PARENT_TABLE
+                        + " WHERE user_id = :userId AND created_at >= :from AND created_at < :to"
+                        + " ORDER BY created_at DESC, id DESC",
+                new MapSqlParameterSource()
+                        .addValue("userId", userId)
+                        .addValue("from", Timestamp.valueOf(month.atDay(1).atStartOfDay()))
+                        .addValue("to", Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay())),
+                rowMapper);
+    }
+
+    // Archived row counts per month, newest month first, from both tiers
+    public Map<YearMonth, Long> countArchivedByMonth(UUID userId) {
+        Map<YearMonth, Long> counts = new TreeMap<>(Comparator.reverseOrder());
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+        jdbcTemplate.query("SELECT month, row_count FROM translation_archive_blobs WHERE user_id = :userId", params,
+                rs -> {
+                    counts.merge(YearMonth.from(rs.getDate("month").toLocalDate()), rs.getLong("row_count"), Long::sum);
+                });
+        jdbcTemplate.query("SELECT date_trunc('month', created_at) AS month, count(*) AS row_count FROM " + PARENT_TABLE
+                        + " WHERE user_id = :userId GROUP BY 1", params,
+                rs -> {
+                    counts.merge(YearMonth.from(rs.getTimestamp("month").toLocalDateTime()), rs.getLong("row_count"), Long::sum);
+                });
+        return counts;
+    }
+
+    private TranslationResponseDto mapRow(ResultSet rs, int rowNum) throws SQLException {
+        TranslationResponseDto dto = new TranslationResponseDto(
+                rs.getObject("id", UUID.class),
+                rs.getString("source_text"),
+                rs.getString("target_text"),
+                rs.getString("source_lang"),
+                rs.getString("target_lang"),
+                InputType.valueOf(rs.getString("input_type")),
+                rs.getBoolean("is_favorite"),
+                parseTags(rs.getString("tags")),
+                rs.getTimestamp("created_at").toLocalDateTime());
+        dto.setUseCount(rs.getInt("use_count"));
+        dto.setLastUsedAt(rs.getTimestamp("last_used_at").toLocalDateTime());
+        return dto;
+    }
+
+    private List<String> parseTags(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, TAG_LIST);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static String prefixed(String prefix, String columns) {
+        return prefix + columns.replace(", ", ", " + prefix);
+    }
+}
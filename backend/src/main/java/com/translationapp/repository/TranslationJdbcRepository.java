@@ -0,0 +1,202 @@
+package com.translationapp.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.translationapp.model.Translation;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Statements JPA cannot express: the content-hash upsert used by the history writer, the merge of legacy
+// duplicate rows done by TranslationCompactionJob, and the set-based bulk operations. Callers provide the transaction.
+@Repository
+public class TranslationJdbcRepository {
+
+    // Tag lists are unioned, flags OR'ed; the row keeps its original created_at, and its newer last_used_at moves it
+    // to the top of history (KeysetCursor.HISTORY_SORT)
+    private static final String ON_CONFLICT_MERGE =
+            " ON CONFLICT (id) DO UPDATE SET"
+                    + " use_count = translations.use_count + EXCLUDED.use_count,"
+                    + " last_used_at = GREATEST(translations.last_used_at, EXCLUDED.last_used_at),"
+                    + " created_at = LEAST(translations.created_at, EXCLUDED.created_at),"
+                    + " is_favorite = translations.is_favorite OR EXCLUDED.is_favorite,"
+                    + " is_saved = translations.is_saved OR EXCLUDED.is_saved,"
+                    + " tags = CASE WHEN EXCLUDED.tags IS NULL THEN translations.tags"
+                    + " WHEN translations.tags IS NULL THEN EXCLUDED.tags"
+                    + " ELSE (SELECT jsonb_agg(DISTINCT tag) FROM jsonb_array_elements(translations.tags || EXCLUDED.tags) tag) END";
+
+    private static final String UPSERT =
+            "INSERT INTO translations (id, user_id, source_text, target_text, source_lang, target_lang, input_type,"
+                    + " is_favorite, is_saved, tags, created_at, content_hash, use_count, last_used_at)"
+                    + " VALUES (:id, :userId, :sourceText, :targetText, :sourceLang, :targetLang, :inputType,"
+                    + " :favorite, :saved, CAST(:tags AS jsonb), :createdAt, :contentHash, :useCount, :lastUsedAt)"
+                    + ON_CONFLICT_MERGE;
+
+    // Copies a legacy row into its canonical (hash-derived) id, merging with the canonical row if it exists
+    private static final String MERGE_INTO_CANONICAL =
+            "INSERT INTO translations (id, user_id, source_text, target_text, source_lang, target_lang, input_type,"
+                    + " is_favorite, is_saved, tags, created_at, content_hash, use_count, last_used_at)"
+                    + " SELECT :canonicalId, user_id, source_text, target_text, source_lang, target_lang, input_type,"
+                    + " is_favorite, is_saved, tags, created_at, :contentHash, use_count, last_used_at"
+                    + " FROM translations WHERE id = :legacyId"
+                    + ON_CONFLICT_MERGE;
+
+    private static final RowMapper<LegacyRow> LEGACY_ROW_MAPPER = (rs, rowNum) -> new LegacyRow(
+            rs.getObject("id", UUID.class),
+            rs.getObject("user_id", UUID.class),
+            rs.getString("source_text"),
+            rs.getString("target_text"),
+            rs.getString("source_lang"),
+            rs.getString("target_lang"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public TranslationJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    // One batched statement for all rows. Rows must have distinct ids: Postgres rejects a multi-row upsert that
+    // touches the same row twice, which is what the JDBC driver turns this batch into. Rows go in user order because
+    // the sync-version trigger locks each row's user (V8); one order everywhere keeps writers from deadlocking. The
+    // string form sorts like Postgres sorts uuids (UUID.compareTo compares signed halves).
+    public void upsert(Collection<Translation> translations) {
+        SqlParameterSource[] batch = translations.stream()
+                .sorted(Comparator.comparing(translation -> translation.getUser().getId().toString()))
+                .map(translation -> new MapSqlParameterSource()
+                        .addValue("id", translation.getId())
+                        .addValue("userId", translation.getUser().getId())
+                        .addValue("sourceText", translation.getSourceText())
+                        .addValue("targetText", translation.getTargetText())
+                        .addValue("sourceLang", translation.getSourceLang())
+                        .addValue("targetLang", translation.getTargetLang())
+                        .addValue("inputType", translation.getInputType().name())
+                        .addValue("favorite", translation.isFavorite())
+                        .addValue("saved", translation.isSaved())
+                        .addValue("tags", toJson(translation.getTags()))
+                        .addValue("createdAt", Timestamp.valueOf(translation.getCreatedAt()))
+                        .addValue("contentHash", translation.getContentHash())
+                        .addValue("useCount", translation.getUseCount())
+                        .addValue("lastUsedAt", Timestamp.valueOf(translation.getLastUsedAt())))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(UPSERT, batch);
+    }
+
+    public List<LegacyRow> findUnhashed(int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, user_id, source_text, target_text, source_lang, target_lang FROM translations"
+                        + " WHERE content_hash IS NULL ORDER BY user_id, created_at LIMIT :limit", // user order: see upsert
+                new MapSqlParameterSource("limit", limit), LEGACY_ROW_MAPPER);
+    }
+
+    // Folds one legacy row into its canonical row: counters and flags merged, saved items and their search
+    // documents re-pointed, then the legacy row deleted (its own search document goes with it).
+    public void mergeIntoCanonical(UUID legacyId, UUID canonicalId, byte[] contentHash) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("legacyId", legacyId)
+                .addValue("canonicalId", canonicalId)
+                .addValue("contentHash", contentHash);
+        jdbcTemplate.update(MERGE_INTO_CANONICAL, params);
+        jdbcTemplate.update("UPDATE saved_items SET translation_id = :canonicalId WHERE translation_id = :legacyId", params);
+        jdbcTemplate.update("UPDATE search_documents SET translation_id = :canonicalId"
+                + " WHERE translation_id = :legacyId AND kind = 'SAVED_ITEM'", params);
+        jdbcTemplate.update("DELETE FROM translations WHERE id = :legacyId", params);
+    }
+
+    // Bulk favorite/unfavorite in one statement. Returns, per id that exists and belongs to the user, whether it
+    // changed; rows already in the requested state are left alone so they keep their sync version.
+    public Map<UUID, Boolean> setFavorite(UUID userId, Collection<UUID> ids, boolean favorite) {
+        Map<UUID, Boolean> changed = new HashMap<>();
+        jdbcTemplate.query(
+                "WITH target AS (SELECT id, is_favorite FROM translations WHERE user_id = :userId AND id IN (:ids) FOR UPDATE),"
+                        + " updated AS (UPDATE translations t SET is_favorite = :favorite FROM target"
+                        + " WHERE t.id = target.id AND target.is_favorite <> :favorite RETURNING t.id)"
+                        + " SELECT id, is_favorite <> :favorite AS changed FROM target",
+                new MapSqlParameterSource().addValue("userId", userId).addValue("ids", ids).addValue("favorite", favorite),
+                rs -> {
+                    changed.put(rs.getObject("id", UUID.class), rs.getBoolean("changed"));
+                });
+        return changed;
+    }
+
+    // Bulk delete in one statement. Translations with saved items are kept (the saved item references them).
+    // Returns, per id that exists and belongs to the user, whether it was deleted.
+    public Map<UUID, Boolean> deleteUnsaved(UUID userId, Collection<UUID> ids) {
+        Map<UUID, Boolean> outcome = new HashMap<>();
+        jdbcTemplate.query(
+                "WITH target AS (SELECT t.id, EXISTS (SELECT 1 FROM saved_items s WHERE s.translation_id = t.id) AS saved"
+                        + " FROM translations t WHERE t.user_id = :userId AND t.id IN (:ids) FOR UPDATE),"
+                        + " deleted AS (DELETE FROM translations t USING target"
+                        + " WHERE t.id = target.id AND NOT target.saved RETURNING t.id)"
+                        + " SELECT id, saved FROM target",
+                new MapSqlParameterSource().addValue("userId", userId).addValue("ids", ids),
+                rs -> {
+                    outcome.put(rs.getObject("id", UUID.class), !rs.getBoolean("saved"));
+                });
+        return outcome;
+    }
+
+    private String toJson(List<String> tags) {
+        if (tags == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(tags);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid tags", e);
+        }
+    }
+
+    public static class LegacyRow {
+        private final UUID id;
+        private final UUID userId;
+        private final String sourceText;
+        private final String targetText;
+        private final String sourceLang;
+        private final String targetLang;
+
+        public LegacyRow(UUID id, UUID userId, String sourceText, String targetText, String sourceLang, String targetLang) {
+            this.id = id;
+            this.userId = userId;
+            this.sourceText = sourceText;
+            this.targetText = targetText;
+            this.sourceLang = sourceLang;
+            this.targetLang = targetLang;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public UUID getUserId() {
+            return userId;
+        }
+
+        public String getSourceText() {
+            return sourceText;
+        }
+
+        public String getTargetText() {
+            return targetText;
+        }
+
+        public String getSourceLang() {
+            return sourceLang;
+        }
+
+        public String getTargetLang() {
+            return targetLang;
+        }
+    }
+}
@@ -1,19 +1,71 @@
 package com.translationapp.repository;
 
 import com.translationapp.model.Translation;
-import com.translationapp.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+// translations only holds the hot part of history; rows unused for app.history.archive.hot-months live in
+// translations_archive / translation_archive_blobs (TranslationArchiveRepository), so these queries never touch them
 @Repository
-public interface TranslationRepository extends JpaRepository<Translation, UUID> {
-    // Find by user, ordered by creation date descending
-    Page<Translation> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
+public interface TranslationRepository extends JpaRepository<Translation, UUID>, JpaSpecificationExecutor<Translation> {
+    // Find by user, most recently used first
+    Page<Translation> findByUser_IdOrderByLastUsedAtDesc(UUID userId, Pageable pageable);
+
+    // Owner-scoped lookups: existence and ownership in one statement
+    Optional<Translation> findByIdAndUser_Id(UUID id, UUID userId);
+
+    // Keyset page of history carrying a tag. Native because only the jsonb @> operator can use the GIN index on
+    // (user_id, tags); tagJson is a one-element JSON array. Pass null afterLastUsedAt/afterId for the first page.
+    @Query(value = "SELECT * FROM translations t"
+            + " WHERE t.user_id = :userId AND t.tags @> CAST(:tagJson AS jsonb)"
+            + " AND (CAST(:afterLastUsedAt AS timestamp) IS NULL OR (t.last_used_at <= CAST(:afterLastUsedAt AS timestamp)"
+            + " AND (t.last_used_at, t.id) < (CAST(:afterLastUsedAt AS timestamp), CAST(:afterId AS uuid))))"
+            + " ORDER BY t.last_used_at DESC, t.id DESC LIMIT :limit", nativeQuery = true)
+    List<Translation> findByUserIdAndTag(@Param("userId") UUID userId, @Param("tagJson") String tagJson,
+                                         @Param("afterLastUsedAt") LocalDateTime afterLastUsedAt,
+                                         @Param("afterId") UUID afterId, @Param("limit") int limit);
+
+    // Whole history, oldest first, for export. Read from a server-side cursor (Postgres only uses one inside a
+    // transaction and with a fetch size); read-only so Hibernate keeps no dirty-checking snapshots. The caller must
+    // close the stream and clear the persistence context as it goes.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Translation t WHERE t.user.id = :userId ORDER BY t.createdAt, t.id")
+    Stream<Translation> streamByUserId(@Param("userId") UUID userId);
+
+    // Delta sync: the user's rows written after a sync version, in version order
+    @Query("SELECT t FROM Translation t WHERE t.user.id = :userId AND t.syncVersion > :since ORDER BY t.syncVersion")
+    List<Translation> findChangedSince(@Param("userId") UUID userId, @Param("since") long since, Limit limit);
+
+    // Multi-get, scoped by owner
+    List<Translation> findByUser_IdAndIdIn(UUID userId, Collection<UUID> ids);
+
+    // Which of these ids exist and belong to the user
+    @Query("SELECT t.id FROM Translation t WHERE t.user.id = :userId AND t.id IN :ids")
+    List<UUID> findOwnedIds(@Param("userId") UUID userId, @Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("DELETE FROM Translation t WHERE t.id = :id AND t.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") UUID id, @Param("userId") UUID userId);
 
     // For checking if a specific translation by text and languages already exists for a user (optional)
     // boolean existsByUserAndSourceTextAndTargetTextAndSourceLangAndTargetLang(User user, String sourceText, String targetText, String sourceLang, String targetLang);
@@ -0,0 +1,63 @@
+package com.translationapp.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+// Access to users that bypasses the entity and its second-level cache entry: batched writes (the caller evicts the
+// entry and provides the transaction), and reads that must see what another instance wrote since the entry was cached.
+@Repository
+public class UserJdbcRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public UserJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // One JDBC batch, in id order so concurrent batches from several instances cannot deadlock. A login time never
+    // moves backwards.
+    public void updateLastLogin(Map<UUID, LocalDateTime> lastLogins) {
+        SqlParameterSource[] batch = lastLogins.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey((a, b) -> a.toString().compareTo(b.toString())))
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("id", entry.getKey())
+                        .addValue("lastLogin", entry.getValue()))
+                .toArray(SqlParameterSource[]::new);
+        if (batch.length > 0) {
+            jdbcTemplate.batchUpdate("UPDATE users SET last_login = :lastLogin"
+                    + " WHERE id = :id AND (last_login IS NULL OR last_login < :lastLogin)", batch);
+        }
+    }
+
+    // Empty when there is no such user
+    public Optional<AccountTokens> findAccountTokens(UUID id) {
+        List<AccountTokens> rows = jdbcTemplate.query("SELECT token_valid_after FROM users WHERE id = :id",
+                new MapSqlParameterSource("id", id), (rs, rowNum) -> {
+                    Timestamp tokenValidAfter = rs.getTimestamp("token_valid_after");
+                    return new AccountTokens(tokenValidAfter != null ? tokenValidAfter.toLocalDateTime() : null);
+                });
+        return rows.stream().findFirst();
+    }
+
+    public static class AccountTokens {
+        private final LocalDateTime tokenValidAfter;
+
+        public AccountTokens(LocalDateTime tokenValidAfter) {
+            this.tokenValidAfter = tokenValidAfter;
+        }
+
+        // Null when the user's tokens were never revoked
+        public LocalDateTime getTokenValidAfter() {
+            return tokenValidAfter;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.translationapp.repository;
+
+import com.translationapp.model.StatDimension;
+import com.translationapp.model.Translation;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+// user_stat_counters (V9). Callers provide the transaction.
+@Repository
+public class UserStatsRepository {
+
+    private static final String INCREMENT =
+            "INSERT INTO user_stat_counters (user_id, dimension, stat_key, count) VALUES (:userId, :dimension, :key, :delta)"
+                    + " ON CONFLICT (user_id, dimension, stat_key) DO UPDATE SET count = user_stat_counters.count + EXCLUDED.count";
+
+    // Sets FAVORITES and SAVED to the actual counts; rows that are already right are not touched
+    private static final String RECOUNT =
+            "INSERT INTO user_stat_counters (user_id, dimension, stat_key, count)"
+                    + " SELECT u.id, g.dimension, '', g.count FROM users u CROSS JOIN LATERAL (VALUES"
+                    + " ('FAVORITES', (SELECT COUNT(*) FROM translations t WHERE t.user_id = u.id AND t.is_favorite)),"
+                    + " ('SAVED', (SELECT COUNT(*) FROM saved_items s WHERE s.user_id = u.id))) g (dimension, count)"
+                    + " WHERE u.id IN (:userIds) ORDER BY CAST(u.id AS text), g.dimension"
+                    + " ON CONFLICT (user_id, dimension, stat_key) DO UPDATE SET count = EXCLUDED.count"
+                    + " WHERE user_stat_counters.count <> EXCLUDED.count";
+
+    // Rows are locked in one global order, so two batches touching the same users cannot deadlock
+    private static final Comparator<CounterKey> LOCK_ORDER = Comparator
+            .comparing((CounterKey key) -> key.getUserId().toString())
+            .thenComparing(CounterKey::getDimension)
+            .thenComparing(CounterKey::getKey);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public UserStatsRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Usage counters for translations being written: each counts its use_count, on the day it was last used
+    public static Map<CounterKey, Long> usageOf(Collection<Translation> translations) {
+        Map<CounterKey, Long> deltas = new HashMap<>();
+        for (Translation translation : translations) {
+            UUID userId = translation.getUser().getId();
+            long uses = translation.getUseCount();
+            deltas.merge(new CounterKey(userId, StatDimension.TOTAL, ""), uses, Long::sum);
+            deltas.merge(new CounterKey(userId, StatDimension.LANGUAGE_PAIR,
+                    translation.getSourceLang() + "|" + translation.getTargetLang()), uses, Long::sum);
+            deltas.merge(new CounterKey(userId, StatDimension.INPUT_TYPE, translation.getInputType().name()), uses, Long::sum);
+            deltas.merge(new CounterKey(userId, StatDimension.DAY, translation.getLastUsedAt().toLocalDate().toString()),
+                    uses, Long::sum);
+        }
+        return deltas;
+    }
+
+    // One JDBC batch
+    public void increment(Map<CounterKey, Long> deltas) {
+        SqlParameterSource[] batch = deltas.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .sorted(Map.Entry.comparingByKey(LOCK_ORDER))
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("userId", entry.getKey().getUserId())
+                        .addValue("dimension", entry.getKey().getDimension().name())
+                        .addValue("key", entry.getKey().getKey())
+                        .addValue("delta", entry.getValue()))
+                .toArray(SqlParameterSource[]::new);
+        if (batch.length > 0) {
+            jdbcTemplate.batchUpdate(INCREMENT, batch);
+        }
+    }
+
+    // Returns the number of counters that were wrong (or missing)
+    public int recount(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(RECOUNT, new MapSqlParameterSource("userIds", userIds));
+    }
+
+    // DAY rows before fromDay are left out
+    public List<Counter> findByUserId(UUID userId, String fromDay) {
+        return jdbcTemplate.query("SELECT dimension, stat_key, count FROM user_stat_counters"
+                        + " WHERE user_id = :userId AND (dimension <> 'DAY' OR stat_key >= :fromDay)",
+                new MapSqlParameterSource().addValue("userId", userId).addValue("fromDay", fromDay),
+                (rs, rowNum) -> new Counter(StatDimension.valueOf(rs.getString("dimension")), rs.getString("stat_key"),
+                        rs.getLong("count")));
+    }
+
+    // Keyset walk over all users, for the reconcile job
+    public List<UUID> findUserIdsAfter(UUID after, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM users WHERE CAST(:after AS uuid) IS NULL OR id > CAST(:after AS uuid)"
+                        + " ORDER BY id LIMIT :limit",
+                new MapSqlParameterSource().addValue("after", after).addValue("limit", limit), UUID.class);
+    }
+
+    public static class CounterKey {
+        private final UUID userId;
+        private final StatDimension dimension;
+        private final String key;
+
+        public CounterKey(UUID userId, StatDimension dimension, String key) {
+            this.userId = userId;
+            this.dimension = dimension;
+            this.key = key;
+        }
+
+        public UUID getUserId() {
+            return userId;
+        }
+
+        public StatDimension getDimension() {
+            return dimension;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CounterKey other)) {
+                return false;
+            }
+            return userId.equals(other.userId) && dimension == other.dimension && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, dimension, key);
+        }
+    }
+
+    public static class Counter {
+        private final StatDimension dimension;
+        private final String key;
+        private final long count;
+
+        public Counter(StatDimension dimension, String key, long count) {
+            this.dimension = dimension;
+            this.key = key;
+            this.count = count;
+        }
+
+        public StatDimension getDimension() {
+            return dimension;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.translationapp.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-process inverted index for tests and local runs without Postgres (app.search.backend=memory).
+// Same matching rules as the Postgres index minus stemming: every query term must prefix-match a term of the
+// document. Nothing is persisted, so it starts empty on every boot.
+@Component
+@ConditionalOnProperty(name = "app.search.backend", havingValue = "memory")
+public class InMemorySearchIndex implements SearchIndex {
+
+    private static final Comparator<SearchHit> BY_RELEVANCE = Comparator.comparing(SearchHit::getRank)
+            .thenComparing(hit -> hit.getDocument().getCreatedAt())
+            .thenComparing(hit -> hit.getDocument().getId())
+            .reversed();
+
+    private static final Comparator<SearchHit> BY_RECENCY = Comparator.<SearchHit, LocalDateTime>comparing(hit -> hit.getDocument().getCreatedAt())
+            .thenComparing(hit -> hit.getDocument().getId())
+            .reversed();
+
+    private final Map<UUID, UserIndex> indexes = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> documentOwners = new ConcurrentHashMap<>();
+
+    @Override
+    public void index(List<SearchDocument> documents) {
+        for (SearchDocument document : documents) {
+            documentOwners.put(document.getId(), document.getUserId());
+            indexes.computeIfAbsent(document.getUserId(), id -> new UserIndex()).put(document);
+        }
+    }
+
+    @Override
+    public void remove(Collection<UUID> documentIds) {
+        for (UUID documentId : documentIds) {
+            UUID userId = documentOwners.remove(documentId);
+            if (userId != null) {
+                UserIndex index = indexes.get(userId);
+                if (index != null) {
+                    index.remove(documentId);
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<SearchHit> search(UUID userId, SearchQuery query, SearchCursor after, int limit) {
+        UserIndex index = indexes.get(userId);
+        if (index == null || query.isEmpty()) {
+            return List.of();
+        }
+        List<SearchHit> hits = index.match(query);
+        Comparator<SearchHit> order = query.getSort() == SearchQuery.Sort.RECENT ? BY_RECENCY : BY_RELEVANCE;
+        hits.sort(order);
+        List<SearchHit> page = new ArrayList<>(Math.min(limit, hits.size()));
+        SearchHit cursorHit = after == null ? null : new SearchHit(
+                new SearchDocument(after.getId(), userId, null, null, null, null, null, null, after.getCreatedAt()),
+                after.getRank());
+        for (SearchHit hit : hits) {
+            if (page.size() == limit) {
+                break;
+            }
+            if (cursorHit == null || order.compare(hit, cursorHit) > 0) {
+                page.add(hit);
+            }
+        }
+        return page;
+    }
+
+    private static final class UserIndex {
+
+        private final Map<UUID, SearchDocument> documents = new HashMap<>();
+        private final Map<UUID, Map<String, Integer>> termCounts = new HashMap<>();
+        private final TreeMap<String, Set<UUID>> postings = new TreeMap<>();
+
+        synchronized void put(SearchDocument document) {
+            remove(document.getId());
+            Map<String, Integer> counts = new HashMap<>();
+            for (String text : new String[]{document.getPrimaryText(), document.getSecondaryText()}) {
+                if (text != null) {
+                    for (String term : SearchQuery.tokenize(text, Integer.MAX_VALUE)) {
+                        counts.merge(term, 1, Integer::sum);
+                    }
+                }
+            }
+            documents.put(document.getId(), document);
+            termCounts.put(document.getId(), counts);
+            counts.keySet().forEach(term -> postings.computeIfAbsent(term, t -> new HashSet<>()).add(document.getId()));
+        }
+
+        synchronized void remove(UUID documentId) {
+            documents.remove(documentId);
+            Map<String, Integer> counts = termCounts.remove(documentId);
+            if (counts == null) {
+                return;
+            }
+            for (String term : counts.keySet()) {
+                Set<UUID> ids = postings.get(term);
+                ids.remove(documentId);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        // Documents containing a prefix match for every query term. Rank is the share of the document's terms
+        // that matched, so short, on-topic phrases come first.
+        synchronized List<SearchHit> match(SearchQuery query) {
+            Set<UUID> candidates = null;
+            for (String term : query.getTerms()) {
+                Set<UUID> matching = new HashSet<>();
+                postings.subMap(term, true, term + Character.MAX_VALUE, true).values().forEach(matching::addAll);
+                if (candidates == null) {
+                    candidates = matching;
+                } else {
+                    candidates.retainAll(matching);
+                }
+                if (candidates.isEmpty()) {
+                    return new ArrayList<>();
+                }
+            }
+            List<SearchHit> hits = new ArrayList<>(candidates.size());
+            for (UUID id : candidates) {
+                SearchDocument document = documents.get(id);
+                if (query.getKind() != null && document.getKind() != query.getKind()) {
+                    continue;
+                }
+                hits.add(new SearchHit(document, rank(termCounts.get(id), query.getTerms())));
+            }
+            return hits;
+        }
+
+        private static float rank(Map<String, Integer> counts, List<String> terms) {
+            int total = 0;
+            int matched = 0;
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                total += entry.getValue();
+                for (String term : terms) {
+                    if (entry.getKey().startsWith(term)) {
+                        matched += entry.getValue();
+                        break;
+                    }
+                }
+            }
+            return total == 0 ? 0f : (float) matched / total;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.translationapp.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+// search_documents (V3 migration): the tsvector is a generated column built from the stored texts, analyzed with
+// the text's own language plus the 'simple' configuration so unstemmed prefixes also match. GIN on (user_id, tsv)
+// makes a search touch only the caller's postings, however large the table gets.
+@Component
+@ConditionalOnProperty(name = "app.search.backend", havingValue = "postgres", matchIfMissing = true)
+public class PostgresSearchIndex implements SearchIndex {
+
+    private static final String UPSERT =
+            "INSERT INTO search_documents (id, user_id, kind, translation_id, saved_item_id, "
+                    + "primary_text, primary_lang, secondary_text, secondary_lang, created_at) "
+                    + "VALUES (:id, :userId, :kind, :translationId, :savedItemId, "
+                    + ":primaryText, :primaryLang, :secondaryText, :secondaryLang, :createdAt) "
+                    + "ON CONFLICT (id) DO UPDATE SET primary_text = EXCLUDED.primary_text, "
+                    + "primary_lang = EXCLUDED.primary_lang, secondary_text = EXCLUDED.secondary_text, "
+                    + "secondary_lang = EXCLUDED.secondary_lang";
+
+    // Prefix match on the unstemmed lexemes, OR'ed with a stemmed match when the client says which language it typed
+    private static final String QUERY_EXPR =
+            "to_tsquery('simple', :prefixQuery) || "
+                    + "CASE WHEN CAST(:lang AS text) IS NULL THEN ''::tsquery ELSE plainto_tsquery(search_config(:lang), :text) END";
+
+    private static final String COLUMNS =
+            "d.id, d.user_id, d.kind, d.translation_id, d.primary_text, d.primary_lang, "
+                    + "d.secondary_text, d.secondary_lang, d.created_at";
+
+    private static final String SEARCH_BY_RELEVANCE =
+            "SELECT * FROM ("
+                    + " SELECT " + COLUMNS + ", ts_rank(d.tsv, q.query) AS rank"
+                    + " FROM search_documents d, (SELECT " + QUERY_EXPR + " AS query) q"
+                    + " WHERE d.user_id = :userId AND d.tsv @@ q.query"
+                    + " AND (CAST(:kind AS varchar) IS NULL OR d.kind = :kind)"
+                    + ") s"
+                    + " WHERE (CAST(:afterId AS uuid) IS NULL"
+                    + " OR (s.rank, s.created_at, s.id) < (CAST(:afterRank AS real), CAST(:afterCreatedAt AS timestamp), :afterId))"
+                    + " ORDER BY s.rank DESC, s.created_at DESC, s.id DESC"
+                    + " LIMIT :limit";
+
+    // Rank is still computed for the cursor, but only for the rows being returned
+    private static final String SEARCH_BY_RECENCY =
+            "SELECT " + COLUMNS + ", ts_rank(d.tsv, q.query) AS rank"
+                    + " FROM search_documents d, (SELECT " + QUERY_EXPR + " AS query) q"
+                    + " WHERE d.user_id = :userId AND d.tsv @@ q.query"
+                    + " AND (CAST(:kind AS varchar) IS NULL OR d.kind = :kind)"
+                    + " AND (CAST(:afterId AS uuid) IS NULL OR (d.created_at, d.id) < (CAST(:afterCreatedAt AS timestamp), :afterId))"
+                    + " ORDER BY d.created_at DESC, d.id DESC"
+                    + " LIMIT :limit";
+
+    private static final RowMapper<SearchHit> HIT_MAPPER = (rs, rowNum) -> new SearchHit(
+            new SearchDocument(
+                    rs.getObject("id", UUID.class),
+                    rs.getObject("user_id", UUID.class),
+                    SearchDocument.Kind.valueOf(rs.getString("kind")),
+                    rs.getObject("translation_id", UUID.class),
+                    rs.getString("primary_text"),
+                    rs.getString("primary_lang"),
+                    rs.getString("secondary_text"),
+                    rs.getString("secondary_lang"),
+                    rs.getTimestamp("created_at").toLocalDateTime()),
+            rs.getFloat("rank"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public PostgresSearchIndex(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void index(List<SearchDocument> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = documents.stream()
+                .map(document -> new MapSqlParameterSource()
+                        .addValue("id", document.getId())
+                        .addValue("userId", document.getUserId())
+                        .addValue("kind", document.getKind().name())
+                        .addValue("translationId", document.getTranslationId())
+                        .addValue("savedItemId", document.getKind() == SearchDocument.Kind.SAVED_ITEM ? document.getId() : null)
+                        .addValue("primaryText", document.getPrimaryText())
+                        .addValue("primaryLang", document.getPrimaryLang())
+                        .addValue("secondaryText", document.getSecondaryText())
+                        .addValue("secondaryLang", document.getSecondaryLang())
+                        .addValue("createdAt", Timestamp.valueOf(document.getCreatedAt())))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(UPSERT, batch);
+    }
+
+    // Rows are also removed by ON DELETE CASCADE from translations/saved_items; this covers callers that only
+    // want the document gone
+    @Override
+    public void remove(Collection<UUID> documentIds) {
+        if (documentIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM search_documents WHERE id IN (:ids)", new MapSqlParameterSource("ids", documentIds));
+    }
+
+    @Override
+    public List<SearchHit> search(UUID userId, SearchQuery query, SearchCursor after, int limit) {
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("prefixQuery", query.toPrefixTsQuery())
+                .addValue("lang", query.getLang())
+                .addValue("text", query.getText())
+                .addValue("kind", query.getKind() != null ? query.getKind().name() : null)
+                .addValue("afterId", after != null ? after.getId() : null)
+                .addValue("afterRank", after != null ? after.getRank() : null)
+                .addValue("afterCreatedAt", after != null ? Timestamp.valueOf(after.getCreatedAt()) : null)
+                .addValue("limit", limit);
+        String sql = query.getSort() == SearchQuery.Sort.RECENT ? SEARCH_BY_RECENCY : SEARCH_BY_RELEVANCE;
+        return jdbcTemplate.query(sql, params, HIT_MAPPER);
+    }
+}
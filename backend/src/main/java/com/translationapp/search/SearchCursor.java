@@ -0,0 +1,59 @@
+package com.translationapp.search;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+// Keyset position in search results, ordered by (rank DESC, created_at DESC, id DESC). Rank is ignored when
+// results are sorted by recency.
+public class SearchCursor {
+
+    private final float rank;
+    private final LocalDateTime createdAt;
+    private final UUID id;
+
+    public SearchCursor(float rank, LocalDateTime createdAt, UUID id) {
+        this.rank = rank;
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static SearchCursor of(SearchHit hit) {
+        return new SearchCursor(hit.getRank(), hit.getDocument().getCreatedAt(), hit.getDocument().getId());
+    }
+
+    public static SearchCursor decode(String cursor) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(cursor));
+            float rank = buffer.getFloat();
+            LocalDateTime createdAt = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            return new SearchCursor(rank, createdAt, new UUID(buffer.getLong(), buffer.getLong()));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        buffer.putFloat(rank);
+        buffer.putLong(createdAt.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(createdAt.getNano());
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public float getRank() {
+        return rank;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
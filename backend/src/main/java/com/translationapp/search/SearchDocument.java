@@ -0,0 +1,91 @@
+package com.translationapp.search;
+
+import com.translationapp.model.SavedItem;
+import com.translationapp.model.Translation;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// One searchable row. A translation indexes its source and target text, each analyzed in its own language;
+// a saved item indexes its name and notes. The document id is the id of the row it was built from.
+public class SearchDocument {
+
+    public enum Kind {
+        TRANSLATION, SAVED_ITEM
+    }
+
+    private final UUID id;
+    private final UUID userId;
+    private final Kind kind;
+    private final UUID translationId;
+    private final String primaryText;
+    private final String primaryLang;
+    private final String secondaryText;
+    private final String secondaryLang;
+    private final LocalDateTime createdAt;
+
+    public SearchDocument(UUID id, UUID userId, Kind kind, UUID translationId, String primaryText, String primaryLang,
+                          String secondaryText, String secondaryLang, LocalDateTime createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.kind = kind;
+        this.translationId = translationId;
+        this.primaryText = primaryText;
+        this.primaryLang = primaryLang;
+        this.secondaryText = secondaryText;
+        this.secondaryLang = secondaryLang;
+        this.createdAt = createdAt;
+    }
+
+    public static SearchDocument of(Translation translation) {
+        return new SearchDocument(translation.getId(), translation.getUser().getId(), Kind.TRANSLATION, translation.getId(),
+                translation.getSourceText(), translation.getSourceLang(),
+                translation.getTargetText(), translation.getTargetLang(),
+                translation.getCreatedAt());
+    }
+
+    // Names default to the source text, so they are analyzed in the source language; notes have no known language
+    public static SearchDocument of(SavedItem savedItem) {
+        Translation translation = savedItem.getTranslation();
+        return new SearchDocument(savedItem.getId(), savedItem.getUser().getId(), Kind.SAVED_ITEM, translation.getId(),
+                savedItem.getName(), translation.getSourceLang(),
+                savedItem.getNotes(), null,
+                savedItem.getCreatedAt());
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public UUID getTranslationId() {
+        return translationId;
+    }
+
+    public String getPrimaryText() {
+        return primaryText;
+    }
+
+    public String getPrimaryLang() {
+        return primaryLang;
+    }
+
+    public String getSecondaryText() {
+        return secondaryText;
+    }
+
+    public String getSecondaryLang() {
+        return secondaryLang;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
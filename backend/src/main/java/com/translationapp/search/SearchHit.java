@@ -0,0 +1,20 @@
+package com.translationapp.search;
+
+public class SearchHit {
+
+    private final SearchDocument document;
+    private final float rank;
+
+    public SearchHit(SearchDocument document, float rank) {
+        this.document = document;
+        this.rank = rank;
+    }
+
+    public SearchDocument getDocument() {
+        return document;
+    }
+
+    public float getRank() {
+        return rank;
+    }
+}
@@ -0,0 +1,18 @@
+package com.translationapp.search;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+// Per-user full-text index over translation history and saved items.
+// Writes are called inside the transaction that changes the underlying rows.
+public interface SearchIndex {
+
+    // Insert or replace
+    void index(List<SearchDocument> documents);
+
+    void remove(Collection<UUID> documentIds);
+
+    // At most limit hits after the cursor (null for the first page), best first
+    List<SearchHit> search(UUID userId, SearchQuery query, SearchCursor after, int limit);
+}
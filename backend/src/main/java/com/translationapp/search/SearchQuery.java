@@ -0,0 +1,85 @@
+package com.translationapp.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A parsed user query. Terms are runs of letters/digits, lowercased; every term must match, and each term also
+// matches as a prefix so results show up while the user is still typing.
+public class SearchQuery {
+
+    public enum Sort {
+        RELEVANCE, RECENT
+    }
+
+    private static final int MAX_TERMS = 16;
+
+    private final String text;
+    private final List<String> terms;
+    private final String lang;            // optional query language, enables stemmed matching in that language
+    private final SearchDocument.Kind kind; // optional filter
+    private final Sort sort;
+
+    public SearchQuery(String text, String lang, SearchDocument.Kind kind, Sort sort) {
+        this.text = text == null ? "" : text.trim();
+        this.terms = tokenize(this.text, MAX_TERMS);
+        this.lang = lang;
+        this.kind = kind;
+        this.sort = sort;
+    }
+
+    static List<String> tokenize(String text, int maxTerms) {
+        List<String> terms = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length() && terms.size() < maxTerms; ) {
+            int cp = text.codePointAt(i);
+            if (Character.isLetterOrDigit(cp)) {
+                current.appendCodePoint(Character.toLowerCase(cp));
+            } else if (current.length() > 0) {
+                terms.add(current.toString());
+                current.setLength(0);
+            }
+            i += Character.charCount(cp);
+        }
+        if (current.length() > 0 && terms.size() < maxTerms) {
+            terms.add(current.toString());
+        }
+        return terms;
+    }
+
+    // tsquery in the 'simple' configuration: "hel:* & wor:*". Terms contain only letters and digits, so no
+    // tsquery operator can be smuggled in through user input.
+    public String toPrefixTsQuery() {
+        StringBuilder query = new StringBuilder();
+        for (String term : terms) {
+            if (query.length() > 0) {
+                query.append(" & ");
+            }
+            query.append(term).append(":*");
+        }
+        return query.toString();
+    }
+
+    public boolean isEmpty() {
+        return terms.isEmpty();
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public List<String> getTerms() {
+        return terms;
+    }
+
+    public String getLang() {
+        return lang;
+    }
+
+    public SearchDocument.Kind getKind() {
+        return kind;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+}
@@ -0,0 +1,67 @@
+package com.translationapp.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.translationapp.repository.UserJdbcRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.UUID;
+
+// What the JWT filter needs to know about an account beyond the token itself: whether it still exists and when its
+// tokens were last revoked. Held for a short TTL, so an authenticated request normally costs no query at all, and a
+// revocation or deleted account takes effect on other instances within account-state-ttl-ms. The instance that
+// revokes updates its own entry at once. Loaded with JDBC rather than through the User entity, whose second-level
+// cache entry on this instance may predate another instance's revocation.
+@Component
+public class AccountStateCache {
+
+    private static final AccountState MISSING = new AccountState(false, null);
+
+    private final LoadingCache<UUID, AccountState> states;
+
+    public AccountStateCache(UserJdbcRepository userJdbcRepository,
+                             @Value("${app.jwt.account-state-ttl-ms:30000}") long ttlMs,
+                             @Value("${app.jwt.account-state-max-size:100000}") long maxSize) {
+        this.states = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .maximumSize(maxSize)
+                .build(userId -> userJdbcRepository.findAccountTokens(userId)
+                        .map(account -> new AccountState(true, account.getTokenValidAfter()))
+                        .orElse(MISSING));
+    }
+
+    // issuedAt has whole-second precision. The stored revocation point is the first whole second after the revocation
+    // (see UserService.revokeTokens), so a token issued in the same second as the revocation is rejected.
+    public boolean accepts(UUID userId, Date issuedAt) {
+        AccountState state = states.get(userId);
+        if (!state.exists) {
+            return false;
+        }
+        if (state.tokenValidAfter == null) {
+            return true;
+        }
+        return issuedAt != null
+                && !issuedAt.toInstant().isBefore(state.tokenValidAfter.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    // Stored rather than evicted: a reload here runs outside any user's read-your-writes window and could be served by
+    // a replica that has not applied the revocation yet
+    public void recordRevocation(UUID userId, LocalDateTime tokenValidAfter) {
+        states.put(userId, new AccountState(true, tokenValidAfter));
+    }
+
+    private static class AccountState {
+        private final boolean exists;
+        private final LocalDateTime tokenValidAfter;
+
+        AccountState(boolean exists, LocalDateTime tokenValidAfter) {
+            this.exists = exists;
+            this.tokenValidAfter = tokenValidAfter;
+        }
+    }
+}
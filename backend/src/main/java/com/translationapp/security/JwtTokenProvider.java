@@ -1,86 +1,165 @@
 package com.translationapp.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtTokenProvider {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
+
+    // Claims that let the filter build the principal without loading the user
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLES_CLAIM = "roles";
+
     @Value("${app.jwtSecret}")
     private String jwtSecret;
 
     @Value("${app.jwtExpirationInMs}")
     private int jwtExpirationInMs;
 
+    @Value("${app.jwt.verified-cache-size:10000}")
+    private long verifiedCacheSize;
+
     private Key key;
 
+    // Immutable and thread-safe once built, so one serves every request
+    private JwtParser parser;
+
+    // Claims of tokens already verified, keyed by the token's SHA-256 so the cache holds no usable credentials. An
+    // entry lives until its token expires, after which the token is parsed (and rejected) again. Only valid tokens
+    // are cached: a flood of bad tokens cannot evict the good ones.
+    private Cache<String, Claims> verifiedTokens;
+
     @PostConstruct
     public void init() {
-        System.out.println("Attempting to initialize JWT key. Raw jwtSecret from properties/env: '" + jwtSecret + "'");
-        if (jwtSecret != null) {
-            System.out.println("Byte length of jwtSecret: " + jwtSecret.getBytes().length);
-        } else {
-            System.out.println("jwtSecret is null!");
+        if (jwtSecret == null || jwtSecret.isBlank()) {
+            throw new IllegalStateException("app.jwtSecret (JWT_SECRET) is not set");
         }
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String tokenHash, Claims claims, long currentTime) {
+                        long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String tokenHash, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String tokenHash, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        logger.info("JWT signing key initialized ({} bytes)", jwtSecret.getBytes().length);
     }
 
     public String generateToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
 
+        List<String> roles = userPrincipal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+
         return Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
+                .claim(USER_ID_CLAIM, userPrincipal.getId().toString())
+                .claim(ROLES_CLAIM, roles)
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
                 .signWith(key, SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    public String getUsernameFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
-    }
-
-    public boolean validateToken(String authToken) {
+    // Verifies the token and returns its claims, or null if it is not valid. The claims may be shared with other
+    // requests presenting the same token and must not be modified.
+    public Claims parseToken(String token) {
+        String tokenHash = hash(token);
+        Claims claims = verifiedTokens.getIfPresent(tokenHash);
+        if (claims != null) {
+            return claims;
+        }
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(authToken);
-            return true;
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (io.jsonwebtoken.ExpiredJwtException ex) {
+            logger.debug("JWT token is expired: {}", ex.getMessage());
+            return null;
         } catch (io.jsonwebtoken.security.SignatureException ex) {
             // JWT signature does not match locally computed signature
-            System.err.println("Invalid JWT signature: " + ex.getMessage());
-            return false;
+            logger.warn("Invalid JWT signature: {}", ex.getMessage());
+            return null;
         } catch (io.jsonwebtoken.MalformedJwtException ex) {
             // JWT was not correctly constructed
-            System.err.println("Invalid JWT token: " + ex.getMessage());
-            return false;
-        } catch (io.jsonwebtoken.ExpiredJwtException ex) {
-            // JWT token has expired
-            System.err.println("JWT token is expired: " + ex.getMessage());
-            return false;
+            logger.warn("Invalid JWT token: {}", ex.getMessage());
+            return null;
         } catch (io.jsonwebtoken.UnsupportedJwtException ex) {
-            // JWT token is unsupported
-            System.err.println("JWT token is unsupported: " + ex.getMessage());
-            return false;
+            logger.warn("JWT token is unsupported: {}", ex.getMessage());
+            return null;
         } catch (IllegalArgumentException ex) {
             // JWT claims string is empty
-            System.err.println("JWT claims string is empty: " + ex.getMessage());
-            return false;
+            logger.warn("JWT claims string is empty: {}", ex.getMessage());
+            return null;
+        }
+        // Tokens are always issued with an expiry; one without could otherwise stay cached indefinitely
+        if (claims.getExpiration() == null) {
+            logger.warn("JWT token has no expiration");
+            return null;
+        }
+        verifiedTokens.put(tokenHash, claims);
+        return claims;
+    }
+
+    // The principal as of when the token was issued, or null for tokens issued before the uid and roles claims were
+    // added. It carries no email or password; code that needs them loads the user.
+    public UserPrincipal getPrincipalFromClaims(Claims claims) {
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        if (userId == null || roles == null) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+                .toList();
+        return new UserPrincipal(UUID.fromString(userId), claims.getSubject(), null, null, authorities);
+    }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package com.translationapp.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+// Measures one BCrypt hash at the configured strength on this machine and compares it with the latency target, so
+// app.auth.bcrypt.strength can be chosen from numbers rather than guessed. Each strength step doubles the cost, which
+// gives the recommended value from a single measurement. Runs once after startup on the hashing executor, only when
+// app.auth.bcrypt.calibrate=true.
+@Component
+@ConditionalOnProperty(name = "app.auth.bcrypt.calibrate", havingValue = "true")
+public class PasswordHashingCalibration {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingCalibration.class);
+
+    private static final int SAMPLES = 3;
+    // Never recommend less than this, however slow the machine: cheaper hashes make offline guessing too easy
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 16;
+
+    private final ThreadPoolTaskExecutor passwordHashingExecutor;
+    private final int strength;
+    private final long targetMs;
+
+    public PasswordHashingCalibration(@Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor passwordHashingExecutor,
+                                      @Value("${app.auth.bcrypt.strength:10}") int strength,
+                                      @Value("${app.auth.bcrypt.target-ms:250}") long targetMs) {
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.strength = strength;
+        this.targetMs = targetMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void calibrate() {
+        passwordHashingExecutor.execute(this::measure);
+    }
+
+    private void measure() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration-" + i);
+            samples[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(samples);
+        long medianMs = Math.max(samples[SAMPLES / 2], 1);
+
+        int steps = (int) Math.floor(Math.log((double) targetMs / medianMs) / Math.log(2));
+        int recommended = Math.max(MIN_STRENGTH, Math.min(MAX_STRENGTH, strength + steps));
+        if (medianMs > targetMs) {
+            logger.warn("BCrypt strength {} takes {} ms per hash, over the {} ms target; consider strength {}",
+                    strength, medianMs, targetMs, recommended);
+        } else {
+            logger.info("BCrypt strength {} takes {} ms per hash (target {} ms, strongest within target: {})",
+                    strength, medianMs, targetMs, recommended);
+        }
+    }
+}
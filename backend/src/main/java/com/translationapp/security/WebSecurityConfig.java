@@ -1,6 +1,7 @@
 package com.translationapp.security;
 
 import com.translationapp.service.CustomUserDetailsService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -12,10 +13,13 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.util.concurrent.ThreadPoolExecutor;
+
 @Configuration
 @EnableWebSecurity
 public class WebSecurityConfig {
@@ -40,9 +44,28 @@ public class WebSecurityConfig {
         return source; 
     }
 
+    // Existing hashes keep the strength they were created with, so changing it only affects new passwords.
+    // PasswordHashingCalibration logs what a hash costs on this machine at startup.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.auth.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    // Login and registration hash passwords here rather than on request threads, so a login storm is limited to
+    // max-concurrency cores and cannot starve translation requests. Past queue-capacity waiting logins are refused
+    // at once (503) instead of piling up behind each other.
+    @Bean(name = "passwordHashingExecutor")
+    public static ThreadPoolTaskExecutor passwordHashingExecutor(
+            @Value("${app.auth.hashing.max-concurrency:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int maxConcurrency,
+            @Value("${app.auth.hashing.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setThreadNamePrefix("password-hashing-");
+        executor.initialize();
+        return executor;
     }
 
     @Bean
@@ -58,6 +81,8 @@ public class WebSecurityConfig {
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/auth/**").permitAll()
                 .requestMatchers("/api/**").authenticated()
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").authenticated()
                 .anyRequest().denyAll()
             );
         
@@ -0,0 +1,37 @@
+package com.translationapp.service;
+
+import com.translationapp.model.ChangeResource;
+import com.translationapp.repository.ChangeCounterRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+// ETags for the listing endpoints, made from the per-user change counters (V11) of every table the response is built
+// from, so checking If-None-Match needs neither the listing query nor the body. They cover what the user's data
+// looks like, not the request: HTTP compares them per URL, so every page, filter and cursor keeps its own.
+// Read before the listing itself: a write committing in between then makes the body newer than its ETag, which only
+// costs the client one more full response, never a 304 for data it does not have. The one exception is a body
+// served from another instance's second-level cache (profile, folder listings) in the moment before that instance
+// has processed the cluster invalidation; the client then keeps the stale copy until the next change.
+@Service
+public class ChangeCounterService {
+
+    private final ChangeCounterRepository changeCounterRepository;
+
+    public ChangeCounterService(ChangeCounterRepository changeCounterRepository) {
+        this.changeCounterRepository = changeCounterRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public String etag(UUID userId, ChangeResource... resources) {
+        Map<ChangeResource, Long> versions = changeCounterRepository.findVersions(userId, resources);
+        StringJoiner tag = new StringJoiner(".", "W/\"", "\"");
+        for (ChangeResource resource : resources) {
+            tag.add(Long.toString(versions.getOrDefault(resource, 0L)));
+        }
+        return tag.toString();
+    }
+}
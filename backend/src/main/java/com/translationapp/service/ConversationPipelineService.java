@@ -0,0 +1,398 @@
+package com.translationapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.gax.rpc.ClientStream;
+import com.google.api.gax.rpc.ResponseObserver;
+import com.google.api.gax.rpc.StreamController;
+import com.google.cloud.speech.v1.SpeechRecognitionAlternative;
+import com.google.cloud.speech.v1.StreamingRecognitionResult;
+import com.google.cloud.speech.v1.StreamingRecognizeRequest;
+import com.google.cloud.speech.v1.StreamingRecognizeResponse;
+import com.google.protobuf.ByteString;
+import com.translationapp.dto.ConversationControlMessage;
+import com.translationapp.exception.UnsupportedVoiceException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Speech -> transcript -> translation -> speech pipeline behind the conversation WebSocket.
+// Recognition is streamed per utterance; each final (or stable interim) transcript is translated and synthesized
+// on the conversation executor while recognition of the rest of the utterance continues.
+@Service
+public class ConversationPipelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationPipelineService.class);
+
+    private static final int DEFAULT_SAMPLE_RATE_HERTZ = 16000;
+    private static final int SEND_TIME_LIMIT_MS = 10_000;
+    private static final int SEND_BUFFER_LIMIT_BYTES = 512 * 1024;
+
+    private final GoogleCloudService googleCloudService;
+    private final ThreadPoolTaskExecutor executor;
+    private final ObjectMapper objectMapper;
+    private final Map<String, ConversationSession> sessions = new ConcurrentHashMap<>();
+
+    private final Timer sttTimer;
+    private final Timer translateTimer;
+    private final Timer ttsTimer;
+    private final Timer totalTimer;
+
+    @Value("${app.conversation.interim-stability-threshold:0.8}")
+    private float interimStabilityThreshold;
+
+    public ConversationPipelineService(GoogleCloudService googleCloudService,
+                                       @Qualifier("conversationExecutor") ThreadPoolTaskExecutor executor,
+                                       ObjectMapper objectMapper,
+                                       MeterRegistry meterRegistry) {
+        this.googleCloudService = googleCloudService;
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+        this.sttTimer = stageTimer(meterRegistry, "stt");
+        this.translateTimer = stageTimer(meterRegistry, "translate");
+        this.ttsTimer = stageTimer(meterRegistry, "tts");
+        this.totalTimer = stageTimer(meterRegistry, "total");
+    }
+
+    private static Timer stageTimer(MeterRegistry registry, String stage) {
+        return Timer.builder("conversation.utterance.latency")
+                .description("Per-segment latency of the conversation pipeline")
+                .tag("stage", stage)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    public ConversationSession openSession(WebSocketSession socket, UUID userId) {
+        WebSocketSession concurrentSocket = new ConcurrentWebSocketSessionDecorator(socket, SEND_TIME_LIMIT_MS, SEND_BUFFER_LIMIT_BYTES);
+        ConversationSession session = new ConversationSession(socket.getId(), userId, concurrentSocket, objectMapper);
+        sessions.put(session.getId(), session);
+
+        Map<String, Object> ready = message("ready");
+        ready.put("sessionId", session.getId());
+        session.send(ready);
+        return session;
+    }
+
+    public ConversationSession getSession(String sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    public void closeSession(String sessionId) {
+        ConversationSession session = sessions.remove(sessionId);
+        if (session != null) {
+            closeRecognition(session.endUtterance());
+        }
+    }
+
+    public void startUtterance(ConversationSession session, ConversationControlMessage control) {
+        if (control.getSourceLang() == null || control.getTargetLang() == null) {
+            throw new IllegalArgumentException("sourceLang and targetLang are required to start an utterance.");
+        }
+        // A new "start" implicitly finishes the previous turn (e.g. speakers swapping without an explicit stop)
+        endUtterance(session);
+
+        int sampleRate = control.getSampleRateHertz() != null ? control.getSampleRateHertz() : DEFAULT_SAMPLE_RATE_HERTZ;
+        ConversationSession.Utterance utterance = session.beginUtterance(control.getSourceLang(), control.getTargetLang(), sampleRate);
+        ClientStream<StreamingRecognizeRequest> stream = googleCloudService.startStreamingRecognition(
+                utterance.getSourceLang(), sampleRate, new RecognitionObserver(session, utterance));
+        utterance.setRecognitionStream(stream);
+
+        Map<String, Object> started = message("utterance_started");
+        started.put("utteranceId", utterance.getId());
+        session.send(started);
+    }
+
+    public void acceptAudio(ConversationSession session, ByteBuffer chunk) {
+        ConversationSession.Utterance utterance = session.getCurrentUtterance();
+        if (utterance == null || utterance.getRecognitionStream() == null) {
+            throw new IllegalStateException("Send a 'start' message before streaming audio.");
+        }
+        utterance.markAudioReceived();
+        utterance.getRecognitionStream().send(StreamingRecognizeRequest.newBuilder()
+                .setAudioContent(ByteString.copyFrom(chunk))
+                .build());
+    }
+
+    public void endUtterance(ConversationSession session) {
+        closeRecognition(session.endUtterance());
+    }
+
+    private void closeRecognition(ConversationSession.Utterance utterance) {
+        if (utterance != null && utterance.getRecognitionStream() != null) {
+            try {
+                utterance.getRecognitionStream().closeSend();
+            } catch (RuntimeException e) {
+                logger.debug("Recognition stream for utterance {} already closed: {}", utterance.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private void onTranscript(ConversationSession session, ConversationSession.Utterance utterance, StreamingRecognitionResult result) {
+        if (result.getAlternativesCount() == 0) {
+            return;
+        }
+        SpeechRecognitionAlternative best = result.getAlternatives(0);
+        String text = best.getTranscript().trim();
+        if (text.isEmpty()) {
+            return;
+        }
+
+        Map<String, Object> transcript = message("transcript");
+        transcript.put("utteranceId", utterance.getId());
+        transcript.put("text", text);
+        transcript.put("final", result.getIsFinal());
+        transcript.put("stability", result.getStability());
+        session.send(transcript);
+
+        if (result.getIsFinal()) {
+            long resultEndOffsetMs = result.getResultEndTime().getSeconds() * 1000 + result.getResultEndTime().getNanos() / 1_000_000;
+            onFinalTranscript(session, utterance, text, resultEndOffsetMs);
+        } else if (result.getStability() >= interimStabilityThreshold) {
+            onStableInterim(session, utterance, text);
+        }
+    }
+
+    private void onFinalTranscript(ConversationSession session, ConversationSession.Utterance utterance, String text, long resultEndOffsetMs) {
+        long finalAtNanos = System.nanoTime();
+        // The client streams in real time, so audio at offset T arrived roughly T after the first chunk.
+        // What remains is the time recognition needed to finalize the segment.
+        long sttMs = 0;
+        if (utterance.getFirstAudioAtNanos() > 0) {
+            sttMs = Math.max(0, TimeUnit.NANOSECONDS.toMillis(finalAtNanos - utterance.getFirstAudioAtNanos()) - resultEndOffsetMs);
+        }
+        sttTimer.record(sttMs, TimeUnit.MILLISECONDS);
+
+        int segment = utterance.nextSegment();
+        long recognitionLatencyMs = sttMs;
+
+        CompletableFuture<TimedResult<String>> translation = supplyOnExecutor(
+                () -> timed(() -> googleCloudService.translateText(text,
+                        toTranslationLanguage(utterance.getSourceLang()), toTranslationLanguage(utterance.getTargetLang()))));
+
+        translation.thenAccept(translated -> {
+            translateTimer.record(translated.elapsedMs, TimeUnit.MILLISECONDS);
+            Map<String, Object> payload = message("translation");
+            payload.put("utteranceId", utterance.getId());
+            payload.put("segment", segment);
+            payload.put("text", translated.value);
+            payload.put("final", true);
+            session.send(payload);
+        });
+
+        // A rejection here fails the speech stage like any other error (thenApplyAsync does not throw it)
+        CompletableFuture<TimedResult<byte[]>> speech = translation.thenApplyAsync(
+                translated -> timed(() -> synthesize(translated.value, utterance.getTargetLang())), executor);
+
+        session.chainAudio(speech, () -> emitAudio(session, utterance, segment, recognitionLatencyMs, finalAtNanos, translation, speech));
+    }
+
+    private void emitAudio(ConversationSession session, ConversationSession.Utterance utterance, int segment, long sttMs,
+                           long finalAtNanos, CompletableFuture<TimedResult<String>> translation,
+                           CompletableFuture<TimedResult<byte[]>> speech) {
+        if (translation.isCompletedExceptionally()) {
+            sendError(session, utterance, segment, "Translation failed", translation);
+            return;
+        }
+        if (speech.isCompletedExceptionally()) {
+            Throwable cause = unwrap(speech);
+            if (cause instanceof UnsupportedVoiceException) {
+                Map<String, Object> unavailable = message("audio_unavailable");
+                unavailable.put("utteranceId", utterance.getId());
+                unavailable.put("segment", segment);
+                session.send(unavailable);
+            } else {
+                sendError(session, utterance, segment, "Text-to-speech failed", speech);
+            }
+            return;
+        }
+
+        TimedResult<byte[]> audio = speech.join();
+        ttsTimer.record(audio.elapsedMs, TimeUnit.MILLISECONDS);
+
+        Map<String, Object> payload = message("audio");
+        payload.put("utteranceId", utterance.getId());
+        payload.put("segment", segment);
+        payload.put("encoding", "MP3");
+        payload.put("audioBase64", Base64.getEncoder().encodeToString(audio.value));
+        session.send(payload);
+
+        long totalMs = sttMs + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - finalAtNanos);
+        totalTimer.record(totalMs, TimeUnit.MILLISECONDS);
+
+        Map<String, Object> latency = message("latency");
+        latency.put("utteranceId", utterance.getId());
+        latency.put("segment", segment);
+        latency.put("sttMs", sttMs);
+        latency.put("translateMs", translation.join().elapsedMs);
+        latency.put("ttsMs", audio.elapsedMs);
+        latency.put("totalMs", totalMs);
+        session.send(latency);
+        logger.debug("Conversation {} utterance {} segment {}: stt={}ms translate={}ms tts={}ms total={}ms",
+                session.getId(), utterance.getId(), segment, sttMs, translation.join().elapsedMs, audio.elapsedMs, totalMs);
+    }
+
+    // Speculative translation of a stable partial transcript so the listener sees text before the speaker pauses.
+    // Only one speculative request per utterance is in flight; newer partials are picked up on the next result.
+    private void onStableInterim(ConversationSession session, ConversationSession.Utterance utterance, String text) {
+        if (text.equals(utterance.getLastSpeculativeText())
+                || !utterance.getSpeculativeTranslationInFlight().compareAndSet(false, true)) {
+            return;
+        }
+        utterance.setLastSpeculativeText(text);
+        supplyOnExecutor(() -> googleCloudService.translateText(text,
+                        toTranslationLanguage(utterance.getSourceLang()), toTranslationLanguage(utterance.getTargetLang())))
+                .whenComplete((translated, error) -> {
+                    utterance.getSpeculativeTranslationInFlight().set(false);
+                    if (error instanceof RejectedExecutionException) {
+                        // Text is skipped, not lost: the final transcript is translated anyway (or reports the error)
+                        Map<String, Object> busy = message("busy");
+                        busy.put("utteranceId", utterance.getId());
+                        busy.put("message", "Server busy, live translation skipped");
+                        session.send(busy);
+                        return;
+                    }
+                    if (error != null) {
+                        logger.debug("Speculative translation failed for utterance {}: {}", utterance.getId(), error.getMessage());
+                        return;
+                    }
+                    Map<String, Object> payload = message("translation");
+                    payload.put("utteranceId", utterance.getId());
+                    payload.put("text", translated);
+                    payload.put("final", false);
+                    session.send(payload);
+                });
+    }
+
+    // The executor rejects work once its pool and queue are full. supplyAsync would throw that at the caller, a gRPC
+    // thread delivering recognition results; as a failed future it goes down the stage's normal error path instead.
+    private <T> CompletableFuture<T> supplyOnExecutor(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private byte[] synthesize(String text, String languageCode) {
+        try {
+            return googleCloudService.textToSpeech(text, languageCode);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private void sendError(ConversationSession session, ConversationSession.Utterance utterance, int segment,
+                           String prefix, CompletableFuture<?> failed) {
+        Throwable cause = unwrap(failed);
+        boolean busy = cause instanceof RejectedExecutionException;
+        if (busy) {
+            logger.warn("Conversation {} utterance {} segment {}: {}, executor saturated", session.getId(), utterance.getId(),
+                    segment, prefix);
+        } else {
+            logger.warn("Conversation {} utterance {} segment {}: {}", session.getId(), utterance.getId(), segment, prefix, cause);
+        }
+        Map<String, Object> error = message("error");
+        error.put("utteranceId", utterance.getId());
+        error.put("segment", segment);
+        error.put("message", prefix + ": " + (busy ? "server busy, try again" : cause.getMessage()));
+        error.put("busy", busy);
+        session.send(error);
+    }
+
+    private static Throwable unwrap(CompletableFuture<?> failed) {
+        try {
+            failed.join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause() != null ? e.getCause() : e;
+        }
+    }
+
+    // Speech locales ("en-US") are more specific than the Translation API needs; Chinese keeps its script variant.
+    static String toTranslationLanguage(String languageCode) {
+        if (languageCode == null || languageCode.startsWith("zh")) {
+            return languageCode;
+        }
+        int dash = languageCode.indexOf('-');
+        return dash > 0 ? languageCode.substring(0, dash) : languageCode;
+    }
+
+    private static Map<String, Object> message(String type) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("type", type);
+        return payload;
+    }
+
+    private static <T> TimedResult<T> timed(Supplier<T> call) {
+        long start = System.nanoTime();
+        T value = call.get();
+        return new TimedResult<>(value, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static class TimedResult<T> {
+        private final T value;
+        private final long elapsedMs;
+
+        TimedResult(T value, long elapsedMs) {
+            this.value = value;
+            this.elapsedMs = elapsedMs;
+        }
+    }
+
+    // Receives streaming recognition results on gRPC threads; all heavy work is handed to the executor.
+    private class RecognitionObserver implements ResponseObserver<StreamingRecognizeResponse> {
+        private final ConversationSession session;
+        private final ConversationSession.Utterance utterance;
+
+        RecognitionObserver(ConversationSession session, ConversationSession.Utterance utterance) {
+            this.session = session;
+            this.utterance = utterance;
+        }
+
+        @Override
+        public void onStart(StreamController controller) {
+        }
+
+        @Override
+        public void onResponse(StreamingRecognizeResponse response) {
+            for (StreamingRecognitionResult result : response.getResultsList()) {
+                onTranscript(session, utterance, result);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            logger.warn("Conversation {}: recognition failed for utterance {}", session.getId(), utterance.getId(), t);
+            Map<String, Object> error = message("error");
+            error.put("utteranceId", utterance.getId());
+            error.put("message", "Speech recognition failed: " + t.getMessage());
+            session.send(error);
+        }
+
+        @Override
+        public void onComplete() {
+            Map<String, Object> ended = message("utterance_ended");
+            ended.put("utteranceId", utterance.getId());
+            ended.put("durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - utterance.getStartedAtNanos()));
+            session.send(ended);
+        }
+    }
+}
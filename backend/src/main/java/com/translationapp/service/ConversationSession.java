@@ -0,0 +1,164 @@
+package com.translationapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.gax.rpc.ClientStream;
+import com.google.cloud.speech.v1.StreamingRecognizeRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// In-memory state for one conversation WebSocket. Lives for the duration of the connection.
+public class ConversationSession {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationSession.class);
+
+    private final String id;
+    private final UUID userId;
+    private final WebSocketSession socket; // Expected to be a ConcurrentWebSocketSessionDecorator
+    private final ObjectMapper objectMapper;
+    private final AtomicInteger utteranceSequence = new AtomicInteger();
+
+    private volatile Utterance currentUtterance;
+
+    // Synthesized audio is emitted in order even though segments are translated concurrently
+    private CompletableFuture<Void> audioTail = CompletableFuture.completedFuture(null);
+
+    public ConversationSession(String id, UUID userId, WebSocketSession socket, ObjectMapper objectMapper) {
+        this.id = id;
+        this.userId = userId;
+        this.socket = socket;
+        this.objectMapper = objectMapper;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public boolean isOpen() {
+        return socket.isOpen();
+    }
+
+    public Utterance getCurrentUtterance() {
+        return currentUtterance;
+    }
+
+    public Utterance beginUtterance(String sourceLang, String targetLang, int sampleRateHertz) {
+        Utterance utterance = new Utterance(utteranceSequence.incrementAndGet(), sourceLang, targetLang, sampleRateHertz);
+        this.currentUtterance = utterance;
+        return utterance;
+    }
+
+    public Utterance endUtterance() {
+        Utterance utterance = this.currentUtterance;
+        this.currentUtterance = null;
+        return utterance;
+    }
+
+    public synchronized void chainAudio(CompletableFuture<?> previousStageDone, Runnable emit) {
+        audioTail = audioTail.thenCombine(previousStageDone.handle((r, e) -> null), (a, b) -> null)
+                .thenRun(emit)
+                .exceptionally(e -> {
+                    logger.warn("Conversation {}: failed to emit audio", id, e);
+                    return null;
+                });
+    }
+
+    public void send(Map<String, Object> payload) {
+        if (!socket.isOpen()) {
+            return;
+        }
+        try {
+            socket.sendMessage(new TextMessage(objectMapper.writeValueAsString(payload)));
+        } catch (IOException | IllegalStateException e) {
+            logger.warn("Conversation {}: could not send '{}' message: {}", id, payload.get("type"), e.getMessage());
+        }
+    }
+
+    // One spoken turn: a single streaming recognition call plus the segments it produced.
+    public static class Utterance {
+        private final int id;
+        private final String sourceLang;
+        private final String targetLang;
+        private final int sampleRateHertz;
+        private final long startedAtNanos = System.nanoTime();
+        private final AtomicInteger segmentSequence = new AtomicInteger();
+        private final AtomicBoolean speculativeTranslationInFlight = new AtomicBoolean();
+
+        private volatile ClientStream<StreamingRecognizeRequest> recognitionStream;
+        private volatile long firstAudioAtNanos;
+        private volatile String lastSpeculativeText;
+
+        Utterance(int id, String sourceLang, String targetLang, int sampleRateHertz) {
+            this.id = id;
+            this.sourceLang = sourceLang;
+            this.targetLang = targetLang;
+            this.sampleRateHertz = sampleRateHertz;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getSourceLang() {
+            return sourceLang;
+        }
+
+        public String getTargetLang() {
+            return targetLang;
+        }
+
+        public int getSampleRateHertz() {
+            return sampleRateHertz;
+        }
+
+        public long getStartedAtNanos() {
+            return startedAtNanos;
+        }
+
+        public int nextSegment() {
+            return segmentSequence.incrementAndGet();
+        }
+
+        public AtomicBoolean getSpeculativeTranslationInFlight() {
+            return speculativeTranslationInFlight;
+        }
+
+        public ClientStream<StreamingRecognizeRequest> getRecognitionStream() {
+            return recognitionStream;
+        }
+
+        public void setRecognitionStream(ClientStream<StreamingRecognizeRequest> recognitionStream) {
+            this.recognitionStream = recognitionStream;
+        }
+
+        public long getFirstAudioAtNanos() {
+            return firstAudioAtNanos;
+        }
+
+        public void markAudioReceived() {
+            if (firstAudioAtNanos == 0) {
+                firstAudioAtNanos = System.nanoTime();
+            }
+        }
+
+        public String getLastSpeculativeText() {
+            return lastSpeculativeText;
+        }
+
+        public void setLastSpeculativeText(String lastSpeculativeText) {
+            this.lastSpeculativeText = lastSpeculativeText;
+        }
+    }
+}
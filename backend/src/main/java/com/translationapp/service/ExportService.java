@@ -0,0 +1,224 @@
+package com.translationapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.translationapp.dto.SavedItemResponseDto;
+import com.translationapp.dto.TranslationResponseDto;
+import com.translationapp.model.SavedItem;
+import com.translationapp.model.Translation;
+import com.translationapp.repository.SavedItemRepository;
+import com.translationapp.repository.TranslationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Full exports of a user's history and saved items as NDJSON or CSV. Rows are read from a database cursor and
+// written to the output one at a time, and the persistence context is cleared every CLEAR_EVERY rows, so memory
+// stays flat however many rows there are. Archived history is not included (see /api/translations/archive).
+@Service
+public class ExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String format) {
+            if (format == null || format.isBlank()) {
+                return NDJSON;
+            }
+            switch (format.toLowerCase(Locale.ROOT)) {
+                case "ndjson":
+                case "jsonl":
+                    return NDJSON;
+                case "csv":
+                    return CSV;
+                default:
+                    throw new IllegalArgumentException("Unknown export format: " + format);
+            }
+        }
+    }
+
+    // Matches the repositories' fetch size, so each cleared batch is one round trip's worth of rows
+    private static final int CLEAR_EVERY = 500;
+
+    private static final List<String> TRANSLATION_COLUMNS = List.of("id", "created_at", "last_used_at", "source_lang",
+            "target_lang", "source_text", "target_text", "input_type", "favorite", "use_count", "tags");
+    private static final List<String> SAVED_ITEM_COLUMNS = List.of("id", "created_at", "category", "folder_id",
+            "folder_name", "name", "notes", "translation_id", "source_lang", "target_lang", "source_text", "target_text");
+
+    private final TranslationRepository translationRepository;
+    private final SavedItemRepository savedItemRepository;
+    private final TranslationHistoryWriter translationHistoryWriter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ExportService(TranslationRepository translationRepository,
+                         SavedItemRepository savedItemRepository,
+                         TranslationHistoryWriter translationHistoryWriter,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper) {
+        this.translationRepository = translationRepository;
+        this.savedItemRepository = savedItemRepository;
+        this.translationHistoryWriter = translationHistoryWriter;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public void exportTranslations(UUID userId, Format format, OutputStream out) throws IOException {
+        translationHistoryWriter.flush(); // rows still queued for insert belong in the export
+        inTransaction(() -> {
+            try (Stream<Translation> rows = translationRepository.streamByUserId(userId)) {
+                if (format == Format.NDJSON) {
+                    writeNdjson(rows.iterator(), TranslationResponseDto.class, TranslationResponseDto::fromEntity, out);
+                } else {
+                    Writer writer = csvWriter(out);
+                    writeCsvRow(writer, TRANSLATION_COLUMNS);
+                    writeRows(rows.iterator(), translation -> writeCsvRow(writer, Arrays.asList(
+                            translation.getId(), translation.getCreatedAt(), translation.getLastUsedAt(),
+                            translation.getSourceLang(), translation.getTargetLang(), translation.getSourceText(),
+                            translation.getTargetText(), translation.getInputType(), translation.isFavorite(),
+                            translation.getUseCount(),
+                            translation.getTags() != null ? objectMapper.writeValueAsString(translation.getTags()) : null)));
+                    writer.flush();
+                }
+            }
+        });
+    }
+
+    public void exportSavedItems(UUID userId, Format format, OutputStream out) throws IOException {
+        inTransaction(() -> {
+            try (Stream<SavedItem> rows = savedItemRepository.streamByUserId(userId)) {
+                if (format == Format.NDJSON) {
+                    writeNdjson(rows.iterator(), SavedItemResponseDto.class, SavedItemResponseDto::fromEntity, out);
+                } else {
+                    Writer writer = csvWriter(out);
+                    writeCsvRow(writer, SAVED_ITEM_COLUMNS);
+                    writeRows(rows.iterator(), item -> {
+                        Translation translation = item.getTranslation();
+                        writeCsvRow(writer, Arrays.asList(
+                                item.getId(), item.getCreatedAt(), item.getCategory(),
+                                item.getFolder() != null ? item.getFolder().getId() : null,
+                                item.getFolder() != null ? item.getFolder().getName() : null,
+                                item.getName(), item.getNotes(), translation.getId(),
+                                translation.getSourceLang(), translation.getTargetLang(), translation.getSourceText(),
+                                translation.getTargetText()));
+                    });
+                    writer.flush();
+                }
+            }
+        });
+    }
+
+    // One JSON object per line, written through a single streaming generator. The generator must not close the
+    // response stream or flush it per row; the servlet container flushes as its buffer fills.
+    private <E, D> void writeNdjson(Iterator<E> rows, Class<D> dtoType, Function<E, D> toDto,
+                                    OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(dtoType).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            writeRows(rows, row -> {
+                writer.writeValue(generator, toDto.apply(row));
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    private <E> void writeRows(Iterator<E> rows, RowWriter<E> rowWriter) throws IOException {
+        int sinceClear = 0;
+        while (rows.hasNext()) {
+            rowWriter.write(rows.next());
+            if (++sinceClear == CLEAR_EVERY) {
+                entityManager.clear(); // drop the rows already written; the cursor keeps its position
+                sinceClear = 0;
+            }
+        }
+    }
+
+    private static Writer csvWriter(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    // RFC 4180: fields containing a comma, quote or line break are quoted, quotes doubled; rows end in CRLF.
+    // Nulls are empty fields.
+    private static void writeCsvRow(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values.get(i) != null ? values.get(i).toString() : "";
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // Server-side cursors only exist inside a transaction; read-only also lets it run on a replica
+    private void inTransaction(IoWork work) throws IOException {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try {
+                    work.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // typically the client went away mid-download
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoWork {
+        void run() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter<E> {
+        void write(E row) throws IOException;
+    }
+}
@@ -1,18 +1,26 @@
 package com.translationapp.service;
 
+import com.translationapp.dto.FolderResponseDto;
+import com.translationapp.cache.ClusterCacheInvalidator;
 import com.translationapp.model.Folder;
-import com.translationapp.model.User;
+import com.translationapp.model.StatDimension;
 import com.translationapp.repository.FolderRepository;
 import com.translationapp.repository.SavedItemRepository;
 import com.translationapp.repository.UserRepository;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import com.translationapp.search.SearchIndex;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class FolderService {
@@ -20,118 +28,195 @@ public class FolderService {
     private final FolderRepository folderRepository;
     private final UserRepository userRepository;
     private final SavedItemRepository savedItemRepository;
+    private final SearchIndex searchIndex;
+    private final UserStatsAccumulator userStatsAccumulator;
+    private final ClusterCacheInvalidator cacheInvalidator;
 
-    public FolderService(FolderRepository folderRepository, UserRepository userRepository, SavedItemRepository savedItemRepository) {
+    public FolderService(FolderRepository folderRepository, UserRepository userRepository, SavedItemRepository savedItemRepository,
+                         SearchIndex searchIndex, UserStatsAccumulator userStatsAccumulator,
+                         ClusterCacheInvalidator cacheInvalidator) {
         this.folderRepository = folderRepository;
         this.userRepository = userRepository;
         this.savedItemRepository = savedItemRepository;
+        this.searchIndex = searchIndex;
+        this.userStatsAccumulator = userStatsAccumulator;
+        this.cacheInvalidator = cacheInvalidator;
     }
 
     @Transactional
     public Folder createFolder(UUID userId, String name, UUID parentFolderId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userId));
-
         Folder parent = null;
         if (parentFolderId != null) {
-            parent = folderRepository.findById(parentFolderId)
+            // Not found and not owned are the same answer, from one query. Locked so the parent's path cannot
+            // change (by a concurrent move) before the child's path is derived from it.
+            parent = folderRepository.findAndLockByUserIdAndIdIn(userId, List.of(parentFolderId)).stream().findFirst()
                     .orElseThrow(() -> new EntityNotFoundException("Parent folder not found: " + parentFolderId));
-            // Check if parent folder belongs to the same user
-            if (!parent.getUser().getId().equals(userId)) {
-                throw new SecurityException("User not authorized to create subfolder in this parent folder.");
-            }
         }
 
         // Check for duplicate folder name within the same parent (or at root)
-        Optional<Folder> existingFolder;
-        if (parent != null) {
-            existingFolder = folderRepository.findByUserAndParentFolderAndName(user, parent, name);
-        } else {
-            existingFolder = folderRepository.findByUserAndParentFolderIsNullAndName(user, name);
-        }
-        if (existingFolder.isPresent()) {
+        boolean duplicate = parentFolderId != null
+                ? folderRepository.existsSiblingWithName(userId, parentFolderId, name, null)
+                : folderRepository.existsRootWithName(userId, name, null);
+        if (duplicate) {
             throw new IllegalArgumentException("A folder with this name already exists in this location.");
         }
 
-        Folder folder = new Folder(user, name, parent);
+        Folder folder = new Folder(userRepository.getReferenceById(userId), name, parent);
         return folderRepository.save(folder);
     }
 
     @Transactional(readOnly = true)
     public List<Folder> getRootFolders(UUID userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userId));
-        return folderRepository.findByUserAndParentFolderIsNullOrderByCreatedAtDesc(user);
+        return folderRepository.findByUser_IdAndParentFolderIsNullOrderByCreatedAtDesc(userId);
     }
 
     @Transactional(readOnly = true)
     public List<Folder> getSubFolders(UUID userId, UUID parentFolderId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userId));
-        Folder parent = folderRepository.findById(parentFolderId)
-                .orElseThrow(() -> new EntityNotFoundException("Parent folder not found: " + parentFolderId));
-        if (!parent.getUser().getId().equals(userId)) {
-            throw new SecurityException("User not authorized to access this folder.");
+        List<Folder> subFolders = folderRepository.findByUser_IdAndParentFolder_IdOrderByCreatedAtDesc(userId, parentFolderId);
+        // An empty result is the only case where we need to know whether the parent exists at all
+        if (subFolders.isEmpty() && !folderRepository.existsByIdAndUser_Id(parentFolderId, userId)) {
+            throw new EntityNotFoundException("Parent folder not found: " + parentFolderId);
+        }
+        return subFolders;
+    }
+
+    // The user's whole folder tree with item counts, from a single query
+    @Transactional(readOnly = true)
+    public List<FolderResponseDto> getFolderTree(UUID userId) {
+        List<Object[]> rows = folderRepository.findTreeWithItemCounts(userId);
+        Map<UUID, FolderResponseDto> dtos = new LinkedHashMap<>();
+        Map<UUID, Folder> folders = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            Folder folder = (Folder) row[0];
+            folders.put(folder.getId(), folder);
+            dtos.put(folder.getId(), FolderResponseDto.fromEntityWithItemCount(folder, (Long) row[1]));
+        }
+
+        List<FolderResponseDto> roots = new ArrayList<>();
+        for (Folder folder : folders.values()) {
+            FolderResponseDto dto = dtos.get(folder.getId());
+            FolderResponseDto parent = folder.getParentFolder() != null ? dtos.get(folder.getParentFolder().getId()) : null;
+            if (parent != null) {
+                parent.getSubFolders().add(dto);
+            } else {
+                roots.add(dto);
+            }
         }
-        return folderRepository.findByUserAndParentFolderOrderByCreatedAtDesc(user, parent);
+
+        // Deepest first, so every child's total is final before it is added to its parent
+        folders.values().stream()
+                .filter(folder -> folder.getParentFolder() != null)
+                .sorted(Comparator.comparingInt((Folder folder) -> folder.getPath().length()).reversed())
+                .forEach(folder -> {
+                    FolderResponseDto parent = dtos.get(folder.getParentFolder().getId());
+                    if (parent != null) {
+                        parent.setTotalItemCount(parent.getTotalItemCount() + dtos.get(folder.getId()).getTotalItemCount());
+                    }
+                });
+        return roots;
     }
 
     @Transactional
     public Folder updateFolderName(UUID userId, UUID folderId, String newName) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userId));
-        Folder folder = folderRepository.findById(folderId)
+        Folder folder = folderRepository.findByIdAndUser_Id(folderId, userId)
                 .orElseThrow(() -> new EntityNotFoundException("Folder not found: " + folderId));
-        if (!folder.getUser().getId().equals(userId)) {
-            throw new SecurityException("User not authorized to update this folder.");
+
+        // Check for duplicate folder name within the same parent (or at root), ignoring this folder itself
+        boolean duplicate = folder.getParentFolder() != null
+                ? folderRepository.existsSiblingWithName(userId, folder.getParentFolder().getId(), newName, folderId)
+                : folderRepository.existsRootWithName(userId, newName, folderId);
+        if (duplicate) {
+            throw new IllegalArgumentException("A folder with this name already exists in this location.");
         }
 
-        // Check for duplicate folder name within the same parent (or at root)
-        Optional<Folder> existingFolder;
-        if (folder.getParentFolder() != null) {
-            existingFolder = folderRepository.findByUserAndParentFolderAndName(user, folder.getParentFolder(), newName);
-        } else {
-            existingFolder = folderRepository.findByUserAndParentFolderIsNullAndName(user, newName);
+        folder.setName(newName); // flushed by dirty checking at commit
+        return folder;
+    }
+
+    // Moves a folder with everything under it; newParentFolderId null moves it to the root
+    @Transactional
+    public Folder moveFolder(UUID userId, UUID folderId, UUID newParentFolderId) {
+        if (folderId.equals(newParentFolderId)) {
+            throw new IllegalArgumentException("A folder cannot be moved into itself.");
         }
-        // Allow if it's the same folder, or no duplicate found
-        if (existingFolder.isPresent() && !existingFolder.get().getId().equals(folderId)) {
+        List<UUID> ids = newParentFolderId != null ? List.of(folderId, newParentFolderId) : List.of(folderId);
+        Map<UUID, Folder> locked = folderRepository.findAndLockByUserIdAndIdIn(userId, ids).stream()
+                .collect(Collectors.toMap(Folder::getId, Function.identity()));
+
+        Folder folder = locked.get(folderId);
+        if (folder == null) {
+            throw new EntityNotFoundException("Folder not found: " + folderId);
+        }
+        Folder newParent = null;
+        if (newParentFolderId != null) {
+            newParent = locked.get(newParentFolderId);
+            if (newParent == null) {
+                throw new EntityNotFoundException("Parent folder not found: " + newParentFolderId);
+            }
+            if (folder.isAncestorOrSelfOf(newParent)) {
+                throw new IllegalArgumentException("A folder cannot be moved into one of its own subfolders.");
+            }
+        }
+
+        UUID currentParentId = folder.getParentFolder() != null ? folder.getParentFolder().getId() : null;
+        if (Objects.equals(currentParentId, newParentFolderId)) {
+            return folder;
+        }
+
+        boolean duplicate = newParentFolderId != null
+                ? folderRepository.existsSiblingWithName(userId, newParentFolderId, folder.getName(), folderId)
+                : folderRepository.existsRootWithName(userId, folder.getName(), folderId);
+        if (duplicate) {
             throw new IllegalArgumentException("A folder with this name already exists in this location.");
         }
 
-        folder.setName(newName);
-        return folderRepository.save(folder);
+        String oldPrefix = folder.getPath();
+        String newPrefix = (newParent != null ? newParent.getPath() : "") + folderId + "/";
+        folderRepository.moveSubtree(userId, folderId, newParentFolderId, oldPrefix, Folder.subtreeUpperBound(oldPrefix), newPrefix);
+        cacheInvalidator.publishAll(Folder.class);
+        // The update bypassed the persistence context (and cleared it), so read the moved folder back
+        return folderRepository.findByIdAndUser_Id(folderId, userId)
+                .orElseThrow(() -> new EntityNotFoundException("Folder not found: " + folderId));
     }
 
+    // Deletes the folder, all its subfolders and every saved item in them, in three statements regardless of depth.
+    // The translations behind those items stay in history.
     @Transactional
-    public void deleteFolder(UUID userId, UUID folderId) {
-        // Note: This is a simple delete. For a real app, decide on handling of subfolders and items within:
-        // 1. Disallow deleting non-empty folders.
-        // 2. Cascade delete subfolders and items (could be dangerous or complex).
-        // 3. Move subfolders/items to parent or root.
-        // For now, assume simple delete if folder is empty or it's a leaf. Add checks as needed.
-
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userId));
-        Folder folder = folderRepository.findById(folderId)
+    public void deleteFolderRecursively(UUID userId, UUID folderId) {
+        Folder folder = folderRepository.findAndLockByUserIdAndIdIn(userId, List.of(folderId)).stream().findFirst()
                 .orElseThrow(() -> new EntityNotFoundException("Folder not found: " + folderId));
-        if (!folder.getUser().getId().equals(userId)) {
-            throw new SecurityException("User not authorized to delete this folder.");
+        String prefix = folder.getPath();
+        String prefixEnd = Folder.subtreeUpperBound(prefix);
+
+        List<UUID> savedItemIds = savedItemRepository.findIdsInFolderSubtree(userId, prefix, prefixEnd);
+        if (!savedItemIds.isEmpty()) {
+            savedItemRepository.deleteInFolderSubtree(userId, prefix, prefixEnd);
+            searchIndex.remove(savedItemIds);
+            userStatsAccumulator.add(userId, StatDimension.SAVED, -savedItemIds.size());
         }
-        
+        folderRepository.deleteSubtree(userId, prefix, prefixEnd);
+        cacheInvalidator.publishAll(Folder.class);
+    }
+
+    @Transactional
+    public void deleteFolder(UUID userId, UUID folderId) {
+        // Non-recursive delete only removes empty folders; deleteFolderRecursively takes the contents with it.
+
+        // Children always share the folder's owner, so scoping these checks by user means a folder the caller does
+        // not own falls through to the delete below and reports not-found.
         // Basic check: prevent deleting if it has subfolders.
-        List<Folder> subFolders = folderRepository.findByUserAndParentFolderOrderByCreatedAtDesc(user, folder);
-        if (!subFolders.isEmpty()) {
-            throw new IllegalStateException("Cannot delete folder with subfolders. Delete or move subfolders first.");
+        if (folderRepository.existsByUser_IdAndParentFolder_Id(userId, folderId)) {
+            throw new IllegalStateException("Cannot delete folder with subfolders. Delete or move subfolders first, or delete recursively.");
         }
-        
+
         // Check for saved items within this folder before deleting.
-        long itemsInFolder = savedItemRepository.countByFolder(folder);
-        if (itemsInFolder > 0) {
-            throw new IllegalStateException("Cannot delete folder that contains saved items. Move or delete items first.");
+        if (savedItemRepository.existsByUser_IdAndFolder_Id(userId, folderId)) {
+            throw new IllegalStateException("Cannot delete folder that contains saved items. Move or delete items first, or delete recursively.");
         }
 
-        folderRepository.delete(folder);
+        if (folderRepository.deleteByIdAndUserId(folderId, userId) == 0) {
+            throw new EntityNotFoundException("Folder not found: " + folderId);
+        }
+        cacheInvalidator.publish(Folder.class, folderId);
     }
-    
-    // TODO: Implement moveFolder method if needed.
 } 
\ No newline at end of file
@@ -10,8 +10,13 @@ import com.google.cloud.translate.v3.TranslateTextResponse;
 import com.google.cloud.translate.v3.TranslationServiceClient;
 import com.google.cloud.vision.v1.*;
 import com.google.protobuf.ByteString;
+import com.google.api.gax.rpc.ClientStream;
 import com.google.api.gax.rpc.InvalidArgumentException; // Added for specific exception handling
+import com.google.api.gax.rpc.ResponseObserver;
+import com.translationapp.audio.NormalizedAudio;
 import com.translationapp.exception.UnsupportedVoiceException; // Added custom exception
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -23,6 +28,8 @@ import java.util.List;
 @Service
 public class GoogleCloudService {
 
+    private static final Logger logger = LoggerFactory.getLogger(GoogleCloudService.class);
+
     private final TranslationServiceClient translationServiceClient;
     private final ImageAnnotatorClient imageAnnotatorClient;
     private final SpeechClient speechClient;
@@ -42,12 +49,20 @@ public class GoogleCloudService {
     }
 
     public String translateText(String text, String targetLanguage) {
+        return translateText(text, null, targetLanguage);
+    }
+
+    // Passing the source language skips auto-detection, which the conversation pipeline relies on for latency
+    public String translateText(String text, String sourceLanguage, String targetLanguage) {
         LocationName parent = LocationName.of(projectId, "global");
-        TranslateTextRequest request = TranslateTextRequest.newBuilder()
+        TranslateTextRequest.Builder requestBuilder = TranslateTextRequest.newBuilder()
                 .setParent(parent.toString())
                 .setTargetLanguageCode(targetLanguage)
-                .addContents(text)
-                .build();
+                .addContents(text);
+        if (sourceLanguage != null && !sourceLanguage.isBlank()) {
+            requestBuilder.setSourceLanguageCode(sourceLanguage);
+        }
+        TranslateTextRequest request = requestBuilder.build();
         TranslateTextResponse response = translationServiceClient.translateText(request);
         return response.getTranslations(0).getTranslatedText();
     }
@@ -77,6 +92,24 @@ public class GoogleCloudService {
         return detectedText.toString();
     }
 
+    // DOCUMENT_TEXT_DETECTION uses the dense-text model, which is the one Vision recommends for handwriting
+    public String detectDocumentText(byte[] imageBytes, List<String> languageHints) {
+        Image img = Image.newBuilder().setContent(ByteString.copyFrom(imageBytes)).build();
+        Feature feat = Feature.newBuilder().setType(Feature.Type.DOCUMENT_TEXT_DETECTION).build();
+        AnnotateImageRequest.Builder requestBuilder = AnnotateImageRequest.newBuilder()
+                .addFeatures(feat)
+                .setImage(img);
+        if (languageHints != null && !languageHints.isEmpty()) {
+            requestBuilder.setImageContext(ImageContext.newBuilder().addAllLanguageHints(languageHints).build());
+        }
+
+        AnnotateImageResponse response = imageAnnotatorClient.batchAnnotateImages(List.of(requestBuilder.build())).getResponses(0);
+        if (response.hasError()) {
+            throw new IllegalStateException("Vision error: " + response.getError().getMessage());
+        }
+        return response.getFullTextAnnotation().getText();
+    }
+
     public byte[] textToSpeech(String text, String languageCode) throws UnsupportedVoiceException, Exception {
         SynthesisInput input = SynthesisInput.newBuilder().setText(text).build();
         VoiceSelectionParams voice = VoiceSelectionParams.newBuilder()
@@ -103,41 +136,48 @@ public class GoogleCloudService {
         }
     }
 
-    public String speechToText(byte[] audioData, String languageCode, String contentType) throws Exception {
+    public String recognize(NormalizedAudio normalizedAudio, String languageCode) {
         RecognitionConfig.Builder configBuilder = RecognitionConfig.newBuilder()
-            .setLanguageCode(languageCode); // e.g., "en-US"
-
-        // Determine encoding and sample rate based on content type
-        if ("audio/wav".equalsIgnoreCase(contentType) || "audio/l16".equalsIgnoreCase(contentType) || "audio/wave".equalsIgnoreCase(contentType) || "audio/vnd.wave".equalsIgnoreCase(contentType) || "audio/vnd.wav".equalsIgnoreCase(contentType)) {
-            configBuilder.setEncoding(RecognitionConfig.AudioEncoding.LINEAR16);
-            configBuilder.setSampleRateHertz(16000); // Common for WAV, adjust if known otherwise. 16000 is also common for STT.
-        } else if ("audio/awb".equalsIgnoreCase(contentType) || "audio/amr_wb".equalsIgnoreCase(contentType)) {
-           configBuilder.setEncoding(RecognitionConfig.AudioEncoding.AMR_WB);
-           configBuilder.setSampleRateHertz(16000);
-        } else {
-            // Default to LINEAR16 if content type is unknown or not explicitly handled,
-            // but this might lead to errors. Consider throwing an exception for unsupported types.
-            // For now, retaining original behavior as a fallback but logging a warning.
-
-            // Would need to convert to an encoding supported by the translate api
-            System.err.println("Warning: Unknown or unhandled audio content type '" + contentType + "'. Defaulting to LINEAR16 and 16000Hz.");
-            configBuilder.setEncoding(RecognitionConfig.AudioEncoding.LINEAR16);
-            configBuilder.setSampleRateHertz(16000);
+                .setLanguageCode(languageCode) // e.g., "en-US"
+                .setEncoding(normalizedAudio.getEncoding())
+                .setSampleRateHertz(normalizedAudio.getSampleRateHertz());
+        if (normalizedAudio.getChannels() > 1) {
+            configBuilder.setAudioChannelCount(normalizedAudio.getChannels());
         }
 
         RecognitionConfig config = configBuilder.build();
-        RecognitionAudio audio = RecognitionAudio.newBuilder().setContent(ByteString.copyFrom(audioData)).build();
+        RecognitionAudio audio = RecognitionAudio.newBuilder().setContent(ByteString.copyFrom(normalizedAudio.getContent())).build();
 
-        System.out.println("Google STT Request Config: " + config.toString()); // Log the config being sent
+        logger.debug("Google STT request: encoding={}, sampleRate={}, channels={}, bytes={}", config.getEncoding(),
+                config.getSampleRateHertz(), normalizedAudio.getChannels(), normalizedAudio.getContent().length);
         RecognizeResponse response = this.speechClient.recognize(config, audio);
-        System.out.println("Google STT Raw Response: " + response.toString()); // Log the full raw response
         StringBuilder transcript = new StringBuilder();
         if (response.getResultsList().isEmpty()) {
-            System.out.println("Google STT Response contained no results.");
+            logger.debug("Google STT response contained no results.");
         }
         for (SpeechRecognitionResult result : response.getResultsList()) {
             transcript.append(result.getAlternativesList().get(0).getTranscript());
         }
         return transcript.toString();
     }
+
+    // Opens a streaming recognition call for LINEAR16 audio. The streaming config is sent up front; callers push
+    // audio chunks with send() and finish with closeSend(). Interim results let the pipeline act on stable partials.
+    public ClientStream<StreamingRecognizeRequest> startStreamingRecognition(String languageCode, int sampleRateHertz,
+                                                                             ResponseObserver<StreamingRecognizeResponse> responseObserver) {
+        RecognitionConfig config = RecognitionConfig.newBuilder()
+                .setEncoding(RecognitionConfig.AudioEncoding.LINEAR16)
+                .setSampleRateHertz(sampleRateHertz)
+                .setLanguageCode(languageCode)
+                .setEnableAutomaticPunctuation(true)
+                .build();
+        StreamingRecognitionConfig streamingConfig = StreamingRecognitionConfig.newBuilder()
+                .setConfig(config)
+                .setInterimResults(true)
+                .build();
+
+        ClientStream<StreamingRecognizeRequest> stream = speechClient.streamingRecognizeCallable().splitCall(responseObserver);
+        stream.send(StreamingRecognizeRequest.newBuilder().setStreamingConfig(streamingConfig).build());
+        return stream;
+    }
 }
\ No newline at end of file
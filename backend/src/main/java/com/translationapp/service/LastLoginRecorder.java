@@ -0,0 +1,80 @@
+package com.translationapp.service;
+
+import com.translationapp.cache.ClusterCacheInvalidator;
+import com.translationapp.model.User;
+import com.translationapp.repository.UserJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Takes users.last_login off the login path. Logins only record the time here; a flush writes the latest time per
+// user in one batch. A login storm therefore costs one update per user per flush instead of one load and save per
+// login. Times still held here when the process dies are lost, which for last_login is acceptable.
+@Component
+public class LastLoginRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(LastLoginRecorder.class);
+
+    // Above this many users one region-wide invalidation is cheaper than a notification per user
+    private static final int MAX_PER_USER_INVALIDATIONS = 100;
+
+    private final UserJdbcRepository userJdbcRepository;
+    private final ClusterCacheInvalidator clusterCacheInvalidator;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<UUID, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public LastLoginRecorder(UserJdbcRepository userJdbcRepository, ClusterCacheInvalidator clusterCacheInvalidator,
+                             EntityManagerFactory entityManagerFactory, PlatformTransactionManager transactionManager) {
+        this.userJdbcRepository = userJdbcRepository;
+        this.clusterCacheInvalidator = clusterCacheInvalidator;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void record(UUID userId) {
+        pending.merge(userId, LocalDateTime.now(), (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.last-login-flush-interval-ms:5000}")
+    @PreDestroy
+    public void flush() {
+        Map<UUID, LocalDateTime> batch = new HashMap<>();
+        for (UUID userId : pending.keySet()) {
+            LocalDateTime lastLogin = pending.remove(userId);
+            if (lastLogin != null) {
+                batch.put(userId, lastLogin);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userJdbcRepository.updateLastLogin(batch);
+                if (batch.size() > MAX_PER_USER_INVALIDATIONS) {
+                    clusterCacheInvalidator.publishAll(User.class);
+                } else {
+                    batch.keySet().forEach(userId -> clusterCacheInvalidator.publish(User.class, userId));
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Writing {} last login times failed, retrying on next flush: {}", batch.size(), e.getMessage());
+            batch.forEach((userId, lastLogin) -> pending.merge(userId, lastLogin, (a, b) -> a.isAfter(b) ? a : b));
+            return;
+        }
+        // Evicted after commit, so a concurrent load cannot put the old row back into the cache
+        batch.keySet().forEach(userId -> entityManagerFactory.getCache().evict(User.class, userId));
+    }
+}
@@ -1,60 +1,81 @@
 package com.translationapp.service;
 
+import com.translationapp.dto.BulkGetResponse;
+import com.translationapp.dto.BulkItemResult;
+import com.translationapp.dto.BulkOperationResponse;
 import com.translationapp.dto.SavedItemCreateRequest;
+import com.translationapp.dto.SavedItemResponseDto;
 import com.translationapp.dto.SavedItemUpdateRequest;
 import com.translationapp.model.*;
 import com.translationapp.repository.*;
+import com.translationapp.search.SearchDocument;
+import com.translationapp.search.SearchIndex;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class SavedItemService {
 
     private final SavedItemRepository savedItemRepository;
+    private final SavedItemJdbcRepository savedItemJdbcRepository;
     private final UserRepository userRepository;
     private final TranslationRepository translationRepository;
     private final FolderRepository folderRepository;
-    private final TranslationPersistenceService translationPersistenceService; // For marking underlying translation as favorite
+    private final TranslationHistoryWriter translationHistoryWriter;
+    private final SearchIndex searchIndex;
+    private final UserStatsAccumulator userStatsAccumulator;
 
     public SavedItemService(SavedItemRepository savedItemRepository,
+                            SavedItemJdbcRepository savedItemJdbcRepository,
                             UserRepository userRepository,
                             TranslationRepository translationRepository,
                             FolderRepository folderRepository,
-                            TranslationPersistenceService translationPersistenceService) {
+                            TranslationHistoryWriter translationHistoryWriter,
+                            SearchIndex searchIndex,
+                            UserStatsAccumulator userStatsAccumulator) {
         this.savedItemRepository = savedItemRepository;
+        this.savedItemJdbcRepository = savedItemJdbcRepository;
         this.userRepository = userRepository;
         this.translationRepository = translationRepository;
         this.folderRepository = folderRepository;
-        this.translationPersistenceService = translationPersistenceService;
+        this.translationHistoryWriter = translationHistoryWriter;
+        this.searchIndex = searchIndex;
+        this.userStatsAccumulator = userStatsAccumulator;
     }
 
     @Transactional
     public SavedItem createSavedItem(UUID userId, SavedItemCreateRequest request) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userId));
-        Translation translation = translationRepository.findById(request.getTranslationId())
+        translationHistoryWriter.flushIfPending(request.getTranslationId()); // may still be queued for insert
+        // Owner-scoped: another user's translation is reported as not found
+        Translation translation = translationRepository.findByIdAndUser_Id(request.getTranslationId(), userId)
                 .orElseThrow(() -> new EntityNotFoundException("Translation not found: " + request.getTranslationId()));
 
         // Check if this translation already saved by this user
-        Optional<SavedItem> existingSavedItem = savedItemRepository.findByUserAndTranslation(user, translation);
-        if (existingSavedItem.isPresent()) {
+        if (savedItemRepository.existsByUser_IdAndTranslation_Id(userId, translation.getId())) {
             throw new IllegalArgumentException("This translation is already saved.");
         }
 
         Folder folder = null;
         if (request.getFolderId() != null) {
-            folder = folderRepository.findById(request.getFolderId())
+            folder = folderRepository.findByIdAndUser_Id(request.getFolderId(), userId)
                     .orElseThrow(() -> new EntityNotFoundException("Folder not found: " + request.getFolderId()));
-            if (!folder.getUser().getId().equals(userId)) {
-                throw new SecurityException("User not authorized to save item to this folder.");
-            }
         }
 
         String name = request.getName();
@@ -63,63 +84,69 @@ public class SavedItemService {
             name = translation.getSourceText().length() > 50 ? translation.getSourceText().substring(0, 47) + "..." : translation.getSourceText();
         }
 
-        SavedItem savedItem = new SavedItem(user, translation, request.getCategory(), folder, name, request.getNotes());
-        
-        // Also ensure the underlying translation is marked as a favorite
+        SavedItem savedItem = new SavedItem(userRepository.getReferenceById(userId), translation, request.getCategory(), folder, name, request.getNotes());
+
+        // Also ensure the underlying translation is marked as a favorite (managed entity, flushed at commit)
         if (!translation.isFavorite()) {
-            translationPersistenceService.toggleFavorite(userId, translation.getId());
+            translation.setFavorite(true);
+            userStatsAccumulator.add(userId, StatDimension.FAVORITES, 1);
         }
-        
-        return savedItemRepository.save(savedItem);
+        userStatsAccumulator.add(userId, StatDimension.SAVED, 1);
+
+        // Flushed first: the search document references the saved_items row
+        SavedItem saved = savedItemRepository.saveAndFlush(savedItem);
+        searchIndex.index(List.of(SearchDocument.of(saved)));
+        return saved;
     }
 
     @Transactional(readOnly = true)
     public Page<SavedItem> getSavedItems(UUID userId, SavedItemCategory category, UUID folderId, Pageable pageable) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userId));
-
         if (folderId != null) {
-            Folder folder = folderRepository.findById(folderId)
-                    .orElseThrow(() -> new EntityNotFoundException("Folder not found: " + folderId));
-            if (!folder.getUser().getId().equals(userId)) {
-                throw new SecurityException("User not authorized to access this folder.");
-            }
+            requireOwnedFolder(userId, folderId);
             if (category != null) {
-                return savedItemRepository.findByUserAndCategoryAndFolderOrderByCreatedAtDesc(user, category, folder, pageable);
+                return savedItemRepository.findByUser_IdAndCategoryAndFolder_IdOrderByCreatedAtDesc(userId, category, folderId, pageable);
             } else {
-                return savedItemRepository.findByUserAndFolderOrderByCreatedAtDesc(user, folder, pageable);
+                return savedItemRepository.findByUser_IdAndFolder_IdOrderByCreatedAtDesc(userId, folderId, pageable);
             }
         } else {
             if (category != null) {
-                return savedItemRepository.findByUserAndCategoryOrderByCreatedAtDesc(user, category, pageable);
+                return savedItemRepository.findByUser_IdAndCategoryOrderByCreatedAtDesc(userId, category, pageable);
             } else {
-                return savedItemRepository.findByUserOrderByCreatedAtDesc(user, pageable);
+                return savedItemRepository.findByUser_IdOrderByCreatedAtDesc(userId, pageable);
             }
         }
     }
-    
+
+    // Keyset variant of getSavedItems; folder ownership is checked the same way
     @Transactional(readOnly = true)
-    public Optional<SavedItem> getSavedItemById(UUID userId, UUID savedItemId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userId));
-        Optional<SavedItem> savedItem = savedItemRepository.findById(savedItemId);
-        if (savedItem.isPresent() && !savedItem.get().getUser().getId().equals(userId)){
-             throw new SecurityException("User not authorized to access this saved item.");
+    public Slice<SavedItem> getSavedItems(UUID userId, SavedItemCategory category, UUID folderId, String cursor, int size) {
+        Specification<SavedItem> spec = SavedItemRepository.withTranslationAndFolder()
+                .and((root, query, cb) -> cb.equal(root.get("user").get("id"), userId));
+        if (folderId != null) {
+            requireOwnedFolder(userId, folderId);
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("folder").get("id"), folderId));
+        }
+        if (category != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("category"), category));
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(KeysetCursor.decode(cursor).after(KeysetCursor.SAVED_ITEM_SORT));
         }
-        return savedItem;
+        List<SavedItem> rows = savedItemRepository.findBy(spec, q -> q.sortBy(KeysetCursor.SAVED_ITEM_SORT).limit(size + 1).all());
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, PageRequest.of(0, size), hasNext);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<SavedItem> getSavedItemById(UUID userId, UUID savedItemId) {
+        return savedItemRepository.findByIdAndUser_Id(savedItemId, userId);
     }
 
     @Transactional
     public SavedItem updateSavedItem(UUID userId, UUID savedItemId, SavedItemUpdateRequest request) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userId));
-        SavedItem savedItem = savedItemRepository.findById(savedItemId)
+        SavedItem savedItem = savedItemRepository.findByIdAndUser_Id(savedItemId, userId)
                 .orElseThrow(() -> new EntityNotFoundException("Saved item not found: " + savedItemId));
 
-        if (!savedItem.getUser().getId().equals(userId)) {
-            throw new SecurityException("User not authorized to update this saved item.");
-        }
-
         if (request.getName() != null && !request.getName().trim().isEmpty()) {
             savedItem.setName(request.getName());
         }
@@ -130,31 +157,81 @@ public class SavedItemService {
         if (request.isSetFolderIdNull()) {
             savedItem.setFolder(null);
         } else if (request.getFolderId() != null) {
-            Folder newFolder = folderRepository.findById(request.getFolderId())
+            Folder newFolder = folderRepository.findByIdAndUser_Id(request.getFolderId(), userId)
                     .orElseThrow(() -> new EntityNotFoundException("Folder not found: " + request.getFolderId()));
-            if (!newFolder.getUser().getId().equals(userId)) {
-                throw new SecurityException("User not authorized to move item to this folder.");
-            }
             savedItem.setFolder(newFolder);
         }
         // Category and underlying Translation are not updatable here
 
-        return savedItemRepository.save(savedItem);
+        searchIndex.index(List.of(SearchDocument.of(savedItem)));
+        return savedItem; // managed; changes are flushed at commit
     }
 
     @Transactional
     public void deleteSavedItem(UUID userId, UUID savedItemId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userId));
-        SavedItem savedItem = savedItemRepository.findById(savedItemId)
-                .orElseThrow(() -> new EntityNotFoundException("Saved item not found: " + savedItemId));
-
-        if (!savedItem.getUser().getId().equals(userId)) {
-            throw new SecurityException("User not authorized to delete this saved item.");
-        }
-        
         // Deleting a saved item does not delete the underlying translation or un-favorite it.
         // It just removes this specific bookmark/categorization.
-        savedItemRepository.delete(savedItem);
+        if (savedItemRepository.deleteByIdAndUserId(savedItemId, userId) == 0) {
+            throw new EntityNotFoundException("Saved item not found: " + savedItemId);
+        }
+        searchIndex.remove(List.of(savedItemId));
+        userStatsAccumulator.add(userId, StatDimension.SAVED, -1);
+    }
+
+    // Multi-get in request order, translation and folder fetched in the same query
+    @Transactional(readOnly = true)
+    public BulkGetResponse<SavedItemResponseDto> getSavedItems(UUID userId, List<UUID> ids) {
+        Set<UUID> distinct = new LinkedHashSet<>(ids);
+        Map<UUID, SavedItem> found = savedItemRepository.findByUser_IdAndIdIn(userId, distinct).stream()
+                .collect(Collectors.toMap(SavedItem::getId, Function.identity()));
+        List<SavedItemResponseDto> items = new ArrayList<>();
+        List<String> notFound = new ArrayList<>();
+        for (UUID id : distinct) {
+            SavedItem savedItem = found.get(id);
+            if (savedItem != null) {
+                items.add(SavedItemResponseDto.fromEntity(savedItem));
+            } else {
+                notFound.add(id.toString());
+            }
+        }
+        return new BulkGetResponse<>(items, notFound);
+    }
+
+    // One UPDATE for all items; folderId null moves them out of any folder. The target folder is locked, as in
+    // FolderService.createFolder, so a concurrent recursive delete cannot remove it underneath the move.
+    @Transactional
+    public BulkOperationResponse moveSavedItems(UUID userId, List<UUID> ids, UUID folderId) {
+        if (folderId != null && folderRepository.findAndLockByUserIdAndIdIn(userId, List.of(folderId)).isEmpty()) {
+            throw new EntityNotFoundException("Folder not found: " + folderId);
+        }
+        Set<UUID> distinct = new LinkedHashSet<>(ids);
+        Set<UUID> found = savedItemJdbcRepository.moveToFolder(userId, distinct, folderId);
+        return new BulkOperationResponse(distinct.stream()
+                .map(id -> found.contains(id) ? new BulkItemResult(id, "OK", null) : notFound(id))
+                .toList());
+    }
+
+    // One DELETE for all items; as with deleteSavedItem, the translations stay in history
+    @Transactional
+    public BulkOperationResponse deleteSavedItems(UUID userId, List<UUID> ids) {
+        Set<UUID> distinct = new LinkedHashSet<>(ids);
+        Set<UUID> deleted = savedItemJdbcRepository.delete(userId, distinct);
+        if (!deleted.isEmpty()) {
+            searchIndex.remove(deleted);
+            userStatsAccumulator.add(userId, StatDimension.SAVED, -deleted.size());
+        }
+        return new BulkOperationResponse(distinct.stream()
+                .map(id -> deleted.contains(id) ? new BulkItemResult(id, "OK", null) : notFound(id))
+                .toList());
+    }
+
+    private static BulkItemResult notFound(UUID id) {
+        return new BulkItemResult(id, "NOT_FOUND", "Saved item not found");
+    }
+
+    private void requireOwnedFolder(UUID userId, UUID folderId) {
+        if (!folderRepository.existsByIdAndUser_Id(folderId, userId)) {
+            throw new EntityNotFoundException("Folder not found: " + folderId);
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,70 @@
+package com.translationapp.service;
+
+import com.translationapp.dto.CursorPage;
+import com.translationapp.dto.SearchResultDto;
+import com.translationapp.search.SearchCursor;
+import com.translationapp.search.SearchDocument;
+import com.translationapp.search.SearchHit;
+import com.translationapp.search.SearchIndex;
+import com.translationapp.search.SearchQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+@Service
+public class SearchService {
+
+    private final SearchIndex searchIndex;
+    private final int maxPageSize;
+
+    public SearchService(SearchIndex searchIndex, @Value("${app.search.max-page-size:50}") int maxPageSize) {
+        this.searchIndex = searchIndex;
+        this.maxPageSize = maxPageSize;
+    }
+
+    // kind: "translation" | "saved" (null for both); sort: "relevance" (default) | "recent"
+    @Transactional(readOnly = true)
+    public CursorPage<SearchResultDto> search(UUID userId, String text, String lang, String kind, String sort,
+                                              String cursor, int size) {
+        if (size < 1 || size > maxPageSize) {
+            throw new IllegalArgumentException("size must be between 1 and " + maxPageSize);
+        }
+        SearchQuery query = new SearchQuery(text, lang, parseKind(kind), parseSort(sort));
+        SearchCursor after = cursor != null && !cursor.isBlank() ? SearchCursor.decode(cursor) : null;
+
+        List<SearchHit> hits = searchIndex.search(userId, query, after, size + 1);
+        boolean hasNext = hits.size() > size;
+        List<SearchHit> page = hasNext ? hits.subList(0, size) : hits;
+        String nextCursor = hasNext ? SearchCursor.of(page.get(size - 1)).encode() : null;
+        return new CursorPage<>(page.stream().map(SearchResultDto::fromHit).toList(), nextCursor, size);
+    }
+
+    private static SearchDocument.Kind parseKind(String kind) {
+        if (kind == null || kind.isBlank()) {
+            return null;
+        }
+        switch (kind.toLowerCase(Locale.ROOT)) {
+            case "translation":
+                return SearchDocument.Kind.TRANSLATION;
+            case "saved":
+                return SearchDocument.Kind.SAVED_ITEM;
+            default:
+                throw new IllegalArgumentException("Unknown kind: " + kind);
+        }
+    }
+
+    private static SearchQuery.Sort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return SearchQuery.Sort.RELEVANCE;
+        }
+        try {
+            return SearchQuery.Sort.valueOf(sort.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sort: " + sort);
+        }
+    }
+}
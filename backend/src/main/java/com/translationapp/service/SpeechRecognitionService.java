@@ -0,0 +1,160 @@
+package com.translationapp.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.translationapp.audio.AudioNormalizer;
+import com.translationapp.audio.AudioSegment;
+import com.translationapp.audio.AudioSegmenter;
+import com.translationapp.audio.NormalizedAudio;
+import com.translationapp.dto.LongTranscriptionResponseDto;
+import com.translationapp.dto.TranscriptSegmentDto;
+import com.translationapp.exception.UnsupportedAudioFormatException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Entry point for uploaded-audio recognition. Short clips go straight to a synchronous recognize call; anything
+// past the synchronous limit is split at pauses and the pieces are recognized in parallel on a bounded pool.
+@Service
+public class SpeechRecognitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpeechRecognitionService.class);
+
+    private final GoogleCloudService googleCloudService;
+    private final AudioNormalizer audioNormalizer;
+    private final AudioSegmenter audioSegmenter;
+    private final TaskExecutor speechRecognitionExecutor;
+    private final AsyncCache<String, String> transcriptCache;
+
+    @Value("${app.speech.sync-max-seconds:55}")
+    private int syncMaxSeconds;
+
+    public SpeechRecognitionService(GoogleCloudService googleCloudService,
+                                    AudioNormalizer audioNormalizer,
+                                    AudioSegmenter audioSegmenter,
+                                    @Qualifier("speechRecognitionExecutor") TaskExecutor speechRecognitionExecutor,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.speech.cache.max-entries:10000}") long cacheMaxEntries,
+                                    @Value("${app.speech.cache.ttl-minutes:60}") long cacheTtlMinutes) {
+        this.googleCloudService = googleCloudService;
+        this.audioNormalizer = audioNormalizer;
+        this.audioSegmenter = audioSegmenter;
+        this.speechRecognitionExecutor = speechRecognitionExecutor;
+        // Transcripts are small strings, so even the default bound is only a few MB of heap
+        this.transcriptCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxEntries)
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, transcriptCache, "speechTranscripts");
+    }
+
+    public String transcribe(byte[] audioData, String languageCode, String contentType) throws UnsupportedAudioFormatException {
+        NormalizedAudio audio = audioNormalizer.normalize(audioData, contentType);
+        long durationMs = audioSegmenter.durationMillis(audio);
+        if (durationMs > syncMaxSeconds * 1000L && audioSegmenter.canSegment(audio)) {
+            return transcribeSegmented(audio, languageCode, durationMs).getTranscript();
+        }
+        return recognize(audio, languageCode);
+    }
+
+    public LongTranscriptionResponseDto transcribeLong(byte[] audioData, String languageCode, String contentType) throws UnsupportedAudioFormatException {
+        NormalizedAudio audio = audioNormalizer.normalize(audioData, contentType);
+        if (!audioSegmenter.canSegment(audio)) {
+            throw new UnsupportedAudioFormatException("Long-audio mode needs WAV, L16 or AMR audio; "
+                    + audio.getEncoding() + " cannot be split without decoding.");
+        }
+        return transcribeSegmented(audio, languageCode, audioSegmenter.durationMillis(audio));
+    }
+
+    // Mobile clients retry uploads on flaky connections. Keying on the normalized audio (not the upload bytes)
+    // means a retry in a different container or at a different rate still hits, as long as it decodes the same.
+    // Concurrent requests for the same key wait on the first one instead of recognizing the clip again. The
+    // recognize call runs on the caller's thread, outside the cache's compute lock; failures are not cached.
+    private String recognize(NormalizedAudio audio, String languageCode) {
+        String key = cacheKey(audio, languageCode);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> cached = transcriptCache.get(key, (k, executor) -> pending);
+        if (cached == pending) {
+            try {
+                pending.complete(googleCloudService.recognize(audio, languageCode));
+            } catch (Throwable t) {
+                // Whatever went wrong, the waiters must be released and the entry dropped, or every later request
+                // for this clip would wait on a future nobody completes
+                pending.completeExceptionally(t);
+                transcriptCache.asMap().remove(key, pending);
+                throw t;
+            }
+        }
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+    }
+
+    private String cacheKey(NormalizedAudio audio, String languageCode) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        digest.update(audio.getContent());
+        String params = "|" + audio.getEncoding() + "|" + audio.getSampleRateHertz() + "|" + audio.getChannels()
+                + "|" + languageCode.toLowerCase(Locale.ROOT);
+        digest.update(params.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private LongTranscriptionResponseDto transcribeSegmented(NormalizedAudio audio, String languageCode, long durationMs) {
+        long started = System.nanoTime();
+        List<AudioSegment> segments = audioSegmenter.split(audio);
+
+        List<CompletableFuture<String>> pending = new ArrayList<>(segments.size());
+        for (AudioSegment segment : segments) {
+            pending.add(CompletableFuture.supplyAsync(
+                    () -> recognize(segment.getAudio(), languageCode), speechRecognitionExecutor));
+        }
+
+        // Stitch in timeline order regardless of which segment finished first
+        List<TranscriptSegmentDto> results = new ArrayList<>(segments.size());
+        StringBuilder transcript = new StringBuilder();
+        try {
+            for (int i = 0; i < segments.size(); i++) {
+                String text = pending.get(i).join().trim();
+                AudioSegment segment = segments.get(i);
+                results.add(new TranscriptSegmentDto(segment.getStartMillis(), segment.getEndMillis(), text));
+                if (!text.isEmpty()) {
+                    if (transcript.length() > 0) {
+                        transcript.append(' ');
+                    }
+                    transcript.append(text);
+                }
+            }
+        } catch (CompletionException e) {
+            pending.forEach(future -> future.cancel(false));
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+
+        logger.info("Recognized {} ms of audio in {} segments in {} ms", durationMs, segments.size(),
+                (System.nanoTime() - started) / 1_000_000);
+        return new LongTranscriptionResponseDto(transcript.toString(), durationMs, results);
+    }
+}
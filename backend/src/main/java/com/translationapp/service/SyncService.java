@@ -0,0 +1,328 @@
+package com.translationapp.service;
+
+import com.translationapp.dto.FolderResponseDto;
+import com.translationapp.dto.SavedItemResponseDto;
+import com.translationapp.dto.SyncDeletionDto;
+import com.translationapp.dto.SyncPushResultDto;
+import com.translationapp.dto.SyncRequest;
+import com.translationapp.dto.SyncResponse;
+import com.translationapp.dto.SyncSavedItemRequest;
+import com.translationapp.dto.SyncTranslationRequest;
+import com.translationapp.dto.TranslationResponseDto;
+import com.translationapp.model.Folder;
+import com.translationapp.model.SavedItem;
+import com.translationapp.model.StatDimension;
+import com.translationapp.model.Translation;
+import com.translationapp.model.User;
+import com.translationapp.repository.FolderRepository;
+import com.translationapp.repository.SavedItemRepository;
+import com.translationapp.repository.SyncJdbcRepository;
+import com.translationapp.repository.TranslationJdbcRepository;
+import com.translationapp.repository.TranslationRepository;
+import com.translationapp.repository.UserRepository;
+import com.translationapp.repository.UserStatsRepository;
+import com.translationapp.search.SearchDocument;
+import com.translationapp.search.SearchIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Offline-first sync. One call applies what the client made offline (batched upserts) and returns what changed
+// since its cursor. The cursor is a sync version: every insert/update stamps a row with the next value of one
+// sequence and every delete leaves a tombstone stamped the same way (V8), so "changed since" is an index range scan
+// per table instead of a re-download of the whole history.
+@Service
+public class SyncService {
+
+    static final String TRANSLATION = "TRANSLATION";
+    static final String SAVED_ITEM = "SAVED_ITEM";
+    static final String FOLDER = "FOLDER";
+
+    private final UserRepository userRepository;
+    private final TranslationRepository translationRepository;
+    private final SavedItemRepository savedItemRepository;
+    private final FolderRepository folderRepository;
+    private final TranslationJdbcRepository translationJdbcRepository;
+    private final SyncJdbcRepository syncJdbcRepository;
+    private final TranslationHistoryWriter translationHistoryWriter;
+    private final SearchIndex searchIndex;
+    private final UserStatsRepository userStatsRepository;
+    private final UserStatsAccumulator userStatsAccumulator;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int maxPageSize;
+
+    public SyncService(UserRepository userRepository,
+                       TranslationRepository translationRepository,
+                       SavedItemRepository savedItemRepository,
+                       FolderRepository folderRepository,
+                       TranslationJdbcRepository translationJdbcRepository,
+                       SyncJdbcRepository syncJdbcRepository,
+                       TranslationHistoryWriter translationHistoryWriter,
+                       SearchIndex searchIndex,
+                       UserStatsRepository userStatsRepository,
+                       UserStatsAccumulator userStatsAccumulator,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${app.sync.max-page-size:1000}") int maxPageSize) {
+        this.userRepository = userRepository;
+        this.translationRepository = translationRepository;
+        this.savedItemRepository = savedItemRepository;
+        this.folderRepository = folderRepository;
+        this.translationJdbcRepository = translationJdbcRepository;
+        this.syncJdbcRepository = syncJdbcRepository;
+        this.translationHistoryWriter = translationHistoryWriter;
+        this.searchIndex = searchIndex;
+        this.userStatsRepository = userStatsRepository;
+        this.userStatsAccumulator = userStatsAccumulator;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxPageSize = maxPageSize;
+    }
+
+    // Push and pull are separate transactions: the pull is read-only, and after a push it reads from the primary
+    // anyway (read-your-writes), so it sees the pushed rows with their new versions
+    public SyncResponse sync(UUID userId, SyncRequest request, int limit) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+        }
+        long since = parseCursor(request.getCursor());
+        requireUniqueClientIds(request);
+
+        List<SyncPushResultDto> pushed = new ArrayList<>();
+        if (!request.getTranslations().isEmpty() || !request.getSavedItems().isEmpty()) {
+            if (!request.getSavedItems().isEmpty()) {
+                // Saved items may point at translations made online moments ago and still queued for insert
+                translationHistoryWriter.flush();
+            }
+            pushed = writeTransaction.execute(status -> push(userId, request));
+        }
+
+        SyncResponse response = readOnlyTransaction.execute(status -> pull(userId, since, limit));
+        response.setPushed(pushed);
+        return response;
+    }
+
+    private List<SyncPushResultDto> push(UUID userId, SyncRequest request) {
+        List<SyncPushResultDto> results = new ArrayList<>();
+        User user = userRepository.getReferenceById(userId);
+        LocalDateTime now = LocalDateTime.now();
+
+        // Translations: one batched upsert. Ids come from the content hash, so a translation the server already has
+        // (made online, say) merges into the existing row. A repeat of an earlier push (its response was lost) is
+        // recognised by its client id and answered as before without being applied again: the upsert adds use_count
+        // and the usage counters would count it twice.
+        Map<String, UUID> translationIdsByClientId = new HashMap<>();
+        List<Translation> translations = new ArrayList<>();
+        List<SyncJdbcRepository.PushedTranslation> pushedTranslations = new ArrayList<>();
+        for (SyncTranslationRequest item : request.getTranslations()) {
+            Translation translation = new Translation(user, item.getSourceText(), item.getTargetText(),
+                    item.getSourceLang(), item.getTargetLang(), item.getInputType());
+            LocalDateTime createdAt = notAfter(item.getCreatedAt(), now);
+            translation.setCreatedAt(createdAt);
+            translation.setLastUsedAt(createdAt);
+            translation.setFavorite(item.isFavorite());
+            translation.setTags(TranslationPersistenceService.normalizeTags(item.getTags()));
+            translations.add(translation);
+            pushedTranslations.add(new SyncJdbcRepository.PushedTranslation(item.getClientId(), translation.getId()));
+            translationIdsByClientId.put(item.getClientId(), translation.getId());
+            results.add(new SyncPushResultDto(TRANSLATION, item.getClientId(), translation.getId().toString(), "APPLIED", null));
+        }
+        if (!translations.isEmpty()) {
+            boolean[] firstPush = syncJdbcRepository.recordPushedTranslations(userId, pushedTranslations, now);
+            List<Translation> applied = new ArrayList<>();
+            for (int i = 0; i < translations.size(); i++) {
+                if (firstPush[i]) {
+                    applied.add(translations.get(i));
+                }
+            }
+            translations = applied;
+        }
+        if (!translations.isEmpty()) {
+            Collection<Translation> distinct = TranslationHistoryWriter.mergeDuplicates(translations);
+            translationJdbcRepository.upsert(distinct);
+            searchIndex.index(distinct.stream().map(SearchDocument::of).toList());
+            userStatsRepository.increment(UserStatsRepository.usageOf(translations));
+            if (translations.stream().anyMatch(Translation::isFavorite)) {
+                userStatsAccumulator.recount(userId); // the upsert does not say which were favorites already
+            }
+        }
+
+        if (!request.getSavedItems().isEmpty()) {
+            results.addAll(pushSavedItems(userId, request.getSavedItems(), translationIdsByClientId, now));
+        }
+        return results;
+    }
+
+    // Saved items: one batched conditional insert. Ownership of the translation and "already saved" are checked by
+    // the insert itself; folders are checked up front with one query.
+    private List<SyncPushResultDto> pushSavedItems(UUID userId, List<SyncSavedItemRequest> items,
+                                                   Map<String, UUID> translationIdsByClientId, LocalDateTime now) {
+        Set<UUID> requestedFolderIds = items.stream().map(SyncSavedItemRequest::getFolderId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<UUID> ownedFolderIds = requestedFolderIds.isEmpty()
+                ? Set.of() : new HashSet<>(folderRepository.findOwnedIds(userId, requestedFolderIds));
+
+        SyncPushResultDto[] results = new SyncPushResultDto[items.size()];
+        List<Integer> rowIndexes = new ArrayList<>();
+        List<SyncJdbcRepository.NewSavedItem> rows = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            SyncSavedItemRequest item = items.get(i);
+            UUID translationId = item.getTranslationId() != null
+                    ? item.getTranslationId() : translationIdsByClientId.get(item.getTranslationClientId());
+            if (translationId == null) {
+                results[i] = rejected(item, "Translation not found.");
+            } else if (item.getFolderId() != null && !ownedFolderIds.contains(item.getFolderId())) {
+                results[i] = rejected(item, "Folder not found: " + item.getFolderId());
+            } else {
+                String name = item.getName() != null && !item.getName().isBlank() ? item.getName() : null;
+                rows.add(new SyncJdbcRepository.NewSavedItem(UUID.randomUUID(), translationId, item.getCategory().name(),
+                        item.getFolderId(), name, item.getNotes(), notAfter(item.getCreatedAt(), now)));
+                rowIndexes.add(i);
+            }
+        }
+        if (rows.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        boolean[] inserted = syncJdbcRepository.insertSavedItems(userId, rows);
+        List<UUID> insertedIds = new ArrayList<>();
+        Set<UUID> savedTranslationIds = new HashSet<>();
+        Set<UUID> notInsertedTranslationIds = new HashSet<>();
+        for (int r = 0; r < rows.size(); r++) {
+            if (inserted[r]) {
+                insertedIds.add(rows.get(r).getId());
+                savedTranslationIds.add(rows.get(r).getTranslationId());
+            } else {
+                notInsertedTranslationIds.add(rows.get(r).getTranslationId());
+            }
+        }
+        // Not inserted means either saved already (by this user) or not this user's translation at all
+        Map<UUID, UUID> existing = syncJdbcRepository.findSavedItemIdsByTranslation(userId, notInsertedTranslationIds);
+        for (int r = 0; r < rows.size(); r++) {
+            SyncSavedItemRequest item = items.get(rowIndexes.get(r));
+            SyncJdbcRepository.NewSavedItem row = rows.get(r);
+            if (inserted[r]) {
+                results[rowIndexes.get(r)] = new SyncPushResultDto(SAVED_ITEM, item.getClientId(), row.getId().toString(), "APPLIED", null);
+            } else if (existing.containsKey(row.getTranslationId())) {
+                results[rowIndexes.get(r)] = new SyncPushResultDto(SAVED_ITEM, item.getClientId(),
+                        existing.get(row.getTranslationId()).toString(), "EXISTING", null);
+            } else {
+                results[rowIndexes.get(r)] = rejected(item, "Translation not found: " + row.getTranslationId());
+            }
+        }
+
+        userStatsAccumulator.add(userId, StatDimension.SAVED, insertedIds.size());
+        userStatsAccumulator.add(userId, StatDimension.FAVORITES, syncJdbcRepository.markFavorite(userId, savedTranslationIds));
+        if (!insertedIds.isEmpty()) {
+            searchIndex.index(savedItemRepository.findByUser_IdAndIdIn(userId, insertedIds).stream()
+                    .map(SearchDocument::of).toList());
+        }
+        return Arrays.asList(results);
+    }
+
+    private SyncResponse pull(UUID userId, long since, int limit) {
+        SyncResponse response = new SyncResponse();
+        if (since > 0 && since < syncJdbcRepository.findPurgedThrough()) {
+            // Tombstones this client has not seen may have been purged
+            response.setResetRequired(true);
+            return response;
+        }
+
+        Limit fetch = Limit.of(limit + 1);
+        List<Translation> translations = translationRepository.findChangedSince(userId, since, fetch);
+        List<SavedItem> savedItems = savedItemRepository.findChangedSince(userId, since, fetch);
+        List<Folder> folders = folderRepository.findChangedSince(userId, since, fetch);
+        List<SyncJdbcRepository.Tombstone> tombstones = syncJdbcRepository.findTombstonesSince(userId, since, limit + 1);
+
+        // Keep the lowest `limit` versions across all four lists, so the new cursor never passes a change that was
+        // left out of this page
+        long[] versions = new long[translations.size() + savedItems.size() + folders.size() + tombstones.size()];
+        int n = 0;
+        for (Translation translation : translations) {
+            versions[n++] = translation.getSyncVersion();
+        }
+        for (SavedItem savedItem : savedItems) {
+            versions[n++] = savedItem.getSyncVersion();
+        }
+        for (Folder folder : folders) {
+            versions[n++] = folder.getSyncVersion();
+        }
+        for (SyncJdbcRepository.Tombstone tombstone : tombstones) {
+            versions[n++] = tombstone.getSyncVersion();
+        }
+        Arrays.sort(versions);
+        boolean hasMore = versions.length > limit;
+        long upTo = hasMore ? versions[limit - 1] : (versions.length > 0 ? versions[versions.length - 1] : since);
+
+        response.setTranslations(translations.stream().filter(t -> t.getSyncVersion() <= upTo)
+                .map(TranslationResponseDto::fromEntity).toList());
+        response.setSavedItems(savedItems.stream().filter(s -> s.getSyncVersion() <= upTo)
+                .map(SavedItemResponseDto::fromEntity).toList());
+        response.setFolders(folders.stream().filter(f -> f.getSyncVersion() <= upTo)
+                .map(FolderResponseDto::fromEntity).toList());
+        response.setDeleted(tombstones.stream().filter(t -> t.getSyncVersion() <= upTo)
+                .map(t -> new SyncDeletionDto(t.getEntityType(), t.getEntityId().toString())).toList());
+        response.setHasMore(hasMore);
+        response.setCursor(Long.toString(upTo));
+        return response;
+    }
+
+    private static long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            long since = Long.parseLong(cursor.trim());
+            if (since < 0) {
+                throw new IllegalArgumentException("Invalid sync cursor: " + cursor);
+            }
+            return since;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid sync cursor: " + cursor);
+        }
+    }
+
+    // Client ids are how the client matches results to its rows, and how saved items refer to pushed translations
+    private static void requireUniqueClientIds(SyncRequest request) {
+        Set<String> translationClientIds = new HashSet<>();
+        for (SyncTranslationRequest item : request.getTranslations()) {
+            if (!translationClientIds.add(item.getClientId())) {
+                throw new IllegalArgumentException("Duplicate translation clientId: " + item.getClientId());
+            }
+        }
+        Set<String> savedItemClientIds = new HashSet<>();
+        for (SyncSavedItemRequest item : request.getSavedItems()) {
+            if (!savedItemClientIds.add(item.getClientId())) {
+                throw new IllegalArgumentException("Duplicate saved item clientId: " + item.getClientId());
+            }
+            if (item.getTranslationId() == null && item.getTranslationClientId() == null) {
+                throw new IllegalArgumentException("Saved item " + item.getClientId() + " needs translationId or translationClientId");
+            }
+        }
+    }
+
+    // Client clocks may run ahead; nothing is recorded as made in the future
+    private static LocalDateTime notAfter(LocalDateTime time, LocalDateTime now) {
+        return time == null || time.isAfter(now) ? now : time;
+    }
+
+    private static SyncPushResultDto rejected(SyncSavedItemRequest item, String message) {
+        return new SyncPushResultDto(SAVED_ITEM, item.getClientId(), null, "REJECTED", message);
+    }
+}
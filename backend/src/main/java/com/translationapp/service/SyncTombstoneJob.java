@@ -0,0 +1,49 @@
+package com.translationapp.service;
+
+import com.translationapp.repository.SyncJdbcRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+// Purges sync tombstones (and the records of pushed translations, V12) older than the retention period. A client that has not synced for that long gets
+// resetRequired from /api/sync and starts over, instead of the table growing with every delete forever.
+@Component
+public class SyncTombstoneJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncTombstoneJob.class);
+
+    private final SyncJdbcRepository syncJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionDays;
+
+    public SyncTombstoneJob(SyncJdbcRepository syncJdbcRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.sync.tombstone-retention-days:90}") int retentionDays) {
+        this.syncJdbcRepository = syncJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retentionDays = retentionDays;
+    }
+
+    @Scheduled(cron = "${app.sync.tombstone-purge-cron:0 0 4 * * *}")
+    public void run() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+            Integer purged = transactionTemplate.execute(status -> syncJdbcRepository.purgeTombstones(cutoff));
+            if (purged != null && purged > 0) {
+                logger.info("Purged {} sync tombstones older than {} days", purged, retentionDays);
+            }
+            Integer purgedPushes = transactionTemplate.execute(status -> syncJdbcRepository.purgePushedTranslations(cutoff));
+            if (purgedPushes != null && purgedPushes > 0) {
+                logger.info("Purged {} pushed-translation records older than {} days", purgedPushes, retentionDays);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Sync tombstone purge failed", e);
+        }
+    }
+}
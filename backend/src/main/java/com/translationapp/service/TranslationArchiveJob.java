@@ -0,0 +1,104 @@
+package com.translationapp.service;
+
+import com.translationapp.repository.TranslationArchiveRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.UUID;
+
+// Keeps translations small enough to stay in memory. Two stages, each in short transactions:
+// 1. Rows unused for hot-months (and not favorited or saved) move to translations_archive, in the partition for
+//    their created_at month; partitions are created on demand.
+// 2. Archive partitions older than compress-after-months are detached, written to translation_archive_blobs as one
+//    gzip'd NDJSON document per user, and dropped.
+// Both tiers stay readable through TranslationArchiveService.
+@Component
+public class TranslationArchiveJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(TranslationArchiveJob.class);
+
+    private final TranslationArchiveRepository archiveRepository;
+    private final TranslationArchiveService archiveService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int hotMonths;
+    private final int compressAfterMonths;
+    private final int batchSize;
+
+    public TranslationArchiveJob(TranslationArchiveRepository archiveRepository,
+                                 TranslationArchiveService archiveService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.history.archive.enabled:true}") boolean enabled,
+                                 @Value("${app.history.archive.hot-months:3}") int hotMonths,
+                                 @Value("${app.history.archive.compress-after-months:12}") int compressAfterMonths,
+                                 @Value("${app.history.archive.batch-size:1000}") int batchSize) {
+        this.archiveRepository = archiveRepository;
+        this.archiveService = archiveService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.hotMonths = hotMonths;
+        this.compressAfterMonths = compressAfterMonths;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${app.history.archive.cron:0 30 3 * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archiveColdRows();
+            compressOldPartitions();
+        } catch (RuntimeException e) {
+            logger.error("Translation archival failed", e);
+        }
+    }
+
+    void archiveColdRows() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMonths(hotMonths);
+        int total = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> {
+                Map<UUID, YearMonth> rows = archiveRepository.lockArchivable(cutoff, batchSize);
+                new HashSet<>(rows.values()).forEach(archiveRepository::createPartitionIfMissing);
+                return archiveRepository.moveToArchive(rows.keySet(), cutoff);
+            });
+            if (moved == null || moved == 0) {
+                break;
+            }
+            total += moved;
+        }
+        if (total > 0) {
+            logger.info("Archived {} translations last used before {}", total, cutoff);
+        }
+    }
+
+    void compressOldPartitions() {
+        YearMonth oldestUncompressed = YearMonth.now().minusMonths(compressAfterMonths);
+        for (YearMonth month : archiveRepository.findAttachedPartitionMonths()) {
+            if (!month.isBefore(oldestUncompressed)) {
+                continue;
+            }
+            // Detach, compress and drop together: if anything fails the partition is still attached and intact
+            int[] users = new int[1];
+            transactionTemplate.executeWithoutResult(status -> {
+                archiveRepository.detachPartition(month);
+                archiveRepository.forEachUserInDetachedPartition(month, (userId, rows) -> {
+                    archiveRepository.appendBlob(userId, month, rows.size(), archiveService.encode(rows));
+                    users[0]++;
+                });
+                archiveRepository.dropDetachedPartition(month);
+            });
+            logger.info("Compressed archive partition {} for {} users", TranslationArchiveRepository.partitionName(month), users[0]);
+        }
+    }
+}
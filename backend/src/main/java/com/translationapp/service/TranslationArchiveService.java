@@ -0,0 +1,78 @@
+package com.translationapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.translationapp.dto.ArchiveMonthDto;
+import com.translationapp.dto.TranslationResponseDto;
+import com.translationapp.repository.TranslationArchiveRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Read side of archived history: months that have left the hot translations table, served from the archive
+// partition while it is attached and from the compressed per-user blob after that.
+@Service
+public class TranslationArchiveService {
+
+    private static final Comparator<TranslationResponseDto> NEWEST_FIRST =
+            Comparator.comparing(TranslationResponseDto::getCreatedAt).thenComparing(TranslationResponseDto::getId).reversed();
+
+    private final TranslationArchiveRepository archiveRepository;
+    private final ObjectMapper objectMapper;
+
+    public TranslationArchiveService(TranslationArchiveRepository archiveRepository, ObjectMapper objectMapper) {
+        this.archiveRepository = archiveRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ArchiveMonthDto> getArchivedMonths(UUID userId) {
+        List<ArchiveMonthDto> months = new ArrayList<>();
+        archiveRepository.countArchivedByMonth(userId)
+                .forEach((month, count) -> months.add(new ArchiveMonthDto(month.toString(), count)));
+        return months;
+    }
+
+    // A month can be in both tiers when rows were archived after the month was already compressed
+    @Transactional(readOnly = true)
+    public List<TranslationResponseDto> getArchivedMonth(UUID userId, YearMonth month) {
+        List<TranslationResponseDto> rows = new ArrayList<>(archiveRepository.findInArchiveTable(userId, month));
+        byte[] blob = archiveRepository.findBlob(userId, month);
+        if (blob != null) {
+            rows.addAll(decode(blob));
+            rows.sort(NEWEST_FIRST);
+        }
+        return rows;
+    }
+
+    // Newline-delimited JSON, gzip'd: one document per user-month, a few KB for a typical month
+    byte[] encode(List<TranslationResponseDto> rows) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes);
+             SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(gzip)) {
+            writer.writeAll(rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    List<TranslationResponseDto> decode(byte[] blob) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(blob))) {
+            return objectMapper.readerFor(TranslationResponseDto.class).<TranslationResponseDto>readValues(gzip).readAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
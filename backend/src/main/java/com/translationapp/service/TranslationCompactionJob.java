@@ -0,0 +1,96 @@
+package com.translationapp.service;
+
+import com.translationapp.model.Translation;
+import com.translationapp.repository.TranslationJdbcRepository;
+import com.translationapp.repository.TranslationJdbcRepository.LegacyRow;
+import com.translationapp.repository.TranslationRepository;
+import com.translationapp.search.SearchDocument;
+import com.translationapp.search.SearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Merges history rows written before content-hash deduplication into their canonical rows. Each legacy row is
+// folded into the row at its hash-derived id (created if missing), so duplicates collapse into one and later
+// upserts of the same content land on it. Runs in small transactions until no unhashed rows remain; after that
+// each run is a single empty index scan.
+@Component
+public class TranslationCompactionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(TranslationCompactionJob.class);
+
+    private final TranslationJdbcRepository translationJdbcRepository;
+    private final TranslationRepository translationRepository;
+    private final SearchIndex searchIndex;
+    private final UserStatsAccumulator userStatsAccumulator;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public TranslationCompactionJob(TranslationJdbcRepository translationJdbcRepository,
+                                    TranslationRepository translationRepository,
+                                    SearchIndex searchIndex,
+                                    UserStatsAccumulator userStatsAccumulator,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.history.compaction.batch-size:500}") int batchSize,
+                                    @Value("${app.history.compaction.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.translationJdbcRepository = translationJdbcRepository;
+        this.translationRepository = translationRepository;
+        this.searchIndex = searchIndex;
+        this.userStatsAccumulator = userStatsAccumulator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(initialDelayString = "${app.history.compaction.initial-delay-ms:60000}",
+            fixedDelayString = "${app.history.compaction.interval-ms:300000}")
+    public void compact() {
+        int merged = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            try {
+                Integer count = transactionTemplate.execute(status -> compactBatch());
+                if (count == null || count == 0) {
+                    break;
+                }
+                merged += count;
+            } catch (RuntimeException e) {
+                logger.error("Translation compaction batch failed", e);
+                break;
+            }
+        }
+        if (merged > 0) {
+            logger.info("Merged {} legacy translation rows into their canonical rows", merged);
+        }
+    }
+
+    private int compactBatch() {
+        List<LegacyRow> rows = translationJdbcRepository.findUnhashed(batchSize);
+        Set<UUID> canonicalIds = new LinkedHashSet<>();
+        List<UUID> legacyIds = new ArrayList<>(rows.size());
+        for (LegacyRow row : rows) {
+            byte[] hash = Translation.contentHash(row.getUserId(), row.getSourceText(), row.getTargetText(),
+                    row.getSourceLang(), row.getTargetLang());
+            UUID canonicalId = Translation.idForContentHash(hash);
+            translationJdbcRepository.mergeIntoCanonical(row.getId(), canonicalId, hash);
+            canonicalIds.add(canonicalId);
+            legacyIds.add(row.getId());
+            userStatsAccumulator.recount(row.getUserId()); // two favorites may have become one
+        }
+        if (!rows.isEmpty()) {
+            searchIndex.remove(legacyIds);
+            searchIndex.index(translationRepository.findAllById(canonicalIds).stream().map(SearchDocument::of).toList());
+        }
+        return rows.size();
+    }
+}
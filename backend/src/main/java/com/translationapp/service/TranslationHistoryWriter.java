@@ -0,0 +1,265 @@
+package com.translationapp.service;
+
+import com.translationapp.datasource.RecentWriteTracker;
+import com.translationapp.model.Translation;
+import com.translationapp.repository.TranslationJdbcRepository;
+import com.translationapp.repository.UserStatsRepository;
+import com.translationapp.search.SearchDocument;
+import com.translationapp.search.SearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Write-behind for translation history. Requests enqueue the new row and return immediately; a background thread
+// drains the queue and upserts rows in JDBC batches (reWriteBatchedInserts turns them into multi-row INSERTs).
+// Rows are keyed by content hash, so repeating a translation bumps use_count/last_used_at on the existing row.
+// A row is only lost if the process dies before its batch is flushed, at most flush-interval-ms after it was
+// queued; set app.history.write-behind.enabled=false to insert synchronously.
+@Component
+public class TranslationHistoryWriter implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(TranslationHistoryWriter.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final TranslationJdbcRepository translationJdbcRepository;
+    private final SearchIndex searchIndex;
+    private final UserStatsRepository userStatsRepository;
+    private final RecentWriteTracker recentWriteTracker;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final BlockingQueue<Translation> queue;
+    // Queued rows by id, so reads that need a specific row (favorite, delete, save) can force it out first
+    private final Map<UUID, Translation> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public TranslationHistoryWriter(PlatformTransactionManager transactionManager,
+                                    TranslationJdbcRepository translationJdbcRepository,
+                                    SearchIndex searchIndex,
+                                    UserStatsRepository userStatsRepository,
+                                    RecentWriteTracker recentWriteTracker,
+                                    @Value("${app.history.write-behind.enabled:true}") boolean enabled,
+                                    @Value("${app.history.write-behind.queue-capacity:10000}") int queueCapacity,
+                                    @Value("${app.history.write-behind.batch-size:200}") int batchSize,
+                                    @Value("${app.history.write-behind.flush-interval-ms:200}") long flushIntervalMs) {
+        // Always a transaction of its own: a flush forced from a caller's transaction also writes other users' queued
+        // rows, which must not roll back with that caller. Callers flush before their first write, because the row
+        // triggers' per-user lock would otherwise make this transaction wait on the one that called it.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.translationJdbcRepository = translationJdbcRepository;
+        this.searchIndex = searchIndex;
+        this.userStatsRepository = userStatsRepository;
+        this.recentWriteTracker = recentWriteTracker;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public void submit(Translation translation) {
+        // The write commits later on the writer thread, which has no user to attribute it to, so the user's
+        // read-your-writes window starts here
+        recentWriteTracker.recordWrite(translation.getUser().getId());
+        if (enabled && running) {
+            pending.put(translation.getId(), translation);
+            if (queue.offer(translation)) {
+                return;
+            }
+            // Queue full: the database is not keeping up, so apply backpressure to this request instead of dropping
+            pending.remove(translation.getId());
+        }
+        insert(List.of(translation));
+    }
+
+    public void flushIfPending(UUID translationId) {
+        if (pending.containsKey(translationId)) {
+            flush();
+        }
+    }
+
+    public void flushIfAnyPending(Collection<UUID> translationIds) {
+        for (UUID translationId : translationIds) {
+            if (pending.containsKey(translationId)) {
+                flush();
+                return;
+            }
+        }
+    }
+
+    // The queued row with this id, if it has not been written yet
+    public Translation findPending(UUID translationId) {
+        return pending.get(translationId);
+    }
+
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Translation> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void runWriter() {
+        List<Translation> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Translation first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                flushLock.lock();
+                try {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    writeBatch(batch);
+                } finally {
+                    batch.clear();
+                    flushLock.unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                logger.error("Translation history writer failed", e);
+            }
+        }
+    }
+
+    private void writeBatch(List<Translation> batch) {
+        try {
+            insert(batch);
+        } catch (RuntimeException e) {
+            // One bad row (e.g. its user was deleted meanwhile) must not take the rest of the batch with it
+            logger.warn("Batch insert of {} translations failed, retrying individually: {}", batch.size(), e.getMessage());
+            for (Translation translation : batch) {
+                try {
+                    insert(List.of(translation));
+                } catch (RuntimeException rowError) {
+                    logger.error("Dropping translation {} for user {}: {}", translation.getId(),
+                            translation.getUser().getId(), rowError.getMessage());
+                }
+            }
+        } finally {
+            batch.forEach(translation -> pending.remove(translation.getId()));
+        }
+    }
+
+    private void insert(List<Translation> translations) {
+        Collection<Translation> distinct = mergeDuplicates(translations);
+        transactionTemplate.executeWithoutResult(status -> {
+            translationJdbcRepository.upsert(distinct);
+            // Same transaction, so a row is never searchable without being in history or vice versa
+            searchIndex.index(distinct.stream().map(SearchDocument::of).toList());
+            // Also the same transaction, so every use is counted exactly once; counted before merging, each on its own day
+            userStatsRepository.increment(UserStatsRepository.usageOf(translations));
+        });
+    }
+
+    // The same translation repeated within one batch becomes a single row carrying the combined counts, because one
+    // multi-row upsert cannot touch the same row twice. The queued objects themselves are left untouched.
+    static Collection<Translation> mergeDuplicates(List<Translation> translations) {
+        Map<UUID, Translation> byId = new LinkedHashMap<>();
+        Set<UUID> copied = new HashSet<>();
+        for (Translation translation : translations) {
+            Translation merged = byId.putIfAbsent(translation.getId(), translation);
+            if (merged == null) {
+                continue;
+            }
+            if (copied.add(translation.getId())) {
+                merged = copyOf(merged);
+                byId.put(translation.getId(), merged);
+            }
+            merged.setUseCount(merged.getUseCount() + translation.getUseCount());
+            if (translation.getLastUsedAt().isAfter(merged.getLastUsedAt())) {
+                merged.setLastUsedAt(translation.getLastUsedAt());
+            }
+            merged.setFavorite(merged.isFavorite() || translation.isFavorite());
+            if (translation.getTags() != null) {
+                Set<String> tags = new LinkedHashSet<>(merged.getTags() != null ? merged.getTags() : List.of());
+                tags.addAll(translation.getTags());
+                merged.setTags(List.copyOf(tags));
+            }
+        }
+        return byId.values();
+    }
+
+    private static Translation copyOf(Translation translation) {
+        Translation copy = new Translation(translation.getUser(), translation.getSourceText(), translation.getTargetText(),
+                translation.getSourceLang(), translation.getTargetLang(), translation.getInputType());
+        copy.setCreatedAt(translation.getCreatedAt());
+        copy.setLastUsedAt(translation.getLastUsedAt());
+        copy.setUseCount(translation.getUseCount());
+        copy.setFavorite(translation.isFavorite());
+        copy.setTags(translation.getTags());
+        return copy;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (enabled) {
+            writerThread = new Thread(this::runWriter, "translation-history-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        }
+    }
+
+    // Accepts rows without starting the writer thread, so a test decides when the queue is flushed
+    void startWithoutWriterThread() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writerThread != null) {
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush(); // anything the writer thread did not get to
+        logger.info("Translation history writer stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Starts before and stops after the web server, so requests in flight during shutdown are still flushed
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
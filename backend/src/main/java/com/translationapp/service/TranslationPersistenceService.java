@@ -1,68 +1,211 @@
 package com.translationapp.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.translationapp.dto.BulkGetResponse;
+import com.translationapp.dto.BulkItemResult;
+import com.translationapp.dto.BulkOperationResponse;
+import com.translationapp.dto.TranslationResponseDto;
 import com.translationapp.model.InputType;
+import com.translationapp.model.StatDimension;
 import com.translationapp.model.Translation;
 import com.translationapp.model.User;
+import com.translationapp.repository.KeysetCursor;
+import com.translationapp.repository.TranslationJdbcRepository;
 import com.translationapp.repository.TranslationRepository;
 import com.translationapp.repository.UserRepository;
+import com.translationapp.search.SearchIndex;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class TranslationPersistenceService {
 
     private final TranslationRepository translationRepository;
+    private final TranslationJdbcRepository translationJdbcRepository;
     private final UserRepository userRepository; // To fetch User entity
+    private final TranslationHistoryWriter historyWriter;
+    private final SearchIndex searchIndex;
+    private final UserStatsAccumulator userStatsAccumulator;
+    private final ObjectMapper objectMapper;
 
-    public TranslationPersistenceService(TranslationRepository translationRepository, UserRepository userRepository) {
+    public TranslationPersistenceService(TranslationRepository translationRepository,
+                                         TranslationJdbcRepository translationJdbcRepository, UserRepository userRepository,
+                                         TranslationHistoryWriter historyWriter, SearchIndex searchIndex,
+                                         UserStatsAccumulator userStatsAccumulator, ObjectMapper objectMapper) {
         this.translationRepository = translationRepository;
+        this.translationJdbcRepository = translationJdbcRepository;
         this.userRepository = userRepository;
+        this.historyWriter = historyWriter;
+        this.searchIndex = searchIndex;
+        this.userStatsAccumulator = userStatsAccumulator;
+        this.objectMapper = objectMapper;
     }
 
-    @Transactional
-    public Translation saveTranslation(UUID userId, String sourceText, String targetText, String sourceLang, String targetLang, InputType inputType) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId));
+    // The user comes from an authenticated principal, so only a reference is needed for the FK.
+    // The upsert itself is queued and batched by TranslationHistoryWriter; repeating an existing translation returns
+    // that row's id and bumps its use count instead of adding a row.
+    public Translation saveTranslation(UUID userId, String sourceText, String targetText, String sourceLang, String targetLang,
+                                       InputType inputType, List<String> tags) {
+        User user = userRepository.getReferenceById(userId);
 
         Translation translation = new Translation(user, sourceText, targetText, sourceLang, targetLang, inputType);
-        // isFavorite and tags can be set later if needed, default isFavorite is false.
-        return translationRepository.save(translation);
+        translation.setTags(normalizeTags(tags));
+        // isFavorite can be set later if needed, default isFavorite is false.
+        historyWriter.submit(translation);
+        return translation;
     }
 
     @Transactional(readOnly = true)
     public Page<Translation> getTranslationHistory(UUID userId, int page, int size) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId));
-        
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return translationRepository.findByUserOrderByCreatedAtDesc(user, pageable);
+        Pageable pageable = PageRequest.of(page, size, KeysetCursor.HISTORY_SORT);
+        return translationRepository.findByUser_IdOrderByLastUsedAtDesc(userId, pageable);
+    }
+
+    // Keyset (seek) pagination: cost depends on the page size, not on how deep the user has scrolled, and no COUNT
+    @Transactional(readOnly = true)
+    public Slice<Translation> getTranslationHistory(UUID userId, String cursor, int size) {
+        Specification<Translation> spec = (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(KeysetCursor.decode(cursor).after(KeysetCursor.HISTORY_SORT));
+        }
+        List<Translation> rows = translationRepository.findBy(spec, q -> q.sortBy(KeysetCursor.HISTORY_SORT).limit(size + 1).all());
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, PageRequest.of(0, size), hasNext);
+    }
+
+    // Keyset page of the history entries carrying a tag (exact match after trimming)
+    @Transactional(readOnly = true)
+    public Slice<Translation> getTranslationHistoryByTag(UUID userId, String tag, String cursor, int size) {
+        KeysetCursor after = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor) : null;
+        String tagJson;
+        try {
+            tagJson = objectMapper.writeValueAsString(List.of(tag.trim()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid tag");
+        }
+        List<Translation> rows = translationRepository.findByUserIdAndTag(userId, tagJson,
+                after != null ? after.getTimestamp() : null, after != null ? after.getId() : null, size + 1);
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, PageRequest.of(0, size), hasNext);
     }
-    
+
     @Transactional
     public void deleteTranslation(UUID translationId, UUID userId) {
-        Translation translation = translationRepository.findById(translationId)
-            .orElseThrow(() -> new RuntimeException("Translation not found")); // Or a custom exception
-        if (!translation.getUser().getId().equals(userId)) {
-            throw new SecurityException("User not authorized to delete this translation"); // Or a custom access denied exception
+        historyWriter.flushIfPending(translationId);
+        // One statement: a translation that does not exist and one owned by someone else both report not found
+        if (translationRepository.deleteByIdAndUserId(translationId, userId) == 0) {
+            throw new EntityNotFoundException("Translation not found");
         }
-        translationRepository.delete(translation);
+        searchIndex.remove(List.of(translationId));
+        userStatsAccumulator.recount(userId); // it may have been a favorite
     }
 
     @Transactional
     public Translation toggleFavorite(UUID translationId, UUID userId) {
-        Translation translation = translationRepository.findById(translationId)
-            .orElseThrow(() -> new RuntimeException("Translation not found"));
-        if (!translation.getUser().getId().equals(userId)) {
-            throw new SecurityException("User not authorized to modify this translation");
+        historyWriter.flushIfPending(translationId);
+        Translation translation = translationRepository.findByIdAndUser_Id(translationId, userId)
+            .orElseThrow(() -> new EntityNotFoundException("Translation not found"));
+        translation.setFavorite(!translation.isFavorite()); // managed; flushed at commit
+        userStatsAccumulator.add(userId, StatDimension.FAVORITES, translation.isFavorite() ? 1 : -1);
+        return translation;
+    }
+
+    // Multi-get in request order. Rows still queued for insert are answered from the queue instead of being flushed,
+    // so this stays a read-only transaction.
+    @Transactional(readOnly = true)
+    public BulkGetResponse<TranslationResponseDto> getTranslations(UUID userId, List<UUID> ids) {
+        Set<UUID> distinct = new LinkedHashSet<>(ids);
+        Map<UUID, Translation> found = translationRepository.findByUser_IdAndIdIn(userId, distinct).stream()
+                .collect(Collectors.toMap(Translation::getId, Function.identity()));
+        List<TranslationResponseDto> items = new ArrayList<>();
+        List<String> notFound = new ArrayList<>();
+        for (UUID id : distinct) {
+            Translation translation = found.get(id);
+            if (translation == null) {
+                Translation queued = historyWriter.findPending(id);
+                translation = queued != null && queued.getUser().getId().equals(userId) ? queued : null;
+            }
+            if (translation != null) {
+                items.add(TranslationResponseDto.fromEntity(translation));
+            } else {
+                notFound.add(id.toString());
+            }
+        }
+        return new BulkGetResponse<>(items, notFound);
+    }
+
+    @Transactional
+    public BulkOperationResponse setFavorite(UUID userId, List<UUID> ids, boolean favorite) {
+        Set<UUID> distinct = new LinkedHashSet<>(ids);
+        historyWriter.flushIfAnyPending(distinct);
+        Map<UUID, Boolean> changed = translationJdbcRepository.setFavorite(userId, distinct, favorite);
+        List<BulkItemResult> results = new ArrayList<>();
+        for (UUID id : distinct) {
+            results.add(changed.containsKey(id) ? new BulkItemResult(id, "OK", null) : notFound(id));
+        }
+        long changedCount = changed.values().stream().filter(Boolean::booleanValue).count();
+        userStatsAccumulator.add(userId, StatDimension.FAVORITES, favorite ? changedCount : -changedCount);
+        return new BulkOperationResponse(results);
+    }
+
+    // Translations that have saved items are not deleted (IN_USE); delete the saved items first
+    @Transactional
+    public BulkOperationResponse deleteTranslations(UUID userId, List<UUID> ids) {
+        Set<UUID> distinct = new LinkedHashSet<>(ids);
+        historyWriter.flushIfAnyPending(distinct);
+        Map<UUID, Boolean> outcome = translationJdbcRepository.deleteUnsaved(userId, distinct);
+        List<BulkItemResult> results = new ArrayList<>();
+        List<UUID> deleted = new ArrayList<>();
+        for (UUID id : distinct) {
+            Boolean wasDeleted = outcome.get(id);
+            if (wasDeleted == null) {
+                results.add(notFound(id));
+            } else if (wasDeleted) {
+                deleted.add(id);
+                results.add(new BulkItemResult(id, "OK", null));
+            } else {
+                results.add(new BulkItemResult(id, "IN_USE", "Translation has saved items"));
+            }
+        }
+        if (!deleted.isEmpty()) {
+            searchIndex.remove(deleted);
+            userStatsAccumulator.recount(userId); // some may have been favorites
+        }
+        return new BulkOperationResponse(results);
+    }
+
+    private static BulkItemResult notFound(UUID id) {
+        return new BulkItemResult(id, "NOT_FOUND", "Translation not found");
+    }
+
+    // Trimmed, blanks dropped, duplicates removed (first occurrence wins); null when nothing is left
+    static List<String> normalizeTags(List<String> tags) {
+        if (tags == null) {
+            return null;
+        }
+        LinkedHashSet<String> normalized = new LinkedHashSet<>();
+        for (String tag : tags) {
+            if (tag != null && !tag.isBlank()) {
+                normalized.add(tag.trim());
+            }
         }
-        translation.setFavorite(!translation.isFavorite());
-        return translationRepository.save(translation);
+        return normalized.isEmpty() ? null : List.copyOf(normalized);
     }
-} 
\ No newline at end of file
+}
@@ -1,21 +1,32 @@
 package com.translationapp.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.translationapp.dto.UserProfileUpdateRequestDto;
 import com.translationapp.model.User;
 import com.translationapp.repository.UserRepository;
+import com.translationapp.security.AccountStateCache;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import jakarta.persistence.EntityNotFoundException; // For consistency with other services
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final AccountStateCache accountStateCache;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, ObjectMapper objectMapper, AccountStateCache accountStateCache) {
         this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.accountStateCache = accountStateCache;
     }
 
     @Transactional(readOnly = true)
@@ -34,21 +45,34 @@ public class UserService {
         }
 
         if (request.getSettings() != null) {
-            // Basic validation for settings could be added here if it's expected to be JSON
-            // For now, we trust the client sends a valid string or handles parsing errors.
+            // The column is jsonb, so anything that is not a JSON object is rejected here rather than by the database
+            try {
+                if (!objectMapper.readTree(request.getSettings()).isObject()) {
+                    throw new IllegalArgumentException("settings must be a JSON object");
+                }
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("settings must be valid JSON");
+            }
             user.setSettings(request.getSettings());
         }
         
         return userRepository.save(user);
     }
 
-    // Method to specifically update last login time, could be called by AuthService upon successful login
+    // Invalidates every token issued so far, including the caller's. Token iat only has whole seconds, so a token
+    // issued earlier in the current second carries this second as its iat; only tokens from the next second on are
+    // accepted. A sign-in within the same second as the revocation has to be repeated.
     @Transactional
-    public void updateUserLastLogin(UUID userId) {
+    public void revokeTokens(UUID userId) {
         User user = getUserById(userId);
-        // user.setLastLogin(java.time.LocalDateTime.now()); // This is already handled in AuthController
-        // No, AuthController updates lastLogin and saves. This is fine.
-        // However, if we want a dedicated service method, it could be here.
-        // For now, AuthController logic is sufficient.
+        LocalDateTime validAfter = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        user.setTokenValidAfter(validAfter);
+        userRepository.save(user);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accountStateCache.recordRevocation(userId, validAfter);
+            }
+        });
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,111 @@
+package com.translationapp.service;
+
+import com.translationapp.model.StatDimension;
+import com.translationapp.repository.UserStatsRepository;
+import com.translationapp.repository.UserStatsRepository.CounterKey;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Collects changes to the FAVORITES and SAVED counters from request transactions and writes them in one batch per
+// flush, instead of every favorite toggle or save updating the same counter row. Changes are only taken once their
+// transaction has committed. Writes whose effect on the counts is not known cheaply ask for a recount of the user
+// instead. Deltas still held here when the process dies are lost; UserStatsReconcileJob corrects that drift.
+@Component
+public class UserStatsAccumulator {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStatsAccumulator.class);
+
+    private final UserStatsRepository userStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<CounterKey, Long> deltas = new ConcurrentHashMap<>();
+    private final Set<UUID> recounts = ConcurrentHashMap.newKeySet();
+    // One flush at a time, so a caller that flushes knows everything added before has been written when it returns,
+    // even if the scheduled flush had already drained it
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public UserStatsAccumulator(UserStatsRepository userStatsRepository, PlatformTransactionManager transactionManager) {
+        this.userStatsRepository = userStatsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void add(UUID userId, StatDimension dimension, long delta) {
+        if (delta != 0) {
+            afterCommit(() -> deltas.merge(new CounterKey(userId, dimension, ""), delta, Long::sum));
+        }
+    }
+
+    public void recount(UUID userId) {
+        afterCommit(() -> recounts.add(userId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.flush-interval-ms:1000}")
+    @PreDestroy
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushBatch();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushBatch() {
+        Map<CounterKey, Long> batch = new HashMap<>();
+        for (CounterKey key : deltas.keySet()) {
+            Long delta = deltas.remove(key);
+            if (delta != null) {
+                batch.put(key, delta);
+            }
+        }
+        Set<UUID> users = new HashSet<>();
+        for (UUID userId : recounts) {
+            if (recounts.remove(userId)) {
+                users.add(userId);
+            }
+        }
+        if (batch.isEmpty() && users.isEmpty()) {
+            return;
+        }
+        // Everything drained above was committed before the recount runs, so the recount already includes it
+        batch.keySet().removeIf(key -> users.contains(key.getUserId()));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userStatsRepository.increment(batch);
+                userStatsRepository.recount(users);
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Writing {} stat counter changes failed, retrying on next flush: {}", batch.size() + users.size(),
+                    e.getMessage());
+            batch.forEach((key, delta) -> deltas.merge(key, delta, Long::sum));
+            recounts.addAll(users);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
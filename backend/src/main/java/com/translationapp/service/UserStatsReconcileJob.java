@@ -0,0 +1,56 @@
+package com.translationapp.service;
+
+import com.translationapp.repository.UserStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+// Recounts every user's FAVORITES and SAVED counters, a batch of users per transaction, fixing drift left by lost
+// or racing deltas (see UserStatsAccumulator). Usage counters are written with the history rows themselves and
+// cannot drift, so they are not touched.
+@Component
+public class UserStatsReconcileJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStatsReconcileJob.class);
+
+    private final UserStatsRepository userStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public UserStatsReconcileJob(UserStatsRepository userStatsRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.stats.reconcile.batch-size:500}") int batchSize) {
+        this.userStatsRepository = userStatsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${app.stats.reconcile.cron:0 45 4 * * *}")
+    public void run() {
+        int corrected = 0;
+        UUID after = null;
+        try {
+            while (true) {
+                List<UUID> userIds = userStatsRepository.findUserIdsAfter(after, batchSize);
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                Integer fixed = transactionTemplate.execute(status -> userStatsRepository.recount(userIds));
+                corrected += fixed != null ? fixed : 0;
+                after = userIds.get(userIds.size() - 1);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Stat counter reconciliation failed", e);
+        }
+        if (corrected > 0) {
+            logger.info("Corrected {} stat counters", corrected);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.translationapp.service;
+
+import com.translationapp.dto.LanguagePairCountDto;
+import com.translationapp.dto.UserStatsDto;
+import com.translationapp.model.StatDimension;
+import com.translationapp.repository.UserStatsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+// Reads the counters maintained in user_stat_counters (V9): one index range read, whatever the size of the history.
+// Usage from the last few hundred milliseconds may still be queued in TranslationHistoryWriter, and favorite/saved
+// changes in UserStatsAccumulator.
+@Service
+public class UserStatsService {
+
+    private final UserStatsRepository userStatsRepository;
+    private final int maxDays;
+
+    public UserStatsService(UserStatsRepository userStatsRepository,
+                            @Value("${app.stats.max-days:366}") int maxDays) {
+        this.userStatsRepository = userStatsRepository;
+        this.maxDays = maxDays;
+    }
+
+    // Per-day counts cover the last `days` days, today included
+    @Transactional(readOnly = true)
+    public UserStatsDto getStats(UUID userId, int days) {
+        if (days < 1 || days > maxDays) {
+            throw new IllegalArgumentException("days must be between 1 and " + maxDays);
+        }
+        String fromDay = LocalDate.now().minusDays(days - 1L).toString();
+        UserStatsDto stats = new UserStatsDto();
+        Map<String, Long> byDay = new TreeMap<>();
+        for (UserStatsRepository.Counter counter : userStatsRepository.findByUserId(userId, fromDay)) {
+            // A counter can briefly dip below zero when a delta races a recount
+            long count = Math.max(0, counter.getCount());
+            switch (counter.getDimension()) {
+                case TOTAL -> stats.setTotalTranslations(count);
+                case FAVORITES -> stats.setFavorites(count);
+                case SAVED -> stats.setSavedItems(count);
+                case INPUT_TYPE -> stats.getByInputType().put(counter.getKey(), count);
+                case DAY -> byDay.put(counter.getKey(), count);
+                case LANGUAGE_PAIR -> {
+                    int separator = counter.getKey().indexOf('|');
+                    stats.getByLanguagePair().add(new LanguagePairCountDto(counter.getKey().substring(0, separator),
+                            counter.getKey().substring(separator + 1), count));
+                }
+            }
+        }
+        stats.getByLanguagePair().sort(Comparator.comparingLong(LanguagePairCountDto::getCount).reversed());
+        stats.getByDay().putAll(byDay);
+        return stats;
+    }
+}
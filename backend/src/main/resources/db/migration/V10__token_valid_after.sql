@@ -0,0 +1,4 @@
+-- Revocation point for a user's tokens (POST /api/user/me/revoke-tokens). Tokens issued before it are rejected.
+-- NULL means none has been revoked.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_valid_after timestamp(6);
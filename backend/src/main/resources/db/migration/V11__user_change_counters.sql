@@ -0,0 +1,77 @@
+-- Per-user change counters behind the ETags of the listing endpoints (history, saved items, folders, profile). Any
+-- statement that writes a user's rows in one of these tables moves that user's counter for it to the next value of
+-- change_counter_seq. Values never repeat, so an ETag made of the counters of the tables a response is built from
+-- changes whenever the response could have, and answering If-None-Match costs one index lookup.
+--
+-- Statement-level triggers with transition tables: a batch writing hundreds of rows bumps each user's counter once.
+-- No FK to users: deleting a user cascades through these tables and fires the triggers after the user row is gone.
+
+CREATE SEQUENCE IF NOT EXISTS change_counter_seq;
+
+CREATE TABLE IF NOT EXISTS user_change_counters
+(
+    user_id  uuid        NOT NULL,
+    resource varchar(20) NOT NULL, -- TRANSLATIONS, SAVED_ITEMS, FOLDERS, PROFILE
+    version  bigint      NOT NULL,
+    PRIMARY KEY (user_id, resource)
+);
+
+-- Users are bumped in one global order, so two multi-user statements cannot deadlock on the counter rows
+CREATE OR REPLACE FUNCTION bump_change_counters() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    INSERT INTO user_change_counters (user_id, resource, version)
+    SELECT u.user_id, TG_ARGV[0], nextval('change_counter_seq')
+    FROM (SELECT DISTINCT user_id FROM changed_rows) u
+    ORDER BY CAST(u.user_id AS text)
+    ON CONFLICT (user_id, resource) DO UPDATE SET version = EXCLUDED.version;
+    RETURN NULL;
+END
+$$;
+
+CREATE OR REPLACE FUNCTION bump_profile_change_counters() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    INSERT INTO user_change_counters (user_id, resource, version)
+    SELECT c.id, 'PROFILE', nextval('change_counter_seq')
+    FROM changed_rows c
+    ORDER BY CAST(c.id AS text)
+    ON CONFLICT (user_id, resource) DO UPDATE SET version = EXCLUDED.version;
+    RETURN NULL;
+END
+$$;
+
+-- A trigger with a transition table can only fire on one kind of event, hence three per table
+CREATE TRIGGER trg_translations_change_insert AFTER INSERT ON translations
+    REFERENCING NEW TABLE AS changed_rows FOR EACH STATEMENT EXECUTE FUNCTION bump_change_counters('TRANSLATIONS');
+CREATE TRIGGER trg_translations_change_update AFTER UPDATE ON translations
+    REFERENCING NEW TABLE AS changed_rows FOR EACH STATEMENT EXECUTE FUNCTION bump_change_counters('TRANSLATIONS');
+CREATE TRIGGER trg_translations_change_delete AFTER DELETE ON translations
+    REFERENCING OLD TABLE AS changed_rows FOR EACH STATEMENT EXECUTE FUNCTION bump_change_counters('TRANSLATIONS');
+
+CREATE TRIGGER trg_saved_items_change_insert AFTER INSERT ON saved_items
+    REFERENCING NEW TABLE AS changed_rows FOR EACH STATEMENT EXECUTE FUNCTION bump_change_counters('SAVED_ITEMS');
+CREATE TRIGGER trg_saved_items_change_update AFTER UPDATE ON saved_items
+    REFERENCING NEW TABLE AS changed_rows FOR EACH STATEMENT EXECUTE FUNCTION bump_change_counters('SAVED_ITEMS');
+CREATE TRIGGER trg_saved_items_change_delete AFTER DELETE ON saved_items
+    REFERENCING OLD TABLE AS changed_rows FOR EACH STATEMENT EXECUTE FUNCTION bump_change_counters('SAVED_ITEMS');
+
+CREATE TRIGGER trg_folders_change_insert AFTER INSERT ON folders
+    REFERENCING NEW TABLE AS changed_rows FOR EACH STATEMENT EXECUTE FUNCTION bump_change_counters('FOLDERS');
+CREATE TRIGGER trg_folders_change_update AFTER UPDATE ON folders
+    REFERENCING NEW TABLE AS changed_rows FOR EACH STATEMENT EXECUTE FUNCTION bump_change_counters('FOLDERS');
+CREATE TRIGGER trg_folders_change_delete AFTER DELETE ON folders
+    REFERENCING OLD TABLE AS changed_rows FOR EACH STATEMENT EXECUTE FUNCTION bump_change_counters('FOLDERS');
+
+-- Inserts need no trigger: a new user has nothing to compare against yet
+CREATE TRIGGER trg_users_change_update AFTER UPDATE ON users
+    REFERENCING NEW TABLE AS changed_rows FOR EACH STATEMENT EXECUTE FUNCTION bump_profile_change_counters();
+
+-- Every existing user starts with one value for all four, so their first request after this gets a fresh ETag
+INSERT INTO user_change_counters (user_id, resource, version)
+SELECT u.id, r.resource, nextval('change_counter_seq')
+FROM users u
+         CROSS JOIN (VALUES ('TRANSLATIONS'), ('SAVED_ITEMS'), ('FOLDERS'), ('PROFILE')) r (resource)
+ON CONFLICT DO NOTHING;
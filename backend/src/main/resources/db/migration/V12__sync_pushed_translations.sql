@@ -0,0 +1,15 @@
+-- Translations applied by /api/sync, by the client id they were pushed under. A client that lost the response to a
+-- push sends the same batch again; the row was already upserted (use_count added, usage counted in user_stats), so a
+-- pushed translation whose (user, client id, translation) is recorded here is answered from the record instead of
+-- being applied a second time. Kept as long as sync tombstones, after which the client has to resync anyway.
+
+CREATE TABLE IF NOT EXISTS sync_pushed_translations
+(
+    user_id        uuid         NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    client_id      varchar(100) NOT NULL,
+    translation_id uuid         NOT NULL,
+    pushed_at      timestamp(6) NOT NULL,
+    PRIMARY KEY (user_id, client_id, translation_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_sync_pushed_translations_pushed_at ON sync_pushed_translations (pushed_at);
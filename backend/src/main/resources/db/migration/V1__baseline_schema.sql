@@ -0,0 +1,49 @@
+-- Schema as previously created by Hibernate (ddl-auto=update). Existing databases are baselined at this version
+-- (spring.flyway.baseline-on-migrate), so this script only runs against empty databases.
+-- @Lob String columns are PostgreSQL large objects (oid), which is what Hibernate maps them to.
+
+CREATE TABLE IF NOT EXISTS users (
+    id                    uuid         NOT NULL PRIMARY KEY,
+    username              varchar(255) NOT NULL UNIQUE,
+    email                 varchar(255) NOT NULL UNIQUE,
+    password_hash         varchar(255) NOT NULL,
+    created_at            timestamp(6) NOT NULL,
+    updated_at            timestamp(6) NOT NULL,
+    last_login            timestamp(6),
+    preferred_source_lang varchar(255),
+    preferred_target_lang varchar(255),
+    settings              oid
+);
+
+CREATE TABLE IF NOT EXISTS folders (
+    id               uuid         NOT NULL PRIMARY KEY,
+    user_id          uuid         NOT NULL REFERENCES users (id),
+    name             varchar(255) NOT NULL,
+    parent_folder_id uuid REFERENCES folders (id),
+    created_at       timestamp(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS translations (
+    id          uuid         NOT NULL PRIMARY KEY,
+    user_id     uuid         NOT NULL REFERENCES users (id),
+    source_text oid          NOT NULL,
+    target_text oid          NOT NULL,
+    source_lang varchar(255) NOT NULL,
+    target_lang varchar(255) NOT NULL,
+    input_type  varchar(255) NOT NULL CHECK (input_type IN ('TEXT', 'SPEECH', 'IMAGE', 'HANDWRITING')),
+    is_favorite boolean      NOT NULL,
+    is_saved    boolean      NOT NULL,
+    tags        oid,
+    created_at  timestamp(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS saved_items (
+    id             uuid         NOT NULL PRIMARY KEY,
+    user_id        uuid         NOT NULL REFERENCES users (id),
+    translation_id uuid         NOT NULL REFERENCES translations (id),
+    category       varchar(255) NOT NULL CHECK (category IN ('PHRASE', 'WORD', 'SENTENCE', 'PARAGRAPH', 'TRANSCRIPT')),
+    folder_id      uuid REFERENCES folders (id),
+    name           varchar(255),
+    notes          oid,
+    created_at     timestamp(6) NOT NULL
+);
@@ -0,0 +1,37 @@
+-- Indexes for the queries in TranslationRepository, SavedItemRepository and FolderRepository.
+-- ddl-auto=update never created any beyond primary keys and unique constraints.
+
+-- History: keyset pagination WHERE user_id = ? ORDER BY created_at DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_translations_user_created_id
+    ON translations (user_id, created_at DESC, id DESC);
+
+-- Favorites are a small slice of history; a partial index keeps that list cheap without indexing every row
+CREATE INDEX IF NOT EXISTS idx_translations_user_favorites
+    ON translations (user_id, created_at DESC, id DESC)
+    WHERE is_favorite;
+
+-- Saved items: all, by category, by folder, and by category within folder
+CREATE INDEX IF NOT EXISTS idx_saved_items_user_created_id
+    ON saved_items (user_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_saved_items_user_category_folder_created
+    ON saved_items (user_id, category, folder_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_saved_items_user_folder_created
+    ON saved_items (user_id, folder_id, created_at DESC, id DESC);
+
+-- "Already saved?" check (findByUserAndTranslation); also serves FK checks when a translation is deleted
+CREATE INDEX IF NOT EXISTS idx_saved_items_user_translation
+    ON saved_items (user_id, translation_id);
+CREATE INDEX IF NOT EXISTS idx_saved_items_translation
+    ON saved_items (translation_id);
+
+-- countByFolder and FK checks when a folder is deleted
+CREATE INDEX IF NOT EXISTS idx_saved_items_folder
+    ON saved_items (folder_id)
+    WHERE folder_id IS NOT NULL;
+
+-- Folder listing and duplicate-name checks: WHERE user_id = ? AND parent_folder_id [= ? | IS NULL] [AND name = ?]
+CREATE INDEX IF NOT EXISTS idx_folders_user_parent_name
+    ON folders (user_id, parent_folder_id, name);
+CREATE INDEX IF NOT EXISTS idx_folders_parent
+    ON folders (parent_folder_id)
+    WHERE parent_folder_id IS NOT NULL;
@@ -0,0 +1,96 @@
+-- Full-text search over translation history and saved items (see PostgresSearchIndex).
+-- One row per translation / saved item, holding plain-text copies of the searchable fields: the source columns are
+-- large objects, which cannot feed an index expression.
+
+-- Lets the GIN index lead with user_id, so a search only reads the caller's postings
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+-- Text search configuration for a language code ("en", "pt-BR", ...); anything without a stemmer uses 'simple'
+CREATE OR REPLACE FUNCTION search_config(lang text) RETURNS regconfig
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE AS
+$$
+SELECT (CASE split_part(lower(coalesce(lang, '')), '-', 1)
+            WHEN 'ar' THEN 'arabic'
+            WHEN 'da' THEN 'danish'
+            WHEN 'de' THEN 'german'
+            WHEN 'el' THEN 'greek'
+            WHEN 'en' THEN 'english'
+            WHEN 'es' THEN 'spanish'
+            WHEN 'fi' THEN 'finnish'
+            WHEN 'fr' THEN 'french'
+            WHEN 'hu' THEN 'hungarian'
+            WHEN 'id' THEN 'indonesian'
+            WHEN 'it' THEN 'italian'
+            WHEN 'nl' THEN 'dutch'
+            WHEN 'no' THEN 'norwegian'
+            WHEN 'nb' THEN 'norwegian'
+            WHEN 'pt' THEN 'portuguese'
+            WHEN 'ro' THEN 'romanian'
+            WHEN 'ru' THEN 'russian'
+            WHEN 'sv' THEN 'swedish'
+            WHEN 'tr' THEN 'turkish'
+            ELSE 'simple'
+        END)::regconfig
+$$;
+
+-- Stemmed lexemes (weight A) rank above plain ones (weight B); the plain ones make prefix queries work on words
+-- as typed, and cover text whose language has no stemmer
+CREATE OR REPLACE FUNCTION search_tsvector(primary_text text, primary_lang text,
+                                           secondary_text text, secondary_lang text) RETURNS tsvector
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE AS
+$$
+SELECT setweight(to_tsvector(search_config(primary_lang), coalesce(primary_text, '')), 'A')
+           || setweight(to_tsvector(search_config(secondary_lang), coalesce(secondary_text, '')), 'A')
+           || setweight(to_tsvector('simple', coalesce(primary_text, '')), 'B')
+           || setweight(to_tsvector('simple', coalesce(secondary_text, '')), 'B')
+$$;
+
+CREATE TABLE IF NOT EXISTS search_documents (
+    id             uuid         NOT NULL PRIMARY KEY,
+    user_id        uuid         NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    kind           varchar(16)  NOT NULL CHECK (kind IN ('TRANSLATION', 'SAVED_ITEM')),
+    -- The row the document was built from (a saved item also points at its translation); the FKs drop the
+    -- document together with that row
+    translation_id uuid REFERENCES translations (id) ON DELETE CASCADE,
+    saved_item_id  uuid REFERENCES saved_items (id) ON DELETE CASCADE,
+    primary_text   text,
+    primary_lang   varchar(255),
+    secondary_text text,
+    secondary_lang varchar(255),
+    created_at     timestamp(6) NOT NULL,
+    tsv            tsvector GENERATED ALWAYS AS
+                       (search_tsvector(primary_text, primary_lang, secondary_text, secondary_lang)) STORED,
+    CHECK ((kind = 'TRANSLATION' AND translation_id = id AND saved_item_id IS NULL)
+        OR (kind = 'SAVED_ITEM' AND saved_item_id = id AND translation_id IS NOT NULL))
+);
+
+CREATE INDEX IF NOT EXISTS idx_search_documents_user_tsv
+    ON search_documents USING gin (user_id, tsv);
+-- Recency-sorted search and the keyset cursor
+CREATE INDEX IF NOT EXISTS idx_search_documents_user_created_id
+    ON search_documents (user_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_search_documents_translation
+    ON search_documents (translation_id);
+CREATE INDEX IF NOT EXISTS idx_search_documents_saved_item
+    ON search_documents (saved_item_id)
+    WHERE saved_item_id IS NOT NULL;
+
+-- Backfill existing rows. Large objects hold the text as UTF-8 (how the JDBC driver writes them).
+INSERT INTO search_documents (id, user_id, kind, translation_id, primary_text, primary_lang,
+                              secondary_text, secondary_lang, created_at)
+SELECT t.id, t.user_id, 'TRANSLATION', t.id,
+       convert_from(lo_get(t.source_text), 'UTF8'), t.source_lang,
+       convert_from(lo_get(t.target_text), 'UTF8'), t.target_lang,
+       t.created_at
+FROM translations t
+ON CONFLICT (id) DO NOTHING;
+
+INSERT INTO search_documents (id, user_id, kind, translation_id, saved_item_id, primary_text, primary_lang,
+                              secondary_text, secondary_lang, created_at)
+SELECT s.id, s.user_id, 'SAVED_ITEM', s.translation_id, s.id,
+       s.name, t.source_lang,
+       CASE WHEN s.notes IS NULL THEN NULL ELSE convert_from(lo_get(s.notes), 'UTF8') END, NULL,
+       s.created_at
+FROM saved_items s
+         JOIN translations t ON t.id = s.translation_id
+ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,54 @@
+-- Large-object columns become plain text/jsonb: reads come back inline with the row instead of through the
+-- large-object API, and deleting a row no longer leaves an orphaned object behind.
+
+-- Values that are not valid JSON are kept as a JSON string rather than dropped
+CREATE FUNCTION pg_temp.lo_to_jsonb(lo oid) RETURNS jsonb
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    content text;
+BEGIN
+    IF lo IS NULL THEN
+        RETURN NULL;
+    END IF;
+    content := convert_from(lo_get(lo), 'UTF8');
+    BEGIN
+        RETURN content::jsonb;
+    EXCEPTION
+        WHEN invalid_text_representation THEN
+            RETURN to_jsonb(content);
+    END;
+END;
+$$;
+
+-- Remember the objects so they can be unlinked once nothing references them
+CREATE TEMP TABLE lo_to_unlink ON COMMIT DROP AS
+SELECT source_text AS lo FROM translations
+UNION ALL SELECT target_text FROM translations
+UNION ALL SELECT tags FROM translations WHERE tags IS NOT NULL
+UNION ALL SELECT notes FROM saved_items WHERE notes IS NOT NULL
+UNION ALL SELECT settings FROM users WHERE settings IS NOT NULL;
+
+ALTER TABLE translations
+    ALTER COLUMN source_text TYPE text USING convert_from(lo_get(source_text), 'UTF8'),
+    ALTER COLUMN target_text TYPE text USING convert_from(lo_get(target_text), 'UTF8'),
+    ALTER COLUMN tags TYPE jsonb USING pg_temp.lo_to_jsonb(tags);
+
+-- Tags are an array of strings; a bare string becomes a one-element array, anything else is dropped
+UPDATE translations
+SET tags = CASE jsonb_typeof(tags) WHEN 'string' THEN jsonb_build_array(tags) ELSE NULL END
+WHERE tags IS NOT NULL AND jsonb_typeof(tags) <> 'array';
+
+ALTER TABLE saved_items
+    ALTER COLUMN notes TYPE text USING CASE WHEN notes IS NULL THEN NULL ELSE convert_from(lo_get(notes), 'UTF8') END;
+
+ALTER TABLE users
+    ALTER COLUMN settings TYPE jsonb USING pg_temp.lo_to_jsonb(settings);
+
+SELECT lo_unlink(l.lo)
+FROM (SELECT DISTINCT lo FROM lo_to_unlink) l
+WHERE EXISTS (SELECT 1 FROM pg_largeobject_metadata m WHERE m.oid = l.lo);
+
+-- ?tag= filter: WHERE user_id = ? AND tags @> '["tag"]'
+CREATE INDEX IF NOT EXISTS idx_translations_user_tags
+    ON translations USING gin (user_id, tags jsonb_path_ops);
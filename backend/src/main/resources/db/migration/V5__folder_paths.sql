@@ -0,0 +1,23 @@
+-- Materialized path on folders (see Folder.path): subtree reads, moves and deletes become single statements
+-- over a range of (user_id, path) instead of one query per level.
+
+ALTER TABLE folders ADD COLUMN path text COLLATE "C";
+
+WITH RECURSIVE tree (id, path) AS (
+    SELECT id, id::text || '/'
+    FROM folders
+    WHERE parent_folder_id IS NULL
+    UNION ALL
+    SELECT f.id, t.path || f.id::text || '/'
+    FROM folders f
+             JOIN tree t ON f.parent_folder_id = t.id
+)
+UPDATE folders f
+SET path = tree.path
+FROM tree
+WHERE f.id = tree.id;
+
+ALTER TABLE folders ALTER COLUMN path SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_folders_user_path
+    ON folders (user_id, path);
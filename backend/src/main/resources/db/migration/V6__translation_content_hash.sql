@@ -0,0 +1,26 @@
+-- Deduplicated history: one row per (user, languages, texts), identified by a SHA-256 content hash. Repeats bump
+-- use_count/last_used_at through INSERT ... ON CONFLICT (see TranslationJdbcRepository).
+-- Existing rows keep content_hash NULL until TranslationCompactionJob merges them into their canonical rows.
+
+ALTER TABLE translations
+    ADD COLUMN content_hash bytea,
+    ADD COLUMN use_count    integer      NOT NULL DEFAULT 1,
+    ADD COLUMN last_used_at timestamp(6);
+
+UPDATE translations SET last_used_at = created_at;
+
+ALTER TABLE translations ALTER COLUMN last_used_at SET NOT NULL;
+
+-- NULLs are distinct, so unmerged legacy rows do not conflict with each other
+CREATE UNIQUE INDEX IF NOT EXISTS uq_translations_user_content_hash
+    ON translations (user_id, content_hash);
+
+-- Work queue for the compaction job; empties as legacy rows are merged
+CREATE INDEX IF NOT EXISTS idx_translations_unhashed
+    ON translations (created_at)
+    WHERE content_hash IS NULL;
+
+-- A repeat moves its row back to the top, so history is listed most recently used first
+-- (KeysetCursor.HISTORY_SORT): WHERE user_id = ? ORDER BY last_used_at DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_translations_user_last_used_id
+    ON translations (user_id, last_used_at DESC, id DESC);
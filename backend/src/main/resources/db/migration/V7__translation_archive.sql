@@ -0,0 +1,41 @@
+-- Cold history storage (see TranslationArchiveJob).
+-- translations stays a plain table holding the hot working set: saved_items and search_documents reference it by
+-- id, and the content-hash upsert needs a unique index without created_at, neither of which a partitioned table
+-- allows. Rows that have not been used for a while move to translations_archive, partitioned by created_at month;
+-- old partitions are detached, compressed per user into translation_archive_blobs, and dropped.
+
+CREATE TABLE IF NOT EXISTS translations_archive (
+    id           uuid         NOT NULL,
+    user_id      uuid         NOT NULL REFERENCES users (id),
+    source_text  text         NOT NULL,
+    target_text  text         NOT NULL,
+    source_lang  varchar(255) NOT NULL,
+    target_lang  varchar(255) NOT NULL,
+    input_type   varchar(255) NOT NULL,
+    is_favorite  boolean      NOT NULL,
+    is_saved     boolean      NOT NULL,
+    tags         jsonb,
+    created_at   timestamp(6) NOT NULL,
+    content_hash bytea,
+    use_count    integer      NOT NULL,
+    last_used_at timestamp(6) NOT NULL,
+    archived_at  timestamp(6) NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Created on every partition
+CREATE INDEX IF NOT EXISTS idx_translations_archive_user_created_id
+    ON translations_archive (user_id, created_at DESC, id DESC);
+
+-- One gzip'd NDJSON document per user and month (concatenated gzip members if a month was compressed twice)
+CREATE TABLE IF NOT EXISTS translation_archive_blobs (
+    user_id   uuid    NOT NULL REFERENCES users (id),
+    month     date    NOT NULL,
+    row_count integer NOT NULL,
+    content   bytea   NOT NULL,
+    PRIMARY KEY (user_id, month)
+);
+
+-- Archival candidates: WHERE last_used_at < cutoff
+CREATE INDEX IF NOT EXISTS idx_translations_last_used
+    ON translations (last_used_at);
@@ -0,0 +1,102 @@
+-- Delta sync (/api/sync). Every insert or update of a translation, saved item or folder stamps the row with the next
+-- value of one global sequence; every delete leaves a tombstone stamped the same way. A client that has seen
+-- everything up to version N asks for rows and tombstones above N.
+--
+-- Versions must become visible in order per user, or a client could move its cursor past a version whose
+-- transaction had not committed yet and never see it. The triggers therefore take a transaction-scoped advisory
+-- lock on the user before drawing a version: a user's writers queue behind each other, and each draws its versions
+-- only once the previous one has committed.
+
+CREATE SEQUENCE IF NOT EXISTS sync_version_seq;
+
+CREATE OR REPLACE FUNCTION sync_lock_user(p_user_id uuid) RETURNS void
+    LANGUAGE sql AS
+$$
+SELECT pg_advisory_xact_lock(hashtextextended(p_user_id::text, 8201));
+$$;
+
+CREATE OR REPLACE FUNCTION sync_stamp_version() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    PERFORM sync_lock_user(NEW.user_id);
+    NEW.sync_version := nextval('sync_version_seq');
+    RETURN NEW;
+END
+$$;
+
+CREATE TABLE IF NOT EXISTS sync_tombstones
+(
+    entity_type  varchar(20)  NOT NULL,
+    entity_id    uuid         NOT NULL,
+    user_id      uuid         NOT NULL, -- no FK: tombstones are written while a deleted user's rows cascade away
+    sync_version bigint       NOT NULL,
+    deleted_at   timestamp(6) NOT NULL DEFAULT now(),
+    PRIMARY KEY (entity_type, entity_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_sync_tombstones_user_version
+    ON sync_tombstones (user_id, sync_version);
+CREATE INDEX IF NOT EXISTS idx_sync_tombstones_deleted_at
+    ON sync_tombstones (deleted_at);
+
+-- Tombstones older than the retention period are purged; a client whose cursor is below the highest purged version
+-- may have missed a delete and has to resync from scratch
+CREATE TABLE IF NOT EXISTS sync_horizon
+(
+    id             boolean PRIMARY KEY DEFAULT true CHECK (id),
+    purged_through bigint  NOT NULL
+);
+INSERT INTO sync_horizon (id, purged_through) VALUES (true, 0) ON CONFLICT DO NOTHING;
+
+-- Archiving moves translations out of the table without deleting them from the user's history, so it sets
+-- app.sync_tombstones = 'off' for its transaction
+CREATE OR REPLACE FUNCTION sync_record_tombstone() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF current_setting('app.sync_tombstones', true) = 'off' THEN
+        RETURN OLD;
+    END IF;
+    PERFORM sync_lock_user(OLD.user_id);
+    INSERT INTO sync_tombstones (entity_type, entity_id, user_id, sync_version)
+    VALUES (TG_ARGV[0], OLD.id, OLD.user_id, nextval('sync_version_seq'))
+    ON CONFLICT (entity_type, entity_id) DO UPDATE
+        SET user_id = EXCLUDED.user_id, sync_version = EXCLUDED.sync_version, deleted_at = EXCLUDED.deleted_at;
+    RETURN OLD;
+END
+$$;
+
+-- Existing rows get versions in creation order (the volatile default is evaluated per row on the table rewrite)
+ALTER TABLE translations ADD COLUMN sync_version bigint NOT NULL DEFAULT nextval('sync_version_seq');
+ALTER TABLE saved_items ADD COLUMN sync_version bigint NOT NULL DEFAULT nextval('sync_version_seq');
+ALTER TABLE folders ADD COLUMN sync_version bigint NOT NULL DEFAULT nextval('sync_version_seq');
+
+-- The default only serves the backfill; from here on the trigger draws the version, after taking the lock
+ALTER TABLE translations ALTER COLUMN sync_version DROP DEFAULT;
+ALTER TABLE saved_items ALTER COLUMN sync_version DROP DEFAULT;
+ALTER TABLE folders ALTER COLUMN sync_version DROP DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_translations_user_sync_version ON translations (user_id, sync_version);
+CREATE INDEX IF NOT EXISTS idx_saved_items_user_sync_version ON saved_items (user_id, sync_version);
+CREATE INDEX IF NOT EXISTS idx_folders_user_sync_version ON folders (user_id, sync_version);
+
+CREATE TRIGGER trg_translations_sync_version
+    BEFORE INSERT OR UPDATE ON translations
+    FOR EACH ROW EXECUTE FUNCTION sync_stamp_version();
+CREATE TRIGGER trg_saved_items_sync_version
+    BEFORE INSERT OR UPDATE ON saved_items
+    FOR EACH ROW EXECUTE FUNCTION sync_stamp_version();
+CREATE TRIGGER trg_folders_sync_version
+    BEFORE INSERT OR UPDATE ON folders
+    FOR EACH ROW EXECUTE FUNCTION sync_stamp_version();
+
+CREATE TRIGGER trg_translations_sync_tombstone
+    AFTER DELETE ON translations
+    FOR EACH ROW EXECUTE FUNCTION sync_record_tombstone('TRANSLATION');
+CREATE TRIGGER trg_saved_items_sync_tombstone
+    AFTER DELETE ON saved_items
+    FOR EACH ROW EXECUTE FUNCTION sync_record_tombstone('SAVED_ITEM');
+CREATE TRIGGER trg_folders_sync_tombstone
+    AFTER DELETE ON folders
+    FOR EACH ROW EXECUTE FUNCTION sync_record_tombstone('FOLDER');
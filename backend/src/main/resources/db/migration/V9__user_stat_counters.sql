@@ -0,0 +1,42 @@
+-- Per-user usage statistics (/api/stats), kept as running counters so reading them never scans history.
+-- One row per (user, dimension, key):
+--   TOTAL, LANGUAGE_PAIR ('<source>|<target>'), INPUT_TYPE, DAY ('yyyy-MM-dd')
+--       translations made, counting repeats (the sum of use_count). Incremented in the transaction that writes the
+--       history rows and never decremented: deleting or archiving history does not undo usage.
+--   FAVORITES, SAVED
+--       current number of favorite translations and saved items. Adjusted by deltas batched after commit and
+--       recounted by UserStatsReconcileJob.
+
+CREATE TABLE IF NOT EXISTS user_stat_counters
+(
+    user_id   uuid        NOT NULL REFERENCES users (id),
+    dimension varchar(20) NOT NULL,
+    stat_key  text        NOT NULL, -- '' for TOTAL, FAVORITES and SAVED
+    count     bigint      NOT NULL,
+    PRIMARY KEY (user_id, dimension, stat_key)
+);
+
+-- Backfill from existing history, hot and archived. Uses before this point were not dated individually, so a
+-- row's uses are all counted on the day it was created. Months already compressed into translation_archive_blobs
+-- are not broken down and are left out.
+WITH history AS (SELECT user_id, source_lang, target_lang, input_type, created_at, use_count FROM translations
+                 UNION ALL
+                 SELECT user_id, source_lang, target_lang, input_type, created_at, use_count FROM translations_archive)
+INSERT INTO user_stat_counters (user_id, dimension, stat_key, count)
+SELECT user_id, 'TOTAL', '', SUM(use_count) FROM history GROUP BY user_id
+UNION ALL
+SELECT user_id, 'LANGUAGE_PAIR', source_lang || '|' || target_lang, SUM(use_count)
+FROM history GROUP BY user_id, source_lang, target_lang
+UNION ALL
+SELECT user_id, 'INPUT_TYPE', input_type, SUM(use_count) FROM history GROUP BY user_id, input_type
+UNION ALL
+SELECT user_id, 'DAY', to_char(created_at, 'YYYY-MM-DD'), SUM(use_count)
+FROM history GROUP BY user_id, to_char(created_at, 'YYYY-MM-DD')
+ON CONFLICT DO NOTHING;
+
+INSERT INTO user_stat_counters (user_id, dimension, stat_key, count)
+SELECT u.id, g.dimension, '', g.count
+FROM users u
+         CROSS JOIN LATERAL (VALUES ('FAVORITES', (SELECT COUNT(*) FROM translations t WHERE t.user_id = u.id AND t.is_favorite)),
+                                    ('SAVED', (SELECT COUNT(*) FROM saved_items s WHERE s.user_id = u.id))) g (dimension, count)
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,62 @@
+package com.translationapp;
+
+import com.google.cloud.speech.v1.SpeechClient;
+import com.google.cloud.texttospeech.v1.TextToSpeechClient;
+import com.google.cloud.translate.Translate;
+import com.google.cloud.translate.v3.TranslationServiceClient;
+import com.google.cloud.vision.v1.ImageAnnotatorClient;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// Base for tests that need the real database: the whole application, schema included, against an embedded
+// PostgreSQL. One server and one application context are shared by every subclass, so tests must not depend on the
+// database being empty (each creates its own users). Google clients are mocked; nothing calls out. Runs on a
+// real server (random port) because the WebSocket container needs one.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public abstract class PostgresIntegrationTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    @MockBean
+    private TranslationServiceClient translationServiceClient;
+    @MockBean
+    private ImageAnnotatorClient imageAnnotatorClient;
+    @MockBean
+    private SpeechClient speechClient;
+    @MockBean
+    private TextToSpeechClient textToSpeechClient;
+    @MockBean
+    private Translate translate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> POSTGRES.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException e) {
+                    // exiting anyway
+                }
+            }));
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.translationapp.audio;
+
+import com.google.cloud.speech.v1.RecognitionConfig;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+// Builds small audio files in memory so the tests can state exactly which header bytes they exercise.
+final class AudioFixtures {
+
+    private AudioFixtures() {
+    }
+
+    // Canonical 44-byte-header WAV around the given sample bytes
+    static byte[] wav(int formatTag, int sampleRate, int channels, int bitsPerSample, byte[] samples) {
+        int blockAlign = channels * ((bitsPerSample + 7) / 8);
+        ByteBuffer buffer = ByteBuffer.allocate(44 + samples.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(ascii("RIFF")).putInt(36 + samples.length).put(ascii("WAVE"));
+        buffer.put(ascii("fmt ")).putInt(16)
+                .putShort((short) formatTag)
+                .putShort((short) channels)
+                .putInt(sampleRate)
+                .putInt(sampleRate * blockAlign)
+                .putShort((short) blockAlign)
+                .putShort((short) bitsPerSample);
+        buffer.put(ascii("data")).putInt(samples.length).put(samples);
+        return buffer.array();
+    }
+
+    // fLaC marker and a STREAMINFO block; frames are not needed since only the header is read
+    static byte[] flac(int sampleRate, int channels, int bitsPerSample) {
+        byte[] data = new byte[4 + 4 + 34];
+        System.arraycopy(ascii("fLaC"), 0, data, 0, 4);
+        data[4] = (byte) 0x80; // last metadata block, type 0 (STREAMINFO)
+        data[7] = 34;
+        int info = 8;
+        data[info + 10] = (byte) (sampleRate >> 12);
+        data[info + 11] = (byte) (sampleRate >> 4);
+        data[info + 12] = (byte) (((sampleRate & 0x0F) << 4) | ((channels - 1) << 1) | ((bitsPerSample - 1) >> 4));
+        data[info + 13] = (byte) (((bitsPerSample - 1) & 0x0F) << 4);
+        return data;
+    }
+
+    // ID3v2 tag of the given body size, as MP3 and some FLAC encoders prepend
+    static byte[] withId3(byte[] data, int tagBodySize) {
+        byte[] out = new byte[10 + tagBodySize + data.length];
+        System.arraycopy(ascii("ID3"), 0, out, 0, 3);
+        out[3] = 4;
+        out[6] = (byte) ((tagBodySize >> 21) & 0x7F);
+        out[7] = (byte) ((tagBodySize >> 14) & 0x7F);
+        out[8] = (byte) ((tagBodySize >> 7) & 0x7F);
+        out[9] = (byte) (tagBodySize & 0x7F);
+        System.arraycopy(data, 0, out, 10 + tagBodySize, data.length);
+        return out;
+    }
+
+    // 16 kHz mono LINEAR16: a 300 Hz tone at toneDb (dBFS RMS) for each positive duration and a pause for each negative
+    // one, over steady background noise at noiseDb throughout. Durations are in milliseconds.
+    static NormalizedAudio linear16(double toneDb, double noiseDb, int... durationsMillis) {
+        int rate = 16000;
+        int total = 0;
+        for (int d : durationsMillis) {
+            total += Math.abs(d) * rate / 1000;
+        }
+        float[] samples = new float[total];
+        double toneAmplitude = Math.pow(10, toneDb / 20) * Math.sqrt(2);
+        double noiseAmplitude = Math.pow(10, noiseDb / 20);
+        Random random = new Random(42);
+        int pos = 0;
+        for (int d : durationsMillis) {
+            int count = Math.abs(d) * rate / 1000;
+            for (int i = 0; i < count; i++, pos++) {
+                double tone = d > 0 ? toneAmplitude * Math.sin(2 * Math.PI * 300 * pos / rate) : 0;
+                samples[pos] = (float) (tone + noiseAmplitude * random.nextGaussian());
+            }
+        }
+        return new NormalizedAudio(PcmConverter.toLinear16(samples), RecognitionConfig.AudioEncoding.LINEAR16, rate, 1);
+    }
+
+    // AMR-NB stream of 12.2 kbit/s speech frames for each positive count and SID (comfort noise) frames for each
+    // negative one, as a recorder with DTX writes during pauses. Frames are 20 ms.
+    static NormalizedAudio amr(int... frameCounts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(ascii("#!AMR\n"));
+        for (int count : frameCounts) {
+            int type = count > 0 ? 7 : 8;
+            int payload = count > 0 ? 31 : 5;
+            for (int i = 0; i < Math.abs(count); i++) {
+                out.write((type << 3) | 0x04);
+                out.writeBytes(new byte[payload]);
+            }
+        }
+        return new NormalizedAudio(out.toByteArray(), RecognitionConfig.AudioEncoding.AMR, 8000, 1);
+    }
+
+    static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
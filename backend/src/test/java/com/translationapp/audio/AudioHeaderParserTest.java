@@ -0,0 +1,174 @@
+package com.translationapp.audio;
+
+import com.translationapp.exception.UnsupportedAudioFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static com.translationapp.audio.AudioFixtures.ascii;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AudioHeaderParserTest {
+
+    @Test
+    void parsesPcmWav() throws Exception {
+        byte[] wav = AudioFixtures.wav(AudioFormatInfo.WAVE_FORMAT_PCM, 44100, 2, 16, new byte[400]);
+
+        AudioFormatInfo info = AudioHeaderParser.parse(wav, "application/octet-stream");
+
+        assertThat(info.getContainer()).isEqualTo(AudioFormatInfo.Container.WAV);
+        assertThat(info.getSampleRateHertz()).isEqualTo(44100);
+        assertThat(info.getChannels()).isEqualTo(2);
+        assertThat(info.getBitsPerSample()).isEqualTo(16);
+        assertThat(info.getFormatTag()).isEqualTo(AudioFormatInfo.WAVE_FORMAT_PCM);
+        assertThat(info.getDataOffset()).isEqualTo(44);
+        assertThat(info.getDataLength()).isEqualTo(400);
+    }
+
+    @Test
+    void skipsUnknownChunksBeforeData() throws Exception {
+        byte[] plain = AudioFixtures.wav(AudioFormatInfo.WAVE_FORMAT_PCM, 16000, 1, 16, new byte[10]);
+        // Insert an odd-sized LIST chunk (padded to an even length) between fmt and data
+        ByteBuffer buffer = ByteBuffer.allocate(plain.length + 8 + 4).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(plain, 0, 36);
+        buffer.put(ascii("LIST")).putInt(3).put(new byte[]{1, 2, 3, 0});
+        buffer.put(plain, 36, plain.length - 36);
+
+        AudioFormatInfo info = AudioHeaderParser.parse(buffer.array(), null);
+
+        assertThat(info.getDataOffset()).isEqualTo(44 + 12);
+        assertThat(info.getDataLength()).isEqualTo(10);
+    }
+
+    @Test
+    void takesUploadedLengthWhenStreamingRecorderLeftSizeUnset() throws Exception {
+        byte[] wav = AudioFixtures.wav(AudioFormatInfo.WAVE_FORMAT_PCM, 16000, 1, 16, new byte[100]);
+        ByteBuffer.wrap(wav).order(ByteOrder.LITTLE_ENDIAN).putInt(40, 0xFFFFFFFF);
+
+        AudioFormatInfo info = AudioHeaderParser.parse(wav, null);
+
+        assertThat(info.getDataLength()).isEqualTo(100);
+    }
+
+    @Test
+    void readsSubFormatOfExtensibleWav() throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(12 + 8 + 40 + 8 + 8).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(ascii("RIFF")).putInt(buffer.capacity() - 8).put(ascii("WAVE"));
+        buffer.put(ascii("fmt ")).putInt(40)
+                .putShort((short) 0xFFFE).putShort((short) 1).putInt(48000).putInt(48000 * 4)
+                .putShort((short) 4).putShort((short) 32)
+                .putShort((short) 22).putShort((short) 32).putInt(4)
+                .putShort((short) AudioFormatInfo.WAVE_FORMAT_IEEE_FLOAT).put(new byte[14]);
+        buffer.put(ascii("data")).putInt(8).put(new byte[8]);
+
+        AudioFormatInfo info = AudioHeaderParser.parse(buffer.array(), null);
+
+        assertThat(info.getFormatTag()).isEqualTo(AudioFormatInfo.WAVE_FORMAT_IEEE_FLOAT);
+        assertThat(info.getSampleRateHertz()).isEqualTo(48000);
+        assertThat(info.getBitsPerSample()).isEqualTo(32);
+    }
+
+    @Test
+    void rejectsCompressedWavEncodings() {
+        byte[] adpcm = AudioFixtures.wav(2, 16000, 1, 4, new byte[10]);
+
+        assertThatThrownBy(() -> AudioHeaderParser.parse(adpcm, null))
+                .isInstanceOf(UnsupportedAudioFormatException.class)
+                .hasMessageContaining("format tag 2");
+    }
+
+    @Test
+    void rejectsWavWithoutDataChunk() {
+        byte[] wav = AudioFixtures.wav(AudioFormatInfo.WAVE_FORMAT_PCM, 16000, 1, 16, new byte[0]);
+        byte[] truncated = java.util.Arrays.copyOf(wav, 36);
+
+        assertThatThrownBy(() -> AudioHeaderParser.parse(truncated, null))
+                .isInstanceOf(UnsupportedAudioFormatException.class)
+                .hasMessageContaining("no data chunk");
+    }
+
+    @Test
+    void rejectsChunkSizeRunningPastTheEndWithoutOverflowing() {
+        byte[] plain = AudioFixtures.wav(AudioFormatInfo.WAVE_FORMAT_PCM, 16000, 1, 16, new byte[10]);
+        // A LIST chunk claiming almost 4 GiB: the next chunk would start past Integer.MAX_VALUE
+        ByteBuffer buffer = ByteBuffer.allocate(plain.length + 8).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(plain, 0, 36);
+        buffer.put(ascii("LIST")).putInt(0xFFFFFFF0);
+        buffer.put(plain, 36, plain.length - 36);
+
+        assertThatThrownBy(() -> AudioHeaderParser.parse(buffer.array(), null))
+                .isInstanceOf(UnsupportedAudioFormatException.class)
+                .hasMessageContaining("no data chunk");
+    }
+
+    @Test
+    void rejectsFloatWavWithOddSampleSize() throws Exception {
+        byte[] float16 = AudioFixtures.wav(AudioFormatInfo.WAVE_FORMAT_IEEE_FLOAT, 16000, 1, 16, new byte[10]);
+
+        assertThatThrownBy(() -> AudioHeaderParser.parse(float16, null))
+                .isInstanceOf(UnsupportedAudioFormatException.class)
+                .hasMessageContaining("16 bits");
+        assertThat(AudioHeaderParser.parse(AudioFixtures.wav(AudioFormatInfo.WAVE_FORMAT_IEEE_FLOAT, 16000, 1, 64,
+                new byte[16]), null).getBitsPerSample()).isEqualTo(64);
+    }
+
+    @Test
+    void parsesFlacStreamInfo() throws Exception {
+        AudioFormatInfo info = AudioHeaderParser.parse(AudioFixtures.flac(44100, 2, 24), "audio/wav");
+
+        assertThat(info.getContainer()).isEqualTo(AudioFormatInfo.Container.FLAC);
+        assertThat(info.getSampleRateHertz()).isEqualTo(44100);
+        assertThat(info.getChannels()).isEqualTo(2);
+        assertThat(info.getBitsPerSample()).isEqualTo(24);
+        assertThat(info.getDataOffset()).isZero();
+    }
+
+    @Test
+    void parsesFlacBehindId3Tag() throws Exception {
+        byte[] tagged = AudioFixtures.withId3(AudioFixtures.flac(16000, 1, 16), 200);
+
+        AudioFormatInfo info = AudioHeaderParser.parse(tagged, null);
+
+        assertThat(info.getContainer()).isEqualTo(AudioFormatInfo.Container.FLAC);
+        assertThat(info.getSampleRateHertz()).isEqualTo(16000);
+        assertThat(info.getChannels()).isEqualTo(1);
+        assertThat(info.getDataOffset()).isEqualTo(210);
+    }
+
+    @Test
+    void rejectsFlacWithoutStreamInfo() {
+        byte[] flac = AudioFixtures.flac(16000, 1, 16);
+        flac[4] = 4; // VORBIS_COMMENT where STREAMINFO must be
+
+        assertThatThrownBy(() -> AudioHeaderParser.parse(flac, null))
+                .isInstanceOf(UnsupportedAudioFormatException.class)
+                .hasMessageContaining("STREAMINFO");
+    }
+
+    @Test
+    void recognizesAmrMagic() throws Exception {
+        assertThat(AudioHeaderParser.parse(ascii("#!AMR\n<"), null).getContainer())
+                .isEqualTo(AudioFormatInfo.Container.AMR);
+        assertThat(AudioHeaderParser.parse(ascii("#!AMR-WB\n<"), null).getSampleRateHertz())
+                .isEqualTo(16000);
+    }
+
+    @Test
+    void describesHeaderlessPcmFromContentType() throws Exception {
+        AudioFormatInfo info = AudioHeaderParser.parse(new byte[64], "audio/L16; rate=44100; channels=2");
+
+        assertThat(info.getContainer()).isEqualTo(AudioFormatInfo.Container.RAW_PCM);
+        assertThat(info.getSampleRateHertz()).isEqualTo(44100);
+        assertThat(info.getChannels()).isEqualTo(2);
+        assertThat(info.getDataLength()).isEqualTo(64);
+    }
+
+    @Test
+    void rejectsUnknownData() {
+        assertThatThrownBy(() -> AudioHeaderParser.parse(new byte[64], "audio/mpeg"))
+                .isInstanceOf(UnsupportedAudioFormatException.class)
+                .hasMessageContaining("audio/mpeg");
+    }
+}
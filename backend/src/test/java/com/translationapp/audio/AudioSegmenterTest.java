@@ -0,0 +1,116 @@
+package com.translationapp.audio;
+
+import com.google.cloud.speech.v1.RecognitionConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AudioSegmenterTest {
+
+    private static final double SPEECH_DB = -20;
+    private static final double QUIET_ROOM_DB = -70;
+    // Above the absolute threshold, so only the adaptive noise floor can tell it from speech
+    private static final double NOISY_ROOM_DB = -45;
+
+    @Test
+    void keepsShortClipOfContinuousSpeech() {
+        NormalizedAudio clip = AudioFixtures.linear16(SPEECH_DB, QUIET_ROOM_DB, 1500);
+
+        List<AudioSegment> segments = new AudioSegmenter(300, 20, 50).split(clip);
+
+        assertThat(segments).hasSize(1);
+        assertThat(segments.get(0).getStartMillis()).isZero();
+        assertThat(segments.get(0).getEndMillis()).isEqualTo(1500);
+    }
+
+    @Test
+    void keepsContinuousSpeechOverNoise() {
+        NormalizedAudio clip = AudioFixtures.linear16(SPEECH_DB, NOISY_ROOM_DB, 2000);
+
+        List<AudioSegment> segments = new AudioSegmenter(300, 20, 50).split(clip);
+
+        assertThat(segments).hasSize(1);
+        assertThat(segments.get(0).getEndMillis() - segments.get(0).getStartMillis()).isEqualTo(2000);
+    }
+
+    @Test
+    void cutsAtPauseAboveTheAbsoluteThreshold() {
+        NormalizedAudio clip = AudioFixtures.linear16(SPEECH_DB, NOISY_ROOM_DB, 1500, -1000, 1500);
+
+        List<AudioSegment> segments = new AudioSegmenter(300, 1, 50).split(clip);
+
+        // Each speech region keeps 200 ms of padding into the pause
+        assertThat(segments).extracting(AudioSegment::getStartMillis).containsExactly(0L, 2300L);
+        assertThat(segments).extracting(AudioSegment::getEndMillis).containsExactly(1700L, 4000L);
+        assertThat(segments).extracting(AudioSegment::getIndex).containsExactly(0, 1);
+        assertThat(segments.get(1).getAudio().getContent()).hasSize(1700 * 16 * 2);
+    }
+
+    @Test
+    void dropsPausesButPacksSpeechUpToTargetLength() {
+        NormalizedAudio clip = AudioFixtures.linear16(SPEECH_DB, QUIET_ROOM_DB, 1500, -1000, 1500, -3000);
+
+        List<AudioSegment> segments = new AudioSegmenter(300, 20, 50).split(clip);
+
+        assertThat(segments).hasSize(1);
+        assertThat(segments.get(0).getStartMillis()).isZero();
+        assertThat(segments.get(0).getEndMillis()).isEqualTo(4200);
+    }
+
+    @Test
+    void bridgesGapsShorterThanMinimumSilence() {
+        NormalizedAudio clip = AudioFixtures.linear16(SPEECH_DB, QUIET_ROOM_DB, 1000, -200, 1000);
+
+        List<AudioSegment> segments = new AudioSegmenter(300, 1, 50).split(clip);
+
+        assertThat(segments).hasSize(1);
+    }
+
+    @Test
+    void forceSplitsSpeechLongerThanTheLimit() {
+        NormalizedAudio clip = AudioFixtures.linear16(SPEECH_DB, QUIET_ROOM_DB, 3000);
+
+        List<AudioSegment> segments = new AudioSegmenter(300, 1, 1).split(clip);
+
+        assertThat(segments).hasSizeGreaterThanOrEqualTo(3);
+        long expectedStart = 0;
+        for (AudioSegment segment : segments) {
+            assertThat(segment.getStartMillis()).isEqualTo(expectedStart);
+            assertThat(segment.getEndMillis() - segment.getStartMillis()).isBetween(1L, 1000L);
+            expectedStart = segment.getEndMillis();
+        }
+        assertThat(expectedStart).isEqualTo(3000);
+    }
+
+    @Test
+    void cutsAmrAtComfortNoiseFrames() {
+        NormalizedAudio clip = AudioFixtures.amr(50, -50, 50);
+        AudioSegmenter segmenter = new AudioSegmenter(300, 2, 50);
+
+        List<AudioSegment> segments = segmenter.split(clip);
+
+        assertThat(segmenter.durationMillis(clip)).isEqualTo(3000);
+        assertThat(segments).extracting(AudioSegment::getStartMillis).containsExactly(0L, 1800L);
+        assertThat(segments).extracting(AudioSegment::getEndMillis).containsExactly(1200L, 3000L);
+        for (AudioSegment segment : segments) {
+            NormalizedAudio audio = segment.getAudio();
+            assertThat(audio.getEncoding()).isEqualTo(RecognitionConfig.AudioEncoding.AMR);
+            // Every piece is a standalone .amr stream: magic, then 50 speech frames and 10 SID frames of padding
+            assertThat(audio.getContent()).startsWith(AudioFixtures.ascii("#!AMR\n"));
+            assertThat(audio.getContent()).hasSize(6 + 50 * 32 + 10 * 6);
+            assertThat(segmenter.durationMillis(audio)).isEqualTo(1200);
+        }
+    }
+
+    @Test
+    void passesThroughFormatsItCannotSplit() {
+        NormalizedAudio flac = new NormalizedAudio(AudioFixtures.flac(16000, 1, 16), RecognitionConfig.AudioEncoding.FLAC, 16000, 1);
+        AudioSegmenter segmenter = new AudioSegmenter(300, 20, 50);
+
+        assertThat(segmenter.canSegment(flac)).isFalse();
+        assertThat(segmenter.durationMillis(flac)).isEqualTo(-1);
+        assertThat(segmenter.split(flac)).singleElement().extracting(AudioSegment::getAudio).isSameAs(flac);
+    }
+}
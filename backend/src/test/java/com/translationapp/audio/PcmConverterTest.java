@@ -0,0 +1,117 @@
+package com.translationapp.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PcmConverterTest {
+
+    // Encoding scales by 32767 and decoding by 32768, so a round trip may be off by the rounding step plus that
+    private static final float TOLERANCE = 2f / 32768f;
+
+    @Test
+    void linear16RoundTripIsWithinQuantization() throws Exception {
+        float[] samples = new float[1000];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (float) Math.sin(i * 0.05) * 0.9f;
+        }
+        samples[0] = 1f;
+        samples[1] = -1f;
+
+        byte[] wav = AudioFixtures.wav(AudioFormatInfo.WAVE_FORMAT_PCM, 16000, 1, 16, PcmConverter.toLinear16(samples));
+        float[] decoded = PcmConverter.decodeToMono(wav, AudioHeaderParser.parse(wav, null));
+
+        assertThat(decoded).hasSameSizeAs(samples);
+        for (int i = 0; i < samples.length; i++) {
+            assertThat(decoded[i]).isCloseTo(samples[i], within(TOLERANCE));
+        }
+    }
+
+    @Test
+    void toLinear16ClipsOutOfRangeSamples() {
+        byte[] pcm = PcmConverter.toLinear16(new float[]{1.5f, -1.5f});
+        ByteBuffer buffer = ByteBuffer.wrap(pcm).order(ByteOrder.LITTLE_ENDIAN);
+
+        assertThat(buffer.getShort()).isEqualTo(Short.MAX_VALUE);
+        assertThat(buffer.getShort()).isEqualTo(Short.MIN_VALUE);
+    }
+
+    @Test
+    void averagesChannelsWhenDownmixing() throws Exception {
+        ByteBuffer samples = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        samples.putShort((short) 16384).putShort((short) -16384); // frame 1: cancels out
+        samples.putShort((short) 16384).putShort((short) 16384);  // frame 2: same on both channels
+        byte[] wav = AudioFixtures.wav(AudioFormatInfo.WAVE_FORMAT_PCM, 16000, 2, 16, samples.array());
+
+        float[] mono = PcmConverter.decodeToMono(wav, AudioHeaderParser.parse(wav, null));
+
+        assertThat(mono).containsExactly(0f, 0.5f);
+    }
+
+    @Test
+    void decodesUnsignedEightBitAndFloatSamples() throws Exception {
+        byte[] eightBit = AudioFixtures.wav(AudioFormatInfo.WAVE_FORMAT_PCM, 8000, 1, 8, new byte[]{(byte) 128, (byte) 255, 0});
+        assertThat(PcmConverter.decodeToMono(eightBit, AudioHeaderParser.parse(eightBit, null)))
+                .containsExactly(0f, 127f / 128f, -1f);
+
+        ByteBuffer floats = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putFloat(0.25f).putFloat(-0.75f);
+        byte[] floatWav = AudioFixtures.wav(AudioFormatInfo.WAVE_FORMAT_IEEE_FLOAT, 8000, 1, 32, floats.array());
+        assertThat(PcmConverter.decodeToMono(floatWav, AudioHeaderParser.parse(floatWav, null)))
+                .containsExactly(0.25f, -0.75f);
+    }
+
+    @Test
+    void decodesCompandedSilenceToZero() throws Exception {
+        // 0xFF is mu-law zero, 0xD5 is A-law's smallest positive step
+        byte[] muLaw = AudioFixtures.wav(AudioFormatInfo.WAVE_FORMAT_MULAW, 8000, 1, 8, new byte[]{(byte) 0xFF});
+        byte[] aLaw = AudioFixtures.wav(AudioFormatInfo.WAVE_FORMAT_ALAW, 8000, 1, 8, new byte[]{(byte) 0xD5});
+
+        assertThat(PcmConverter.decodeToMono(muLaw, AudioHeaderParser.parse(muLaw, null))[0]).isZero();
+        assertThat(PcmConverter.decodeToMono(aLaw, AudioHeaderParser.parse(aLaw, null))[0])
+                .isCloseTo(8f / 32768f, within(1e-9f));
+    }
+
+    @Test
+    void resamplingKeepsInBandToneAndLength() {
+        int inputRate = 48000, outputRate = 16000;
+        float[] input = tone(1000, inputRate, 4800);
+
+        float[] output = PcmConverter.resample(input, inputRate, outputRate);
+
+        assertThat(output).hasSize(1600);
+        float[] expected = tone(1000, outputRate, 1600);
+        // Away from the edges, where the filter runs out of input, the tone comes through unchanged
+        for (int i = 100; i < 1500; i++) {
+            assertThat(output[i]).isCloseTo(expected[i], within(0.01f));
+        }
+    }
+
+    @Test
+    void resamplingRemovesContentAboveTheNewNyquist() {
+        // 12 kHz is representable at 48 kHz but would alias to 4 kHz at 16 kHz without the low-pass filter
+        float[] output = PcmConverter.resample(tone(12000, 48000, 4800), 48000, 16000);
+
+        for (int i = 100; i < 1500; i++) {
+            assertThat(Math.abs(output[i])).isLessThan(0.01f);
+        }
+    }
+
+    @Test
+    void sameRateIsPassedThrough() {
+        float[] input = {0.1f, 0.2f};
+
+        assertThat(PcmConverter.resample(input, 16000, 16000)).isSameAs(input);
+    }
+
+    private static float[] tone(int frequency, int rate, int length) {
+        float[] samples = new float[length];
+        for (int i = 0; i < length; i++) {
+            samples[i] = (float) (0.5 * Math.sin(2 * Math.PI * frequency * i / rate));
+        }
+        return samples;
+    }
+}
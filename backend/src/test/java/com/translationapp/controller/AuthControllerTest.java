@@ -0,0 +1,103 @@
+package com.translationapp.controller;
+
+import com.translationapp.dto.ApiResponse;
+import com.translationapp.dto.LoginRequest;
+import com.translationapp.dto.SignUpRequest;
+import com.translationapp.repository.UserRepository;
+import com.translationapp.security.JwtTokenProvider;
+import com.translationapp.service.LastLoginRecorder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+// With every hashing thread busy and no queue left, sign-ins are turned away at once instead of piling up
+class AuthControllerTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ThreadPoolTaskExecutor passwordHashingExecutor;
+    private AuthenticationManager authenticationManager;
+    private PasswordEncoder passwordEncoder;
+    private AuthController controller;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        passwordHashingExecutor = new ThreadPoolTaskExecutor();
+        passwordHashingExecutor.setCorePoolSize(1);
+        passwordHashingExecutor.setMaxPoolSize(1);
+        passwordHashingExecutor.setQueueCapacity(0);
+        passwordHashingExecutor.initialize();
+        CountDownLatch started = new CountDownLatch(1);
+        passwordHashingExecutor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        authenticationManager = mock(AuthenticationManager.class);
+        passwordEncoder = mock(PasswordEncoder.class);
+        controller = new AuthController(authenticationManager, mock(UserRepository.class), mock(JwtTokenProvider.class),
+                passwordEncoder, passwordHashingExecutor, mock(LastLoginRecorder.class));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        passwordHashingExecutor.shutdown();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void loginIsRejectedWithRetryAfterWhenHashingIsSaturated() throws Exception {
+        LoginRequest request = new LoginRequest();
+        request.setUsernameOrEmail("someone");
+        request.setPassword("secret-password");
+
+        ResponseEntity<?> response = controller.authenticateUser(request).get(1, TimeUnit.SECONDS);
+
+        assertBusy(response);
+        verify(authenticationManager, never()).authenticate(any());
+    }
+
+    @Test
+    void registrationIsRejectedWithRetryAfterWhenHashingIsSaturated() throws Exception {
+        SignUpRequest request = new SignUpRequest();
+        request.setUsername("someone");
+        request.setEmail("someone@example.com");
+        request.setPassword("secret-password");
+
+        ResponseEntity<?> response = controller.registerUser(request).get(1, TimeUnit.SECONDS);
+
+        assertBusy(response);
+        verify(passwordEncoder, never()).encode(any());
+    }
+
+    private static void assertBusy(ResponseEntity<?> response) {
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(response.getBody()).isInstanceOfSatisfying(ApiResponse.class,
+                body -> assertThat(body.getSuccess()).isFalse());
+    }
+}
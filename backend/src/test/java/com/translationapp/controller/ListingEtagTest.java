@@ -0,0 +1,115 @@
+package com.translationapp.controller;
+
+import com.translationapp.PostgresIntegrationTest;
+import com.translationapp.model.User;
+import com.translationapp.repository.UserRepository;
+import com.translationapp.security.JwtTokenProvider;
+import com.translationapp.security.UserPrincipal;
+import com.translationapp.service.TranslationHistoryWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Listing ETags come from per-user change counters (V11): they change with the user's own writes and only with those
+class ListingEtagTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TranslationHistoryWriter historyWriter;
+
+    private HttpHeaders owner;
+    private HttpHeaders otherUser;
+
+    @BeforeEach
+    void signIn() {
+        owner = signInNewUser();
+        otherUser = signInNewUser();
+    }
+
+    @Test
+    void folderListingEtagFollowsOnlyTheUsersOwnWrites() {
+        ResponseEntity<String> first = get("/api/folders", owner, null);
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String etag = first.getHeaders().getETag();
+        assertThat(etag).startsWith("W/\"");
+
+        assertThat(get("/api/folders", owner, etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        post("/api/folders", otherUser, Map.of("name", "Their folder"));
+        ResponseEntity<String> afterOtherWrite = get("/api/folders", owner, etag);
+        assertThat(afterOtherWrite.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(afterOtherWrite.getHeaders().getETag()).isEqualTo(etag);
+
+        post("/api/folders", owner, Map.of("name", "My folder"));
+        ResponseEntity<String> afterOwnWrite = get("/api/folders", owner, etag);
+        assertThat(afterOwnWrite.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(afterOwnWrite.getHeaders().getETag()).startsWith("W/\"").isNotEqualTo(etag);
+        assertThat(afterOwnWrite.getBody()).contains("My folder").doesNotContain("Their folder");
+
+        String current = afterOwnWrite.getHeaders().getETag();
+        assertThat(get("/api/folders", owner, current).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void historyEtagChangesOnceTheQueuedRowIsWritten() {
+        String etag = get("/api/translations", owner, null).getHeaders().getETag();
+        assertThat(etag).startsWith("W/\"");
+
+        post("/api/translations", otherUser, translation("good night", "buenas noches"));
+        historyWriter.flush();
+        assertThat(get("/api/translations", owner, etag).getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        post("/api/translations", owner, translation("good morning", "buenos días"));
+        historyWriter.flush();
+        ResponseEntity<String> afterOwnWrite = get("/api/translations", owner, etag);
+        assertThat(afterOwnWrite.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(afterOwnWrite.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(afterOwnWrite.getBody()).contains("good morning");
+    }
+
+    private static Map<String, Object> translation(String sourceText, String targetText) {
+        return Map.of("sourceText", sourceText, "targetText", targetText, "sourceLang", "en", "targetLang", "es",
+                "inputType", "TEXT");
+    }
+
+    private ResponseEntity<String> get(String path, HttpHeaders auth, String ifNoneMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(auth);
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        return restTemplate.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private void post(String path, HttpHeaders auth, Map<String, Object> body) {
+        ResponseEntity<String> response = restTemplate.exchange(path, HttpMethod.POST, new HttpEntity<>(body, auth), String.class);
+        assertThat(response.getStatusCode().is2xxSuccessful()).as(response.getBody()).isTrue();
+    }
+
+    private HttpHeaders signInNewUser() {
+        String name = "etag-" + UUID.randomUUID().toString().substring(0, 8);
+        User user = userRepository.save(new User(name, name + "@example.com", "not-a-real-hash"));
+        UserPrincipal principal = UserPrincipal.create(user);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())));
+        return headers;
+    }
+}
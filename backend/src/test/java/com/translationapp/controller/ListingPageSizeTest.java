@@ -0,0 +1,77 @@
+package com.translationapp.controller;
+
+import com.translationapp.PostgresIntegrationTest;
+import com.translationapp.model.User;
+import com.translationapp.repository.UserRepository;
+import com.translationapp.security.JwtTokenProvider;
+import com.translationapp.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Listing sizes are clamped to 1..100 in keyset and offset mode alike
+class ListingPageSizeTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+    @Autowired
+    private UserRepository userRepository;
+
+    private HttpHeaders headers;
+
+    @BeforeEach
+    void signIn() {
+        String name = "lister-" + UUID.randomUUID().toString().substring(0, 8);
+        User user = userRepository.save(new User(name, name + "@example.com", "not-a-real-hash"));
+        UserPrincipal principal = UserPrincipal.create(user);
+        headers = new HttpHeaders();
+        headers.setBearerAuth(jwtTokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())));
+    }
+
+    @Test
+    void historySizeIsClampedInBothModes() {
+        assertThat(size("/api/translations?size=100000")).isEqualTo(100);
+        assertThat(size("/api/translations?size=0")).isEqualTo(1);
+        assertThat(size("/api/translations?page=0&size=5000")).isEqualTo(100);
+        assertThat(size("/api/translations?page=0&size=-3")).isEqualTo(1);
+        assertThat(size("/api/translations?size=20")).isEqualTo(20);
+    }
+
+    @Test
+    void savedItemSizeIsClampedInBothModes() {
+        assertThat(size("/api/saved-items?size=101")).isEqualTo(100);
+        assertThat(size("/api/saved-items?size=-1")).isEqualTo(1);
+        assertThat(size("/api/saved-items?page=0&size=1000")).isEqualTo(100);
+    }
+
+    @Test
+    void negativePageIsABadRequest() {
+        assertThat(get("/api/translations?page=-1").getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(get("/api/saved-items?page=-1").getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private int size(String path) {
+        ResponseEntity<Map> response = get(path);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return ((Number) response.getBody().get("size")).intValue();
+    }
+
+    private ResponseEntity<Map> get(String path) {
+        return restTemplate.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+    }
+}
@@ -0,0 +1,91 @@
+package com.translationapp.handwriting;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StrokeRasterizerTest {
+
+    private static final int BLACK = 0xFF000000;
+    private static final int WHITE = 0xFFFFFFFF;
+
+    @Test
+    void smallDrawingIsUpscaledAtMostFourTimes() throws IOException {
+        BufferedImage image = render(new float[][]{{0, 0, 100, 0}});
+
+        // 100 units * 4, plus margin and a pen radius of 2 on each side
+        assertThat(image.getWidth()).isEqualTo(400 + 2 * (32 + 2) + 1);
+        assertThat(image.getHeight()).isEqualTo(2 * (32 + 2) + 1);
+    }
+
+    @Test
+    void largeDrawingIsScaledToTheTargetLongSide() throws IOException {
+        BufferedImage image = render(new float[][]{{0, 0, 2000, 1000}});
+
+        // Scale 0.512, so the pen radius grows to 1024 / 256 = 4
+        assertThat(image.getWidth()).isEqualTo(1024 + 2 * (32 + 4) + 1);
+        assertThat(image.getHeight()).isEqualTo(512 + 2 * (32 + 4) + 1);
+    }
+
+    @Test
+    void drawsAnUnbrokenLineAcrossByteBoundaries() throws IOException {
+        BufferedImage image = render(new float[][]{{10, 10, 110, 10}});
+        int y = image.getHeight() / 2;
+        int start = 32 + 2, end = start + 400;
+
+        for (int x = start - 2; x <= end + 2; x++) {
+            assertThat(image.getRGB(x, y)).as("pixel %d", x).isEqualTo(BLACK);
+        }
+        assertThat(image.getRGB(start - 3, y)).isEqualTo(WHITE);
+        assertThat(image.getRGB(end + 3, y)).isEqualTo(WHITE);
+        assertThat(image.getRGB(start + 200, y - 3)).isEqualTo(WHITE);
+        assertThat(image.getRGB(start + 200, y + 3)).isEqualTo(WHITE);
+    }
+
+    @Test
+    void singleTapBecomesADot() throws IOException {
+        BufferedImage image = render(new float[][]{{5, 5}});
+        int center = 32 + 2;
+
+        assertThat(image.getRGB(center, center)).isEqualTo(BLACK);
+        assertThat(image.getRGB(center + 2, center)).isEqualTo(BLACK);
+        assertThat(image.getRGB(center + 3, center)).isEqualTo(WHITE);
+        assertThat(image.getRGB(0, 0)).isEqualTo(WHITE);
+    }
+
+    @Test
+    void emptyStrokesAreSkippedAlongsideDrawnOnes() throws IOException {
+        BufferedImage image = render(new float[][]{{}, {0, 0, 10, 10}});
+
+        assertThat(image.getRGB(image.getWidth() / 2, image.getHeight() / 2)).isEqualTo(BLACK);
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        assertThatThrownBy(() -> StrokeRasterizer.toPng(new float[][]{{1, 2, 3}}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("x, y pairs");
+        assertThatThrownBy(() -> StrokeRasterizer.toPng(new float[][]{{1, Float.NaN}}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("finite");
+        assertThatThrownBy(() -> StrokeRasterizer.toPng(new float[][]{{}}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("no points");
+        assertThatThrownBy(() -> StrokeRasterizer.toPng(new float[][]{new float[(StrokeRasterizer.MAX_POINTS + 1) * 2]}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("too many points");
+    }
+
+    private static BufferedImage render(float[][] strokes) throws IOException {
+        byte[] png = StrokeRasterizer.toPng(strokes);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        assertThat(image).as("decodable PNG").isNotNull();
+        return image;
+    }
+}
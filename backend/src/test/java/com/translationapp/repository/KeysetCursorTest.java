@@ -0,0 +1,59 @@
+package com.translationapp.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripKeepsTimestampToTheNanosecondAndId() {
+        LocalDateTime timestamp = LocalDateTime.of(2026, 3, 14, 15, 9, 26, 535_897_932);
+        UUID id = UUID.fromString("f47ac10b-58cc-4372-a567-0e02b2c3d479");
+
+        KeysetCursor decoded = KeysetCursor.decode(new KeysetCursor(timestamp, id).encode());
+
+        assertThat(decoded.getTimestamp()).isEqualTo(timestamp);
+        assertThat(decoded.getId()).isEqualTo(id);
+    }
+
+    @Test
+    void rowsWithTheSameTimestampGetDistinctCursors() {
+        LocalDateTime tie = LocalDateTime.of(2026, 1, 1, 12, 0);
+        UUID first = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        UUID second = UUID.fromString("ffffffff-ffff-ffff-ffff-ffffffffffff");
+
+        String firstCursor = new KeysetCursor(tie, first).encode();
+        String secondCursor = new KeysetCursor(tie, second).encode();
+
+        assertThat(firstCursor).isNotEqualTo(secondCursor);
+        assertThat(KeysetCursor.decode(firstCursor).getId()).isEqualTo(first);
+        assertThat(KeysetCursor.decode(secondCursor).getId()).isEqualTo(second);
+        assertThat(KeysetCursor.decode(secondCursor).getTimestamp()).isEqualTo(tie);
+    }
+
+    @Test
+    void encodingIsSafeInAQueryString() {
+        // All-ones bits produce '+' and '/' in standard base64
+        String cursor = new KeysetCursor(LocalDateTime.of(2026, 12, 31, 23, 59, 59, 999_999_999),
+                new UUID(-1L, -1L)).encode();
+
+        assertThat(cursor).doesNotContain("+", "/", "=");
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        String truncated = Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[20]);
+        assertThatThrownBy(() -> KeysetCursor.decode(truncated))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+}
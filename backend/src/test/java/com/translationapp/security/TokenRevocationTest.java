@@ -0,0 +1,80 @@
+package com.translationapp.security;
+
+import com.translationapp.PostgresIntegrationTest;
+import com.translationapp.model.User;
+import com.translationapp.repository.UserRepository;
+import com.translationapp.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AccountStateCache accountStateCache;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Test
+    void tokenIssuedInTheSameSecondAsTheRevocationIsRejected() {
+        User user = createUser();
+        // Issued just before the revocation; jjwt writes iat in whole seconds, so this is what the filter sees
+        Date issuedAt = Date.from(Instant.now().truncatedTo(ChronoUnit.SECONDS));
+
+        userService.revokeTokens(user.getId());
+
+        assertThat(accountStateCache.accepts(user.getId(), issuedAt)).isFalse();
+    }
+
+    @Test
+    void tokenIssuedInALaterSecondIsAccepted() {
+        User user = createUser();
+
+        userService.revokeTokens(user.getId());
+
+        LocalDateTime validAfter = userRepository.findById(user.getId()).orElseThrow().getTokenValidAfter();
+        Instant firstValidSecond = validAfter.atZone(ZoneId.systemDefault()).toInstant();
+        assertThat(accountStateCache.accepts(user.getId(), Date.from(firstValidSecond))).isTrue();
+        assertThat(accountStateCache.accepts(user.getId(), Date.from(firstValidSecond.minusSeconds(1)))).isFalse();
+    }
+
+    @Test
+    void revocationByAnotherInstanceIsSeenDespiteACachedUserEntity() {
+        User user = createUser();
+        userRepository.findById(user.getId()).orElseThrow(); // now in this instance's second-level cache
+        Date issuedAt = Date.from(Instant.now().truncatedTo(ChronoUnit.SECONDS));
+
+        // Another instance revokes: the row changes without evicting anything here
+        LocalDateTime validAfter = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        jdbcTemplate.update("UPDATE users SET token_valid_after = :validAfter WHERE id = :id",
+                new MapSqlParameterSource().addValue("validAfter", Timestamp.valueOf(validAfter)).addValue("id", user.getId()));
+
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getTokenValidAfter()).isNull();
+        assertThat(accountStateCache.accepts(user.getId(), issuedAt)).isFalse();
+    }
+
+    @Test
+    void missingAccountIsRejected() {
+        assertThat(accountStateCache.accepts(UUID.randomUUID(), new Date())).isFalse();
+    }
+
+    private User createUser() {
+        String name = "revoker-" + UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(new User(name, name + "@example.com", "not-a-real-hash"));
+    }
+}
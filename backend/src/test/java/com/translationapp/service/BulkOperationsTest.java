@@ -0,0 +1,157 @@
+package com.translationapp.service;
+
+import com.translationapp.PostgresIntegrationTest;
+import com.translationapp.dto.BulkItemResult;
+import com.translationapp.dto.BulkOperationResponse;
+import com.translationapp.dto.SavedItemCreateRequest;
+import com.translationapp.model.Folder;
+import com.translationapp.model.InputType;
+import com.translationapp.model.SavedItem;
+import com.translationapp.model.SavedItemCategory;
+import com.translationapp.model.Translation;
+import com.translationapp.model.User;
+import com.translationapp.repository.SavedItemRepository;
+import com.translationapp.repository.TranslationRepository;
+import com.translationapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// The bulk endpoints report one result per distinct id and never touch another user's rows
+class BulkOperationsTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TranslationPersistenceService translationPersistenceService;
+    @Autowired
+    private SavedItemService savedItemService;
+    @Autowired
+    private FolderService folderService;
+    @Autowired
+    private TranslationHistoryWriter historyWriter;
+    @Autowired
+    private TranslationRepository translationRepository;
+    @Autowired
+    private SavedItemRepository savedItemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void favoriteCollapsesDuplicatesAndLeavesOtherUsersTranslationsAlone() {
+        User user = createUser();
+        User other = createUser();
+        Translation mine = translate(user, "good morning");
+        Translation theirs = translate(other, "good night");
+        historyWriter.flush();
+
+        BulkOperationResponse response = translationPersistenceService.setFavorite(user.getId(),
+                List.of(mine.getId(), theirs.getId(), mine.getId()), true);
+
+        assertThat(response.getResults()).extracting(BulkItemResult::getId, BulkItemResult::getStatus).containsExactly(
+                tuple(mine.getId().toString(), "OK"), tuple(theirs.getId().toString(), "NOT_FOUND"));
+        assertThat(response.getSucceeded()).isEqualTo(1);
+        assertThat(translationRepository.findById(mine.getId()).orElseThrow().isFavorite()).isTrue();
+        assertThat(translationRepository.findById(theirs.getId()).orElseThrow().isFavorite()).isFalse();
+    }
+
+    @Test
+    void deleteKeepsSavedTranslationsAndOtherUsersTranslations() {
+        User user = createUser();
+        User other = createUser();
+        Translation unsaved = translate(user, "good morning");
+        Translation saved = translate(user, "thank you");
+        Translation theirs = translate(other, "good night");
+        historyWriter.flush();
+        save(user, saved, null);
+
+        BulkOperationResponse response = translationPersistenceService.deleteTranslations(user.getId(),
+                List.of(unsaved.getId(), saved.getId(), theirs.getId(), unsaved.getId()));
+
+        assertThat(response.getResults()).extracting(BulkItemResult::getId, BulkItemResult::getStatus).containsExactly(
+                tuple(unsaved.getId().toString(), "OK"), tuple(saved.getId().toString(), "IN_USE"),
+                tuple(theirs.getId().toString(), "NOT_FOUND"));
+        assertThat(translationRepository.existsById(unsaved.getId())).isFalse();
+        assertThat(translationRepository.existsById(saved.getId())).isTrue();
+        assertThat(translationRepository.existsById(theirs.getId())).isTrue();
+    }
+
+    @Test
+    void queuedHistoryRowsAreWrittenBeforeFavoriteAndDelete() {
+        User user = createUser();
+        // Without the writer thread the rows stay queued until something flushes them
+        historyWriter.stop();
+        historyWriter.startWithoutWriterThread();
+        try {
+            Translation toFavorite = translate(user, "good morning");
+            Translation toDelete = translate(user, "good night");
+            assertThat(historyWriter.findPending(toFavorite.getId())).isNotNull();
+            assertThat(historyWriter.findPending(toDelete.getId())).isNotNull();
+
+            assertThat(translationPersistenceService.setFavorite(user.getId(), List.of(toFavorite.getId()), true)
+                    .getResults()).extracting(BulkItemResult::getStatus).containsExactly("OK");
+            assertThat(translationRepository.findById(toFavorite.getId()).orElseThrow().isFavorite()).isTrue();
+
+            assertThat(translationPersistenceService.deleteTranslations(user.getId(), List.of(toDelete.getId()))
+                    .getResults()).extracting(BulkItemResult::getStatus).containsExactly("OK");
+            assertThat(translationRepository.existsById(toDelete.getId())).isFalse();
+        } finally {
+            historyWriter.stop();
+            historyWriter.start();
+        }
+    }
+
+    @Test
+    void moveAndDeleteSavedItemsCollapseDuplicatesAndSkipOtherUsersItems() {
+        User user = createUser();
+        User other = createUser();
+        Translation first = translate(user, "good morning");
+        Translation second = translate(user, "thank you");
+        Translation theirs = translate(other, "good night");
+        historyWriter.flush();
+        SavedItem mine = save(user, first, null);
+        SavedItem alsoMine = save(user, second, null);
+        SavedItem notMine = save(other, theirs, null);
+        Folder folder = folderService.createFolder(user.getId(), "Greetings", null);
+
+        BulkOperationResponse moved = savedItemService.moveSavedItems(user.getId(),
+                List.of(mine.getId(), notMine.getId(), mine.getId()), folder.getId());
+
+        assertThat(moved.getResults()).extracting(BulkItemResult::getId, BulkItemResult::getStatus).containsExactly(
+                tuple(mine.getId().toString(), "OK"), tuple(notMine.getId().toString(), "NOT_FOUND"));
+        assertThat(savedItemService.getSavedItemById(user.getId(), mine.getId()).orElseThrow().getFolder().getId())
+                .isEqualTo(folder.getId());
+        assertThat(savedItemService.getSavedItemById(other.getId(), notMine.getId()).orElseThrow().getFolder()).isNull();
+
+        BulkOperationResponse deleted = savedItemService.deleteSavedItems(user.getId(),
+                List.of(alsoMine.getId(), notMine.getId(), alsoMine.getId()));
+
+        assertThat(deleted.getResults()).extracting(BulkItemResult::getId, BulkItemResult::getStatus).containsExactly(
+                tuple(alsoMine.getId().toString(), "OK"), tuple(notMine.getId().toString(), "NOT_FOUND"));
+        assertThat(savedItemRepository.existsById(alsoMine.getId())).isFalse();
+        assertThat(savedItemRepository.existsById(notMine.getId())).isTrue();
+        // The translation stays in history
+        assertThat(translationRepository.existsById(second.getId())).isTrue();
+    }
+
+    private Translation translate(User user, String sourceText) {
+        return translationPersistenceService.saveTranslation(user.getId(), sourceText, "(" + sourceText + ")",
+                "en", "es", InputType.TEXT, List.of());
+    }
+
+    private SavedItem save(User user, Translation translation, UUID folderId) {
+        SavedItemCreateRequest request = new SavedItemCreateRequest();
+        request.setTranslationId(translation.getId());
+        request.setCategory(SavedItemCategory.PHRASE);
+        request.setFolderId(folderId);
+        return savedItemService.createSavedItem(user.getId(), request);
+    }
+
+    private User createUser() {
+        String name = "bulk-" + UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(new User(name, name + "@example.com", "not-a-real-hash"));
+    }
+}
@@ -0,0 +1,156 @@
+package com.translationapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.gax.rpc.ClientStream;
+import com.google.api.gax.rpc.ResponseObserver;
+import com.google.cloud.speech.v1.SpeechRecognitionAlternative;
+import com.google.cloud.speech.v1.StreamingRecognitionResult;
+import com.google.cloud.speech.v1.StreamingRecognizeResponse;
+import com.translationapp.dto.ConversationControlMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// The conversation executor rejects work when its pool and queue are full. Results arrive on gRPC threads, which must
+// not see the rejection; the client is told instead.
+class ConversationPipelineServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<JsonNode> sent = new CopyOnWriteArrayList<>();
+    private final CountDownLatch releaseExecutor = new CountDownLatch(1);
+
+    private GoogleCloudService googleCloudService;
+    private ThreadPoolTaskExecutor executor;
+    private ConversationSession session;
+    private ResponseObserver<StreamingRecognizeResponse> observer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        // One thread, no queue, and that thread busy: every submission is rejected until the latch is released
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+        executor.execute(() -> {
+            try {
+                releaseExecutor.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        googleCloudService = mock(GoogleCloudService.class);
+        ArgumentCaptor<ResponseObserver<StreamingRecognizeResponse>> observerCaptor = ArgumentCaptor.forClass(ResponseObserver.class);
+        when(googleCloudService.startStreamingRecognition(anyString(), anyInt(), observerCaptor.capture()))
+                .thenReturn(mock(ClientStream.class));
+
+        WebSocketSession socket = mock(WebSocketSession.class);
+        when(socket.getId()).thenReturn("ws-1");
+        when(socket.isOpen()).thenReturn(true);
+        doAnswer(invocation -> {
+            sent.add(objectMapper.readTree(invocation.getArgument(0, TextMessage.class).getPayload()));
+            return null;
+        }).when(socket).sendMessage(any());
+
+        ConversationPipelineService service = new ConversationPipelineService(googleCloudService, executor, objectMapper,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "interimStabilityThreshold", 0.8f);
+        session = service.openSession(socket, UUID.randomUUID());
+        ConversationControlMessage start = new ConversationControlMessage();
+        start.setSourceLang("en-US");
+        start.setTargetLang("es-ES");
+        service.startUtterance(session, start);
+        observer = observerCaptor.getValue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseExecutor.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void finalTranscriptOnSaturatedExecutorReportsBusyError() {
+        assertThatCode(() -> observer.onResponse(response("good morning", true, 0f))).doesNotThrowAnyException();
+
+        JsonNode error = awaitMessage("error");
+        assertThat(error.get("busy").asBoolean()).isTrue();
+        assertThat(error.get("segment").isNumber()).isTrue();
+        verify(googleCloudService, never()).translateText(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void rejectedSpeculativeTranslationResetsInFlightFlag() throws Exception {
+        assertThatCode(() -> observer.onResponse(response("good", false, 0.9f))).doesNotThrowAnyException();
+
+        awaitMessage("busy");
+        assertThat(session.getCurrentUtterance().getSpeculativeTranslationInFlight().get()).isFalse();
+
+        // Once the executor has room, the next stable partial is translated again
+        releaseExecutor.countDown();
+        when(googleCloudService.translateText(eq("good morning"), anyString(), anyString())).thenReturn("buenos días");
+        awaitIdleExecutor();
+        observer.onResponse(response("good morning", false, 0.9f));
+
+        JsonNode translation = awaitMessage("translation");
+        assertThat(translation.get("text").asText()).isEqualTo("buenos días");
+        assertThat(translation.get("final").asBoolean()).isFalse();
+    }
+
+    private static StreamingRecognizeResponse response(String transcript, boolean isFinal, float stability) {
+        return StreamingRecognizeResponse.newBuilder()
+                .addResults(StreamingRecognitionResult.newBuilder()
+                        .addAlternatives(SpeechRecognitionAlternative.newBuilder().setTranscript(transcript))
+                        .setIsFinal(isFinal)
+                        .setStability(stability))
+                .build();
+    }
+
+    private JsonNode awaitMessage(String type) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            for (JsonNode message : sent) {
+                if (type.equals(message.get("type").asText())) {
+                    return message;
+                }
+            }
+            Thread.onSpinWait();
+        }
+        throw new AssertionError("No '" + type + "' message within 5s; sent: " + sent);
+    }
+
+    private void awaitIdleExecutor() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getActiveCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(executor.getActiveCount()).isZero();
+    }
+}
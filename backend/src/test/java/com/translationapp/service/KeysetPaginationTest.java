@@ -0,0 +1,166 @@
+package com.translationapp.service;
+
+import com.translationapp.PostgresIntegrationTest;
+import com.translationapp.model.InputType;
+import com.translationapp.model.SavedItem;
+import com.translationapp.model.SavedItemCategory;
+import com.translationapp.model.Translation;
+import com.translationapp.model.User;
+import com.translationapp.repository.KeysetCursor;
+import com.translationapp.repository.SavedItemRepository;
+import com.translationapp.repository.TranslationJdbcRepository;
+import com.translationapp.repository.TranslationRepository;
+import com.translationapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Paging through rows that share a timestamp must return each row exactly once, in (timestamp, id) order.
+// History is ordered by last_used_at, saved items by created_at.
+class KeysetPaginationTest extends PostgresIntegrationTest {
+
+    private static final LocalDateTime TIE = LocalDateTime.of(2026, 5, 1, 10, 30, 15, 123_456_000);
+    private static final int PAGE_SIZE = 2;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private TranslationJdbcRepository translationJdbcRepository;
+    @Autowired
+    private TranslationRepository translationRepository;
+    @Autowired
+    private SavedItemRepository savedItemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TranslationPersistenceService translationPersistenceService;
+    @Autowired
+    private SavedItemService savedItemService;
+    @Autowired
+    private TranslationHistoryWriter historyWriter;
+
+    @Test
+    void historyPagesThroughTiedRowsWithoutSkipsOrRepeats() {
+        User user = createUser();
+        List<Translation> rows = insertTranslations(user);
+
+        List<UUID> paged = pageThrough(cursor -> translationPersistenceService.getTranslationHistory(user.getId(), cursor, PAGE_SIZE),
+                KeysetCursor::of, Translation::getId);
+
+        assertThat(paged).containsExactlyElementsOf(expectedOrder(rows, Translation::getLastUsedAt, Translation::getId));
+    }
+
+    @Test
+    void tagListingPagesThroughTiedRowsWithoutSkipsOrRepeats() {
+        User user = createUser();
+        List<Translation> rows = insertTranslations(user);
+
+        List<UUID> paged = pageThrough(cursor -> translationPersistenceService.getTranslationHistoryByTag(user.getId(), "travel", cursor, PAGE_SIZE),
+                KeysetCursor::of, Translation::getId);
+
+        assertThat(paged).containsExactlyElementsOf(expectedOrder(rows, Translation::getLastUsedAt, Translation::getId));
+    }
+
+    @Test
+    void savedItemsPageThroughTiedRowsWithoutSkipsOrRepeats() {
+        User user = createUser();
+        List<Translation> translations = insertTranslations(user);
+        List<SavedItem> items = new TransactionTemplate(transactionManager).execute(status -> {
+            List<SavedItem> saved = new ArrayList<>();
+            for (Translation translation : translations) {
+                SavedItem item = new SavedItem(userRepository.getReferenceById(user.getId()),
+                        translationRepository.getReferenceById(translation.getId()), SavedItemCategory.PHRASE, null,
+                        translation.getSourceText(), null);
+                item.setCreatedAt(translation.getCreatedAt());
+                saved.add(savedItemRepository.save(item));
+            }
+            return saved;
+        });
+
+        List<UUID> paged = pageThrough(cursor -> savedItemService.getSavedItems(user.getId(), null, null, cursor, PAGE_SIZE),
+                KeysetCursor::of, SavedItem::getId);
+
+        assertThat(paged).containsExactlyElementsOf(expectedOrder(items, SavedItem::getCreatedAt, SavedItem::getId));
+    }
+
+    @Test
+    void repeatedTranslationMergesIntoOneRowAtTheTopOfHistory() {
+        User user = createUser();
+        Translation first = translationPersistenceService.saveTranslation(user.getId(), "good morning", "buenos días",
+                "en", "es", InputType.TEXT, List.of());
+        historyWriter.flush();
+        Translation other = translationPersistenceService.saveTranslation(user.getId(), "good night", "buenas noches",
+                "en", "es", InputType.TEXT, List.of());
+        historyWriter.flush();
+        LocalDateTime originalCreatedAt = translationRepository.findById(first.getId()).orElseThrow().getCreatedAt();
+
+        Translation repeat = translationPersistenceService.saveTranslation(user.getId(), "good morning", "buenos días",
+                "en", "es", InputType.TEXT, List.of());
+        historyWriter.flush();
+
+        assertThat(repeat.getId()).isEqualTo(first.getId());
+        List<Translation> history = translationPersistenceService.getTranslationHistory(user.getId(), null, 10).getContent();
+        assertThat(history).extracting(Translation::getId).containsExactly(first.getId(), other.getId());
+        Translation merged = history.get(0);
+        assertThat(merged.getUseCount()).isEqualTo(2);
+        assertThat(merged.getCreatedAt()).isEqualTo(originalCreatedAt).isBefore(history.get(1).getCreatedAt());
+        assertThat(merged.getLastUsedAt()).isAfter(history.get(1).getLastUsedAt());
+        // The offset listing uses the same order
+        assertThat(translationPersistenceService.getTranslationHistory(user.getId(), 0, 10).getContent())
+                .extracting(Translation::getId).containsExactly(first.getId(), other.getId());
+    }
+
+    // Five rows on the same timestamp, one before and one after it
+    private List<Translation> insertTranslations(User user) {
+        List<Translation> rows = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Translation translation = new Translation(user, "phrase " + i, "frase " + i, "en", "es", InputType.TEXT);
+            LocalDateTime at = i == 5 ? TIE.plusSeconds(1) : i == 6 ? TIE.minusSeconds(1) : TIE;
+            translation.setCreatedAt(at);
+            translation.setLastUsedAt(at);
+            translation.setTags(List.of("travel"));
+            rows.add(translation);
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> translationJdbcRepository.upsert(rows));
+        return rows;
+    }
+
+    private static <T> List<UUID> pageThrough(Function<String, Slice<T>> fetch, Function<T, String> cursorOf,
+                                              Function<T, UUID> idOf) {
+        List<UUID> ids = new ArrayList<>();
+        String cursor = null;
+        Slice<T> slice;
+        do {
+            slice = fetch.apply(cursor);
+            assertThat(slice.getNumberOfElements()).isLessThanOrEqualTo(PAGE_SIZE);
+            slice.getContent().forEach(row -> ids.add(idOf.apply(row)));
+            cursor = slice.hasNext() ? cursorOf.apply(slice.getContent().get(slice.getNumberOfElements() - 1)) : null;
+        } while (cursor != null);
+        return ids;
+    }
+
+    // Postgres orders uuids as unsigned bytes, which is the order of their canonical string form
+    private static <T> List<UUID> expectedOrder(List<T> rows, Function<T, LocalDateTime> timestampOf,
+                                                Function<T, UUID> idOf) {
+        return rows.stream()
+                .sorted(Comparator.comparing(timestampOf).thenComparing(row -> idOf.apply(row).toString()).reversed())
+                .map(idOf)
+                .toList();
+    }
+
+    private User createUser() {
+        String name = "pager-" + UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(new User(name, name + "@example.com", "not-a-real-hash"));
+    }
+}
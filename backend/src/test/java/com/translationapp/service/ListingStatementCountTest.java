@@ -0,0 +1,142 @@
+package com.translationapp.service;
+
+import com.translationapp.PostgresIntegrationTest;
+import com.translationapp.dto.SavedItemResponseDto;
+import com.translationapp.dto.TranslationResponseDto;
+import com.translationapp.model.Folder;
+import com.translationapp.model.InputType;
+import com.translationapp.model.SavedItem;
+import com.translationapp.model.SavedItemCategory;
+import com.translationapp.model.Translation;
+import com.translationapp.model.User;
+import com.translationapp.repository.FolderRepository;
+import com.translationapp.repository.SavedItemRepository;
+import com.translationapp.repository.TranslationJdbcRepository;
+import com.translationapp.repository.TranslationRepository;
+import com.translationapp.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A listing page costs the same number of statements however many rows it renders
+class ListingStatementCountTest extends PostgresIntegrationTest {
+
+    private static final int ROWS = 30;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private TranslationJdbcRepository translationJdbcRepository;
+    @Autowired
+    private TranslationRepository translationRepository;
+    @Autowired
+    private SavedItemRepository savedItemRepository;
+    @Autowired
+    private FolderRepository folderRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TranslationPersistenceService translationPersistenceService;
+    @Autowired
+    private SavedItemService savedItemService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String name = "counter-" + UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(new User(name, name + "@example.com", "not-a-real-hash"));
+        List<Translation> translations = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Translation translation = new Translation(user, "phrase " + i, "frase " + i, "en", "es", InputType.TEXT);
+            translation.setTags(List.of("travel"));
+            translations.add(translation);
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> translationJdbcRepository.upsert(translations));
+        // Half the items sit in folders, so the page has to render folder names too
+        transaction.executeWithoutResult(status -> {
+            User owner = userRepository.getReferenceById(user.getId());
+            Folder first = folderRepository.save(new Folder(owner, "first", null));
+            Folder second = folderRepository.save(new Folder(owner, "second", null));
+            for (int i = 0; i < ROWS; i++) {
+                Folder folder = i % 2 == 0 ? null : i % 4 == 1 ? first : second;
+                savedItemRepository.save(new SavedItem(owner, translationRepository.getReferenceById(translations.get(i).getId()),
+                        SavedItemCategory.PHRASE, folder, "item " + i, null));
+            }
+        });
+    }
+
+    @Test
+    void historyPageIsOneStatement() {
+        assertThat(statementsFor(5, size -> translationPersistenceService.getTranslationHistory(user.getId(), null, size)
+                .map(TranslationResponseDto::fromEntity).getContent())).isEqualTo(1);
+        assertThat(statementsFor(20, size -> translationPersistenceService.getTranslationHistory(user.getId(), null, size)
+                .map(TranslationResponseDto::fromEntity).getContent())).isEqualTo(1);
+    }
+
+    @Test
+    void tagPageIsOneStatement() {
+        assertThat(statementsFor(5, size -> translationPersistenceService.getTranslationHistoryByTag(user.getId(), "travel", null, size)
+                .map(TranslationResponseDto::fromEntity).getContent())).isEqualTo(1);
+        assertThat(statementsFor(20, size -> translationPersistenceService.getTranslationHistoryByTag(user.getId(), "travel", null, size)
+                .map(TranslationResponseDto::fromEntity).getContent())).isEqualTo(1);
+    }
+
+    @Test
+    void offsetHistoryPageIsSelectPlusCount() {
+        assertThat(statementsFor(5, size -> translationPersistenceService.getTranslationHistory(user.getId(), 0, size)
+                .map(TranslationResponseDto::fromEntity).getContent())).isEqualTo(2);
+        assertThat(statementsFor(20, size -> translationPersistenceService.getTranslationHistory(user.getId(), 0, size)
+                .map(TranslationResponseDto::fromEntity).getContent())).isEqualTo(2);
+    }
+
+    @Test
+    void savedItemPageIsOneStatement() {
+        assertThat(statementsFor(5, size -> savedItemService.getSavedItems(user.getId(), null, null, null, size)
+                .map(SavedItemResponseDto::fromEntity).getContent())).isEqualTo(1);
+        assertThat(statementsFor(20, size -> savedItemService.getSavedItems(user.getId(), null, null, null, size)
+                .map(SavedItemResponseDto::fromEntity).getContent())).isEqualTo(1);
+    }
+
+    @Test
+    void offsetSavedItemPageIsSelectPlusCount() {
+        assertThat(statementsFor(5, size -> savedItemService.getSavedItems(user.getId(), null, null,
+                PageRequest.of(0, size, Sort.by("createdAt").descending())).map(SavedItemResponseDto::fromEntity).getContent()))
+                .isEqualTo(2);
+        assertThat(statementsFor(20, size -> savedItemService.getSavedItems(user.getId(), null, null,
+                PageRequest.of(0, size, Sort.by("createdAt").descending())).map(SavedItemResponseDto::fromEntity).getContent()))
+                .isEqualTo(2);
+    }
+
+    // Renders the page inside one transaction, so any lazy load the DTOs trigger is counted rather than failing
+    private long statementsFor(int size, PageRenderer renderer) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // A warm second-level cache would hide per-row loads
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        List<?> rendered = new TransactionTemplate(transactionManager).execute(status -> renderer.render(size));
+        assertThat(rendered).hasSize(size);
+        return statistics.getPrepareStatementCount();
+    }
+
+    @FunctionalInterface
+    private interface PageRenderer {
+        List<?> render(int size);
+    }
+}
@@ -0,0 +1,77 @@
+package com.translationapp.service;
+
+import com.translationapp.audio.AudioNormalizer;
+import com.translationapp.audio.AudioSegmenter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SpeechRecognitionServiceTest {
+
+    // One second of 16 kHz mono L16 silence; the content does not matter to a mocked recognizer
+    private static final byte[] CLIP = new byte[32000];
+    private static final String L16 = "audio/L16;rate=16000";
+
+    private GoogleCloudService googleCloudService;
+    private SpeechRecognitionService service;
+
+    @BeforeEach
+    void setUp() {
+        googleCloudService = mock(GoogleCloudService.class);
+        service = new SpeechRecognitionService(googleCloudService, new AudioNormalizer(), new AudioSegmenter(300, 20, 50),
+                new SyncTaskExecutor(), new SimpleMeterRegistry(), 100, 60);
+        ReflectionTestUtils.setField(service, "syncMaxSeconds", 55);
+    }
+
+    @Test
+    void repeatedClipIsRecognizedOnce() throws Exception {
+        when(googleCloudService.recognize(any(), eq("en-US"))).thenReturn("hello");
+
+        assertThat(service.transcribe(CLIP, "en-US", L16)).isEqualTo("hello");
+        assertThat(service.transcribe(CLIP, "en-US", L16)).isEqualTo("hello");
+
+        verify(googleCloudService, times(1)).recognize(any(), eq("en-US"));
+    }
+
+    @Test
+    void checkedExceptionFromRecognizerIsNotLeftPending() {
+        // Mockito's thenThrow refuses checked exceptions the method does not declare; an Answer can still throw one
+        when(googleCloudService.recognize(any(), eq("en-US")))
+                .thenAnswer(invocation -> {
+                    throw new IOException("connection reset");
+                })
+                .thenReturn("hello");
+
+        assertThatThrownBy(() -> service.transcribe(CLIP, "en-US", L16)).isInstanceOf(IOException.class);
+        String retried = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> service.transcribe(CLIP, "en-US", L16));
+
+        assertThat(retried).isEqualTo("hello");
+    }
+
+    @Test
+    void errorFromRecognizerIsNotLeftPending() {
+        when(googleCloudService.recognize(any(), eq("en-US")))
+                .thenThrow(new NoClassDefFoundError("com/google/protobuf/Something"))
+                .thenReturn("hello");
+
+        assertThatThrownBy(() -> service.transcribe(CLIP, "en-US", L16)).isInstanceOf(NoClassDefFoundError.class);
+        String retried = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> service.transcribe(CLIP, "en-US", L16));
+
+        assertThat(retried).isEqualTo("hello");
+    }
+}
@@ -0,0 +1,106 @@
+package com.translationapp.service;
+
+import com.translationapp.PostgresIntegrationTest;
+import com.translationapp.dto.SyncPushResultDto;
+import com.translationapp.dto.SyncRequest;
+import com.translationapp.dto.SyncResponse;
+import com.translationapp.dto.SyncTranslationRequest;
+import com.translationapp.model.InputType;
+import com.translationapp.model.Translation;
+import com.translationapp.model.User;
+import com.translationapp.repository.TranslationRepository;
+import com.translationapp.repository.UserRepository;
+import com.translationapp.repository.UserStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A client that lost the response to a push sends the same batch again; it must not be applied twice
+class SyncPushIdempotencyTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private SyncService syncService;
+    @Autowired
+    private TranslationRepository translationRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+    @Autowired
+    private UserStatsAccumulator userStatsAccumulator;
+
+    @Test
+    void repeatedPushLeavesUseCountAndStatsUnchanged() {
+        User user = createUser();
+        SyncRequest batch = batch(
+                translation("c1", "good morning", "buenos días", false),
+                translation("c2", "thank you", "gracias", true));
+
+        SyncResponse first = syncService.sync(user.getId(), batch, 100);
+        Map<String, Integer> useCounts = useCounts(user);
+        Map<String, Long> counters = counters(user);
+
+        SyncResponse repeat = syncService.sync(user.getId(), batch, 100);
+
+        assertThat(repeat.getPushed()).extracting(SyncPushResultDto::getStatus).containsOnly("APPLIED");
+        assertThat(repeat.getPushed()).extracting(SyncPushResultDto::getId)
+                .containsExactlyElementsOf(first.getPushed().stream().map(SyncPushResultDto::getId).toList());
+        assertThat(useCounts(user)).isEqualTo(useCounts).containsValues(1, 1);
+        assertThat(counters(user)).isEqualTo(counters).containsEntry("TOTAL|", 2L).containsEntry("FAVORITES|", 1L);
+    }
+
+    @Test
+    void sameTranslationUnderANewClientIdIsAppliedAgain() {
+        User user = createUser();
+        syncService.sync(user.getId(), batch(translation("c1", "good morning", "buenos días", false)), 100);
+
+        // Made offline a second time, e.g. on another device: a new use, not a retry
+        syncService.sync(user.getId(), batch(translation("c9", "good morning", "buenos días", false)), 100);
+
+        assertThat(useCounts(user)).containsExactly(Map.entry("good morning", 2));
+        assertThat(counters(user)).containsEntry("TOTAL|", 2L);
+    }
+
+    private Map<String, Integer> useCounts(User user) {
+        return translationRepository.findAll().stream()
+                .filter(t -> t.getUser().getId().equals(user.getId()))
+                .collect(Collectors.toMap(Translation::getSourceText, Translation::getUseCount));
+    }
+
+    private Map<String, Long> counters(User user) {
+        userStatsAccumulator.flush(); // the FAVORITES recount a favorite push asks for
+        return userStatsRepository.findByUserId(user.getId(), "0000-01-01").stream()
+                .collect(Collectors.toMap(c -> c.getDimension() + "|" + c.getKey(), UserStatsRepository.Counter::getCount));
+    }
+
+    private static SyncRequest batch(SyncTranslationRequest... translations) {
+        SyncRequest request = new SyncRequest();
+        request.setTranslations(List.of(translations));
+        return request;
+    }
+
+    private static SyncTranslationRequest translation(String clientId, String sourceText, String targetText, boolean favorite) {
+        SyncTranslationRequest item = new SyncTranslationRequest();
+        item.setClientId(clientId);
+        item.setSourceText(sourceText);
+        item.setTargetText(targetText);
+        item.setSourceLang("en");
+        item.setTargetLang("es");
+        item.setInputType(InputType.TEXT);
+        item.setFavorite(favorite);
+        item.setCreatedAt(LocalDateTime.now().minusHours(1));
+        return item;
+    }
+
+    private User createUser() {
+        String name = "sync-" + UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(new User(name, name + "@example.com", "not-a-real-hash"));
+    }
+}
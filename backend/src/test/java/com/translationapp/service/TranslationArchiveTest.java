@@ -0,0 +1,105 @@
+package com.translationapp.service;
+
+import com.translationapp.PostgresIntegrationTest;
+import com.translationapp.dto.ArchiveMonthDto;
+import com.translationapp.dto.TranslationResponseDto;
+import com.translationapp.model.InputType;
+import com.translationapp.model.Translation;
+import com.translationapp.model.User;
+import com.translationapp.repository.TranslationJdbcRepository;
+import com.translationapp.repository.TranslationRepository;
+import com.translationapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Rows unused for hot-months move out of translations into the archive, where they stay listable per month
+class TranslationArchiveTest extends PostgresIntegrationTest {
+
+    // Well past the 3 hot months, and far enough from the month boundary for a second row in the same month
+    private static final YearMonth COLD_MONTH = YearMonth.now().minusMonths(5);
+
+    @Autowired
+    private TranslationArchiveJob archiveJob;
+    @Autowired
+    private TranslationArchiveService archiveService;
+    @Autowired
+    private TranslationJdbcRepository translationJdbcRepository;
+    @Autowired
+    private TranslationRepository translationRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void coldRowsMoveToTheArchiveWithoutSyncTombstones() {
+        User user = createUser();
+        Translation cold = row(user, "good morning", COLD_MONTH.atDay(2).atTime(9, 0));
+        Translation alsoCold = row(user, "good night", COLD_MONTH.atDay(3).atTime(21, 0));
+        Translation hot = row(user, "thank you", LocalDateTime.now().minusDays(1));
+        upsert(cold, alsoCold, hot);
+
+        archiveJob.archiveColdRows();
+
+        assertThat(translationRepository.existsById(cold.getId())).isFalse();
+        assertThat(translationRepository.existsById(alsoCold.getId())).isFalse();
+        assertThat(translationRepository.existsById(hot.getId())).isTrue();
+        // Still history, so clients must not be told they were deleted
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sync_tombstones WHERE entity_id IN (:ids)",
+                new MapSqlParameterSource("ids", List.of(cold.getId(), alsoCold.getId())), Long.class)).isZero();
+
+        assertThat(archiveService.getArchivedMonths(user.getId())).extracting(ArchiveMonthDto::getMonth)
+                .containsExactly(COLD_MONTH.toString());
+        assertThat(archiveService.getArchivedMonth(user.getId(), COLD_MONTH)).extracting(TranslationResponseDto::getId)
+                .containsExactly(alsoCold.getId().toString(), cold.getId().toString());
+    }
+
+    @Test
+    void retranslatedArchivedTextIsListedOnce() {
+        User user = createUser();
+        Translation first = row(user, "good morning", COLD_MONTH.atDay(2).atTime(9, 0));
+        upsert(first);
+        archiveJob.archiveColdRows();
+
+        // Made again later (same content, so the same id) and then left unused long enough to be archived too
+        Translation again = row(user, "good morning", COLD_MONTH.atDay(20).atTime(9, 0));
+        assertThat(again.getId()).isEqualTo(first.getId());
+        upsert(again);
+        archiveJob.archiveColdRows();
+
+        List<TranslationResponseDto> archived = archiveService.getArchivedMonth(user.getId(), COLD_MONTH);
+        assertThat(archived).extracting(TranslationResponseDto::getId).containsExactly(first.getId().toString());
+        assertThat(archived.get(0).getUseCount()).isEqualTo(2);
+        assertThat(archived.get(0).getCreatedAt()).isEqualTo(first.getCreatedAt());
+        assertThat(translationRepository.existsById(first.getId())).isFalse();
+    }
+
+    private void upsert(Translation... rows) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> translationJdbcRepository.upsert(List.of(rows)));
+    }
+
+    private static Translation row(User user, String sourceText, LocalDateTime at) {
+        Translation translation = new Translation(user, sourceText, "(" + sourceText + ")", "en", "es", InputType.TEXT);
+        translation.setCreatedAt(at);
+        translation.setLastUsedAt(at);
+        return translation;
+    }
+
+    private User createUser() {
+        String name = "archiver-" + UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(new User(name, name + "@example.com", "not-a-real-hash"));
+    }
+}
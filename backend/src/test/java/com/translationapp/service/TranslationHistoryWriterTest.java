@@ -0,0 +1,171 @@
+package com.translationapp.service;
+
+import com.translationapp.PostgresIntegrationTest;
+import com.translationapp.datasource.RecentWriteTracker;
+import com.translationapp.dto.SavedItemCreateRequest;
+import com.translationapp.model.InputType;
+import com.translationapp.model.SavedItemCategory;
+import com.translationapp.model.Translation;
+import com.translationapp.model.User;
+import com.translationapp.repository.FolderRepository;
+import com.translationapp.repository.SavedItemJdbcRepository;
+import com.translationapp.repository.SavedItemRepository;
+import com.translationapp.repository.TranslationJdbcRepository;
+import com.translationapp.repository.TranslationRepository;
+import com.translationapp.repository.UserRepository;
+import com.translationapp.repository.UserStatsRepository;
+import com.translationapp.search.SearchIndex;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Each test drives its own writer with no background thread, so rows stay queued until the test flushes them
+class TranslationHistoryWriterTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private TranslationJdbcRepository translationJdbcRepository;
+    @Autowired
+    private SearchIndex searchIndex;
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+    @Autowired
+    private RecentWriteTracker recentWriteTracker;
+    @Autowired
+    private TranslationRepository translationRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private SavedItemRepository savedItemRepository;
+    @Autowired
+    private SavedItemJdbcRepository savedItemJdbcRepository;
+    @Autowired
+    private FolderRepository folderRepository;
+    @Autowired
+    private UserStatsAccumulator userStatsAccumulator;
+
+    private TranslationHistoryWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new TranslationHistoryWriter(transactionManager, translationJdbcRepository, searchIndex,
+                userStatsRepository, recentWriteTracker, true, 100, 50, 200);
+        writer.startWithoutWriterThread();
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.stop();
+    }
+
+    @Test
+    void flushIfPendingMakesQueuedRowVisibleToTheCaller() {
+        User user = createUser();
+        Translation translation = translation(user, "good morning");
+        writer.submit(translation);
+
+        assertThat(translationRepository.existsById(translation.getId())).isFalse();
+        assertThat(writer.findPending(translation.getId())).isSameAs(translation);
+
+        // As a service method does it: flush first, then read in its own transaction
+        Optional<Translation> found = new TransactionTemplate(transactionManager).execute(status -> {
+            writer.flushIfPending(translation.getId());
+            return translationRepository.findByIdAndUser_Id(translation.getId(), user.getId());
+        });
+
+        assertThat(found).isPresent();
+        assertThat(writer.findPending(translation.getId())).isNull();
+    }
+
+    @Test
+    void flushIfPendingIgnoresRowsNotQueued() {
+        User user = createUser();
+        Translation queued = translation(user, "still queued");
+        writer.submit(queued);
+
+        writer.flushIfPending(UUID.randomUUID());
+
+        assertThat(translationRepository.existsById(queued.getId())).isFalse();
+    }
+
+    @Test
+    void stopFlushesQueuedRows() {
+        User user = createUser();
+        Translation first = translation(user, "one");
+        Translation second = translation(user, "two");
+        writer.submit(first);
+        writer.submit(second);
+
+        writer.stop();
+
+        assertThat(translationRepository.existsById(first.getId())).isTrue();
+        assertThat(translationRepository.existsById(second.getId())).isTrue();
+    }
+
+    @Test
+    void poisonRowDoesNotDropItsBatchSiblings() {
+        User user = createUser();
+        // Never persisted, like a user deleted while their row was queued: the insert fails on the foreign key
+        User deleted = new User("deleted", "deleted@example.com", "x");
+        deleted.setId(UUID.randomUUID());
+        Translation before = translation(user, "before");
+        Translation poison = translation(deleted, "orphan");
+        Translation after = translation(user, "after");
+        writer.submit(before);
+        writer.submit(poison);
+        writer.submit(after);
+
+        writer.flush();
+
+        assertThat(translationRepository.existsById(before.getId())).isTrue();
+        assertThat(translationRepository.existsById(after.getId())).isTrue();
+        assertThat(translationRepository.existsById(poison.getId())).isFalse();
+        assertThat(writer.findPending(poison.getId())).isNull();
+    }
+
+    @Test
+    void rolledBackCallerDoesNotTakeOtherUsersQueuedRowsWithIt() {
+        User caller = createUser();
+        User other = createUser();
+        Translation callers = translation(caller, "to be saved");
+        Translation others = translation(other, "someone else's");
+        writer.submit(callers);
+        writer.submit(others);
+
+        SavedItemService savedItemService = new SavedItemService(savedItemRepository, savedItemJdbcRepository,
+                userRepository, translationRepository, folderRepository, writer, searchIndex, userStatsAccumulator);
+        SavedItemCreateRequest request = new SavedItemCreateRequest();
+        request.setTranslationId(callers.getId());
+        request.setCategory(SavedItemCategory.PHRASE);
+        request.setFolderId(UUID.randomUUID()); // no such folder: fails after the flush and rolls back
+
+        // The transaction @Transactional would open around createSavedItem
+        assertThatThrownBy(() -> new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> savedItemService.createSavedItem(caller.getId(), request)))
+                .isInstanceOf(EntityNotFoundException.class);
+
+        assertThat(translationRepository.existsById(others.getId())).isTrue();
+        assertThat(translationRepository.existsById(callers.getId())).isTrue();
+        assertThat(savedItemRepository.existsByUser_IdAndTranslation_Id(caller.getId(), callers.getId())).isFalse();
+    }
+
+    private User createUser() {
+        String name = "writer-" + UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(new User(name, name + "@example.com", "not-a-real-hash"));
+    }
+
+    private static Translation translation(User user, String sourceText) {
+        return new Translation(user, sourceText, sourceText.toUpperCase(), "en", "es", InputType.TEXT);
+    }
+}
@@ -0,0 +1,189 @@
+package com.translationapp.service;
+
+import com.translationapp.PostgresIntegrationTest;
+import com.translationapp.model.InputType;
+import com.translationapp.model.StatDimension;
+import com.translationapp.model.Translation;
+import com.translationapp.model.User;
+import com.translationapp.repository.TranslationArchiveRepository;
+import com.translationapp.repository.TranslationJdbcRepository;
+import com.translationapp.repository.UserRepository;
+import com.translationapp.repository.UserStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The counters behind /api/stats: usage written with the history rows, FAVORITES and SAVED through
+// UserStatsAccumulator, the reconcile job, and the V9 backfill
+class UserStatsCountersTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TranslationPersistenceService translationPersistenceService;
+    @Autowired
+    private TranslationHistoryWriter historyWriter;
+    @Autowired
+    private UserStatsAccumulator userStatsAccumulator;
+    @Autowired
+    private UserStatsReconcileJob userStatsReconcileJob;
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+    @Autowired
+    private TranslationJdbcRepository translationJdbcRepository;
+    @Autowired
+    private TranslationArchiveRepository archiveRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void historyFlushCountsEveryUse() {
+        User user = createUser();
+        translate(user, "good morning", InputType.TEXT);
+        translate(user, "good morning", InputType.TEXT); // a repeat is a use too
+        translate(user, "thank you", InputType.SPEECH);
+        historyWriter.flush();
+
+        String today = LocalDate.now().toString();
+        assertThat(counters(user)).containsOnly(
+                Map.entry("TOTAL|", 3L),
+                Map.entry("LANGUAGE_PAIR|en|es", 3L),
+                Map.entry("INPUT_TYPE|TEXT", 2L),
+                Map.entry("INPUT_TYPE|SPEECH", 1L),
+                Map.entry("DAY|" + today, 3L));
+    }
+
+    @Test
+    void favoriteTogglesAreCountedOnFlush() {
+        User user = createUser();
+        Translation first = translate(user, "good morning", InputType.TEXT);
+        Translation second = translate(user, "thank you", InputType.TEXT);
+        historyWriter.flush();
+
+        translationPersistenceService.toggleFavorite(first.getId(), user.getId());
+        translationPersistenceService.toggleFavorite(second.getId(), user.getId());
+        userStatsAccumulator.flush();
+        assertThat(counters(user)).containsEntry("FAVORITES|", 2L);
+
+        translationPersistenceService.toggleFavorite(second.getId(), user.getId());
+        userStatsAccumulator.flush();
+        assertThat(counters(user)).containsEntry("FAVORITES|", 1L);
+    }
+
+    @Test
+    void recountSupersedesPendingDeltasForTheSameUserOnly() {
+        User user = createUser();
+        User other = createUser();
+        Translation translation = translate(user, "good morning", InputType.TEXT);
+        historyWriter.flush();
+        translationPersistenceService.toggleFavorite(translation.getId(), user.getId());
+        userStatsAccumulator.flush();
+
+        // A delta that does not match the rows, then a recount of that user: the recount already reflects every
+        // committed change, so adding the delta on top would count it twice
+        userStatsAccumulator.add(user.getId(), StatDimension.FAVORITES, 5);
+        userStatsAccumulator.recount(user.getId());
+        userStatsAccumulator.add(other.getId(), StatDimension.SAVED, 2);
+        userStatsAccumulator.flush();
+
+        assertThat(counters(user)).containsEntry("FAVORITES|", 1L).containsEntry("SAVED|", 0L);
+        assertThat(counters(other)).containsEntry("SAVED|", 2L);
+    }
+
+    @Test
+    void reconcileJobFixesCorruptedCounters() {
+        User user = createUser();
+        Translation translation = translate(user, "good morning", InputType.TEXT);
+        historyWriter.flush();
+        translationPersistenceService.toggleFavorite(translation.getId(), user.getId());
+        userStatsAccumulator.flush();
+        jdbcTemplate.update("UPDATE user_stat_counters SET count = 42 WHERE user_id = :userId",
+                new MapSqlParameterSource("userId", user.getId()));
+
+        userStatsReconcileJob.run();
+
+        Map<String, Long> counters = counters(user);
+        assertThat(counters).containsEntry("FAVORITES|", 1L).containsEntry("SAVED|", 0L);
+        // Usage counters are not recounted: they cannot drift, and history may have been deleted since
+        assertThat(counters).containsEntry("TOTAL|", 42L);
+    }
+
+    @Test
+    void v9BackfillCountsHotAndArchivedHistory() throws Exception {
+        User user = createUser();
+        LocalDateTime fiveMonthsAgo = LocalDateTime.now().minusMonths(5).withNano(0);
+        Translation archived = row(user, "good night", InputType.TEXT, fiveMonthsAgo, 2, false);
+        Translation hot = row(user, "good morning", InputType.SPEECH, fiveMonthsAgo.plusDays(1), 3, true);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            translationJdbcRepository.upsert(List.of(archived, hot));
+            archiveRepository.createPartitionIfMissing(YearMonth.from(fiveMonthsAgo));
+            archiveRepository.moveToArchive(List.of(archived.getId()), LocalDateTime.now());
+        });
+        // upsert alone writes no counters; start from none at all, as before V9
+        jdbcTemplate.update("DELETE FROM user_stat_counters WHERE user_id = :userId",
+                new MapSqlParameterSource("userId", user.getId()));
+
+        jdbcTemplate.getJdbcOperations().execute(v9Backfill());
+
+        assertThat(counters(user)).containsOnly(
+                Map.entry("TOTAL|", 5L),
+                Map.entry("LANGUAGE_PAIR|en|es", 5L),
+                Map.entry("INPUT_TYPE|TEXT", 2L),
+                Map.entry("INPUT_TYPE|SPEECH", 3L),
+                Map.entry("DAY|" + fiveMonthsAgo.toLocalDate(), 2L),
+                Map.entry("DAY|" + fiveMonthsAgo.toLocalDate().plusDays(1), 3L),
+                Map.entry("FAVORITES|", 1L),
+                Map.entry("SAVED|", 0L));
+    }
+
+    // The backfill statements of V9, which only insert counters that do not exist yet
+    private static String v9Backfill() throws Exception {
+        String script = new ClassPathResource("db/migration/V9__user_stat_counters.sql")
+                .getContentAsString(StandardCharsets.UTF_8);
+        int start = script.indexOf("-- Backfill");
+        assertThat(start).isPositive();
+        return script.substring(start);
+    }
+
+    private static Translation row(User user, String sourceText, InputType inputType, LocalDateTime at, int useCount,
+                                   boolean favorite) {
+        Translation translation = new Translation(user, sourceText, "(" + sourceText + ")", "en", "es", inputType);
+        translation.setCreatedAt(at);
+        translation.setLastUsedAt(at);
+        translation.setUseCount(useCount);
+        translation.setFavorite(favorite);
+        return translation;
+    }
+
+    private Translation translate(User user, String sourceText, InputType inputType) {
+        return translationPersistenceService.saveTranslation(user.getId(), sourceText, "(" + sourceText + ")",
+                "en", "es", inputType, List.of());
+    }
+
+    private Map<String, Long> counters(User user) {
+        return userStatsRepository.findByUserId(user.getId(), "0000-01-01").stream()
+                .collect(Collectors.toMap(c -> c.getDimension() + "|" + c.getKey(), UserStatsRepository.Counter::getCount));
+    }
+
+    private User createUser() {
+        String name = "stats-" + UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(new User(name, name + "@example.com", "not-a-real-hash"));
+    }
+}
@@ -18,7 +18,7 @@ import {
   deleteTranslation as apiDeleteTranslation,
   toggleFavoriteTranslation as apiToggleFavorite,
   TranslationResponse as ApiTranslationResponse,
-  Page,
+  CursorPage,
 } from "../services/apiService";
 import {
   getTranslationHistory,
@@ -66,7 +66,7 @@ const HistoryScreen: React.FC = () => {
     translatedText: apiItem.targetText,
     sourceLang: apiItem.sourceLang,
     targetLang: apiItem.targetLang,
-    timestamp: new Date(apiItem.createdAt).getTime(),
+    timestamp: new Date(apiItem.lastUsedAt ?? apiItem.createdAt).getTime(),
     isSaved: apiItem.isSaved ?? false,
     isFavorite: apiItem.isFavorite ?? false,
     inputType: apiItem.inputType || "text",
@@ -76,8 +76,8 @@ const HistoryScreen: React.FC = () => {
     setIsLoading(true);
     setError(null);
     try {
-      const response: Page<ApiTranslationResponse> = await apiGetTranslations(
-        0,
+      const response: CursorPage<ApiTranslationResponse> = await apiGetTranslations(
+        null,
         100
       );
       const apiHistory = response.content.map(mapApiToLocal);
@@ -35,6 +35,31 @@ apiClient.interceptors.request.use(
     }
 );
 
+// Last response per URL for the listings that support conditional GET. The server answers 304 without a body while
+// its ETag still matches, and the copy here is returned instead. Cleared whenever the token changes.
+const conditionalCache = new Map<string, { etag: string; data: any }>();
+
+const getConditional = async <T>(url: string, params: Record<string, any> = {}): Promise<T> => {
+    const query = Object.keys(params).sort().map((name) => `${name}=${encodeURIComponent(String(params[name]))}`).join('&');
+    const key = `${url}?${query}`;
+    const cached = conditionalCache.get(key);
+    const response = await apiClient.get<T>(url, {
+        params,
+        headers: cached ? { 'If-None-Match': cached.etag } : {},
+        validateStatus: (status) => (status >= 200 && status < 300) || status === 304,
+    });
+    if (response.status === 304 && cached) {
+        return cached.data as T;
+    }
+    const etag = response.headers['etag'];
+    if (etag) {
+        conditionalCache.set(key, { etag, data: response.data });
+    } else {
+        conditionalCache.delete(key);
+    }
+    return response.data;
+};
+
 // --- Auth Services ---
 export interface LoginRequest {
     usernameOrEmail: string;
@@ -74,6 +99,7 @@ export const signUp = async (userData: SignUpRequest): Promise<ApiResponse> => {
 
 export const logout = async (): Promise<void> => {
     authToken = null;
+    conditionalCache.clear();
     // TODO: Remove token from AsyncStorage
 };
 
@@ -140,6 +166,9 @@ export const speechToText = async (file: any, languageCode:string): Promise<ApiR
 
 // Helper to update auth token (e.g., after login)
 export const setAuthToken = (token: string | null) => {
+    if (token !== authToken) {
+        conditionalCache.clear();
+    }
     authToken = token;
 };
 
@@ -170,8 +199,7 @@ export interface UserProfileUpdateRequest {
 
 export const getUserProfile = async (): Promise<UserProfile> => {
     if (!authToken) throw new Error('No auth token available for getUserProfile');
-    const response = await apiClient.get<UserProfile>('/user/me');
-    return response.data;
+    return getConditional<UserProfile>('/user/me');
 };
 
 export const updateUserProfile = async (profileData: UserProfileUpdateRequest): Promise<UserProfile> => {
@@ -180,6 +208,13 @@ export const updateUserProfile = async (profileData: UserProfileUpdateRequest):
     return response.data;
 };
 
+// Signs out every device, this one included; the caller should clear its token and log in again
+export const revokeAllSessions = async (): Promise<ApiResponse> => {
+    if (!authToken) throw new Error('No auth token available for revokeAllSessions');
+    const response = await apiClient.post<ApiResponse>('/user/me/revoke-tokens');
+    return response.data;
+};
+
 // Enum for Speaker, matching backend (A or B)
 export enum Speaker {
     A = 'A',
@@ -193,6 +228,7 @@ export interface CreateTranslationPayload {
     sourceLang: string;
     targetLang: string;
     inputType: InputType;
+    tags?: string[];
 }
 
 export interface TranslationResponse {
@@ -204,8 +240,10 @@ export interface TranslationResponse {
     inputType: InputType;
     isFavorite: boolean;
     isSaved: boolean;
-    tags?: string | null;
+    tags?: string[] | null;
     createdAt: string; 
+    useCount?: number;
+    lastUsedAt?: string;
 }
 
 export interface Page<T> {
@@ -237,15 +275,51 @@ export interface Page<T> {
     empty: boolean;
 }
 
+// Keyset-paginated slice: pass nextCursor back to fetch the following page
+export interface CursorPage<T> {
+    content: T[];
+    nextCursor: string | null;
+    hasNext: boolean;
+    size: number;
+}
+
 export const createTranslation = async (payload: CreateTranslationPayload): Promise<TranslationResponse> => {
     if (!authToken) throw new Error('No auth token available');
     const response = await apiClient.post<TranslationResponse>('/translations', payload);
     return response.data;
 };
 
-export const getTranslations = async (page: number = 0, size: number = 20): Promise<Page<TranslationResponse>> => {
+export const getTranslations = async (cursor?: string | null, size: number = 20, tag?: string): Promise<CursorPage<TranslationResponse>> => {
     if (!authToken) throw new Error('No auth token available');
-    const response = await apiClient.get<Page<TranslationResponse>>(`/translations?page=${page}&size=${size}`);
+    const params: any = { size };
+    if (cursor) params.cursor = cursor;
+    if (tag) params.tag = tag;
+    return getConditional<CursorPage<TranslationResponse>>('/translations', params);
+};
+
+export interface ArchiveMonth {
+    month: string; // yyyy-MM
+    count: number;
+}
+
+export const getArchivedMonths = async (): Promise<ArchiveMonth[]> => {
+    if (!authToken) throw new Error('No auth token available');
+    const response = await apiClient.get<ArchiveMonth[]>('/translations/archive');
+    return response.data;
+};
+
+export const getArchivedTranslations = async (month: string): Promise<TranslationResponse[]> => {
+    if (!authToken) throw new Error('No auth token available');
+    const response = await apiClient.get<TranslationResponse[]>(`/translations/archive/${month}`);
+    return response.data;
+};
+
+export type ExportFormat = 'ndjson' | 'csv';
+
+// Full export as raw file contents (NDJSON: one JSON object per line), e.g. for sharing or saving to a file
+export const exportData = async (what: 'translations' | 'saved-items', format: ExportFormat = 'ndjson'): Promise<string> => {
+    if (!authToken) throw new Error('No auth token available');
+    const response = await apiClient.get<string>(`/export/${what}`, { params: { format }, responseType: 'text' });
     return response.data;
 };
 
@@ -261,6 +335,41 @@ export const toggleFavoriteTranslation = async (id: string): Promise<Translation
     return response.data;
 };
 
+// --- Bulk Services (up to 500 ids per call) ---
+export interface BulkItemResult {
+    id: string;
+    status: 'OK' | 'NOT_FOUND' | 'IN_USE';
+    message?: string | null;
+}
+
+export interface BulkOperationResponse {
+    results: BulkItemResult[];
+    succeeded: number;
+}
+
+export interface BulkGetResponse<T> {
+    items: T[];
+    notFound: string[];
+}
+
+export const bulkGetTranslations = async (ids: string[]): Promise<BulkGetResponse<TranslationResponse>> => {
+    if (!authToken) throw new Error('No auth token available');
+    const response = await apiClient.post<BulkGetResponse<TranslationResponse>>('/translations/bulk/get', { ids });
+    return response.data;
+};
+
+export const bulkFavoriteTranslations = async (ids: string[], favorite: boolean = true): Promise<BulkOperationResponse> => {
+    if (!authToken) throw new Error('No auth token available');
+    const response = await apiClient.post<BulkOperationResponse>('/translations/bulk/favorite', { ids, favorite });
+    return response.data;
+};
+
+export const bulkDeleteTranslations = async (ids: string[]): Promise<BulkOperationResponse> => {
+    if (!authToken) throw new Error('No auth token available');
+    const response = await apiClient.post<BulkOperationResponse>('/translations/bulk/delete', { ids });
+    return response.data;
+};
+
 // --- Folder Services ---
 export interface FolderCreatePayload {
     name: string;
@@ -272,7 +381,10 @@ export interface FolderResponse {
     name: string;
     parentFolderId?: string | null;
     createdAt: string; // ISO date string
-    // subFolders and itemCount could be added if API supports them directly
+    // Only present in getFolderTree responses
+    subFolders?: FolderResponse[] | null;
+    itemCount?: number | null;
+    totalItemCount?: number | null;
 }
 
 export const createFolder = async (payload: FolderCreatePayload): Promise<FolderResponse> => {
@@ -284,7 +396,17 @@ export const createFolder = async (payload: FolderCreatePayload): Promise<Folder
 export const getFolders = async (parentFolderId?: string | null): Promise<FolderResponse[]> => {
     if (!authToken) throw new Error('No auth token available');
     const params = parentFolderId ? { parentFolderId } : {};
-    const response = await apiClient.get<FolderResponse[]>('/folders', { params });
+    return getConditional<FolderResponse[]>('/folders', params);
+};
+
+export const getFolderTree = async (): Promise<FolderResponse[]> => {
+    if (!authToken) throw new Error('No auth token available');
+    return getConditional<FolderResponse[]>('/folders/tree');
+};
+
+export const moveFolder = async (folderId: string, parentFolderId: string | null): Promise<FolderResponse> => {
+    if (!authToken) throw new Error('No auth token available');
+    const response = await apiClient.put<FolderResponse>(`/folders/${folderId}/move`, { parentFolderId });
     return response.data;
 };
 
@@ -294,9 +416,9 @@ export const updateFolder = async (folderId: string, payload: { name: string }):
     return response.data;
 };
 
-export const deleteFolder = async (folderId: string): Promise<ApiResponse> => {
+export const deleteFolder = async (folderId: string, recursive: boolean = false): Promise<ApiResponse> => {
     if (!authToken) throw new Error('No auth token available');
-    const response = await apiClient.delete<ApiResponse>(`/folders/${folderId}`);
+    const response = await apiClient.delete<ApiResponse>(`/folders/${folderId}`, { params: recursive ? { recursive } : {} });
     return response.data;
 };
 
@@ -343,17 +465,17 @@ export const createSavedItem = async (payload: SavedItemCreatePayload): Promise<
 export const getSavedItems = async (
     category?: SavedItemCategory,
     folderId?: string | null,
-    page: number = 0,
+    cursor?: string | null,
     size: number = 20,
     isFavorite?: boolean
-): Promise<Page<SavedItemResponse>> => {
+): Promise<CursorPage<SavedItemResponse>> => {
     if (!authToken) throw new Error('No auth token available');
-    const params: any = { page, size };
+    const params: any = { size };
+    if (cursor) params.cursor = cursor;
     if (category) params.category = category;
     if (folderId) params.folderId = folderId;
     if (isFavorite !== undefined) params.isFavorite = isFavorite; // Pass the isFavorite flag to the backend
-    const response = await apiClient.get<Page<SavedItemResponse>>('/saved-items', { params });
-    return response.data;
+    return getConditional<CursorPage<SavedItemResponse>>('/saved-items', params);
 };
 
 export const getSavedItemDetails = async (savedItemId: string): Promise<SavedItemResponse> => {
@@ -374,6 +496,73 @@ export const deleteSavedItem = async (savedItemId: string): Promise<ApiResponse>
     return response.data;
 };
 
+export const bulkGetSavedItems = async (ids: string[]): Promise<BulkGetResponse<SavedItemResponse>> => {
+    if (!authToken) throw new Error('No auth token available');
+    const response = await apiClient.post<BulkGetResponse<SavedItemResponse>>('/saved-items/bulk/get', { ids });
+    return response.data;
+};
+
+export const bulkMoveSavedItems = async (ids: string[], folderId: string | null): Promise<BulkOperationResponse> => {
+    if (!authToken) throw new Error('No auth token available');
+    const response = await apiClient.post<BulkOperationResponse>('/saved-items/bulk/move', { ids, folderId });
+    return response.data;
+};
+
+export const bulkDeleteSavedItems = async (ids: string[]): Promise<BulkOperationResponse> => {
+    if (!authToken) throw new Error('No auth token available');
+    const response = await apiClient.post<BulkOperationResponse>('/saved-items/bulk/delete', { ids });
+    return response.data;
+};
+
+// --- Sync Services ---
+export interface SyncTranslationPayload extends CreateTranslationPayload {
+    clientId: string;
+    favorite?: boolean;
+    createdAt?: string; // ISO date string
+}
+
+export interface SyncSavedItemPayload {
+    clientId: string;
+    translationId?: string;        // server id, or
+    translationClientId?: string;  // clientId of a translation in the same sync
+    category: SavedItemCategory;
+    folderId?: string | null;
+    name?: string;
+    notes?: string;
+    createdAt?: string;
+}
+
+export interface SyncPushResult {
+    type: 'TRANSLATION' | 'SAVED_ITEM';
+    clientId: string;
+    id: string | null;
+    status: 'APPLIED' | 'EXISTING' | 'REJECTED';
+    message?: string | null;
+}
+
+export interface SyncResponse {
+    cursor: string | null;
+    hasMore: boolean;
+    resetRequired: boolean;   // cursor too old: clear synced data and sync again without a cursor
+    translations: TranslationResponse[];
+    savedItems: SavedItemResponse[];
+    folders: FolderResponse[];
+    deleted: { type: 'TRANSLATION' | 'SAVED_ITEM' | 'FOLDER'; id: string }[];
+    pushed: SyncPushResult[];
+}
+
+// Pushes offline changes and pulls everything changed since the cursor; repeat with the returned cursor while hasMore
+export const sync = async (
+    cursor: string | null,
+    translations: SyncTranslationPayload[] = [],
+    savedItems: SyncSavedItemPayload[] = [],
+    limit: number = 500
+): Promise<SyncResponse> => {
+    if (!authToken) throw new Error('No auth token available');
+    const response = await apiClient.post<SyncResponse>('/sync', { cursor, translations, savedItems }, { params: { limit } });
+    return response.data;
+};
+
 // --- Conversation Services ---
 export interface ConversationSessionCreatePayload {
     languageA: string;
@@ -452,4 +641,19 @@ export const deleteConversationSession = async (sessionId: string): Promise<ApiR
     if (!authToken) throw new Error('No auth token available');
     const response = await apiClient.delete<ApiResponse>(`/conversations/${sessionId}`);
     return response.data;
-};
\ No newline at end of file
+};
+// --- Stats Services ---
+export interface UserStats {
+    totalTranslations: number;    // repeats included
+    favorites: number;
+    savedItems: number;
+    byLanguagePair: { sourceLang: string; targetLang: string; count: number }[];   // most used first
+    byInputType: Record<string, number>;
+    byDay: Record<string, number>;   // yyyy-MM-dd, oldest first; days without use are absent
+}
+
+export const getStats = async (days: number = 30): Promise<UserStats> => {
+    if (!authToken) throw new Error('No auth token available');
+    const response = await apiClient.get<UserStats>('/stats', { params: { days } });
+    return response.data;
+};